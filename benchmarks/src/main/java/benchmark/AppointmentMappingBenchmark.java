@@ -0,0 +1,54 @@
+package benchmark;
+
+import DAO.AppointmentDAO;
+import DAO.AppointmentStore;
+import model.Appointment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast appointment rows are mapped: into {@link Appointment} objects by {@link AppointmentDAO}, into the
+ * columnar table of the {@link AppointmentStore}, and one page at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentMappingBenchmark {
+
+    /**
+     * Maps every appointment into an object.
+     */
+    @Benchmark
+    public List<Appointment> getAllAppointments(DatabaseState database) {
+        return AppointmentDAO.getAllAppointments();
+    }
+
+    /**
+     * Loads every appointment into the store's columnar table and indexes, as the first read after login does.
+     */
+    @Benchmark
+    public int loadStore(DatabaseState database) throws SQLException {
+        AppointmentStore.invalidate();
+        return AppointmentStore.count();
+    }
+
+    /**
+     * Maps the first page of the All view.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Appointment> getAppointmentPage(DatabaseState database) throws SQLException {
+        return AppointmentDAO.getAppointmentPage(null, 0, 100);
+    }
+}
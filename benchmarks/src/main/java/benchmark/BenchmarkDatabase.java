@@ -0,0 +1,124 @@
+package benchmark;
+
+import DAO.AppointmentStore;
+import DAO.DataSourceConfig;
+import DAO.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Fills the embedded database of the {@code h2} profile of {@link DataSourceConfig} with generated customers and
+ * appointments, after {@link JDBC} has created its schema and reference data.
+ * <p>
+ * The data is generated from a fixed seed, so every run of a benchmark reads the same rows. Appointments start on the
+ * hour or half hour within business hours over two years, and are spread evenly over the customers, the three
+ * contacts and the two users of the reference data.
+ */
+public final class BenchmarkDatabase {
+
+    private static final long seed = 20240101L;
+    private static final int batchSize = 1000;
+    private static final LocalDateTime firstDay = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int days = 730;
+    private static final String[] types = {"Planning Session", "De-Briefing", "Consultation", "Follow-up"};
+    private static final int[] divisionIds = {4, 9, 31, 42, 46, 61, 62, 67, 68, 101, 102, 103};
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Opens the connection pool on the embedded database, which creates its schema, and adds the generated data.
+     *
+     * @param customers    The number of customers to generate.
+     * @param appointments The number of appointments to generate.
+     * @throws SQLException If the data cannot be inserted.
+     */
+    public static void create(int customers, int appointments) throws SQLException {
+        System.setProperty("schedule.db.profile", DataSourceConfig.h2Profile);
+        System.setProperty("schedule.db.sampleData", "false");
+        JDBC.openPool();
+        try (Connection connection = JDBC.getConnection()) {
+            connection.setAutoCommit(false);
+            Random random = new Random(seed);
+            insertCustomers(connection, random, customers);
+            insertAppointments(connection, random, appointments, customers);
+            connection.commit();
+        }
+        AppointmentStore.invalidate();
+    }
+
+    /**
+     * Drops the database and closes the connection pool.
+     *
+     * @throws SQLException If the database cannot be dropped.
+     */
+    public static void drop() throws SQLException {
+        try (Connection connection = JDBC.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        JDBC.closePool();
+    }
+
+    private static void insertCustomers(Connection connection, Random random, int count) throws SQLException {
+        String insert = "INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, " +
+                "Last_Update, Last_Updated_By, Division_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp created = Timestamp.valueOf(firstDay);
+        try (PreparedStatement ps = connection.prepareStatement(insert)) {
+            for (int i = 1; i <= count; i++) {
+                ps.setString(1, "Customer " + i);
+                ps.setString(2, (100 + random.nextInt(9900)) + " Main Street");
+                ps.setString(3, String.format("%05d", random.nextInt(100_000)));
+                ps.setString(4, String.format("%03d-%03d-%04d", random.nextInt(1000), random.nextInt(1000), random.nextInt(10_000)));
+                ps.setTimestamp(5, created);
+                ps.setString(6, "benchmark");
+                ps.setTimestamp(7, created);
+                ps.setString(8, "benchmark");
+                ps.setInt(9, divisionIds[random.nextInt(divisionIds.length)]);
+                ps.addBatch();
+                if (i % batchSize == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void insertAppointments(Connection connection, Random random, int count, int customers) throws SQLException {
+        String insert = "INSERT INTO appointments (Title, Description, Location, Type, Start, End, Create_Date, " +
+                "Created_By, Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp created = Timestamp.valueOf(firstDay);
+        try (PreparedStatement ps = connection.prepareStatement(insert)) {
+            for (int i = 1; i <= count; i++) {
+                // 13:00 to 20:30 UTC falls within 8:00 a.m. to 10:00 p.m. ET all year round.
+                LocalDateTime start = firstDay.plusDays(random.nextInt(days)).plusHours(13).plusMinutes(30L * random.nextInt(16));
+                LocalDateTime end = start.plusMinutes(30L * (1 + random.nextInt(2)));
+                ps.setString(1, "Appointment " + i);
+                ps.setString(2, "Generated for benchmarks");
+                ps.setString(3, "Room " + (1 + random.nextInt(20)));
+                ps.setString(4, types[random.nextInt(types.length)]);
+                ps.setTimestamp(5, Timestamp.valueOf(start));
+                ps.setTimestamp(6, Timestamp.valueOf(end));
+                ps.setTimestamp(7, created);
+                ps.setString(8, "benchmark");
+                ps.setTimestamp(9, created);
+                ps.setString(10, "benchmark");
+                ps.setInt(11, 1 + random.nextInt(customers));
+                ps.setInt(12, 1 + random.nextInt(2));
+                ps.setInt(13, 1 + random.nextInt(3));
+                ps.addBatch();
+                if (i % batchSize == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import DAO.AppointmentStore;
+import model.Appointment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.BusinessCalendar;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the business-hours check of {@link BusinessCalendar}, applied to every stored appointment as the CSV
+ * importer does for every imported row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusinessHoursBenchmark {
+
+    /**
+     * The UTC times of the stored appointments.
+     */
+    @State(Scope.Thread)
+    public static class Times {
+        LocalDateTime[] starts;
+        LocalDateTime[] ends;
+
+        /**
+         * Reads the times from the store.
+         *
+         * @param database The database, which must exist first.
+         * @throws SQLException If the store cannot be loaded.
+         */
+        @Setup(Level.Trial)
+        public void load(DatabaseState database) throws SQLException {
+            List<Appointment> appointments = AppointmentStore.getAll();
+            starts = new LocalDateTime[appointments.size()];
+            ends = new LocalDateTime[appointments.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = appointments.get(i).getStart();
+                ends[i] = appointments.get(i).getEnd();
+            }
+        }
+    }
+
+    /**
+     * Checks every appointment.
+     *
+     * @return The number of appointments within business hours.
+     */
+    @Benchmark
+    public int isWithinUtc(Times times) {
+        BusinessCalendar calendar = BusinessCalendar.standard();
+        int within = 0;
+        for (int i = 0; i < times.starts.length; i++) {
+            if (calendar.isWithinUtc(times.starts[i], times.ends[i])) {
+                within++;
+            }
+        }
+        return within;
+    }
+}
@@ -0,0 +1,33 @@
+package benchmark;
+
+import DAO.CustomerDAO;
+import model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading every customer row into a {@link Customer}, as the customer screen does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerLoadBenchmark {
+
+    /**
+     * Loads every customer.
+     */
+    @Benchmark
+    public List<Customer> getAllCustomers(DatabaseState database) {
+        return CustomerDAO.getAllCustomers();
+    }
+}
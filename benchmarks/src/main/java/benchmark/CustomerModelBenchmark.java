@@ -0,0 +1,80 @@
+package benchmark;
+
+import model.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of a large customer list whose JavaFX properties are never asked for, as for customers that are
+ * loaded but not displayed, with one whose properties have all been created, as before they were made lazy.
+ * <p>
+ * The list is kept until the operation ends, so the allocation per operation reported by the GC profiler
+ * ({@code gc.alloc.rate.norm}) is the heap the list occupies.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class CustomerModelBenchmark {
+
+    /**
+     * The number of customers in the list.
+     */
+    @Param({"100000", "1000000"})
+    public int customers;
+
+    /**
+     * Builds the list without creating any property.
+     */
+    @Benchmark
+    public List<Customer> lazyProperties() {
+        return build();
+    }
+
+    /**
+     * Builds the list and creates every property of every customer.
+     */
+    @Benchmark
+    public List<Customer> eagerProperties() {
+        List<Customer> list = build();
+        for (Customer customer : list) {
+            customer.customerIdProperty();
+            customer.customerNameProperty();
+            customer.addressProperty();
+            customer.postalCodeProperty();
+            customer.phoneProperty();
+            customer.divisionIdProperty();
+            customer.divisionNameProperty();
+            customer.createDateProperty();
+            customer.createdByProperty();
+            customer.lastUpdateProperty();
+            customer.lastUpdatedByProperty();
+        }
+        return list;
+    }
+
+    private List<Customer> build() {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Customer> list = new ArrayList<>(customers);
+        for (int i = 1; i <= customers; i++) {
+            list.add(new Customer(i, "Customer " + i, i + " Main Street", "01291", "869-908-1875", 31, "New York",
+                    created, "benchmark", created, "benchmark"));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,44 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.SQLException;
+
+/**
+ * The embedded database the benchmarks read, created once per trial with {@link #rows} customers and {@link #rows}
+ * appointments. Run with {@code -p rows=...} to choose other sizes.
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+
+    /**
+     * The number of customers, and of appointments, in the database.
+     */
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    /**
+     * Creates and fills the database.
+     *
+     * @throws SQLException If the database cannot be created.
+     */
+    @Setup(Level.Trial)
+    public void createDatabase() throws SQLException {
+        BenchmarkDatabase.create(rows, rows);
+    }
+
+    /**
+     * Drops the database.
+     *
+     * @throws SQLException If the database cannot be dropped.
+     */
+    @TearDown(Level.Trial)
+    public void dropDatabase() throws SQLException {
+        BenchmarkDatabase.drop();
+    }
+}
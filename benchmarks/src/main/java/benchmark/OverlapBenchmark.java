@@ -0,0 +1,101 @@
+package benchmark;
+
+import DAO.AppointmentStore;
+import model.Appointment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overlap check run before every appointment is saved, answered by the per-customer and per-contact
+ * indexes of the {@link AppointmentStore}, against a scan of every appointment as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapBenchmark {
+
+    private static final int candidateCount = 1024;
+    private static final String[] contacts = {"Anika Costa", "Daniel Garcia", "Li Lee"};
+
+    /**
+     * Candidate appointments spread like the stored ones, about half of which overlap one.
+     */
+    @State(Scope.Thread)
+    public static class Candidates {
+        int[] customerIds = new int[candidateCount];
+        String[] contactNames = new String[candidateCount];
+        LocalDateTime[] starts = new LocalDateTime[candidateCount];
+        LocalDateTime[] ends = new LocalDateTime[candidateCount];
+        Appointment[] stored;
+        int next;
+
+        /**
+         * Loads the store, copies its appointments for the scan and generates the candidates.
+         *
+         * @param database The database, which must exist first.
+         * @throws SQLException If the store cannot be loaded.
+         */
+        @Setup(Level.Trial)
+        public void generate(DatabaseState database) throws SQLException {
+            stored = AppointmentStore.getAll().toArray(new Appointment[0]);
+            Random random = new Random(7);
+            LocalDateTime firstDay = LocalDateTime.of(2024, 1, 1, 13, 0);
+            for (int i = 0; i < candidateCount; i++) {
+                customerIds[i] = 1 + random.nextInt(database.rows);
+                contactNames[i] = contacts[random.nextInt(contacts.length)];
+                starts[i] = firstDay.plusDays(random.nextInt(730)).plusMinutes(30L * random.nextInt(16));
+                ends[i] = starts[i].plusMinutes(30);
+            }
+        }
+    }
+
+    /**
+     * Checks one candidate against the customer's and the contact's appointments.
+     */
+    @Benchmark
+    public Appointment findOverlap(Candidates candidates) throws SQLException {
+        int i = candidates.next++ & (candidateCount - 1);
+        return AppointmentStore.findOverlap(candidates.customerIds[i], candidates.contactNames[i],
+                candidates.starts[i], candidates.ends[i], 0);
+    }
+
+    /**
+     * Checks one candidate by scanning every appointment, the way overlaps were found before the store was indexed.
+     */
+    @Benchmark
+    public Appointment linearScan(Candidates candidates) {
+        int i = candidates.next++ & (candidateCount - 1);
+        int customerId = candidates.customerIds[i];
+        String contact = candidates.contactNames[i];
+        LocalDateTime start = candidates.starts[i];
+        LocalDateTime end = candidates.ends[i];
+        Appointment contactOverlap = null;
+        for (Appointment appointment : candidates.stored) {
+            if (appointment.getStart().isBefore(end) && start.isBefore(appointment.getEnd())) {
+                if (appointment.getCustomerId() == customerId) {
+                    return appointment;
+                }
+                if (contactOverlap == null && contact.equals(appointment.getContact())) {
+                    contactOverlap = appointment;
+                }
+            }
+        }
+        return contactOverlap;
+    }
+}
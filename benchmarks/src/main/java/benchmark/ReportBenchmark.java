@@ -0,0 +1,66 @@
+package benchmark;
+
+import DAO.AppointmentDAO;
+import DAO.AppointmentStore;
+import model.Appointment;
+import model.CustomerSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import service.ReportService;
+
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the three reports as {@link ReportService} builds them, and the type and month counts as the database
+ * aggregates them, for comparison with the {@link AppointmentStore}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    private static final ZoneId zone = ZoneId.of("America/Los_Angeles");
+
+    /**
+     * Counts appointments by type and month from the store.
+     */
+    @Benchmark
+    public List<Map<String, Object>> countByTypeAndMonth(DatabaseState database) throws SQLException {
+        return ReportService.countByTypeAndMonth();
+    }
+
+    /**
+     * Counts appointments by type and month in the database.
+     */
+    @Benchmark
+    public List<Map<String, Object>> countByTypeAndMonthQuery(DatabaseState database) throws SQLException {
+        return AppointmentDAO.getAppointmentCountsByTypeAndMonth();
+    }
+
+    /**
+     * Builds the schedule of one of the three contacts.
+     */
+    @Benchmark
+    public List<Appointment> contactSchedule(DatabaseState database) throws SQLException {
+        return ReportService.contactSchedule(2, zone);
+    }
+
+    /**
+     * Lists the customers of the country most of them are in.
+     */
+    @Benchmark
+    public List<CustomerSummary> customersByCountry(DatabaseState database) {
+        return ReportService.customersByCountry("U.S");
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark;
+
+import DAO.AppointmentStore;
+import model.Appointment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.TimeZoneConverter;
+
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of stored appointments from UTC into the user's time zone, which every screen applies to
+ * the appointments it shows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeZoneConversionBenchmark {
+
+    /**
+     * The stored appointments and a converter for a zone with daylight saving time.
+     */
+    @State(Scope.Thread)
+    public static class Stored {
+        List<Appointment> appointments;
+        TimeZoneConverter converter;
+
+        /**
+         * Reads the appointments from the store.
+         *
+         * @param database The database, which must exist first.
+         * @throws SQLException If the store cannot be loaded.
+         */
+        @Setup(Level.Trial)
+        public void load(DatabaseState database) throws SQLException {
+            // Built once here, so the benchmark measures the conversion rather than building rows from the store.
+            appointments = new ArrayList<>(AppointmentStore.getAll());
+            converter = TimeZoneConverter.of(ZoneId.of("America/Los_Angeles"));
+        }
+    }
+
+    /**
+     * Converts every appointment.
+     */
+    @Benchmark
+    public List<Appointment> toLocal(Stored stored) {
+        return stored.converter.toLocal(stored.appointments);
+    }
+}
@@ -4,13 +4,22 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.Alert;
 import model.Appointment;
+import model.CompactAppointmentTable;
 
 import java.sql.*;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object (DAO) class for managing appointments in the database.
@@ -22,6 +31,10 @@ import java.util.Map;
  */
 public class AppointmentDAO {
 
+    private static final String appointmentColumns = "SELECT a.Appointment_ID, a.Title, a.Description, a.Location, c.Contact_Name AS Contact, a.Type, a.Start, a.End, a.Customer_ID, a.User_ID " +
+            "FROM appointments a " +
+            "JOIN contacts c ON a.Contact_ID = c.Contact_ID";
+
     /**
      * Retrieves all appointments from the database.
      *
@@ -30,50 +43,355 @@ public class AppointmentDAO {
     public static ObservableList<Appointment> getAllAppointments() {
         ObservableList<Appointment> appointments = FXCollections.observableArrayList();
         try {
-            JDBC.ensureConnection();
-            String sql = "SELECT a.Appointment_ID, a.Title, a.Description, a.Location, c.Contact_Name AS Contact, a.Type, a.Start, a.End, a.Customer_ID, a.User_ID " +
-                    "FROM appointments a " +
-                    "JOIN contacts c ON a.Contact_ID = c.Contact_ID";
-            try (Statement stmt = JDBC.connection.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
+            appointments.addAll(loadAllAppointments());
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return appointments;
+    }
+
+    /**
+     * Reads every appointment, reporting failure to the caller instead of returning an empty list.
+     *
+     * @return All appointments, with times in UTC.
+     * @throws SQLException If a database error occurs.
+     */
+    static List<Appointment> loadAllAppointments() throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+        try (Connection connection = JDBC.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.setFetchSize(BatchWriter.chunkSize);
+            try (ResultSet rs = stmt.executeQuery(appointmentColumns)) {
                 while (rs.next()) {
-                    Appointment appointment = new Appointment(
-                            rs.getInt("Appointment_ID"),
-                            rs.getString("Title"),
-                            rs.getString("Description"),
-                            rs.getString("Location"),
-                            rs.getString("Contact"),
-                            rs.getString("Type"),
-                            rs.getTimestamp("Start").toLocalDateTime(),
-                            rs.getTimestamp("End").toLocalDateTime(),
-                            rs.getInt("Customer_ID"),
-                            rs.getInt("User_ID")
-                    );
-                    appointments.add(appointment);
+                    appointments.add(mapAppointment(rs));
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return appointments;
     }
 
     /**
-     * Retrieves the names of all contacts from the database.
+     * Reads every appointment straight into a columnar table, so no {@link Appointment} or {@link LocalDateTime} is
+     * created per row. Used to fill the {@link AppointmentStore}.
+     *
+     * @param table The empty table to fill; the rows take slots 0 up to the returned count.
+     * @return The number of rows read.
+     * @throws SQLException If a database error occurs.
+     */
+    static int loadAllAppointments(CompactAppointmentTable table) throws SQLException {
+        int rows = 0;
+        try (Connection connection = JDBC.getConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.setFetchSize(BatchWriter.chunkSize);
+            try (ResultSet rs = stmt.executeQuery(appointmentColumns)) {
+                while (rs.next()) {
+                    table.add(rs.getInt("Appointment_ID"), rs.getString("Title"), rs.getString("Description"),
+                            rs.getString("Location"), rs.getString("Contact"), rs.getString("Type"),
+                            toEpochSecond(rs.getTimestamp("Start")), toEpochSecond(rs.getTimestamp("End")),
+                            rs.getInt("Customer_ID"), rs.getInt("User_ID"));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Retrieves the appointments that start within a time window, optionally narrowed to a single user, contact
+     * or customer. The window and the filters are applied by the database, so only matching rows are transferred.
+     *
+     * @param windowStart The inclusive start of the window.
+     * @param windowEnd   The exclusive end of the window.
+     * @param userId      The ID of the user to filter by, or null for all users.
+     * @param contactId   The ID of the contact to filter by, or null for all contacts.
+     * @param customerId  The ID of the customer to filter by, or null for all customers.
+     * @return The matching appointments ordered by start time, with times in UTC.
+     * @throws SQLException If a database error occurs.
+     */
+    public static List<Appointment> getAppointmentsInRange(Instant windowStart, Instant windowEnd, Integer userId, Integer contactId, Integer customerId) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+
+        StringBuilder sqlBuilder = new StringBuilder(appointmentColumns);
+        List<Object> values = new ArrayList<>();
+
+        sqlBuilder.append(" WHERE a.Start >= ? AND a.Start < ?");
+        values.add(Timestamp.valueOf(LocalDateTime.ofInstant(windowStart, ZoneOffset.UTC)));
+        values.add(Timestamp.valueOf(LocalDateTime.ofInstant(windowEnd, ZoneOffset.UTC)));
+
+        if (userId != null) {
+            sqlBuilder.append(" AND a.User_ID = ?");
+            values.add(userId);
+        }
+
+        if (contactId != null) {
+            sqlBuilder.append(" AND a.Contact_ID = ?");
+            values.add(contactId);
+        }
+
+        if (customerId != null) {
+            sqlBuilder.append(" AND a.Customer_ID = ?");
+            values.add(customerId);
+        }
+
+        sqlBuilder.append(" ORDER BY a.Start, a.Appointment_ID");
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sqlBuilder.toString())) {
+            for (int i = 0; i < values.size(); i++) {
+                ps.setObject(i + 1, values.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapAppointment(rs));
+                }
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Retrieves the times a contact or a customer is busy within a window, for finding free slots. Each party is
+     * looked up through its own index and only Start and End are transferred; the two result sets are combined by
+     * the database and ordered by start.
+     *
+     * @param windowStart The start of the window; appointments that end after it are included.
+     * @param windowEnd   The end of the window; appointments that start before it are included.
+     * @param contactId   The ID of the contact, or null to ignore contacts.
+     * @param customerId  The ID of the customer, or null to ignore customers.
+     * @return The busy intervals as UTC epoch seconds, flattened to start and end pairs and ordered by start. An
+     * appointment of both the contact and the customer appears twice.
+     * @throws SQLException If a database error occurs.
+     */
+    public static long[] getBusyIntervals(Instant windowStart, Instant windowEnd, Integer contactId, Integer customerId) throws SQLException {
+        String range = " AND End > ? AND Start < ?";
+        StringBuilder sqlBuilder = new StringBuilder();
+        List<Object> values = new ArrayList<>();
+        Timestamp start = Timestamp.valueOf(LocalDateTime.ofInstant(windowStart, ZoneOffset.UTC));
+        Timestamp end = Timestamp.valueOf(LocalDateTime.ofInstant(windowEnd, ZoneOffset.UTC));
+
+        if (contactId != null) {
+            sqlBuilder.append("SELECT Start, End FROM appointments WHERE Contact_ID = ?").append(range);
+            values.add(contactId);
+            values.add(start);
+            values.add(end);
+        }
+        if (customerId != null) {
+            if (sqlBuilder.length() > 0) {
+                sqlBuilder.append(" UNION ALL ");
+            }
+            sqlBuilder.append("SELECT Start, End FROM appointments WHERE Customer_ID = ?").append(range);
+            values.add(customerId);
+            values.add(start);
+            values.add(end);
+        }
+        if (values.isEmpty()) {
+            return new long[0];
+        }
+        sqlBuilder.append(" ORDER BY Start");
+
+        long[] intervals = new long[32];
+        int size = 0;
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sqlBuilder.toString())) {
+            for (int i = 0; i < values.size(); i++) {
+                ps.setObject(i + 1, values.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (size == intervals.length) {
+                        intervals = Arrays.copyOf(intervals, size * 2);
+                    }
+                    intervals[size++] = toEpochSecond(rs.getTimestamp("Start"));
+                    intervals[size++] = toEpochSecond(rs.getTimestamp("End"));
+                }
+            }
+        }
+        return Arrays.copyOf(intervals, size);
+    }
+
+    /**
+     * Retrieves one page of appointments in (Start, Appointment_ID) order using keyset pagination: the page begins
+     * right after the given key, so the database seeks to it through the index instead of skipping rows with OFFSET,
+     * and every page costs the same no matter how deep into the table it is.
+     *
+     * @param afterStart The start of the last appointment of the previous page in UTC, or null for the first page.
+     * @param afterId    The ID of the last appointment of the previous page; ignored for the first page.
+     * @param limit      The maximum number of appointments to return.
+     * @return The appointments of the page, with times in UTC.
+     * @throws SQLException If a database error occurs.
+     */
+    public static List<Appointment> getAppointmentPage(LocalDateTime afterStart, int afterId, int limit) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>(limit);
+        String query = afterStart == null
+                ? appointmentColumns + " ORDER BY a.Start, a.Appointment_ID LIMIT ?"
+                : appointmentColumns + " WHERE a.Start > ? OR (a.Start = ? AND a.Appointment_ID > ?) ORDER BY a.Start, a.Appointment_ID LIMIT ?";
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            int parameter = 1;
+            if (afterStart != null) {
+                ps.setTimestamp(parameter++, Timestamp.valueOf(afterStart));
+                ps.setTimestamp(parameter++, Timestamp.valueOf(afterStart));
+                ps.setInt(parameter++, afterId);
+            }
+            ps.setInt(parameter, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapAppointment(rs));
+                }
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Retrieves the (Start, Appointment_ID) key of the appointment a number of rows after a known key, reading only
+     * the index columns. Used to find where a page begins when the page before it was never loaded: the database
+     * seeks to the nearest key the caller already knows and steps over only the rows between it and the page, so the
+     * cost grows with the distance of the jump rather than with its position in the table.
+     *
+     * @param afterStart The start of a known appointment in UTC, or null to count from the first appointment.
+     * @param afterId    The ID of the known appointment; ignored if {@code afterStart} is null.
+     * @param skip       The number of rows to step over after the known key.
+     * @return The appointment with only its ID and start set, or null if there are not enough rows.
+     * @throws SQLException If a database error occurs.
+     */
+    public static Appointment getAppointmentKeyAfter(LocalDateTime afterStart, int afterId, int skip) throws SQLException {
+        String query = afterStart == null
+                ? "SELECT Appointment_ID, Start FROM appointments ORDER BY Start, Appointment_ID LIMIT 1 OFFSET ?"
+                : "SELECT Appointment_ID, Start FROM appointments WHERE Start > ? OR (Start = ? AND Appointment_ID > ?) " +
+                "ORDER BY Start, Appointment_ID LIMIT 1 OFFSET ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            int parameter = 1;
+            if (afterStart != null) {
+                ps.setTimestamp(parameter++, Timestamp.valueOf(afterStart));
+                ps.setTimestamp(parameter++, Timestamp.valueOf(afterStart));
+                ps.setInt(parameter++, afterId);
+            }
+            ps.setInt(parameter, skip);
+            return readKey(ps);
+        }
+    }
+
+    /**
+     * Retrieves the (Start, Appointment_ID) key of the appointment a number of rows before the last one, reading only
+     * the index columns. The index is read backwards, so a jump near the end of the table steps over only the rows
+     * after the page.
+     *
+     * @param skip The number of rows to step over before the last appointment; 0 for the last appointment itself.
+     * @return The appointment with only its ID and start set, or null if there are not enough rows.
+     * @throws SQLException If a database error occurs.
+     */
+    public static Appointment getAppointmentKeyFromEnd(int skip) throws SQLException {
+        String query = "SELECT Appointment_ID, Start FROM appointments ORDER BY Start DESC, Appointment_ID DESC LIMIT 1 OFFSET ?";
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setInt(1, skip);
+            return readKey(ps);
+        }
+    }
+
+    /**
+     * Runs a key lookup and reads the single row it returns.
+     *
+     * @param ps The prepared lookup, with its parameters set.
+     * @return The appointment with only its ID and start set, or null if there is no row.
+     * @throws SQLException If a database error occurs.
+     */
+    private static Appointment readKey(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            return new Appointment(rs.getInt("Appointment_ID"), null, null, null, null, null,
+                    rs.getTimestamp("Start").toLocalDateTime(), null, -1, -1);
+        }
+    }
+
+    /**
+     * Counts all appointments.
+     *
+     * @return The number of appointments.
+     * @throws SQLException If a database error occurs.
+     */
+    public static int countAppointments() throws SQLException {
+        try (Connection connection = JDBC.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM appointments")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Retrieves the appointments with the given IDs. IDs that no longer exist are skipped.
+     *
+     * @param appointmentIds The IDs of the appointments.
+     * @return A list of the appointments found, with times in UTC.
+     * @throws SQLException If a database error occurs.
+     */
+    public static List<Appointment> getAppointmentsByIds(Collection<Integer> appointmentIds) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+        if (appointmentIds.isEmpty()) {
+            return appointments;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(appointmentIds.size(), "?"));
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(appointmentColumns + " WHERE a.Appointment_ID IN (" + placeholders + ")")) {
+            int parameter = 1;
+            for (int appointmentId : appointmentIds) {
+                ps.setInt(parameter++, appointmentId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    appointments.add(mapAppointment(rs));
+                }
+            }
+        }
+        return appointments;
+    }
+
+    /**
+     * Converts a UTC timestamp read from the database to epoch seconds.
+     *
+     * @param utcTimestamp The timestamp, holding a UTC date and time, or null.
+     * @return The epoch seconds, or {@link Long#MIN_VALUE} for null.
+     */
+    private static long toEpochSecond(Timestamp utcTimestamp) {
+        return utcTimestamp == null ? Long.MIN_VALUE : utcTimestamp.toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Builds an appointment from the current row of a result set selected with {@code appointmentColumns}.
+     *
+     * @param rs The result set positioned on the row to read.
+     * @return The appointment for the row.
+     * @throws SQLException If a column cannot be read.
+     */
+    private static Appointment mapAppointment(ResultSet rs) throws SQLException {
+        return new Appointment(
+                rs.getInt("Appointment_ID"),
+                rs.getString("Title"),
+                rs.getString("Description"),
+                rs.getString("Location"),
+                rs.getString("Contact"),
+                rs.getString("Type"),
+                rs.getTimestamp("Start").toLocalDateTime(),
+                rs.getTimestamp("End").toLocalDateTime(),
+                rs.getInt("Customer_ID"),
+                rs.getInt("User_ID")
+        );
+    }
+
+    /**
+     * Retrieves the names of all contacts from the reference cache.
      *
      * @return An ObservableList containing the names of all contacts.
      */
     public static ObservableList<String> getAllContactNames() {
         ObservableList<String> contactNames = FXCollections.observableArrayList();
         try {
-            JDBC.ensureConnection();
-            String sql = "SELECT Contact_Name FROM contacts";
-            try (Statement stmt = JDBC.connection.createStatement();
-                 ResultSet rs = stmt.executeQuery(sql)) {
-                while (rs.next()) {
-                    contactNames.add(rs.getString("Contact_Name"));
-                }
-            }
+            contactNames.addAll(ReferenceCache.getContactNames());
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -81,23 +399,14 @@ public class AppointmentDAO {
     }
 
     /**
-     * Retrieves the ID of a contact by its name.
+     * Retrieves the ID of a contact by its name from the reference cache.
      *
      * @param contactName The name of the contact.
      * @return The ID of the contact, or -1 if not found.
      */
     private static int getContactIdByName(String contactName) {
-        JDBC.ensureConnection();
-        String query = "SELECT Contact_ID FROM contacts WHERE Contact_Name = ?";
-        try (PreparedStatement preparedStatement = JDBC.connection.prepareStatement(query)) {
-            preparedStatement.setString(1, contactName);
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getInt("Contact_ID");
-                } else {
-                    return -1;
-                }
-            }
+        try {
+            return ReferenceCache.getContactId(contactName);
         } catch (SQLException e) {
             System.out.println("Error getting contact ID: " + e.getMessage());
             return -1;
@@ -105,7 +414,8 @@ public class AppointmentDAO {
     }
 
     /**
-     * Retrieves a report of appointment counts by type and month from the database.
+     * Retrieves a report of appointment counts by type and month from the database. Occurrences of recurring series
+     * are counted too, up to a year ahead for series that never end.
      *
      * @return A list containing a map for each row of the report.
      * @throws SQLException If a database error occurs.
@@ -114,7 +424,8 @@ public class AppointmentDAO {
         String query = "SELECT Type, MONTHNAME(Start) as Month, COUNT(*) as Count FROM appointments GROUP BY Type, Month ORDER BY Month";
         List<Map<String, Object>> result = new ArrayList<>();
 
-        try (Statement stmt = JDBC.connection.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
+        try (Connection connection = JDBC.getConnection();
+             Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
                 Map<String, Object> row = new HashMap<>();
                 row.put("Type", rs.getString("Type"));
@@ -123,21 +434,53 @@ public class AppointmentDAO {
                 result.add(row);
             }
         }
+        return addSeriesCounts(result);
+    }
+
+    /**
+     * Adds the occurrences of recurring series, which have no rows of their own, to a report of appointment counts by
+     * type and month, and sorts the report by month.
+     *
+     * @param result The report rows, each with a Type, a Month and a Count.
+     * @return The same list, with the series occurrences counted in.
+     * @throws SQLException If the series cannot be read.
+     */
+    public static List<Map<String, Object>> addSeriesCounts(List<Map<String, Object>> result) throws SQLException {
+        Map<String, Map<String, Integer>> seriesCounts = SeriesDAO.countOccurrencesByTypeAndMonth();
+        for (Map<String, Object> row : result) {
+            Map<String, Integer> byMonth = seriesCounts.get((String) row.get("Type"));
+            Integer extra = byMonth == null ? null : byMonth.remove((String) row.get("Month"));
+            if (extra != null) {
+                row.put("Count", (int) row.get("Count") + extra);
+            }
+        }
+        for (Map.Entry<String, Map<String, Integer>> byType : seriesCounts.entrySet()) {
+            for (Map.Entry<String, Integer> byMonth : byType.getValue().entrySet()) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("Type", byType.getKey());
+                row.put("Month", byMonth.getKey());
+                row.put("Count", byMonth.getValue());
+                result.add(row);
+            }
+        }
+        result.sort(Comparator.comparing(row -> (String) row.get("Month")));
         return result;
     }
 
     /**
-     * Retrieves appointments associated with a specific contact from the database.
+     * Retrieves appointments associated with a specific contact from the database, together with the occurrences of
+     * the contact's recurring series.
      *
      * @param contactId The ID of the contact.
-     * @return A list of appointments associated with the contact.
+     * @return A list of appointments associated with the contact, ordered by start.
      * @throws SQLException If a database error occurs.
      */
     public static List<Appointment> getAppointmentsByContact(int contactId) throws SQLException {
         String query = "SELECT a.Appointment_ID, a.Title, a.Description, a.Location, a.Type, c.Contact_Name, a.Start, a.End, a.Customer_ID, a.User_ID FROM appointments a JOIN contacts c ON a.Contact_ID = c.Contact_ID WHERE a.Contact_ID = ?";
         List<Appointment> appointments = new ArrayList<>();
 
-        try (PreparedStatement pstmt = JDBC.connection.prepareStatement(query)) {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement pstmt = connection.prepareStatement(query)) {
             pstmt.setInt(1, contactId);
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
@@ -157,8 +500,8 @@ public class AppointmentDAO {
                         title,
                         description,
                         location,
-                        type,
                         contact,
+                        type,
                         start,
                         end,
                         customerId,
@@ -167,19 +510,20 @@ public class AppointmentDAO {
                 appointments.add(appointment);
             }
         }
+        appointments.addAll(SeriesDAO.getOccurrencesByContact(contactId));
+        appointments.sort(Comparator.comparing(Appointment::getStart));
         return appointments;
     }
 
     /**
-     * Adds a new appointment to the database.
+     * Adds a new appointment to the database. The ID is assigned by the database's auto-increment column, so
+     * concurrent clients never pick the same ID and no table scan is needed.
      *
      * @param userId      The ID of the user creating the appointment.
-     * @param appointment The appointment to add.
+     * @param appointment The appointment to add. On success its ID is set to the ID it was stored with.
      * @return True if the appointment was added successfully, false otherwise.
      */
     public static boolean addAppointment(int userId, Appointment appointment) {
-        JDBC.ensureConnection();
-
         if (!doesUserExist(userId)) {
             System.out.println("User with ID " + userId + " does not exist.");
             return false;
@@ -191,35 +535,33 @@ public class AppointmentDAO {
             return false;
         }
 
-        String getAllIdsQuery = "SELECT Appointment_ID FROM appointments ORDER BY Appointment_ID";
-        String insertAppointmentQuery = "INSERT INTO appointments (Appointment_ID, Title, Description, Location, Contact_ID, Type, Start, End, Customer_ID, User_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (Statement getAllIdsStatement = JDBC.connection.createStatement();
-             ResultSet resultSet = getAllIdsStatement.executeQuery(getAllIdsQuery)) {
-
-            int newId = 1;
-            while (resultSet.next()) {
-                int currentId = resultSet.getInt("Appointment_ID");
-                if (currentId == newId) {
-                    newId++;
-                } else {
-                    break;
+        String insertAppointmentQuery = "INSERT INTO appointments (Title, Description, Location, Contact_ID, Type, Start, End, Customer_ID, User_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement insertAppointmentStatement = connection.prepareStatement(insertAppointmentQuery, Statement.RETURN_GENERATED_KEYS)) {
+            insertAppointmentStatement.setString(1, appointment.getTitle());
+            insertAppointmentStatement.setString(2, appointment.getDescription());
+            insertAppointmentStatement.setString(3, appointment.getLocation());
+            insertAppointmentStatement.setInt(4, contactId);
+            insertAppointmentStatement.setString(5, appointment.getType());
+            insertAppointmentStatement.setTimestamp(6, Timestamp.valueOf(appointment.getStart()));
+            insertAppointmentStatement.setTimestamp(7, Timestamp.valueOf(appointment.getEnd()));
+            insertAppointmentStatement.setInt(8, appointment.getCustomerId());
+            insertAppointmentStatement.setInt(9, userId);
+
+            insertAppointmentStatement.executeUpdate();
+
+            try (ResultSet generatedKeys = insertAppointmentStatement.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    System.out.println("Error adding appointment: no ID was generated.");
+                    return false;
                 }
-            }
-
-            try (PreparedStatement insertAppointmentStatement = JDBC.connection.prepareStatement(insertAppointmentQuery)) {
-                insertAppointmentStatement.setInt(1, newId);
-                insertAppointmentStatement.setString(2, appointment.getTitle());
-                insertAppointmentStatement.setString(3, appointment.getDescription());
-                insertAppointmentStatement.setString(4, appointment.getLocation());
-                insertAppointmentStatement.setInt(5, contactId);
-                insertAppointmentStatement.setString(6, appointment.getType());
-                insertAppointmentStatement.setTimestamp(7, Timestamp.valueOf(appointment.getStart()));
-                insertAppointmentStatement.setTimestamp(8, Timestamp.valueOf(appointment.getEnd()));
-                insertAppointmentStatement.setInt(9, appointment.getCustomerId());
-                insertAppointmentStatement.setInt(10, userId);
-
-                insertAppointmentStatement.executeUpdate();
+                int newId = generatedKeys.getInt(1);
+                appointment.setAppointmentId(newId);
+                ChangeLog.record(connection, ChangeLog.appointments, newId, ChangeLog.insert);
+                Appointment stored = appointment.withTimes(appointment.getStart(), appointment.getEnd());
+                stored.setUserId(userId);
+                AppointmentStore.put(stored);
 
                 System.out.println("Appointment added successfully with ID: " + newId);
                 return true;
@@ -232,19 +574,163 @@ public class AppointmentDAO {
     }
 
     /**
-     * Checks if a user exists in the database.
+     * Adds many appointments at once using JDBC batching. Each appointment is stored for the user returned by its
+     * {@code getUserId()}. Users and contacts are resolved once per distinct value for the whole batch, rows that fail
+     * validation are rejected without reaching the database, and the rest are written in chunks, each in its own
+     * transaction.
+     *
+     * @param appointments The appointments to add. On success each one's ID is set to the ID it was stored with.
+     * @return The number of appointments added and the reason each of the others was rejected.
+     */
+    public static BatchResult addAppointments(List<Appointment> appointments) {
+        String insertAppointmentQuery = "INSERT INTO appointments (Title, Description, Location, Contact_ID, Type, Start, End, Customer_ID, User_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        BatchResult result = new BatchResult();
+        List<Appointment> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        Map<String, Integer> contactIds = new HashMap<>();
+        if (!resolveBatch(appointments, contactIds, valid, validIndexes, result)) {
+            return result;
+        }
+
+        BatchWriter.write(insertAppointmentQuery, valid, validIndexes, (ps, appointment) -> {
+            ps.setString(1, appointment.getTitle());
+            ps.setString(2, appointment.getDescription());
+            ps.setString(3, appointment.getLocation());
+            ps.setInt(4, contactIds.get(appointment.getContact()));
+            ps.setString(5, appointment.getType());
+            ps.setTimestamp(6, Timestamp.valueOf(appointment.getStart()));
+            ps.setTimestamp(7, Timestamp.valueOf(appointment.getEnd()));
+            ps.setInt(8, appointment.getCustomerId());
+            ps.setInt(9, appointment.getUserId());
+        }, Appointment::setAppointmentId, "Appointment was not inserted.",
+                new BatchWriter.ChangeTarget<>(ChangeLog.appointments, ChangeLog.insert, Appointment::getAppointmentId), result);
+        AppointmentStore.putAll(written(valid, validIndexes, result));
+
+        System.out.println("Bulk appointment insert: " + result);
+        return result;
+    }
+
+    /**
+     * Updates many appointments at once using JDBC batching. Unlike {@link #updateAppointment(int, Appointment)},
+     * every column is written, so each appointment must be complete. Users and contacts are resolved once per distinct
+     * value for the whole batch, and rows are written in chunks, each in its own transaction.
+     *
+     * @param appointments The appointments to update, identified by their IDs.
+     * @return The number of appointments updated and the reason each of the others was rejected.
+     */
+    public static BatchResult updateAppointments(List<Appointment> appointments) {
+        String updateAppointmentQuery = "UPDATE appointments SET Title = ?, Description = ?, Location = ?, Contact_ID = ?, Type = ?, Start = ?, End = ?, Customer_ID = ?, User_ID = ? WHERE Appointment_ID = ?";
+        BatchResult result = new BatchResult();
+        List<Appointment> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        Map<String, Integer> contactIds = new HashMap<>();
+        if (!resolveBatch(appointments, contactIds, valid, validIndexes, result)) {
+            return result;
+        }
+
+        BatchWriter.write(updateAppointmentQuery, valid, validIndexes, (ps, appointment) -> {
+            ps.setString(1, appointment.getTitle());
+            ps.setString(2, appointment.getDescription());
+            ps.setString(3, appointment.getLocation());
+            ps.setInt(4, contactIds.get(appointment.getContact()));
+            ps.setString(5, appointment.getType());
+            ps.setTimestamp(6, Timestamp.valueOf(appointment.getStart()));
+            ps.setTimestamp(7, Timestamp.valueOf(appointment.getEnd()));
+            ps.setInt(8, appointment.getCustomerId());
+            ps.setInt(9, appointment.getUserId());
+            ps.setInt(10, appointment.getAppointmentId());
+        }, null, "No appointment found with this ID.",
+                new BatchWriter.ChangeTarget<>(ChangeLog.appointments, ChangeLog.update, Appointment::getAppointmentId), result);
+        AppointmentStore.putAll(written(valid, validIndexes, result));
+
+        System.out.println("Bulk appointment update: " + result);
+        return result;
+    }
+
+    /**
+     * Picks the rows of a bulk write that reached the database, so they can be applied to the {@link AppointmentStore}.
+     *
+     * @param valid        The rows that were sent to the database.
+     * @param validIndexes The input index of each of those rows.
+     * @param result       The outcome of the write, with an error for every row that was not written.
+     * @return The rows that were written.
+     */
+    private static List<Appointment> written(List<Appointment> valid, List<Integer> validIndexes, BatchResult result) {
+        Set<Integer> failed = new HashSet<>();
+        for (BatchResult.RowError error : result.getErrors()) {
+            failed.add(error.getRowIndex());
+        }
+        List<Appointment> written = new ArrayList<>();
+        for (int i = 0; i < valid.size(); i++) {
+            if (!failed.contains(validIndexes.get(i))) {
+                written.add(valid.get(i));
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Validates the rows of a bulk write and resolves their contacts and users, looking up each distinct value once.
+     *
+     * @param appointments The rows to validate.
+     * @param contactIds   Filled with the ID of every contact name used by a valid row.
+     * @param valid        Filled with the rows that passed validation.
+     * @param validIndexes Filled with the input index of each valid row.
+     * @param result       Receives an error for every row that failed validation.
+     * @return False if the reference tables could not be read, in which case every row is rejected.
+     */
+    private static boolean resolveBatch(List<Appointment> appointments, Map<String, Integer> contactIds,
+                                        List<Appointment> valid, List<Integer> validIndexes, BatchResult result) {
+        Map<Integer, Boolean> knownUsers = new HashMap<>();
+        try {
+            for (int i = 0; i < appointments.size(); i++) {
+                Appointment appointment = appointments.get(i);
+                if (appointment.getStart() == null || appointment.getEnd() == null) {
+                    result.recordError(i, "Start and end times are required.");
+                    continue;
+                }
+                Integer contactId = contactIds.get(appointment.getContact());
+                if (contactId == null) {
+                    contactId = ReferenceCache.getContactId(appointment.getContact());
+                    if (contactId != -1) {
+                        contactIds.put(appointment.getContact(), contactId);
+                    }
+                }
+                if (contactId == -1) {
+                    result.recordError(i, "Contact with name " + appointment.getContact() + " does not exist.");
+                    continue;
+                }
+                Boolean userExists = knownUsers.get(appointment.getUserId());
+                if (userExists == null) {
+                    userExists = ReferenceCache.userExists(appointment.getUserId());
+                    knownUsers.put(appointment.getUserId(), userExists);
+                }
+                if (!userExists) {
+                    result.recordError(i, "User with ID " + appointment.getUserId() + " does not exist.");
+                    continue;
+                }
+                valid.add(appointment);
+                validIndexes.add(i);
+            }
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Error resolving contacts and users: " + e.getMessage());
+            for (int i = 0; i < appointments.size(); i++) {
+                result.recordError(i, e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Checks if a user exists, using the reference cache.
      *
      * @param userId The ID of the user.
      * @return True if the user exists, false otherwise.
      */
     private static boolean doesUserExist(int userId) {
-        JDBC.ensureConnection();
-        String query = "SELECT User_ID FROM users WHERE User_ID = ?";
-        try (PreparedStatement preparedStatement = JDBC.connection.prepareStatement(query)) {
-            preparedStatement.setInt(1, userId);
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                return resultSet.next();
-            }
+        try {
+            return ReferenceCache.userExists(userId);
         } catch (SQLException e) {
             System.out.println("Error checking user existence: " + e.getMessage());
             return false;
@@ -259,8 +745,6 @@ public class AppointmentDAO {
      * @return True if the appointment was updated successfully, false otherwise.
      */
     public static boolean updateAppointment(int userId, Appointment appointment) {
-        JDBC.ensureConnection();
-
         StringBuilder sqlBuilder = new StringBuilder("UPDATE appointments SET ");
         List<Object> values = new ArrayList<>();
 
@@ -321,12 +805,16 @@ public class AppointmentDAO {
 
         String sql = sqlBuilder.toString();
 
-        try (PreparedStatement ps = JDBC.connection.prepareStatement(sql)) {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
             for (int i = 0; i < values.size(); i++) {
                 ps.setObject(i + 1, values.get(i));
             }
 
-            ps.executeUpdate();
+            if (ps.executeUpdate() > 0) {
+                ChangeLog.record(connection, ChangeLog.appointments, appointment.getAppointmentId(), ChangeLog.update);
+                AppointmentStore.merge(userId, appointment);
+            }
             return true;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -341,20 +829,20 @@ public class AppointmentDAO {
      * @return True if the appointment was deleted successfully, false otherwise.
      */
     public static boolean deleteAppointment(int appointmentId) {
-        JDBC.ensureConnection();
-
         String selectQuery = "SELECT Type FROM appointments WHERE Appointment_ID=?";
         String deleteQuery = "DELETE FROM appointments WHERE Appointment_ID=?";
-        try (PreparedStatement selectStmt = JDBC.connection.prepareStatement(selectQuery)) {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement selectStmt = connection.prepareStatement(selectQuery)) {
             selectStmt.setInt(1, appointmentId);
             try (ResultSet rs = selectStmt.executeQuery()) {
                 if (rs.next()) {
                     String type = rs.getString("Type");
-                    try (PreparedStatement deleteStmt = JDBC.connection.prepareStatement(deleteQuery)) {
+                    try (PreparedStatement deleteStmt = connection.prepareStatement(deleteQuery)) {
                         deleteStmt.setInt(1, appointmentId);
                         int affectedRows = deleteStmt.executeUpdate();
                         if (affectedRows > 0) {
-                            showAlert("Deletion Successful");
+                            ChangeLog.record(connection, ChangeLog.appointments, appointmentId, ChangeLog.delete);
+                            AppointmentStore.removeAll(Collections.singletonList(appointmentId));
                             return true;
                         } else {
                             return false;
@@ -385,9 +873,8 @@ public class AppointmentDAO {
 
         String query = "SELECT appointment_id, start FROM appointments WHERE user_id = ? AND start BETWEEN ? AND ?";
 
-        JDBC.ensureConnection();
-
-        try (PreparedStatement statement = JDBC.openConnection().prepareStatement(query)) {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, userId);
             statement.setTimestamp(2, Timestamp.valueOf(windowStart));
             statement.setTimestamp(3, Timestamp.valueOf(windowEnd));
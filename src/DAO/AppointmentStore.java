@@ -0,0 +1,568 @@
+package DAO;
+
+import model.Appointment;
+import model.CompactAppointmentTable;
+import model.CompactAppointments;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Client-side copy of the appointments table, so views, overlap checks and reports are answered from memory instead
+ * of re-reading the same rows from the database on every view switch.
+ * <p>
+ * The table is read once, the first time any appointment is asked for. After that the store is kept current by
+ * write-through: the mutation methods of {@link AppointmentDAO} and {@link CustomerDAO} apply each change here as soon
+ * as it is committed, and changes made by other clients arrive through the {@link ChangeFeed}.
+ * <p>
+ * The rows themselves are held in a {@link CompactAppointmentTable}, with times as epoch seconds and the contact, type
+ * and location as dictionary codes, instead of one {@link Appointment} with two {@code LocalDateTime}s and its own
+ * strings per row; the table also finds the slot of an appointment ID. The indexes hold only a small key per row,
+ * naming its start, its appointment ID and its slot in the table: a {@link NavigableSet} of the keys ordered by start
+ * time and appointment ID, with the same ordering kept per customer, per contact and per user, so a range query on any
+ * of them is a {@code subSet} view: O(log n) to find the first row plus the rows returned. Each per-customer,
+ * per-contact and per-user index also knows the length of its longest appointment, which bounds how far back the
+ * overlap check has to look in that index alone.
+ * <p>
+ * Rows are returned as new objects built from the table, so callers may change what they receive. Reads share a read
+ * lock; loading and writes take the write lock, which also makes a write that commits while the table is being read
+ * wait until the load has finished, so it is never lost. Every write moves {@link DataVersion#getAppointmentVersion()}.
+ */
+public final class AppointmentStore {
+
+    private static final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final CompactAppointmentTable table = new CompactAppointmentTable();
+    private static final NavigableSet<Key> byStart = new TreeSet<>();
+    private static final Map<Integer, Index> byCustomer = new HashMap<>();
+    private static final Map<String, Index> byContact = new HashMap<>();
+    private static final Map<Integer, Index> byUser = new HashMap<>();
+    private static boolean loaded;
+
+    private AppointmentStore() {
+    }
+
+    /**
+     * Retrieves every appointment as an immutable columnar copy, so a snapshot of the whole store costs a few arrays
+     * rather than one object per row.
+     *
+     * @return All appointments ordered by start, with times in UTC.
+     * @throws SQLException If the store has to be loaded and the query fails.
+     */
+    public static CompactAppointments getAll() throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            int[] slots = new int[byStart.size()];
+            int count = 0;
+            for (Key key : byStart) {
+                slots[count++] = key.slot;
+            }
+            return table.toCompact(slots, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the appointments that start within a window, optionally narrowed to a single user, contact or
+     * customer. The narrowest index that applies is used, and the window is a range of it.
+     *
+     * @param windowStart The inclusive start of the window.
+     * @param windowEnd   The exclusive end of the window.
+     * @param userId      The ID of the user to filter by, or null for all users.
+     * @param contactId   The ID of the contact to filter by, or null for all contacts.
+     * @param customerId  The ID of the customer to filter by, or null for all customers.
+     * @return The matching appointments ordered by start, with times in UTC.
+     * @throws SQLException If the store or the contacts have to be loaded and the query fails.
+     */
+    public static List<Appointment> getInRange(Instant windowStart, Instant windowEnd, Integer userId, Integer contactId,
+                                               Integer customerId) throws SQLException {
+        String contact = contactId == null ? null : ReferenceCache.getContactName(contactId);
+        if (contactId != null && contact == null) {
+            return new ArrayList<>();
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            NavigableSet<Key> index;
+            if (customerId != null) {
+                index = rows(byCustomer.get(customerId));
+            } else if (contact != null) {
+                index = rows(byContact.get(contact));
+            } else if (userId != null) {
+                index = rows(byUser.get(userId));
+            } else {
+                index = byStart;
+            }
+            List<Appointment> result = new ArrayList<>();
+            if (index == null || !windowEnd.isAfter(windowStart)) {
+                return result;
+            }
+            Key from = new Key(windowStart.getEpochSecond(), Integer.MIN_VALUE);
+            Key to = new Key(windowEnd.getEpochSecond(), Integer.MIN_VALUE);
+            for (Key key : index.subSet(from, true, to, false)) {
+                if ((userId == null || table.getUserId(key.slot) == userId)
+                        && (contact == null || contact.equals(table.getContact(key.slot)))
+                        && (customerId == null || table.getCustomerId(key.slot) == customerId)) {
+                    result.add(table.get(key.slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a page of appointments in (start, appointment ID) order after a key, like
+     * {@link AppointmentDAO#getAppointmentPage(LocalDateTime, int, int)}.
+     *
+     * @param afterStart The start of the last row of the previous page, or null for the first page.
+     * @param afterId    The ID of the last row of the previous page.
+     * @param limit      The maximum number of rows.
+     * @return Up to {@code limit} appointments, with times in UTC.
+     * @throws SQLException If the store has to be loaded and the query fails.
+     */
+    public static List<Appointment> getPage(LocalDateTime afterStart, int afterId, int limit) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Collection<Key> rows = afterStart == null
+                    ? byStart
+                    : byStart.tailSet(new Key(afterStart.toEpochSecond(ZoneOffset.UTC), afterId), false);
+            List<Appointment> page = new ArrayList<>(limit);
+            for (Key key : rows) {
+                if (page.size() == limit) {
+                    break;
+                }
+                page.add(table.get(key.slot));
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds an appointment of a customer or a contact that overlaps a time range, as the overlap check for a new or
+     * changed appointment. Only the rows of that customer or contact that start between the range's start less the
+     * longest appointment of that customer or contact and the range's end are looked at, so a long appointment
+     * widens the check only for its own customer and contact.
+     *
+     * @param customerId    The ID of the customer.
+     * @param contact       The name of the contact, or null to check only the customer.
+     * @param startUTC      The start of the range, in UTC.
+     * @param endUTC        The end of the range, in UTC, exclusive.
+     * @param appointmentId The ID of the appointment being changed, which is not an overlap with itself, or 0.
+     * @return An overlapping appointment of the customer, or else of the contact, or null if there is none.
+     * @throws SQLException If the store has to be loaded and the query fails.
+     */
+    public static Appointment findOverlap(int customerId, String contact, LocalDateTime startUTC, LocalDateTime endUTC,
+                                          int appointmentId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Key overlap = findOverlap(byCustomer.get(customerId), startUTC, endUTC, appointmentId);
+            if (overlap == null && contact != null) {
+                overlap = findOverlap(byContact.get(contact), startUTC, endUTC, appointmentId);
+            }
+            return overlap == null ? null : table.get(overlap.slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts all appointments.
+     *
+     * @return The number of appointments.
+     * @throws SQLException If the store has to be loaded and the query fails.
+     */
+    public static int count() throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return byStart.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves every appointment of a contact.
+     *
+     * @param contactId The ID of the contact.
+     * @return The contact's appointments ordered by start, with times in UTC.
+     * @throws SQLException If the store or the contacts have to be loaded and the query fails.
+     */
+    public static List<Appointment> getByContact(int contactId) throws SQLException {
+        String contact = ReferenceCache.getContactName(contactId);
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Index index = contact == null ? null : byContact.get(contact);
+            return index == null ? new ArrayList<>() : rowsOf(index.rows);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the appointments per type and per month of their UTC start, like the report query it replaces.
+     *
+     * @return A map with a Type, a Month and a Count for each type and month that has appointments.
+     * @throws SQLException If the store has to be loaded and the query fails.
+     */
+    public static List<Map<String, Object>> countByTypeAndMonth() throws SQLException {
+        ensureLoaded();
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Key key : byStart) {
+                String month = LocalDate.ofEpochDay(Math.floorDiv(key.start, 86400L)).getMonth()
+                        .getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+                counts.computeIfAbsent(table.getType(key.slot), type -> new HashMap<>()).merge(month, 1, Integer::sum);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Integer>> byType : counts.entrySet()) {
+            for (Map.Entry<String, Integer> byMonth : byType.getValue().entrySet()) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("Type", byType.getKey());
+                row.put("Month", byMonth.getKey());
+                row.put("Count", byMonth.getValue());
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the stored appointments, so the next read loads the table again.
+     */
+    public static void invalidate() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            loaded = false;
+            DataVersion.appointmentsChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores an appointment that was added or fully rewritten. Nothing happens before the store is loaded, since the
+     * load will read the row from the database.
+     *
+     * @param appointment The appointment as committed, with times in UTC.
+     */
+    static void put(Appointment appointment) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                index(appointment);
+            }
+            DataVersion.appointmentsChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores appointments that were added or fully rewritten by a bulk write.
+     *
+     * @param appointments The appointments as committed, with times in UTC.
+     */
+    static void putAll(Collection<Appointment> appointments) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                for (Appointment appointment : appointments) {
+                    index(appointment);
+                }
+            }
+            DataVersion.appointmentsChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a partial update written by {@link AppointmentDAO#updateAppointment(int, Appointment)}: the fields that
+     * are set replace the stored ones and the others are kept, as in the UPDATE statement.
+     *
+     * @param userId  The ID of the user the appointment was reassigned to, or 0 to keep it.
+     * @param changes The updated fields, with times in UTC.
+     */
+    static void merge(int userId, Appointment changes) {
+        lock.writeLock().lock();
+        try {
+            int slot = loaded ? table.slotOf(changes.getAppointmentId()) : -1;
+            if (slot < 0) {
+                return;
+            }
+            Appointment current = table.get(slot);
+            Appointment merged = new Appointment(current.getAppointmentId(),
+                    changes.getTitle() != null ? changes.getTitle() : current.getTitle(),
+                    changes.getDescription() != null ? changes.getDescription() : current.getDescription(),
+                    changes.getLocation() != null ? changes.getLocation() : current.getLocation(),
+                    changes.getContact() != null ? changes.getContact() : current.getContact(),
+                    changes.getType() != null ? changes.getType() : current.getType(),
+                    changes.getStart() != null ? changes.getStart() : current.getStart(),
+                    changes.getEnd() != null ? changes.getEnd() : current.getEnd(),
+                    changes.getCustomerId() != 0 ? changes.getCustomerId() : current.getCustomerId(),
+                    userId != 0 ? userId : current.getUserId());
+            index(merged);
+            DataVersion.appointmentsChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes deleted appointments.
+     *
+     * @param appointmentIds The IDs of the deleted appointments.
+     */
+    static void removeAll(Collection<Integer> appointmentIds) {
+        lock.writeLock().lock();
+        try {
+            for (int appointmentId : appointmentIds) {
+                unindex(appointmentId);
+            }
+            DataVersion.appointmentsChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the appointment changes another client made.
+     *
+     * @param changes The changes delivered by the {@link ChangeFeed}, with times in UTC.
+     */
+    static void applyChanges(ChangeSet changes) {
+        if (!changes.hasAppointmentChanges()) {
+            return;
+        }
+        putAll(changes.getAppointments());
+        removeAll(changes.getDeletedAppointmentIds());
+    }
+
+    private static void ensureLoaded() throws SQLException {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                clear();
+                int rows = AppointmentDAO.loadAllAppointments(table);
+                for (int slot = 0; slot < rows; slot++) {
+                    indexSlot(slot);
+                }
+                loaded = true;
+                DataVersion.appointmentsChanged();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Key findOverlap(Index index, LocalDateTime startUTC, LocalDateTime endUTC, int appointmentId) {
+        if (index == null) {
+            return null;
+        }
+        long start = startUTC.toEpochSecond(ZoneOffset.UTC);
+        Key from = new Key(start - index.longestSeconds(), Integer.MIN_VALUE);
+        Key to = new Key(endUTC.toEpochSecond(ZoneOffset.UTC), Integer.MIN_VALUE);
+        for (Key candidate : index.rows.subSet(from, true, to, false)) {
+            // A missing end is stored as Long.MIN_VALUE, so such a row never overlaps.
+            if (candidate.appointmentId != appointmentId && table.getEndEpochSecond(candidate.slot) > start) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static void index(Appointment appointment) {
+        unindex(appointment.getAppointmentId());
+        if (appointment.getStart() != null) {
+            indexSlot(table.add(appointment));
+        }
+    }
+
+    /**
+     * Adds a row of the table to every index, or drops it from the table if it has no start.
+     *
+     * @param slot The slot of the row.
+     */
+    private static void indexSlot(int slot) {
+        long start = table.getStartEpochSecond(slot);
+        if (start == Long.MIN_VALUE) {
+            table.remove(slot);
+            return;
+        }
+        Key key = new Key(start, table.getAppointmentId(slot), slot);
+        byStart.add(key);
+        byCustomer.computeIfAbsent(table.getCustomerId(slot), id -> new Index()).add(key);
+        byUser.computeIfAbsent(table.getUserId(slot), id -> new Index()).add(key);
+        String contact = table.getContact(slot);
+        if (contact != null) {
+            byContact.computeIfAbsent(contact, name -> new Index()).add(key);
+        }
+    }
+
+    private static void unindex(int appointmentId) {
+        int slot = table.slotOf(appointmentId);
+        if (slot < 0) {
+            return;
+        }
+        Key key = new Key(table.getStartEpochSecond(slot), appointmentId, slot);
+        byStart.remove(key);
+        removeFrom(byCustomer, table.getCustomerId(key.slot), key);
+        removeFrom(byUser, table.getUserId(key.slot), key);
+        String contact = table.getContact(key.slot);
+        if (contact != null) {
+            removeFrom(byContact, contact, key);
+        }
+        table.remove(key.slot);
+    }
+
+    private static <K> void removeFrom(Map<K, Index> indexes, K indexKey, Key key) {
+        Index index = indexes.get(indexKey);
+        if (index != null) {
+            index.remove(key);
+            if (index.rows.isEmpty()) {
+                indexes.remove(indexKey);
+            }
+        }
+    }
+
+    private static NavigableSet<Key> rows(Index index) {
+        return index == null ? null : index.rows;
+    }
+
+    private static long lengthSeconds(Key key) {
+        long end = table.getEndEpochSecond(key.slot);
+        return end == Long.MIN_VALUE ? 0 : end - key.start;
+    }
+
+    private static void clear() {
+        table.clear();
+        byStart.clear();
+        byCustomer.clear();
+        byContact.clear();
+        byUser.clear();
+    }
+
+    private static List<Appointment> rowsOf(Collection<Key> keys) {
+        List<Appointment> result = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            result.add(table.get(key.slot));
+        }
+        return result;
+    }
+
+    /**
+     * The rows of one customer, contact or user in (start, appointment ID) order, with the length of the longest of
+     * them. Adding a row only ever raises the length. Removing the longest row marks it unknown, and the next overlap
+     * check that needs it works it out again from this index's rows alone, so removing a long appointment narrows the
+     * check again without scanning the whole store.
+     */
+    private static final class Index {
+        private final NavigableSet<Key> rows = new TreeSet<>();
+        private long longestSeconds;
+        private boolean longestKnown = true;
+
+        private void add(Key key) {
+            rows.add(key);
+            longestSeconds = Math.max(longestSeconds, lengthSeconds(key));
+        }
+
+        private void remove(Key key) {
+            rows.remove(key);
+            if (lengthSeconds(key) >= longestSeconds) {
+                longestKnown = false;
+            }
+        }
+
+        /**
+         * Gets the length of the longest row. Writes happen under the store's write lock, but several overlap checks
+         * may ask at once under the read lock, so working the length out again is synchronized.
+         */
+        private synchronized long longestSeconds() {
+            if (!longestKnown) {
+                long longest = 0;
+                for (Key key : rows) {
+                    longest = Math.max(longest, lengthSeconds(key));
+                }
+                longestSeconds = longest;
+                longestKnown = true;
+            }
+            return longestSeconds;
+        }
+    }
+
+    /**
+     * The key of a row in the indexes: its start time and appointment ID, which order rows like the appointments
+     * table's start index, and the slot that holds the row in the table.
+     */
+    private static final class Key implements Comparable<Key> {
+        private final long start;
+        private final int appointmentId;
+        private final int slot;
+
+        /**
+         * Creates a key to look up or bound a range by, which names no row.
+         */
+        private Key(long start, int appointmentId) {
+            this(start, appointmentId, -1);
+        }
+
+        private Key(long start, int appointmentId, int slot) {
+            this.start = start;
+            this.appointmentId = appointmentId;
+            this.slot = slot;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int order = Long.compare(start, other.start);
+            return order != 0 ? order : Integer.compare(appointmentId, other.appointmentId);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && compareTo((Key) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(start) * 31 + appointmentId;
+        }
+    }
+}
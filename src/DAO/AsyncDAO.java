@@ -0,0 +1,178 @@
+package DAO;
+
+import javafx.application.Platform;
+import model.Appointment;
+import model.Contact;
+import model.Customer;
+import util.TimeZoneConverter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous facade over the DAO classes, so controllers never run database I/O on the JavaFX application thread.
+ * <p>
+ * Every query is submitted to a dedicated executor and returned as a {@link CompletableFuture}. On runtimes that
+ * provide virtual threads each query gets its own virtual thread; otherwise a bounded pool of daemon threads is used.
+ * Either way the connection pool in {@link JDBC} limits how many queries reach the database at once.
+ * <p>
+ * Results are handed back to the UI with {@link #onFxThread(CompletableFuture, Consumer, Consumer)}, which runs the
+ * callbacks through {@link Platform#runLater(Runnable)}. Cancelling a returned future interrupts the query if it is
+ * still running and guarantees that none of its callbacks run, which is how controllers drop the results of a view
+ * the user has already switched away from.
+ */
+public final class AsyncDAO {
+
+    private static final int platformThreads = 8;
+    private static final ExecutorService executor = createExecutor();
+
+    private AsyncDAO() {
+    }
+
+    /**
+     * Runs a query on the DAO executor.
+     *
+     * @param query The query to run.
+     * @param <T>   The type of the query result.
+     * @return A future completed with the query result, or exceptionally with whatever the query threw.
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(query.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Delivers the outcome of a future to the JavaFX application thread. Nothing is delivered if the future is
+     * cancelled, even if the cancellation happens after the result arrived but before the callback ran.
+     *
+     * @param future    The future to observe.
+     * @param onSuccess Called with the result on the JavaFX application thread.
+     * @param onFailure Called with the cause of failure on the JavaFX application thread.
+     * @param <T>       The type of the result.
+     * @return The same future, so it can be kept for cancellation.
+     */
+    public static <T> CompletableFuture<T> onFxThread(CompletableFuture<T> future, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure) {
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            Platform.runLater(() -> {
+                if (future.isCancelled()) {
+                    return;
+                }
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onFailure.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                }
+            });
+        });
+        return future;
+    }
+
+    /**
+     * Cancels a pending future, if there is one.
+     *
+     * @param future The future to cancel, or null.
+     */
+    public static void cancel(Future<?> future) {
+        if (future != null && !future.isDone()) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Loads the appointments that start within a window together with the occurrences of recurring series that start
+     * within it, expanding only the series that can occur in the window. The rows are converted to the display zone
+     * once, on the DAO executor, so the caller receives values it can show as they are.
+     *
+     * @param windowStart The inclusive start of the window.
+     * @param windowEnd   The exclusive end of the window.
+     * @param displayZone The zone to convert the times to.
+     * @return A future list of new appointments and occurrences ordered by start, with times in the display zone.
+     */
+    public static CompletableFuture<List<Appointment>> getScheduleInRange(Instant windowStart, Instant windowEnd, ZoneId displayZone) {
+        return supply(() -> {
+            List<Appointment> schedule = AppointmentStore.getInRange(windowStart, windowEnd, null, null, null);
+            schedule.addAll(SeriesDAO.getOccurrencesInRange(windowStart, windowEnd, null, null, null));
+            schedule.sort(Comparator.comparing(Appointment::getStart).thenComparing(Appointment::getAppointmentId));
+            return TimeZoneConverter.of(displayZone).toLocal(schedule);
+        });
+    }
+
+    /**
+     * Asynchronous form of {@link AppointmentDAO#getAllContactNames()}.
+     *
+     * @return A future list of contact names.
+     */
+    public static CompletableFuture<List<String>> getAllContactNames() {
+        return supply(AppointmentDAO::getAllContactNames);
+    }
+
+    /**
+     * Asynchronous form of {@link CustomerDAO#getAllCustomers()}.
+     *
+     * @return A future list of all customers.
+     */
+    public static CompletableFuture<List<Customer>> getAllCustomers() {
+        return supply(CustomerDAO::getAllCustomers);
+    }
+
+    /**
+     * Asynchronous form of {@link CustomerDAO#getAllCountries()}.
+     *
+     * @return A future list of the countries that have customers.
+     */
+    public static CompletableFuture<List<String>> getAllCountries() {
+        return supply(CustomerDAO::getAllCountries);
+    }
+
+    /**
+     * Asynchronous form of {@link ContactDAO#getAllContacts()}.
+     *
+     * @return A future list of all contacts.
+     */
+    public static CompletableFuture<List<Contact>> getAllContacts() {
+        return supply(ContactDAO::getAllContacts);
+    }
+
+    /**
+     * Creates the executor, preferring one virtual thread per task when the runtime supports it.
+     *
+     * @return The executor used for all DAO work.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newFixedThreadPool(platformThreads, runnable -> {
+                Thread thread = new Thread(runnable, "dao-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
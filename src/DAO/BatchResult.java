@@ -0,0 +1,106 @@
+package DAO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a bulk insert or update: how many rows were written and why each of the others was rejected.
+ * Rows are identified by their position in the collection passed to the bulk method.
+ */
+public class BatchResult {
+
+    private int successCount;
+    private final List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Gets the number of rows written successfully.
+     *
+     * @return The number of successful rows.
+     */
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    /**
+     * Gets the rows that were not written, in the order they were rejected.
+     *
+     * @return The row errors.
+     */
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Checks if any row was rejected.
+     *
+     * @return True if at least one row failed, false otherwise.
+     */
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Records that a row was written.
+     */
+    void recordSuccess() {
+        successCount++;
+    }
+
+    /**
+     * Records that a row was rejected.
+     *
+     * @param rowIndex The position of the row in the input collection.
+     * @param message  Why the row was rejected.
+     */
+    void recordError(int rowIndex, String message) {
+        errors.add(new RowError(rowIndex, message));
+    }
+
+    @Override
+    public String toString() {
+        return successCount + " rows written, " + errors.size() + " rejected";
+    }
+
+    /**
+     * A rejected row and the reason it was rejected.
+     */
+    public static class RowError {
+        private final int rowIndex;
+        private final String message;
+
+        /**
+         * Constructs a RowError.
+         *
+         * @param rowIndex The position of the row in the input collection.
+         * @param message  Why the row was rejected.
+         */
+        public RowError(int rowIndex, String message) {
+            this.rowIndex = rowIndex;
+            this.message = message;
+        }
+
+        /**
+         * Gets the position of the row in the input collection.
+         *
+         * @return The row index.
+         */
+        public int getRowIndex() {
+            return rowIndex;
+        }
+
+        /**
+         * Gets why the row was rejected.
+         *
+         * @return The error message.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Row " + rowIndex + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package DAO;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Writes many rows with one SQL statement using JDBC batching, for the bulk methods of the DAO classes.
+ * <p>
+ * Rows are sent in chunks of {@code chunkSize}. Each chunk is one {@code executeBatch} call in its own transaction on
+ * its own pooled connection, which the driver rewrites into multi-row statements. If the batch fails, the chunk is
+ * rolled back and its rows are written again one at a time in the same transaction, so a single bad row is reported
+ * against its index and does not take the other rows of its chunk down with it. The rows written are added to the
+ * {@link ChangeLog} in the same transaction.
+ */
+final class BatchWriter {
+
+    static final int chunkSize = 500;
+
+    private BatchWriter() {
+    }
+
+    /**
+     * Binds the parameters of one row.
+     *
+     * @param <T> The type of the row.
+     */
+    interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    /**
+     * Receives the key the database generated for an inserted row.
+     *
+     * @param <T> The type of the row.
+     */
+    interface KeyReceiver<T> {
+        void receive(T row, int generatedKey);
+    }
+
+    /**
+     * Names the table a bulk write changes and how, for the {@link ChangeLog}.
+     *
+     * @param <T> The type of the row.
+     */
+    static final class ChangeTarget<T> {
+        private final String table;
+        private final String operation;
+        private final ToIntFunction<T> rowId;
+
+        /**
+         * Constructs a ChangeTarget.
+         *
+         * @param table     The table the rows are written to.
+         * @param operation {@link ChangeLog#insert} or {@link ChangeLog#update}.
+         * @param rowId     Gets the ID of a written row.
+         */
+        ChangeTarget(String table, String operation, ToIntFunction<T> rowId) {
+            this.table = table;
+            this.operation = operation;
+            this.rowId = rowId;
+        }
+    }
+
+    /**
+     * Writes rows in chunks and records the outcome of each one.
+     *
+     * @param sql         The INSERT or UPDATE statement, with one parameter set per row.
+     * @param rows        The rows to write.
+     * @param rowIndexes  The index each row had in the caller's input, used in error reports.
+     * @param binder      Binds one row to the statement.
+     * @param keyReceiver Receives generated keys, or null if the statement does not generate any.
+     * @param missingRow  The error to report for a row the statement did not affect, such as an update of a missing ID.
+     * @param changes     Where to log the rows written.
+     * @param result      The result to record successes and errors in.
+     */
+    static <T> void write(String sql, List<T> rows, List<Integer> rowIndexes, Binder<T> binder, KeyReceiver<T> keyReceiver,
+                          String missingRow, ChangeTarget<T> changes, BatchResult result) {
+        int keysMode = keyReceiver != null ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, rows.size());
+            List<T> chunk = rows.subList(from, to);
+            List<Integer> chunkIndexes = rowIndexes.subList(from, to);
+            List<Integer> written = new ArrayList<>(chunk.size());
+            Map<Integer, String> rejected = new LinkedHashMap<>();
+
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql, keysMode)) {
+                connection.setAutoCommit(false);
+                try {
+                    writeBatch(ps, chunk, chunkIndexes, binder, keyReceiver, missingRow, changes, written, rejected);
+                } catch (SQLException e) {
+                    System.out.println("Batch of " + chunk.size() + " rows failed, retrying row by row: " + e.getMessage());
+                    connection.rollback();
+                    ps.clearBatch();
+                    written.clear();
+                    rejected.clear();
+                    writeRows(ps, chunk, chunkIndexes, binder, keyReceiver, missingRow, changes, written, rejected);
+                }
+                ChangeLog.recordAll(connection, changes.table, written, changes.operation);
+                connection.commit();
+                for (int i = 0; i < written.size(); i++) {
+                    result.recordSuccess();
+                }
+                for (Map.Entry<Integer, String> error : rejected.entrySet()) {
+                    result.recordError(error.getKey(), error.getValue());
+                }
+            } catch (SQLException e) {
+                System.out.println("Error writing batch: " + e.getMessage());
+                for (int index : chunkIndexes) {
+                    result.recordError(index, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static <T> void writeBatch(PreparedStatement ps, List<T> chunk, List<Integer> chunkIndexes, Binder<T> binder,
+                                       KeyReceiver<T> keyReceiver, String missingRow, ChangeTarget<T> changes,
+                                       List<Integer> written, Map<Integer, String> rejected) throws SQLException {
+        for (T row : chunk) {
+            binder.bind(ps, row);
+            ps.addBatch();
+        }
+        int[] counts = ps.executeBatch();
+        if (counts.length != chunk.size()) {
+            throw new BatchUpdateException("Driver reported " + counts.length + " results for " + chunk.size() + " rows.", counts);
+        }
+
+        if (keyReceiver != null) {
+            int[] generatedKeys = new int[chunk.size()];
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (int i = 0; i < generatedKeys.length; i++) {
+                    if (!keys.next()) {
+                        throw new SQLException("Fewer generated keys than inserted rows.");
+                    }
+                    generatedKeys[i] = keys.getInt(1);
+                }
+            }
+            for (int i = 0; i < generatedKeys.length; i++) {
+                keyReceiver.receive(chunk.get(i), generatedKeys[i]);
+            }
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                rejected.put(chunkIndexes.get(i), missingRow);
+            } else {
+                written.add(changes.rowId.applyAsInt(chunk.get(i)));
+            }
+        }
+    }
+
+    private static <T> void writeRows(PreparedStatement ps, List<T> chunk, List<Integer> chunkIndexes, Binder<T> binder,
+                                      KeyReceiver<T> keyReceiver, String missingRow, ChangeTarget<T> changes,
+                                      List<Integer> written, Map<Integer, String> rejected) {
+        for (int i = 0; i < chunk.size(); i++) {
+            T row = chunk.get(i);
+            try {
+                binder.bind(ps, row);
+                if (ps.executeUpdate() == 0) {
+                    rejected.put(chunkIndexes.get(i), missingRow);
+                    continue;
+                }
+                if (keyReceiver != null) {
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            keyReceiver.receive(row, keys.getInt(1));
+                        }
+                    }
+                }
+                written.add(changes.rowId.applyAsInt(row));
+            } catch (SQLException e) {
+                rejected.put(chunkIndexes.get(i), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package DAO;
+
+import model.Appointment;
+import model.Customer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tells the application about appointments and customers that other clients changed, so open views stay current
+ * without reloading whole tables.
+ * <p>
+ * The feed polls the change_log table written by {@link ChangeLog} for entries after the last one it has seen, skips
+ * the entries this client made itself, collapses what is left to the latest change of each row and fetches only the
+ * rows that still exist. The polling interval adapts to activity: it drops to {@code minIntervalMillis} while changes
+ * keep arriving and doubles on every empty poll up to {@code maxIntervalMillis}, so an idle client costs one indexed
+ * query every few seconds. Entries older than {@code retentionHours} are pruned now and then. Recurring series are
+ * not delivered, since every read of them goes to the database, but their entries move the series
+ * {@link DataVersion} and are flagged in the change set.
+ * <p>
+ * Change IDs are assigned when an entry is written but become visible when its transaction commits, and the DAO
+ * classes log bulk writes and customer deletions inside longer transactions. An entry can therefore appear after
+ * entries with higher IDs have already been read. Every ID skipped between the entries read is remembered as a gap
+ * and looked up again on each poll until its entry shows up or {@code gapTimeoutMillis} passes, after which it is
+ * taken to belong to a rolled-back transaction. At most {@code maxTrackedGaps} gaps are kept, the newest ones.
+ * <p>
+ * Listeners are called on the feed thread; listeners that touch the UI hand the change set to
+ * {@link javafx.application.Platform#runLater(Runnable)} themselves.
+ */
+public final class ChangeFeed {
+
+    private static final long minIntervalMillis = 1000;
+    private static final long maxIntervalMillis = 15000;
+    private static final int maxEntriesPerPoll = 1000;
+    private static final int retentionHours = 24;
+    private static final int pruneEveryPolls = 200;
+    private static final long gapTimeoutMillis = 60_000;
+    private static final int maxTrackedGaps = 1000;
+
+    private static final String changeColumns = "SELECT Change_ID, Table_Name, Row_ID, Operation, Client_ID FROM change_log";
+    private static final String selectChanges = changeColumns + " WHERE Change_ID > ? ORDER BY Change_ID LIMIT " + maxEntriesPerPoll;
+
+    private static final List<Consumer<ChangeSet>> listeners = new CopyOnWriteArrayList<>();
+    private static final Consumer<ChangeSet> cacheListener = ReferenceCache::applyChanges;
+    private static final Consumer<ChangeSet> storeListener = AppointmentStore::applyChanges;
+
+    private static ScheduledExecutorService scheduler;
+    private static long lastChangeId;
+
+    /**
+     * The IDs below {@link #lastChangeId} whose entries have not been seen yet, each with the time it was first
+     * missed.
+     */
+    private static final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private static long intervalMillis = minIntervalMillis;
+    private static int pollsSincePrune;
+
+    private ChangeFeed() {
+    }
+
+    /**
+     * Starts polling, beginning after the latest change already in the log. Does nothing if the feed is running.
+     */
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        try {
+            skipToLatest();
+        } catch (SQLException e) {
+            System.out.println("Change feed not started: " + e.getMessage());
+            return;
+        }
+
+        subscribe(cacheListener);
+        // The store goes first, so listeners that read appointments back see the changes they are told about.
+        listeners.add(0, storeListener);
+        intervalMillis = minIntervalMillis;
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.schedule(ChangeFeed::pollAndReschedule, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops polling. Listeners other than the reference cache and the appointment store stay subscribed, so the feed
+     * can be started again.
+     */
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        unsubscribe(cacheListener);
+        unsubscribe(storeListener);
+    }
+
+    /**
+     * Registers a listener for the changes other clients make.
+     *
+     * @param listener Called on the feed thread with each non-empty change set.
+     */
+    public static void subscribe(Consumer<ChangeSet> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #subscribe(Consumer)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public static void unsubscribe(Consumer<ChangeSet> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Makes the next poll start after the latest change already in the log, forgetting any gaps.
+     *
+     * @throws SQLException If the log cannot be read.
+     */
+    static void skipToLatest() throws SQLException {
+        try (Connection connection = JDBC.getConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(Change_ID), 0) FROM change_log")) {
+            lastChangeId = rs.next() ? rs.getLong(1) : 0;
+        }
+        gaps.clear();
+    }
+
+    private static void pollAndReschedule() {
+        boolean changed;
+        try {
+            changed = poll();
+        } catch (SQLException e) {
+            System.out.println("Error polling change log: " + e.getMessage());
+            changed = false;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            changed = false;
+        }
+        intervalMillis = changed ? minIntervalMillis : Math.min(intervalMillis * 2, maxIntervalMillis);
+
+        if (++pollsSincePrune >= pruneEveryPolls) {
+            pollsSincePrune = 0;
+            prune();
+        }
+
+        synchronized (ChangeFeed.class) {
+            if (scheduler != null && !scheduler.isShutdown()) {
+                scheduler.schedule(ChangeFeed::pollAndReschedule, intervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Reads the entries of the gaps that have since committed and the entries after the last one seen, and delivers
+     * what other clients changed. Called by the feed thread, and directly by tests.
+     *
+     * @return True if there were new entries, including ones this client made.
+     * @throws SQLException If the log or the changed rows cannot be read.
+     */
+    static boolean poll() throws SQLException {
+        Map<Integer, String> appointmentChanges = new LinkedHashMap<>();
+        Map<Integer, String> customerChanges = new LinkedHashMap<>();
+        boolean seriesChanged = false;
+        boolean gapsFilled = false;
+        long newestChangeId = lastChangeId;
+        long now = System.currentTimeMillis();
+        gaps.values().removeIf(missedAt -> now - missedAt > gapTimeoutMillis);
+
+        try (Connection connection = JDBC.getConnection()) {
+            if (!gaps.isEmpty()) {
+                String placeholders = String.join(", ", Collections.nCopies(gaps.size(), "?"));
+                try (PreparedStatement ps = connection.prepareStatement(changeColumns + " WHERE Change_ID IN (" + placeholders + ") ORDER BY Change_ID")) {
+                    int parameter = 1;
+                    for (long changeId : gaps.keySet()) {
+                        ps.setLong(parameter++, changeId);
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            gaps.remove(rs.getLong("Change_ID"));
+                            gapsFilled = true;
+                            seriesChanged |= collect(rs, appointmentChanges, customerChanges);
+                        }
+                    }
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(selectChanges)) {
+                ps.setLong(1, lastChangeId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long changeId = rs.getLong("Change_ID");
+                        for (long gap = Math.max(newestChangeId + 1, changeId - maxTrackedGaps); gap < changeId; gap++) {
+                            gaps.put(gap, now);
+                        }
+                        newestChangeId = changeId;
+                        seriesChanged |= collect(rs, appointmentChanges, customerChanges);
+                    }
+                }
+            }
+        }
+        while (gaps.size() > maxTrackedGaps) {
+            gaps.pollFirstEntry();
+        }
+
+        if (newestChangeId == lastChangeId && !gapsFilled) {
+            return false;
+        }
+
+        Set<Integer> deletedAppointmentIds = new HashSet<>();
+        Set<Integer> deletedCustomerIds = new HashSet<>();
+        List<Integer> appointmentIds = liveIds(appointmentChanges, deletedAppointmentIds);
+        List<Integer> customerIds = liveIds(customerChanges, deletedCustomerIds);
+
+        List<Appointment> appointments = AppointmentDAO.getAppointmentsByIds(appointmentIds);
+        List<Customer> customers = CustomerDAO.getCustomersByIds(customerIds);
+
+        // A row that is gone by the time it is fetched was deleted after the entries just read.
+        Set<Integer> foundAppointments = new HashSet<>();
+        for (Appointment appointment : appointments) {
+            foundAppointments.add(appointment.getAppointmentId());
+        }
+        for (int id : appointmentIds) {
+            if (!foundAppointments.contains(id)) {
+                deletedAppointmentIds.add(id);
+            }
+        }
+        Set<Integer> foundCustomers = new HashSet<>();
+        for (Customer customer : customers) {
+            foundCustomers.add(customer.getCustomerId());
+        }
+        for (int id : customerIds) {
+            if (!foundCustomers.contains(id)) {
+                deletedCustomerIds.add(id);
+            }
+        }
+
+        lastChangeId = newestChangeId;
+
+        // Deleting a customer deletes its series without logging them.
+        seriesChanged |= !deletedCustomerIds.isEmpty();
+        if (seriesChanged) {
+            DataVersion.seriesChanged();
+        }
+        if (!customerChanges.isEmpty()) {
+            DataVersion.customersChanged();
+        }
+
+        ChangeSet changeSet = new ChangeSet(appointments, deletedAppointmentIds, customers, deletedCustomerIds,
+                seriesChanged);
+        if (changeSet.hasAppointmentChanges() || changeSet.hasCustomerChanges() || changeSet.hasSeriesChanges()) {
+            for (Consumer<ChangeSet> listener : listeners) {
+                try {
+                    listener.accept(changeSet);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a log entry to the changes to deliver, unless this client made it.
+     *
+     * @param rs                 The entry.
+     * @param appointmentChanges The latest operation on each changed appointment, in the order of the entries.
+     * @param customerChanges    The latest operation on each changed customer, in the order of the entries.
+     * @return True if the entry is another client's change to a series, otherwise false.
+     * @throws SQLException If the entry cannot be read.
+     */
+    private static boolean collect(ResultSet rs, Map<Integer, String> appointmentChanges,
+                                   Map<Integer, String> customerChanges) throws SQLException {
+        if (ChangeLog.clientId.equals(rs.getString("Client_ID"))) {
+            return false;
+        }
+        String table = rs.getString("Table_Name");
+        if (ChangeLog.series.equals(table)) {
+            return true;
+        }
+        Map<Integer, String> changes = ChangeLog.appointments.equals(table) ? appointmentChanges
+                : ChangeLog.customers.equals(table) ? customerChanges : null;
+        if (changes != null) {
+            // Only the latest change of each row matters; re-inserting moves it to the end.
+            int rowId = rs.getInt("Row_ID");
+            changes.remove(rowId);
+            changes.put(rowId, rs.getString("Operation"));
+        }
+        return false;
+    }
+
+    private static List<Integer> liveIds(Map<Integer, String> changes, Set<Integer> deletedIds) {
+        List<Integer> liveIds = new ArrayList<>();
+        for (Map.Entry<Integer, String> change : changes.entrySet()) {
+            if (ChangeLog.delete.equals(change.getValue())) {
+                deletedIds.add(change.getKey());
+            } else {
+                liveIds.add(change.getKey());
+            }
+        }
+        return liveIds;
+    }
+
+    private static void prune() {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement("DELETE FROM change_log WHERE Changed_At < ?")) {
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.out.println("Error pruning change log: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package DAO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Writes the change_log table that {@link ChangeFeed} polls. The table is part of the schema in {@code db/schema.sql}.
+ * <p>
+ * Every insert, update and delete made through the DAO classes adds one row naming the table, the ID of the changed
+ * row, the kind of change and the client that made it. The log is an append-only sequence numbered by its
+ * auto-increment Change_ID, which is what lets other clients ask for everything after the last change they have seen.
+ * Failing to log a change is reported but never fails the change itself; a missed entry only means other clients
+ * see that row the next time they reload.
+ */
+final class ChangeLog {
+
+    static final String appointments = "appointments";
+    static final String customers = "customers";
+    static final String series = "appointment_series";
+
+    static final String insert = "I";
+    static final String update = "U";
+    static final String delete = "D";
+
+    /**
+     * Identifies this running application in the log, so it can skip the changes it made itself.
+     */
+    static final String clientId = UUID.randomUUID().toString();
+
+    private static final String insertChange = "INSERT INTO change_log (Table_Name, Row_ID, Operation, Client_ID) VALUES (?, ?, ?, ?)";
+
+    private ChangeLog() {
+    }
+
+    /**
+     * Logs a change to one row.
+     *
+     * @param connection The connection the change was made on, so the entry joins its transaction if it has one.
+     * @param table      The table that changed.
+     * @param rowId      The ID of the changed row.
+     * @param operation  {@link #insert}, {@link #update} or {@link #delete}.
+     */
+    static void record(Connection connection, String table, int rowId, String operation) {
+        try (PreparedStatement ps = connection.prepareStatement(insertChange)) {
+            bind(ps, table, rowId, operation);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            System.out.println("Error logging change to " + table + " " + rowId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Logs the same kind of change to many rows with one batch.
+     *
+     * @param connection The connection the changes were made on, so the entries join their transaction.
+     * @param table      The table that changed.
+     * @param rowIds     The IDs of the changed rows.
+     * @param operation  {@link #insert}, {@link #update} or {@link #delete}.
+     */
+    static void recordAll(Connection connection, String table, Collection<Integer> rowIds, String operation) {
+        if (rowIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(insertChange)) {
+            for (int rowId : rowIds) {
+                bind(ps, table, rowId, operation);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            System.out.println("Error logging " + rowIds.size() + " changes to " + table + ": " + e.getMessage());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, String table, int rowId, String operation) throws SQLException {
+        ps.setString(1, table);
+        ps.setInt(2, rowId);
+        ps.setString(3, operation);
+        ps.setString(4, clientId);
+    }
+}
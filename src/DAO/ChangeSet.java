@@ -0,0 +1,104 @@
+package DAO;
+
+import model.Appointment;
+import model.Customer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The changes other clients made since the previous poll of the {@link ChangeFeed}, collapsed to the latest state of
+ * each row: rows that were added or updated are delivered as they are now stored, and rows that were deleted by their
+ * IDs. Appointment times are in UTC.
+ */
+public class ChangeSet {
+
+    private final List<Appointment> appointments;
+    private final Set<Integer> deletedAppointmentIds;
+    private final List<Customer> customers;
+    private final Set<Integer> deletedCustomerIds;
+    private final boolean seriesChanged;
+
+    /**
+     * Constructs a ChangeSet.
+     *
+     * @param appointments          The appointments added or updated.
+     * @param deletedAppointmentIds The IDs of the appointments deleted.
+     * @param customers             The customers added or updated.
+     * @param deletedCustomerIds    The IDs of the customers deleted.
+     * @param seriesChanged         True if a series was added, changed or deleted.
+     */
+    public ChangeSet(List<Appointment> appointments, Set<Integer> deletedAppointmentIds, List<Customer> customers,
+                     Set<Integer> deletedCustomerIds, boolean seriesChanged) {
+        this.appointments = Collections.unmodifiableList(appointments);
+        this.deletedAppointmentIds = Collections.unmodifiableSet(deletedAppointmentIds);
+        this.customers = Collections.unmodifiableList(customers);
+        this.deletedCustomerIds = Collections.unmodifiableSet(deletedCustomerIds);
+        this.seriesChanged = seriesChanged;
+    }
+
+    /**
+     * Gets the appointments that were added or updated, as they are now stored.
+     *
+     * @return The changed appointments, with times in UTC.
+     */
+    public List<Appointment> getAppointments() {
+        return appointments;
+    }
+
+    /**
+     * Gets the IDs of the appointments that were deleted.
+     *
+     * @return The deleted appointment IDs.
+     */
+    public Set<Integer> getDeletedAppointmentIds() {
+        return deletedAppointmentIds;
+    }
+
+    /**
+     * Gets the customers that were added or updated, as they are now stored.
+     *
+     * @return The changed customers.
+     */
+    public List<Customer> getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Gets the IDs of the customers that were deleted.
+     *
+     * @return The deleted customer IDs.
+     */
+    public Set<Integer> getDeletedCustomerIds() {
+        return deletedCustomerIds;
+    }
+
+    /**
+     * Checks if the set holds any change to appointments.
+     *
+     * @return True if an appointment was added, updated or deleted.
+     */
+    public boolean hasAppointmentChanges() {
+        return !appointments.isEmpty() || !deletedAppointmentIds.isEmpty();
+    }
+
+    /**
+     * Checks if the set holds any change to customers.
+     *
+     * @return True if a customer was added, updated or deleted.
+     */
+    public boolean hasCustomerChanges() {
+        return !customers.isEmpty() || !deletedCustomerIds.isEmpty();
+    }
+
+    /**
+     * Checks if any recurring series changed. The series themselves are not part of the set, since every read of
+     * them goes to the database.
+     *
+     * @return True if a series was added, changed or deleted.
+     */
+    public boolean hasSeriesChanges() {
+        return seriesChanged;
+    }
+}
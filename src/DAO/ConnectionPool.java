@@ -0,0 +1,317 @@
+package DAO;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of physical database connections shared by all DAO classes.
+ * <p>
+ * Callers borrow a connection with {@link #borrow()} and give it back by calling {@link Connection#close()} on the
+ * returned object, which is a lightweight proxy around the physical connection. Every borrow is validated before it
+ * is handed out, idle connections are evicted after {@code idleTimeoutMillis}, every connection is retired once it
+ * reaches {@code maxLifetimeMillis}, and connections held longer than {@code leakThresholdMillis} are reported
+ * together with the thread that borrowed them. Capturing the stack trace of every borrow is too costly to leave on,
+ * so the code that borrowed a leaked connection is reported only when the {@code schedule.db.leakDebug} system
+ * property is true. Each physical connection keeps a
+ * {@link StatementCache}, so {@code prepareStatement} calls for SQL it has already prepared reuse that statement.
+ */
+public class ConnectionPool {
+
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 30_000;
+    private static final boolean CAPTURE_BORROW_SITE = Boolean.getBoolean("schedule.db.leakDebug");
+
+    private final String url;
+    private final String userName;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool. No connection is opened until the first borrow.
+     *
+     * @param url                 The JDBC URL.
+     * @param userName            The database user.
+     * @param password            The database password.
+     * @param maxSize             The maximum number of physical connections.
+     * @param borrowTimeoutMillis How long {@link #borrow()} waits for a free connection.
+     * @param idleTimeoutMillis   How long an unused connection stays open.
+     * @param maxLifetimeMillis   How long any connection stays open.
+     * @param leakThresholdMillis How long a connection may be held before it is reported as leaked.
+     * @param statementCacheSize  How many prepared statements each connection keeps for reuse.
+     */
+    public ConnectionPool(String url, String userName, String password, int maxSize, long borrowTimeoutMillis,
+                          long idleTimeoutMillis, long maxLifetimeMillis, long leakThresholdMillis, int statementCacheSize) {
+        this.url = url;
+        this.userName = userName;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_PERIOD_MILLIS, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if no valid idle connection is available.
+     * The connection must be closed by the caller to return it to the pool.
+     *
+     * @return A validated connection.
+     * @throws SQLException If the pool is closed, no connection becomes free in time, or a connection cannot be opened.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection ("
+                        + borrowed.size() + " of " + maxSize + " in use).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(DriverManager.getConnection(url, userName, password));
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowThread = Thread.currentThread().getName();
+            pooled.borrowSite = leakThresholdMillis > 0 && CAPTURE_BORROW_SITE ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of connections currently borrowed.
+     *
+     * @return The number of active connections.
+     */
+    public int getActiveCount() {
+        return borrowed.size();
+    }
+
+    /**
+     * Returns the number of open connections waiting in the pool.
+     *
+     * @return The number of idle connections.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Closes the pool and every idle connection. Borrowed connections are closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            long now = System.currentTimeMillis();
+            if (now - pooled.createdAt >= maxLifetimeMillis) {
+                pooled.closePhysical();
+                continue;
+            }
+            if (now - pooled.lastUsedAt > VALIDATION_BYPASS_MILLIS && !pooled.isValid()) {
+                pooled.closePhysical();
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            long now = System.currentTimeMillis();
+            if (closed || now - pooled.createdAt >= maxLifetimeMillis || !pooled.reset()) {
+                pooled.closePhysical();
+            } else {
+                pooled.lastUsedAt = now;
+                pooled.borrowSite = null;
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idle) {
+            if ((now - pooled.lastUsedAt >= idleTimeoutMillis || now - pooled.createdAt >= maxLifetimeMillis)
+                    && idle.remove(pooled)) {
+                pooled.closePhysical();
+            }
+        }
+        if (leakThresholdMillis > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt >= leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    System.out.println("Possible connection leak: connection held for " + (now - pooled.borrowedAt)
+                            + " ms by thread " + pooled.borrowThread + ".");
+                    Throwable borrowSite = pooled.borrowSite;
+                    if (borrowSite != null) {
+                        borrowSite.printStackTrace();
+                    } else {
+                        System.out.println("Run with -Dschedule.db.leakDebug=true to see where it was borrowed.");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A physical connection together with the bookkeeping the pool needs for it.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastUsedAt = createdAt;
+        private volatile long borrowedAt;
+        private volatile String borrowThread;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = new StatementCache(physical, statementCacheSize);
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Lease(this));
+        }
+
+        private boolean isValid() {
+            try {
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                System.out.println("Discarding connection that could not be reset: " + e.getMessage());
+                return false;
+            }
+        }
+
+        private void closePhysical() {
+            statements.closeAll();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.out.println("Failed to close pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The handler behind each borrowed connection. Closing it returns the physical connection to the pool exactly once;
+     * any later use of the same lease fails instead of touching a connection that now belongs to another caller.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    if (method.getName().equals("prepareStatement") && args.length == 1) {
+                        return pooled.statements.prepare((String) args[0], Statement.NO_GENERATED_KEYS);
+                    }
+                    if (method.getName().equals("prepareStatement") && args.length == 2 && args[1] instanceof Integer) {
+                        return pooled.statements.prepare((String) args[0], (Integer) args[1]);
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package DAO;
 
 import model.Contact;
-import java.sql.ResultSet;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,25 +10,17 @@ import java.util.List;
 public class ContactDAO {
 
     /**
-     * Retrieves all contacts from the database.
+     * Retrieves all contacts, using the reference cache.
      *
      * @return A list of Contact objects representing all contacts.
      */
     public static List<Contact> getAllContacts() {
-        List<Contact> contacts = new ArrayList<>();
-        String query = "SELECT Contact_ID, Contact_Name FROM contacts";
-
-        try (Statement stmt = JDBC.connection.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                int contactId = rs.getInt("Contact_ID");
-                String contactName = rs.getString("Contact_Name");
-
-                contacts.add(new Contact(contactId, contactName));
-            }
+        try {
+            return ReferenceCache.getContacts();
         } catch (Exception e) {
             e.printStackTrace();
         }
 
-        return contacts;
+        return new ArrayList<>();
     }
 }
@@ -8,9 +8,11 @@ import model.CustomerSummary;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-
-import static DAO.JDBC.connection;
+import java.util.Map;
 
 /**
  * The CustomerDAO class is a Data Access Object (DAO) responsible for managing customer data in the database.
@@ -22,6 +24,11 @@ import static DAO.JDBC.connection;
  */
 public class CustomerDAO {
 
+    private static final String customerColumns = "SELECT c.Customer_ID, c.Customer_Name, c.Address, c.Postal_Code, c.Phone, c.Division_ID, " +
+            "c.Create_Date, c.Created_By, c.Last_Update, c.Last_Updated_By, d.Division " +
+            "FROM client_schedule.customers c " +
+            "JOIN client_schedule.first_level_divisions d ON c.Division_ID = d.Division_ID";
+
     /**
      * Retrieves all customers from the database.
      *
@@ -29,29 +36,13 @@ public class CustomerDAO {
      */
     public static List<Customer> getAllCustomers() {
         List<Customer> customers = new ArrayList<>();
-        String query = "SELECT c.Customer_ID, c.Customer_Name, c.Address, c.Postal_Code, c.Phone, c.Division_ID, " +
-                "c.Create_Date, c.Created_By, c.Last_Update, c.Last_Updated_By, d.Division " +
-                "FROM client_schedule.customers c " +
-                "JOIN client_schedule.first_level_divisions d ON c.Division_ID = d.Division_ID";
 
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(query)) {
+        try (Connection connection = JDBC.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(customerColumns)) {
 
             while (resultSet.next()) {
-                int id = resultSet.getInt("Customer_ID");
-                String name = resultSet.getString("Customer_Name");
-                String address = resultSet.getString("Address");
-                String postalCode = resultSet.getString("Postal_Code");
-                String phone = resultSet.getString("Phone");
-                int divisionId = resultSet.getInt("Division_ID");
-                String divisionName = resultSet.getString("Division");
-                LocalDateTime createDate = resultSet.getTimestamp("Create_Date") != null ? resultSet.getTimestamp("Create_Date").toLocalDateTime() : null;
-                String createdBy = resultSet.getString("Created_By");
-                LocalDateTime lastUpdate = resultSet.getTimestamp("Last_Update") != null ? resultSet.getTimestamp("Last_Update").toLocalDateTime() : null;
-                String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-
-                Customer customer = new Customer(id, name, address, postalCode, phone, divisionId, divisionName, createDate, createdBy, lastUpdate, lastUpdatedBy);
-                customers.add(customer);
+                customers.add(mapCustomer(resultSet));
             }
             System.out.println("Retrieved " + customers.size() + " customers.");
 
@@ -63,69 +54,237 @@ public class CustomerDAO {
     }
 
     /**
-     * Adds a new customer to the database.
+     * Retrieves the customers with the given IDs. IDs that no longer exist are skipped.
      *
-     * @param customer         The customer to add.
-     * @param selectedDivision The selected division for the customer.
+     * @param customerIds The IDs of the customers.
+     * @return A list of the customers found.
+     * @throws SQLException If a database error occurs.
      */
-    public static void addCustomer(Customer customer, String selectedDivision) {
-        String getAllIdsQuery = "SELECT Customer_ID FROM customers ORDER BY Customer_ID";
-        String insertCustomerQuery = "INSERT INTO customers (Customer_ID, Customer_Name, Address, Postal_Code, Phone, Division_ID, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    public static List<Customer> getCustomersByIds(Collection<Integer> customerIds) throws SQLException {
+        List<Customer> customers = new ArrayList<>();
+        if (customerIds.isEmpty()) {
+            return customers;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(customerIds.size(), "?"));
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(customerColumns + " WHERE c.Customer_ID IN (" + placeholders + ")")) {
+            int parameter = 1;
+            for (int customerId : customerIds) {
+                ps.setInt(parameter++, customerId);
+            }
+            try (ResultSet resultSet = ps.executeQuery()) {
+                while (resultSet.next()) {
+                    customers.add(mapCustomer(resultSet));
+                }
+            }
+        }
+        return customers;
+    }
 
-        try (Statement getAllIdsStatement = connection.createStatement();
-             ResultSet resultSet = getAllIdsStatement.executeQuery(getAllIdsQuery)) {
+    /**
+     * Builds a customer from the current row of a result set selected with {@code customerColumns}.
+     *
+     * @param resultSet The result set positioned on the row to read.
+     * @return The customer for the row.
+     * @throws SQLException If a column cannot be read.
+     */
+    private static Customer mapCustomer(ResultSet resultSet) throws SQLException {
+        int id = resultSet.getInt("Customer_ID");
+        String name = resultSet.getString("Customer_Name");
+        String address = resultSet.getString("Address");
+        String postalCode = resultSet.getString("Postal_Code");
+        String phone = resultSet.getString("Phone");
+        int divisionId = resultSet.getInt("Division_ID");
+        String divisionName = resultSet.getString("Division");
+        LocalDateTime createDate = resultSet.getTimestamp("Create_Date") != null ? resultSet.getTimestamp("Create_Date").toLocalDateTime() : null;
+        String createdBy = resultSet.getString("Created_By");
+        LocalDateTime lastUpdate = resultSet.getTimestamp("Last_Update") != null ? resultSet.getTimestamp("Last_Update").toLocalDateTime() : null;
+        String lastUpdatedBy = resultSet.getString("Last_Updated_By");
+
+        return new Customer(id, name, address, postalCode, phone, divisionId, divisionName, createDate, createdBy, lastUpdate, lastUpdatedBy);
+    }
 
-            int newId = 1;
-            while (resultSet.next()) {
-                int currentId = resultSet.getInt("Customer_ID");
-                if (currentId == newId) {
-                    newId++;
-                } else {
-                    break;
+    /**
+     * Adds a new customer to the database. The ID is assigned by the database's auto-increment column and written
+     * back to the customer, so concurrent clients never pick the same ID and no table scan is needed.
+     *
+     * @param customer         The customer to add.
+     * @param selectedDivision The selected division for the customer.
+     * @return True if the customer was added, false otherwise.
+     */
+    public static boolean addCustomer(Customer customer, String selectedDivision) {
+        String insertCustomerQuery = "INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        int divisionId = getDivisionIdFromName(selectedDivision);
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement insertCustomerStatement = connection.prepareStatement(insertCustomerQuery, Statement.RETURN_GENERATED_KEYS)) {
+            insertCustomerStatement.setString(1, customer.getCustomerName());
+            insertCustomerStatement.setString(2, customer.getAddress());
+            insertCustomerStatement.setString(3, customer.getPostalCode());
+            insertCustomerStatement.setString(4, customer.getPhone());
+            insertCustomerStatement.setInt(5, divisionId);
+            insertCustomerStatement.setTimestamp(6, Timestamp.valueOf(customer.getCreateDate()));
+            insertCustomerStatement.setString(7, customer.getCreatedBy());
+            insertCustomerStatement.setTimestamp(8, Timestamp.valueOf(customer.getLastUpdate()));
+            insertCustomerStatement.setString(9, customer.getLastUpdatedBy());
+
+            insertCustomerStatement.executeUpdate();
+
+            try (ResultSet generatedKeys = insertCustomerStatement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    int newId = generatedKeys.getInt(1);
+                    customer.setCustomerId(newId);
+                    customer.setDivisionId(divisionId);
+                    ChangeLog.record(connection, ChangeLog.customers, newId, ChangeLog.insert);
+                    System.out.println("Customer added successfully with ID: " + newId);
                 }
             }
+            ReferenceCache.invalidateCustomerCountries();
+            DataVersion.customersChanged();
+            return customer.getCustomerId() > 0;
 
-            int divisionId = getDivisionIdFromName(selectedDivision);
+        } catch (SQLException e) {
+            System.out.println("Error adding customer: " + e.getMessage());
+            return false;
+        }
+    }
 
-            try (PreparedStatement insertCustomerStatement = connection.prepareStatement(insertCustomerQuery)) {
-                insertCustomerStatement.setInt(1, newId);
-                insertCustomerStatement.setString(2, customer.getCustomerName());
-                insertCustomerStatement.setString(3, customer.getAddress());
-                insertCustomerStatement.setString(4, customer.getPostalCode());
-                insertCustomerStatement.setString(5, customer.getPhone());
-                insertCustomerStatement.setInt(6, divisionId);
-                insertCustomerStatement.setTimestamp(7, Timestamp.valueOf(customer.getCreateDate()));
-                insertCustomerStatement.setString(8, customer.getCreatedBy());
-                insertCustomerStatement.setTimestamp(9, Timestamp.valueOf(customer.getLastUpdate()));
-                insertCustomerStatement.setString(10, customer.getLastUpdatedBy());
+    /**
+     * Adds many customers at once using JDBC batching. Each customer's division is taken from its division name, or
+     * from its division ID when it has no name; missing create and update timestamps default to the time of the call.
+     * Divisions are resolved once per distinct name for the whole batch, and rows are written in chunks, each in its
+     * own transaction.
+     *
+     * @param customers The customers to add. On success each one's ID and division ID are set to the values stored.
+     * @return The number of customers added and the reason each of the others was rejected.
+     */
+    public static BatchResult addCustomers(List<Customer> customers) {
+        String insertCustomerQuery = "INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        BatchResult result = new BatchResult();
+        List<Customer> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        if (!resolveDivisions(customers, valid, validIndexes, result)) {
+            return result;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        BatchWriter.write(insertCustomerQuery, valid, validIndexes, (ps, customer) -> {
+            ps.setString(1, customer.getCustomerName());
+            ps.setString(2, customer.getAddress());
+            ps.setString(3, customer.getPostalCode());
+            ps.setString(4, customer.getPhone());
+            ps.setInt(5, customer.getDivisionId());
+            ps.setTimestamp(6, customer.getCreateDate() != null ? Timestamp.valueOf(customer.getCreateDate()) : now);
+            ps.setString(7, customer.getCreatedBy());
+            ps.setTimestamp(8, customer.getLastUpdate() != null ? Timestamp.valueOf(customer.getLastUpdate()) : now);
+            ps.setString(9, customer.getLastUpdatedBy());
+        }, Customer::setCustomerId, "Customer was not inserted.",
+                new BatchWriter.ChangeTarget<>(ChangeLog.customers, ChangeLog.insert, Customer::getCustomerId), result);
+
+        if (result.getSuccessCount() > 0) {
+            ReferenceCache.invalidateCustomerCountries();
+            DataVersion.customersChanged();
+        }
+        System.out.println("Bulk customer insert: " + result);
+        return result;
+    }
 
-                insertCustomerStatement.executeUpdate();
+    /**
+     * Updates many customers at once using JDBC batching. Divisions are resolved as in {@link #addCustomers(List)},
+     * and rows are written in chunks, each in its own transaction.
+     *
+     * @param customers The customers to update, identified by their IDs.
+     * @return The number of customers updated and the reason each of the others was rejected.
+     */
+    public static BatchResult updateCustomers(List<Customer> customers) {
+        String updateSQL = "UPDATE client_schedule.customers SET " +
+                "Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, " +
+                "Division_ID = ?, Last_Update = ?, Last_Updated_By = ? " +
+                "WHERE Customer_ID = ?";
+        BatchResult result = new BatchResult();
+        List<Customer> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        if (!resolveDivisions(customers, valid, validIndexes, result)) {
+            return result;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        BatchWriter.write(updateSQL, valid, validIndexes, (ps, customer) -> {
+            ps.setString(1, customer.getCustomerName());
+            ps.setString(2, customer.getAddress());
+            ps.setString(3, customer.getPostalCode());
+            ps.setString(4, customer.getPhone());
+            ps.setInt(5, customer.getDivisionId());
+            ps.setTimestamp(6, customer.getLastUpdate() != null ? Timestamp.valueOf(customer.getLastUpdate()) : now);
+            ps.setString(7, customer.getLastUpdatedBy());
+            ps.setInt(8, customer.getCustomerId());
+        }, null, "No customer found with this ID.",
+                new BatchWriter.ChangeTarget<>(ChangeLog.customers, ChangeLog.update, Customer::getCustomerId), result);
+
+        if (result.getSuccessCount() > 0) {
+            ReferenceCache.invalidateCustomerCountries();
+            DataVersion.customersChanged();
+        }
+        System.out.println("Bulk customer update: " + result);
+        return result;
+    }
 
-                System.out.println("Customer added successfully with ID: " + newId);
+    /**
+     * Validates the divisions of a bulk write, looking up each distinct division name once and setting the resolved
+     * division ID on the customer.
+     *
+     * @param customers    The rows to validate.
+     * @param valid        Filled with the rows that passed validation.
+     * @param validIndexes Filled with the input index of each valid row.
+     * @param result       Receives an error for every row that failed validation.
+     * @return False if the divisions could not be read, in which case every row is rejected.
+     */
+    private static boolean resolveDivisions(List<Customer> customers, List<Customer> valid, List<Integer> validIndexes, BatchResult result) {
+        Map<String, Integer> divisionIds = new HashMap<>();
+        try {
+            for (int i = 0; i < customers.size(); i++) {
+                Customer customer = customers.get(i);
+                String divisionName = customer.getDivisionName();
+                int divisionId;
+                if (divisionName != null) {
+                    Integer cached = divisionIds.get(divisionName);
+                    divisionId = cached != null ? cached : ReferenceCache.getDivisionId(divisionName);
+                    divisionIds.put(divisionName, divisionId);
+                } else {
+                    divisionId = ReferenceCache.getDivisionName(customer.getDivisionId()) != null ? customer.getDivisionId() : -1;
+                }
+                if (divisionId == -1) {
+                    result.recordError(i, "Division not found: " + (divisionName != null ? divisionName : customer.getDivisionId()));
+                    continue;
+                }
+                customer.setDivisionId(divisionId);
+                valid.add(customer);
+                validIndexes.add(i);
             }
-
+            return true;
         } catch (SQLException e) {
-            System.out.println("Error adding customer: " + e.getMessage());
+            System.out.println("Error resolving divisions: " + e.getMessage());
+            for (int i = 0; i < customers.size(); i++) {
+                result.recordError(i, e.getMessage());
+            }
+            return false;
         }
     }
 
     /**
-     * Retrieves the division ID based on the division name.
+     * Retrieves the division ID based on the division name, using the reference cache.
      *
      * @param divisionName The name of the division.
      * @return The division ID.
      */
     public static int getDivisionIdFromName(String divisionName) {
-        String query = "SELECT Division_ID FROM first_level_divisions WHERE Division = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, divisionName);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getInt("Division_ID");
-            } else {
+        try {
+            int divisionId = ReferenceCache.getDivisionId(divisionName);
+            if (divisionId == -1) {
                 System.out.println("Division not found: " + divisionName);
-                return -1;
             }
+            return divisionId;
         } catch (SQLException e) {
             e.printStackTrace();
             return -1;
@@ -133,20 +292,14 @@ public class CustomerDAO {
     }
 
     /**
-     * Retrieves the division name based on the division ID.
+     * Retrieves the division name based on the division ID, using the reference cache.
      *
      * @param divisionId The ID of the division.
      * @return The name of the division.
      */
     public static String getDivisionNameById(int divisionId) {
-        String query = "SELECT Division FROM client_schedule.first_level_divisions WHERE Division_ID = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, divisionId);
-
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getString("Division");
-            }
+        try {
+            return ReferenceCache.getDivisionName(divisionId);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -157,14 +310,16 @@ public class CustomerDAO {
      * Updates the information of a customer in the database.
      *
      * @param customer The customer to update.
+     * @return True if the customer was found and updated, false otherwise.
      */
-    public static void updateCustomer(Customer customer) {
+    public static boolean updateCustomer(Customer customer) {
         String updateSQL = "UPDATE client_schedule.customers SET " +
                 "Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, " +
                 "Division_ID = ?, Last_Update = ?, Last_Updated_By = ? " +
                 "WHERE Customer_ID = ?";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(updateSQL)) {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(updateSQL)) {
             preparedStatement.setString(1, customer.getCustomerName());
             preparedStatement.setString(2, customer.getAddress());
             preparedStatement.setString(3, customer.getPostalCode());
@@ -175,13 +330,18 @@ public class CustomerDAO {
             preparedStatement.setInt(8, customer.getCustomerId());
 
             int rowsAffected = preparedStatement.executeUpdate();
+            ReferenceCache.invalidateCustomerCountries();
+            DataVersion.customersChanged();
             if (rowsAffected > 0) {
+                ChangeLog.record(connection, ChangeLog.customers, customer.getCustomerId(), ChangeLog.update);
                 System.out.println("Customer updated successfully.");
             } else {
                 System.out.println("No customer found with the given ID.");
             }
+            return rowsAffected > 0;
         } catch (SQLException e) {
             System.out.println("Error updating customer: " + e.getMessage());
+            return false;
         }
     }
 
@@ -189,61 +349,89 @@ public class CustomerDAO {
      * Deletes a customer and related appointments from the database.
      *
      * @param customer The customer to delete.
+     * @return True if the customer and its appointments were deleted, false otherwise.
      */
-    public static void deleteCustomer(Customer customer) {
+    public static boolean deleteCustomer(Customer customer) {
+        return deleteCustomer(customer.getCustomerId());
+    }
+
+    /**
+     * Deletes a customer and related appointments from the database.
+     *
+     * @param customerId The ID of the customer to delete.
+     * @return True if the customer and its appointments were deleted, false otherwise.
+     */
+    public static boolean deleteCustomer(int customerId) {
         String deleteAppointmentsQuery = "DELETE FROM appointments WHERE Customer_ID = ?";
         String deleteCustomerQuery = "DELETE FROM customers WHERE Customer_ID = ?";
 
-        try (PreparedStatement deleteAppointmentsStatement = connection.prepareStatement(deleteAppointmentsQuery);
-             PreparedStatement deleteCustomerStatement = connection.prepareStatement(deleteCustomerQuery)) {
+        try (Connection connection = JDBC.getConnection()) {
+            try (PreparedStatement deleteAppointmentsStatement = connection.prepareStatement(deleteAppointmentsQuery);
+                 PreparedStatement deleteCustomerStatement = connection.prepareStatement(deleteCustomerQuery)) {
 
-            connection.setAutoCommit(false);
+                connection.setAutoCommit(false);
 
-            deleteAppointmentsStatement.setInt(1, customer.getCustomerId());
-            deleteAppointmentsStatement.executeUpdate();
+                List<Integer> appointmentIds = new ArrayList<>();
+                try (PreparedStatement selectAppointments = connection.prepareStatement("SELECT Appointment_ID FROM appointments WHERE Customer_ID = ?")) {
+                    selectAppointments.setInt(1, customerId);
+                    try (ResultSet rs = selectAppointments.executeQuery()) {
+                        while (rs.next()) {
+                            appointmentIds.add(rs.getInt("Appointment_ID"));
+                        }
+                    }
+                }
 
-            deleteCustomerStatement.setInt(1, customer.getCustomerId());
-            deleteCustomerStatement.executeUpdate();
+                deleteAppointmentsStatement.setInt(1, customerId);
+                deleteAppointmentsStatement.executeUpdate();
 
-            connection.commit();
-            System.out.println("Customer and related appointments deleted successfully.");
-        } catch (SQLException e) {
-            try {
-                connection.rollback();
-            } catch (SQLException rollbackException) {
-                System.out.println("Error rolling back transaction: " + rollbackException.getMessage());
-            }
-            System.out.println("Error deleting customer: " + e.getMessage());
-        } finally {
-            try {
-                connection.setAutoCommit(true);
+                SeriesDAO.deleteSeriesOfCustomer(connection, customerId);
+
+                deleteCustomerStatement.setInt(1, customerId);
+                deleteCustomerStatement.executeUpdate();
+
+                ChangeLog.recordAll(connection, ChangeLog.appointments, appointmentIds, ChangeLog.delete);
+                ChangeLog.record(connection, ChangeLog.customers, customerId, ChangeLog.delete);
+                connection.commit();
+                ReferenceCache.invalidateCustomerCountries();
+                DataVersion.customersChanged();
+                DataVersion.seriesChanged();
+                AppointmentStore.removeAll(appointmentIds);
+                System.out.println("Customer and related appointments deleted successfully.");
+                return true;
             } catch (SQLException e) {
-                System.out.println("Error restoring auto-commit: " + e.getMessage());
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackException) {
+                    System.out.println("Error rolling back transaction: " + rollbackException.getMessage());
+                }
+                System.out.println("Error deleting customer: " + e.getMessage());
+                return false;
+            } finally {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.out.println("Error restoring auto-commit: " + e.getMessage());
+                }
             }
+        } catch (SQLException e) {
+            System.out.println("Error deleting customer: " + e.getMessage());
+            return false;
         }
     }
 
     /**
-     * Retrieves a list of all countries from the database.
+     * Retrieves a list of all countries that have customers, using the reference cache.
      *
      * @return A list of country names.
      */
     public static List<String> getAllCountries() {
-        List<String> countries = new ArrayList<>();
-        String query = "SELECT DISTINCT c.Country " +
-                "FROM countries c " +
-                "JOIN first_level_divisions fld ON c.Country_ID = fld.Country_ID " +
-                "JOIN customers cust ON fld.Division_ID = cust.Division_ID";
-
-        try (Statement stmt = JDBC.connection.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                countries.add(rs.getString("Country"));
-            }
+        try {
+            return ReferenceCache.getCountriesWithCustomers();
         } catch (Exception e) {
             e.printStackTrace();
         }
 
-        return countries;
+        return new ArrayList<>();
     }
 
     /**
@@ -261,7 +449,8 @@ public class CustomerDAO {
                 "JOIN countries co ON fld.Country_ID = co.Country_ID " +
                 "WHERE co.Country = ?";
 
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, country);
             ResultSet rs = statement.executeQuery();
 
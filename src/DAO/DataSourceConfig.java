@@ -0,0 +1,193 @@
+package DAO;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Describes the database the application connects to: the JDBC URL, the credentials, the driver, and whether the
+ * client_schedule schema should be created and seeded when it is missing.
+ * <p>
+ * Two profiles provide the defaults:
+ * <ul>
+ *     <li>{@code mysql}, the default: the client_schedule database of a MySQL server on localhost, which is expected to
+ *     exist already.</li>
+ *     <li>{@code h2}: an in-process, in-memory H2 database in MySQL compatibility mode. The schema is created on the
+ *     first connection and seeded with the reference data and a few sample customers and appointments, so the
+ *     application, the benchmarks and any test can run without a database server.</li>
+ * </ul>
+ * Every setting can be overridden, first by a properties file named by the {@code schedule.db.config} system property
+ * and then by a system property. The keys of the file are {@code profile}, {@code url}, {@code user},
+ * {@code password}, {@code driver}, {@code createSchema} and {@code sampleData}; the system properties are the same
+ * keys prefixed with {@code schedule.db.}, for example {@code -Dschedule.db.profile=h2}.
+ */
+public final class DataSourceConfig {
+
+    public static final String mysqlProfile = "mysql";
+    public static final String h2Profile = "h2";
+
+    private static final String propertyPrefix = "schedule.db.";
+    private static final String configFileProperty = propertyPrefix + "config";
+
+    private static final String mysqlUrl = "jdbc:mysql://localhost/client_schedule" +
+            "?connectionTimeZone=SERVER&useServerPrepStmts=true&rewriteBatchedStatements=true";
+    private static final String mysqlDriver = "com.mysql.cj.jdbc.Driver";
+    private static final String mysqlUserName = "sqlUser";
+    private static final String mysqlPassword = "Passw0rd!";
+
+    /**
+     * Keeps the database for the life of the process, creates the client_schedule schema on every connection and
+     * makes it current, so the schema-qualified queries resolve as they do on MySQL. END, MONTH, VALUE and YEAR are
+     * column names and aliases of the schema and its queries, which H2 would otherwise read as keywords.
+     */
+    private static final String h2Url = "jdbc:h2:mem:client_schedule;MODE=MySQL;DATABASE_TO_LOWER=TRUE;" +
+            "NON_KEYWORDS=END,MONTH,VALUE,YEAR;DB_CLOSE_DELAY=-1;" +
+            "INIT=CREATE SCHEMA IF NOT EXISTS client_schedule\\;SET SCHEMA client_schedule";
+    private static final String h2Driver = "org.h2.Driver";
+    private static final String h2UserName = "sa";
+    private static final String h2Password = "";
+
+    private final String profile;
+    private final String url;
+    private final String userName;
+    private final String password;
+    private final String driver;
+    private final boolean createSchema;
+    private final boolean sampleData;
+
+    private DataSourceConfig(String profile, String url, String userName, String password, String driver,
+                             boolean createSchema, boolean sampleData) {
+        this.profile = profile;
+        this.url = url;
+        this.userName = userName;
+        this.password = password;
+        this.driver = driver;
+        this.createSchema = createSchema;
+        this.sampleData = sampleData;
+    }
+
+    /**
+     * Gets the defaults of a profile.
+     *
+     * @param profile {@link #mysqlProfile} or {@link #h2Profile}.
+     * @return The configuration of the profile.
+     * @throws IllegalArgumentException If the profile is unknown.
+     */
+    public static DataSourceConfig of(String profile) {
+        switch (profile) {
+            case mysqlProfile:
+                return new DataSourceConfig(mysqlProfile, mysqlUrl, mysqlUserName, mysqlPassword, mysqlDriver, false, false);
+            case h2Profile:
+                return new DataSourceConfig(h2Profile, h2Url, h2UserName, h2Password, h2Driver, true, true);
+            default:
+                throw new IllegalArgumentException("Unknown database profile: " + profile);
+        }
+    }
+
+    /**
+     * Reads the configuration from the configuration file and the system properties, falling back to the defaults of
+     * the selected profile, or of the MySQL profile if the selected one is unknown.
+     *
+     * @return The configuration to connect with.
+     */
+    public static DataSourceConfig load() {
+        Properties file = new Properties();
+        String fileName = System.getProperty(configFileProperty);
+        if (fileName != null) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(fileName))) {
+                file.load(reader);
+            } catch (IOException e) {
+                System.out.println("Error reading database configuration " + fileName + ": " + e.getMessage());
+            }
+        }
+
+        DataSourceConfig defaults;
+        try {
+            defaults = of(setting(file, "profile", mysqlProfile));
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage() + "; using " + mysqlProfile + ".");
+            defaults = of(mysqlProfile);
+        }
+        return new DataSourceConfig(defaults.profile,
+                setting(file, "url", defaults.url),
+                setting(file, "user", defaults.userName),
+                setting(file, "password", defaults.password),
+                setting(file, "driver", defaults.driver),
+                Boolean.parseBoolean(setting(file, "createSchema", Boolean.toString(defaults.createSchema))),
+                Boolean.parseBoolean(setting(file, "sampleData", Boolean.toString(defaults.sampleData))));
+    }
+
+    private static String setting(Properties file, String key, String defaultValue) {
+        return System.getProperty(propertyPrefix + key, file.getProperty(key, defaultValue));
+    }
+
+    /**
+     * Gets the name of the profile the configuration is based on.
+     *
+     * @return The profile name.
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * Gets the JDBC URL.
+     *
+     * @return The URL.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets the user name to connect as.
+     *
+     * @return The user name.
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Gets the password to connect with.
+     *
+     * @return The password.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Gets the class name of the JDBC driver.
+     *
+     * @return The driver class name, or an empty string to rely on the drivers registered with the DriverManager.
+     */
+    public String getDriver() {
+        return driver;
+    }
+
+    /**
+     * Tells whether the client_schedule schema is created and seeded with reference data when it is missing.
+     *
+     * @return True if the schema is created, otherwise false.
+     */
+    public boolean isCreateSchema() {
+        return createSchema;
+    }
+
+    /**
+     * Tells whether a newly created schema is also seeded with sample customers and appointments.
+     *
+     * @return True if sample data is added, otherwise false.
+     */
+    public boolean isSampleData() {
+        return sampleData;
+    }
+
+    @Override
+    public String toString() {
+        return profile + " (" + url + ")";
+    }
+}
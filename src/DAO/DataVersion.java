@@ -0,0 +1,62 @@
+package DAO;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters that change whenever the appointments, customers or recurring series this client can read may have
+ * changed, so a caller can tell that data it read earlier is still current without reading it again.
+ * <p>
+ * A counter moves after a change has become readable: after the commit of a change made through the DAO classes, and
+ * after the {@link ChangeFeed} has delivered a change another client made. Reading a counter and then the data thus
+ * never pairs a new counter value with old data; at worst an old value is paired with new data, which only costs the
+ * caller one extra read. Changes other clients make are seen as soon as the change feed polls them, and not at all if
+ * it is not running, exactly like the data itself.
+ */
+public final class DataVersion {
+
+    private static final AtomicLong appointments = new AtomicLong();
+    private static final AtomicLong customers = new AtomicLong();
+    private static final AtomicLong series = new AtomicLong();
+
+    private DataVersion() {
+    }
+
+    /**
+     * Gets the version of the appointments in the {@link AppointmentStore}.
+     *
+     * @return A number that changes whenever an appointment is added, changed or removed.
+     */
+    public static long getAppointmentVersion() {
+        return appointments.get();
+    }
+
+    /**
+     * Gets the version of the customers table.
+     *
+     * @return A number that changes whenever a customer is added, changed or removed.
+     */
+    public static long getCustomerVersion() {
+        return customers.get();
+    }
+
+    /**
+     * Gets the version of the appointment_series table.
+     *
+     * @return A number that changes whenever a series is added, changed or removed.
+     */
+    public static long getSeriesVersion() {
+        return series.get();
+    }
+
+    static void appointmentsChanged() {
+        appointments.incrementAndGet();
+    }
+
+    static void customersChanged() {
+        customers.incrementAndGet();
+    }
+
+    static void seriesChanged() {
+        series.incrementAndGet();
+    }
+}
@@ -0,0 +1,87 @@
+package DAO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Creates the client_schedule schema in an empty database and seeds it, for the profiles of {@link DataSourceConfig}
+ * that ask for it.
+ * <p>
+ * The scripts are resources under {@code /db}: {@code schema.sql} creates the tables, {@code reference-data.sql} adds
+ * the countries, first-level divisions, users and contacts, and {@code sample-data.sql} a few customers and
+ * appointments. They are written in the MySQL dialect, so they can also set up a new MySQL database. A database whose
+ * countries table exists is not seeded again, but still gets the tables of {@code schema.sql} it lacks.
+ */
+final class DatabaseInitializer {
+
+    private static final String schemaScript = "/db/schema.sql";
+    private static final String referenceDataScript = "/db/reference-data.sql";
+    private static final String sampleDataScript = "/db/sample-data.sql";
+
+    private DatabaseInitializer() {
+    }
+
+    /**
+     * Creates and seeds the schema if the database does not have it yet, or adds the tables it lacks if it does.
+     *
+     * @param config The database to initialize.
+     * @return True if the schema was created, false if it already existed.
+     * @throws SQLException If a statement fails.
+     * @throws IOException  If a script cannot be read.
+     */
+    static boolean initialize(DataSourceConfig config) throws SQLException, IOException {
+        try (Connection connection = DriverManager.getConnection(config.getUrl(), config.getUserName(), config.getPassword())) {
+            if (hasSchema(connection)) {
+                runScript(connection, schemaScript);
+                return false;
+            }
+            runScript(connection, schemaScript);
+            runScript(connection, referenceDataScript);
+            if (config.isSampleData()) {
+                runScript(connection, sampleDataScript);
+            }
+            System.out.println("Created the client_schedule schema for " + config.getProfile() + ".");
+            return true;
+        }
+    }
+
+    private static boolean hasSchema(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1 FROM countries WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs the statements of a script, which are separated by a semicolon at the end of a line. Lines starting with
+     * {@code --} are comments.
+     *
+     * @param connection The connection to run the statements on.
+     * @param resource   The resource name of the script.
+     * @throws SQLException If a statement fails.
+     * @throws IOException  If the script cannot be read.
+     */
+    private static void runScript(Connection connection, String resource) throws SQLException, IOException {
+        String script;
+        try (InputStream in = DatabaseInitializer.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Script not found: " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^\\s*--.*$", "").split(";\\s*(\\r?\\n|$)")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package DAO;
 
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -14,11 +14,15 @@ import java.sql.SQLException;
  * It encapsulates common database operations such as opening/closing connections, executing queries, and handling exceptions.
  * <p>
  * The main functionalities provided by this class include:
- * - Opening and closing a connection to the database.
+ * - Opening and closing a bounded pool of database connections, and lending connections from it per operation.
  * - Authenticating users by verifying their credentials against the database records.
  * - Setting and retrieving the current username for the session.
  * <p>
- * It also ensures that the database connection is maintained throughout the session and reopens it if necessary.
+ * Pooled connections are validated before every borrow and replaced when they go stale, so callers never have to
+ * check or reopen a connection themselves.
+ * <p>
+ * The database is described by a {@link DataSourceConfig}, read when the pool opens: the MySQL server on localhost by
+ * default, or with {@code -Dschedule.db.profile=h2} an embedded database whose schema is created and seeded first.
  * <p>
  * This class serves as a foundation for database interactions within the application, providing a central point for
  * managing database-related operations and encapsulating the details of JDBC implementation.
@@ -26,60 +30,82 @@ import java.sql.SQLException;
 
 public abstract class JDBC {
 
-    private static final String protocol = "jdbc";
-    private static final String vendor = ":mysql:";
-    private static final String location = "//localhost/";
-    private static final String databaseName = "client_schedule";
-    private static final String jdbcUrl = protocol + vendor + location + databaseName + "?connectionTimeZone = SERVER";
-    private static final String driver = "com.mysql.cj.jdbc.Driver";
-    private static final String userName = "sqlUser";
-    private static final String password = "Passw0rd!";
-    public static Connection connection;
+    private static final int maxPoolSize = 8;
+    private static final long borrowTimeoutMillis = 10_000;
+    private static final long idleTimeoutMillis = 5 * 60_000;
+    private static final long maxLifetimeMillis = 30 * 60_000;
+    private static final long leakThresholdMillis = 60_000;
+    private static final int statementCacheSize = 64;
+    private static ConnectionPool pool;
     private static String currentUsername;
 
     /**
-     * Opens a connection to the database.
-     *
-     * @return The database connection.
+     * Opens the connection pool, creating the schema first if the configuration asks for it. Calling this again while
+     * the pool is open has no effect.
      */
-    public static Connection openConnection() {
+    public static synchronized void openPool() {
+        if (pool != null) {
+            return;
+        }
+        DataSourceConfig config = DataSourceConfig.load();
         try {
-            Class.forName(driver);
-            connection = DriverManager.getConnection(jdbcUrl, userName, password);
-            System.out.println("Connection successful!");
-        } catch (ClassNotFoundException | SQLException e) {
+            if (!config.getDriver().isEmpty()) {
+                Class.forName(config.getDriver());
+            }
+            if (config.isCreateSchema()) {
+                DatabaseInitializer.initialize(config);
+            }
+            pool = new ConnectionPool(config.getUrl(), config.getUserName(), config.getPassword(), maxPoolSize,
+                    borrowTimeoutMillis, idleTimeoutMillis, maxLifetimeMillis, leakThresholdMillis, statementCacheSize);
+            System.out.println("Connection pool opened: " + config);
+        } catch (ClassNotFoundException | SQLException | IOException e) {
             e.printStackTrace();
-            System.out.println("Failed to open database connection: " + e.getMessage());
+            System.out.println("Failed to open connection pool: " + e.getMessage());
         }
-        return connection;
     }
 
     /**
-     * Closes the database connection.
+     * Closes the connection pool and every idle connection in it.
      */
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Connection closed!");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.out.println("Failed to close database connection: " + e.getMessage());
+    public static synchronized void closePool() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+            System.out.println(getStatementCacheStats());
+            System.out.println(ReferenceCache.getStats());
+            System.out.println("Connection pool closed!");
         }
     }
 
     /**
-     * Checks if the connection is still valid, and reopens it if it is not.
+     * Borrows a connection from the pool, opening the pool first if necessary.
+     * The caller must close the connection, preferably with try-with-resources, to return it to the pool.
+     *
+     * @return A validated database connection.
+     * @throws SQLException If no connection could be obtained.
      */
-    public static void ensureConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                openConnection();
+    public static Connection getConnection() throws SQLException {
+        ConnectionPool current;
+        synchronized (JDBC.class) {
+            if (pool == null) {
+                openPool();
             }
-        } catch (SQLException e) {
-            System.out.println("Error checking connection validity: " + e.getMessage());
+            current = pool;
+        }
+        if (current == null) {
+            throw new SQLException("Database connection pool is not available.");
         }
+        return current.borrow();
+    }
+
+    /**
+     * Describes how well the prepared-statement caches of the pooled connections are doing.
+     *
+     * @return The hit and miss counts and the hit rate.
+     */
+    public static String getStatementCacheStats() {
+        return String.format("Statement cache: %d hits, %d misses (%.1f%% hit rate)",
+                StatementCache.getHitCount(), StatementCache.getMissCount(), StatementCache.getHitRate() * 100);
     }
 
     /**
@@ -90,15 +116,10 @@ public abstract class JDBC {
      * @return True if authentication is successful, false otherwise.
      */
     public static boolean authenticateUser(String username, String password) {
-        ensureConnection();
-        if (connection == null) {
-            System.out.println("Database connection is not established.");
-            return false;
-        }
-
         String query = "SELECT * FROM users WHERE User_Name = ? AND Password = ?";
 
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+        try (Connection connection = getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             preparedStatement.setString(1, username);
             preparedStatement.setString(2, password);
 
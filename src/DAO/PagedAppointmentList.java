@@ -0,0 +1,440 @@
+package DAO;
+
+import javafx.collections.ObservableListBase;
+import model.Appointment;
+import util.TimeZoneConverter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * A read-only list of every appointment in (Start, Appointment_ID) order that loads its rows a page at a time, for
+ * use as the items of a {@code TableView}.
+ * <p>
+ * The size of the list comes from a COUNT query, and rows are fetched only when the table asks for them, so the
+ * first page is shown without reading the rest of the table. Asking for a row whose page is not in memory returns
+ * null and starts loading that page in the background with
+ * {@link AppointmentDAO#getAppointmentPage(LocalDateTime, int, int)}; when it arrives the rows are replaced and the
+ * table redraws them. Pages are located by keyset: the key of the last row of each loaded page is remembered, so
+ * scrolling fetches the next page with an index seek. Only when the user jumps past pages never loaded is the
+ * boundary key looked up by stepping through the index, from the nearest remembered key before the page or from
+ * whichever end of the table is closer. At most {@code maxPages} pages are kept; the least recently used page is
+ * dropped and fetched again if it is needed later.
+ * <p>
+ * After a change to the appointments table, {@link #insertAppointment(Appointment, Appointment)},
+ * {@link #replaceAppointment(Appointment, Appointment)} and {@link #removeAppointment(int)} apply it to the loaded
+ * pages as a single-row change, so the table keeps its selection and scroll position; pages after the change are
+ * fetched again only if they are on screen. When the position of a change cannot be worked out from the loaded pages, the list falls back
+ * to {@link #refresh()}.
+ * <p>
+ * All methods must be called on the JavaFX application thread, where results are also delivered.
+ */
+public class PagedAppointmentList extends ObservableListBase<Appointment> {
+
+    private static final int pageSize = 100;
+    private static final int maxPages = 20;
+
+    private final TimeZoneConverter displayZone;
+    private final Runnable onLoaded;
+    private final Consumer<Throwable> onError;
+
+    private final LinkedHashMap<Integer, Page> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+            return size() > maxPages;
+        }
+    };
+    private final Map<Integer, PageKey> pageEndKeys = new HashMap<>();
+    private final Map<Integer, CompletableFuture<?>> loading = new HashMap<>();
+    private CompletableFuture<?> pendingCount;
+    private int size;
+    private boolean countLoaded;
+    private int generation;
+    private int pageGeneration;
+
+    /**
+     * Creates the list and starts loading the appointment count and the first page.
+     *
+     * @param displayZone The zone rows are displayed in; each page is converted to it once, on the background thread.
+     * @param onLoaded    Called whenever the appointment count has been loaded.
+     * @param onError     Called with the cause when a page or the count cannot be loaded.
+     */
+    public PagedAppointmentList(ZoneId displayZone, Runnable onLoaded, Consumer<Throwable> onError) {
+        this.displayZone = TimeZoneConverter.of(displayZone);
+        this.onLoaded = onLoaded;
+        this.onError = onError;
+        refresh();
+    }
+
+    @Override
+    public Appointment get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        int page = index / pageSize;
+        int offset = index % pageSize;
+        Page loaded = pages.get(page);
+        if (loaded == null || offset >= loaded.rows.size()) {
+            // Not loaded, or shortened by a removal and missing the rows that moved up from the next page.
+            loadPage(page);
+            return null;
+        }
+        if (offset >= pageSize * 3 / 4 && (page + 1) * pageSize < size && !pages.containsKey(page + 1)) {
+            loadPage(page + 1);
+        }
+        return loaded.rows.get(offset);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drops every loaded page and reloads the count and the rows currently on screen, for example after the
+     * appointments table changed. The list keeps its size until the new count arrives, so the table does not scroll.
+     */
+    public void refresh() {
+        cancelLoads();
+        generation++;
+        pages.clear();
+        pageEndKeys.clear();
+        countLoaded = false;
+        if (size > 0) {
+            fireReplaced(0, size);
+        } else {
+            loadPage(0);
+        }
+
+        int requested = generation;
+        pendingCount = AsyncDAO.onFxThread(AsyncDAO.supply(AppointmentDAO::countAppointments), count -> {
+            if (requested != generation) {
+                return;
+            }
+            countLoaded = true;
+            resize(count);
+            onLoaded.run();
+        }, onError);
+    }
+
+    /**
+     * Shows an appointment that was just added.
+     *
+     * @param stored  The appointment as stored, with times in UTC.
+     * @param display The same appointment as it should be displayed.
+     */
+    public void insertAppointment(Appointment stored, Appointment display) {
+        PageKey key = new PageKey(stored.getStart(), stored.getAppointmentId());
+        int index = positionOf(key);
+        if (index < 0) {
+            refresh();
+            return;
+        }
+        insertAt(index, key, display);
+    }
+
+    /**
+     * Shows the new state of an appointment that was just updated. If its start did not move it past a neighbour,
+     * the row is replaced where it is; otherwise it is moved to its new position.
+     *
+     * @param stored  The appointment as stored, with times in UTC.
+     * @param display The same appointment as it should be displayed.
+     */
+    public void replaceAppointment(Appointment stored, Appointment display) {
+        int index = indexOf(stored.getAppointmentId());
+        if (index < 0) {
+            refresh();
+            return;
+        }
+        PageKey key = new PageKey(stored.getStart(), stored.getAppointmentId());
+        PageKey previous = index == 0 ? null : keyAt(index - 1);
+        PageKey next = index == size - 1 ? null : keyAt(index + 1);
+        boolean previousInOrder = index == 0 || (previous != null && previous.compareTo(key) < 0);
+        boolean nextInOrder = index == size - 1 || (next != null && key.compareTo(next) < 0);
+        if (!previousInOrder || !nextInOrder) {
+            removeAt(index);
+            insertAppointment(stored, display);
+            return;
+        }
+
+        Page page = pages.get(index / pageSize);
+        int offset = index % pageSize;
+        Appointment old = page.rows.set(offset, display);
+        page.keys.set(offset, key);
+        if (offset == page.keys.size() - 1 && pageEndKeys.containsKey(index / pageSize)) {
+            pageEndKeys.put(index / pageSize, key);
+        }
+        beginChange();
+        nextSet(index, old);
+        endChange();
+    }
+
+    /**
+     * Removes an appointment that was just deleted.
+     *
+     * @param appointmentId The ID of the deleted appointment.
+     */
+    public void removeAppointment(int appointmentId) {
+        int index = indexOf(appointmentId);
+        if (index < 0) {
+            refresh();
+            return;
+        }
+        removeAt(index);
+    }
+
+    /**
+     * Stops all loading and releases the loaded pages. The list is empty afterwards.
+     */
+    public void dispose() {
+        cancelLoads();
+        generation++;
+        pages.clear();
+        pageEndKeys.clear();
+        resize(0);
+    }
+
+    private void loadPage(int page) {
+        if (loading.containsKey(page)) {
+            return;
+        }
+        int requested = pageGeneration;
+        PageKey after = page == 0 ? null : pageEndKeys.get(page - 1);
+        int boundaryPosition = page * pageSize - 1;
+        int anchorPage = -1;
+        for (int loaded : pageEndKeys.keySet()) {
+            if (loaded < page - 1 && loaded > anchorPage) {
+                anchorPage = loaded;
+            }
+        }
+        PageKey anchor = anchorPage < 0 ? null : pageEndKeys.get(anchorPage);
+        int skipFromAnchor = boundaryPosition - (anchorPage + 1) * pageSize;
+        int skipFromEnd = countLoaded ? size - 1 - boundaryPosition : Integer.MAX_VALUE;
+        CompletableFuture<Page> query = AsyncDAO.supply(() -> {
+            PageKey start = after;
+            if (page > 0 && start == null) {
+                Appointment boundary;
+                if (skipFromEnd < skipFromAnchor) {
+                    boundary = skipFromEnd < 0 ? null : AppointmentDAO.getAppointmentKeyFromEnd(skipFromEnd);
+                } else if (anchor == null) {
+                    boundary = AppointmentDAO.getAppointmentKeyAfter(null, 0, skipFromAnchor);
+                } else {
+                    boundary = AppointmentDAO.getAppointmentKeyAfter(anchor.start, anchor.appointmentId, skipFromAnchor);
+                }
+                if (boundary == null) {
+                    return new Page(new ArrayList<>(), new ArrayList<>());
+                }
+                start = new PageKey(boundary.getStart(), boundary.getAppointmentId());
+            }
+            List<Appointment> rows = start == null
+                    ? AppointmentDAO.getAppointmentPage(null, 0, pageSize)
+                    : AppointmentDAO.getAppointmentPage(start.start, start.appointmentId, pageSize);
+            List<PageKey> keys = new ArrayList<>(rows.size());
+            for (Appointment row : rows) {
+                keys.add(new PageKey(row.getStart(), row.getAppointmentId()));
+            }
+            return new Page(this.displayZone.toLocal(rows), keys);
+        });
+        loading.put(page, query);
+
+        AsyncDAO.onFxThread(query, loaded -> {
+            if (requested != pageGeneration) {
+                return;
+            }
+            loading.remove(page);
+            pages.put(page, loaded);
+            if (!loaded.keys.isEmpty()) {
+                pageEndKeys.put(page, loaded.keys.get(loaded.keys.size() - 1));
+            }
+            int from = page * pageSize;
+            if (!countLoaded && from + loaded.rows.size() > size) {
+                resize(from + loaded.rows.size());
+            }
+            fireReplaced(from, Math.min(size, from + pageSize));
+        }, error -> {
+            if (requested == pageGeneration) {
+                loading.remove(page);
+                onError.accept(error);
+            }
+        });
+    }
+
+    private void cancelLoads() {
+        cancelPageLoads();
+        AsyncDAO.cancel(pendingCount);
+    }
+
+    private void cancelPageLoads() {
+        for (CompletableFuture<?> query : loading.values()) {
+            AsyncDAO.cancel(query);
+        }
+        loading.clear();
+        pageGeneration++;
+    }
+
+    private int indexOf(int appointmentId) {
+        for (Map.Entry<Integer, Page> entry : pages.entrySet()) {
+            List<PageKey> keys = entry.getValue().keys;
+            for (int offset = 0; offset < keys.size(); offset++) {
+                if (keys.get(offset).appointmentId == appointmentId) {
+                    return entry.getKey() * pageSize + offset;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private PageKey keyAt(int index) {
+        Page page = pages.get(index / pageSize);
+        int offset = index % pageSize;
+        return page != null && offset < page.keys.size() ? page.keys.get(offset) : null;
+    }
+
+    /**
+     * Works out where a new key belongs from the loaded pages alone.
+     *
+     * @param key The key of the new row.
+     * @return The index the row belongs at, or -1 if the loaded pages do not tell.
+     */
+    private int positionOf(PageKey key) {
+        for (Map.Entry<Integer, Page> entry : pages.entrySet()) {
+            int page = entry.getKey();
+            List<PageKey> keys = entry.getValue().keys;
+            int insertion = -Collections.binarySearch(keys, key) - 1;
+            if (insertion < 0) {
+                continue;
+            }
+            int index = page * pageSize + insertion;
+            if (insertion > 0 && insertion < keys.size()) {
+                return index;
+            }
+            if (insertion == 0 && page == 0) {
+                return 0;
+            }
+            if (insertion == keys.size() && index >= size) {
+                return index;
+            }
+            if (insertion == keys.size() && keys.size() == pageSize) {
+                Page following = pages.get(page + 1);
+                if (following != null && !following.keys.isEmpty() && key.compareTo(following.keys.get(0)) < 0) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void insertAt(int index, PageKey key, Appointment display) {
+        int page = index / pageSize;
+        int offset = index % pageSize;
+        cancelPageLoads();
+        dropPagesAfter(page);
+
+        Page loaded = pages.get(page);
+        if (loaded != null) {
+            loaded.rows.add(offset, display);
+            loaded.keys.add(offset, key);
+            if (loaded.rows.size() > pageSize) {
+                loaded.rows.remove(pageSize);
+                loaded.keys.remove(pageSize);
+            }
+            pageEndKeys.put(page, loaded.keys.get(loaded.keys.size() - 1));
+        }
+
+        size++;
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    private void removeAt(int index) {
+        int page = index / pageSize;
+        int offset = index % pageSize;
+        cancelPageLoads();
+        dropPagesAfter(page);
+        pageEndKeys.remove(page);
+
+        Page loaded = pages.get(page);
+        Appointment removed = loaded.rows.remove(offset);
+        loaded.keys.remove(offset);
+
+        size--;
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+    }
+
+    /**
+     * Forgets every page after the given one, since a row inserted or removed before them shifts all their rows.
+     *
+     * @param page The last page to keep.
+     */
+    private void dropPagesAfter(int page) {
+        pages.keySet().removeIf(loaded -> loaded > page);
+        pageEndKeys.keySet().removeIf(loaded -> loaded > page);
+    }
+
+    private void resize(int newSize) {
+        if (newSize == size) {
+            return;
+        }
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (newSize > oldSize) {
+            nextAdd(oldSize, newSize);
+        } else {
+            nextRemove(newSize, new ArrayList<>(Collections.nCopies(oldSize - newSize, null)));
+        }
+        endChange();
+    }
+
+    private void fireReplaced(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        beginChange();
+        nextReplace(from, to, new ArrayList<>(Collections.nCopies(to - from, null)));
+        endChange();
+    }
+
+    /**
+     * The (Start, Appointment_ID) key of a row, with the start in UTC.
+     */
+    private static final class PageKey implements Comparable<PageKey> {
+        private final LocalDateTime start;
+        private final int appointmentId;
+
+        private PageKey(LocalDateTime start, int appointmentId) {
+            this.start = start;
+            this.appointmentId = appointmentId;
+        }
+
+        @Override
+        public int compareTo(PageKey other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Integer.compare(appointmentId, other.appointmentId);
+        }
+    }
+
+    /**
+     * A loaded page: its rows as displayed, and the key of each row.
+     */
+    private static final class Page {
+        private final List<Appointment> rows;
+        private final List<PageKey> keys;
+
+        private Page(List<Appointment> rows, List<PageKey> keys) {
+            this.rows = rows;
+            this.keys = keys;
+        }
+    }
+}
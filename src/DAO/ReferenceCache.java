@@ -0,0 +1,383 @@
+package DAO;
+
+import model.Contact;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through, in-memory cache of the reference tables: contacts, first-level divisions, countries and users.
+ * <p>
+ * These tables change rarely but are consulted on every add, update and row selection. Each table is loaded in full
+ * the first time it is needed and kept as an immutable snapshot with hash indexes, so lookups afterwards are O(1)
+ * and never touch the database. A snapshot is reloaded after {@code ttlMillis}, or on the next lookup after one of the
+ * {@code invalidate} methods is called. Hit and miss counts are kept per table and reported by {@link #getStats()}.
+ * <p>
+ * The list of countries that have customers depends on the customers table, so {@link CustomerDAO} invalidates it
+ * whenever it changes a customer.
+ */
+public final class ReferenceCache {
+
+    private static final long ttlMillis = 10 * 60_000;
+
+    private static final Cached<ContactData> contacts = new Cached<>("contacts", ReferenceCache::loadContacts);
+    private static final Cached<DivisionData> divisions = new Cached<>("divisions", ReferenceCache::loadDivisions);
+    private static final Cached<UserData> users = new Cached<>("users", ReferenceCache::loadUsers);
+    private static final Cached<List<String>> customerCountries = new Cached<>("customer countries", ReferenceCache::loadCustomerCountries);
+
+    private ReferenceCache() {
+    }
+
+    /**
+     * Retrieves all contacts.
+     *
+     * @return A list of Contact objects, in table order.
+     * @throws SQLException If the contacts have to be loaded and the query fails.
+     */
+    public static List<Contact> getContacts() throws SQLException {
+        List<Contact> result = new ArrayList<>();
+        for (Map.Entry<String, Integer> contact : contacts.get().idsByName.entrySet()) {
+            result.add(new Contact(contact.getValue(), contact.getKey()));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the names of all contacts.
+     *
+     * @return A list of contact names, in table order.
+     * @throws SQLException If the contacts have to be loaded and the query fails.
+     */
+    public static List<String> getContactNames() throws SQLException {
+        return new ArrayList<>(contacts.get().idsByName.keySet());
+    }
+
+    /**
+     * Retrieves the ID of a contact by its name.
+     *
+     * @param contactName The name of the contact.
+     * @return The ID of the contact, or -1 if not found.
+     * @throws SQLException If the contacts have to be loaded and the query fails.
+     */
+    public static int getContactId(String contactName) throws SQLException {
+        return contacts.get().idsByName.getOrDefault(contactName, -1);
+    }
+
+    /**
+     * Retrieves the name of a contact by its ID.
+     *
+     * @param contactId The ID of the contact.
+     * @return The name of the contact, or null if not found.
+     * @throws SQLException If the contacts have to be loaded and the query fails.
+     */
+    public static String getContactName(int contactId) throws SQLException {
+        return contacts.get().namesById.get(contactId);
+    }
+
+    /**
+     * Retrieves the division ID based on the division name.
+     *
+     * @param divisionName The name of the division.
+     * @return The division ID, or -1 if not found.
+     * @throws SQLException If the divisions have to be loaded and the query fails.
+     */
+    public static int getDivisionId(String divisionName) throws SQLException {
+        return divisions.get().idsByName.getOrDefault(divisionName, -1);
+    }
+
+    /**
+     * Retrieves the division name based on the division ID.
+     *
+     * @param divisionId The ID of the division.
+     * @return The name of the division, or null if not found.
+     * @throws SQLException If the divisions have to be loaded and the query fails.
+     */
+    public static String getDivisionName(int divisionId) throws SQLException {
+        return divisions.get().namesById.get(divisionId);
+    }
+
+    /**
+     * Retrieves the names of all countries.
+     *
+     * @return A list of country names.
+     * @throws SQLException If the divisions have to be loaded and the query fails.
+     */
+    public static List<String> getCountries() throws SQLException {
+        return new ArrayList<>(divisions.get().divisionsByCountry.keySet());
+    }
+
+    /**
+     * Retrieves the divisions of a country.
+     *
+     * @param country The name of the country.
+     * @return A list of division names, empty if the country is unknown.
+     * @throws SQLException If the divisions have to be loaded and the query fails.
+     */
+    public static List<String> getDivisionsForCountry(String country) throws SQLException {
+        return new ArrayList<>(divisions.get().divisionsByCountry.getOrDefault(country, Collections.emptyList()));
+    }
+
+    /**
+     * Retrieves the names of the countries that have at least one customer.
+     *
+     * @return A list of country names.
+     * @throws SQLException If the countries have to be loaded and the query fails.
+     */
+    public static List<String> getCountriesWithCustomers() throws SQLException {
+        return new ArrayList<>(customerCountries.get());
+    }
+
+    /**
+     * Checks if a user exists.
+     *
+     * @param userId The ID of the user.
+     * @return True if the user exists, false otherwise.
+     * @throws SQLException If the users have to be loaded and the query fails.
+     */
+    public static boolean userExists(int userId) throws SQLException {
+        return users.get().namesById.containsKey(userId);
+    }
+
+    /**
+     * Retrieves the user ID based on the username.
+     *
+     * @param username The username of the user.
+     * @return The user ID, or -1 if not found.
+     * @throws SQLException If the users have to be loaded and the query fails.
+     */
+    public static int getUserId(String username) throws SQLException {
+        return users.get().idsByName.getOrDefault(username, -1);
+    }
+
+    /**
+     * Drops the cached contacts so the next lookup reloads them.
+     */
+    public static void invalidateContacts() {
+        contacts.invalidate();
+    }
+
+    /**
+     * Drops the cached divisions and countries so the next lookup reloads them.
+     */
+    public static void invalidateDivisions() {
+        divisions.invalidate();
+    }
+
+    /**
+     * Drops the cached users so the next lookup reloads them.
+     */
+    public static void invalidateUsers() {
+        users.invalidate();
+    }
+
+    /**
+     * Drops the cached list of countries that have customers so the next lookup reloads it.
+     */
+    public static void invalidateCustomerCountries() {
+        customerCountries.invalidate();
+    }
+
+    /**
+     * Drops what another client's changes made stale. Added, updated or deleted customers can change which countries
+     * have customers; the other cached tables are not in the change log.
+     *
+     * @param changes The changes delivered by the {@link ChangeFeed}.
+     */
+    public static void applyChanges(ChangeSet changes) {
+        if (changes.hasCustomerChanges()) {
+            invalidateCustomerCountries();
+        }
+    }
+
+    /**
+     * Drops every cached table.
+     */
+    public static void invalidateAll() {
+        invalidateContacts();
+        invalidateDivisions();
+        invalidateUsers();
+        invalidateCustomerCountries();
+    }
+
+    /**
+     * Describes the hit rate of every cached table.
+     *
+     * @return One line per table with its hit and miss counts.
+     */
+    public static String getStats() {
+        return "Reference cache:\n" + contacts.describe() + "\n" + divisions.describe() + "\n" + users.describe()
+                + "\n" + customerCountries.describe();
+    }
+
+    private static ContactData loadContacts(Connection connection) throws SQLException {
+        Map<String, Integer> idsByName = new LinkedHashMap<>();
+        Map<Integer, String> namesById = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT Contact_ID, Contact_Name FROM contacts")) {
+            while (rs.next()) {
+                idsByName.put(rs.getString("Contact_Name"), rs.getInt("Contact_ID"));
+                namesById.put(rs.getInt("Contact_ID"), rs.getString("Contact_Name"));
+            }
+        }
+        return new ContactData(idsByName, namesById);
+    }
+
+    private static DivisionData loadDivisions(Connection connection) throws SQLException {
+        String query = "SELECT d.Division_ID, d.Division, c.Country " +
+                "FROM first_level_divisions d " +
+                "JOIN countries c ON d.Country_ID = c.Country_ID " +
+                "ORDER BY c.Country_ID, d.Division_ID";
+        Map<String, Integer> idsByName = new HashMap<>();
+        Map<Integer, String> namesById = new HashMap<>();
+        Map<String, List<String>> divisionsByCountry = new LinkedHashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                int divisionId = rs.getInt("Division_ID");
+                String division = rs.getString("Division");
+                idsByName.put(division, divisionId);
+                namesById.put(divisionId, division);
+                divisionsByCountry.computeIfAbsent(rs.getString("Country"), country -> new ArrayList<>()).add(division);
+            }
+        }
+        return new DivisionData(idsByName, namesById, divisionsByCountry);
+    }
+
+    private static UserData loadUsers(Connection connection) throws SQLException {
+        Map<String, Integer> idsByName = new HashMap<>();
+        Map<Integer, String> namesById = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT User_ID, User_Name FROM users")) {
+            while (rs.next()) {
+                idsByName.put(rs.getString("User_Name"), rs.getInt("User_ID"));
+                namesById.put(rs.getInt("User_ID"), rs.getString("User_Name"));
+            }
+        }
+        return new UserData(idsByName, namesById);
+    }
+
+    private static List<String> loadCustomerCountries(Connection connection) throws SQLException {
+        List<String> countries = new ArrayList<>();
+        String query = "SELECT DISTINCT c.Country " +
+                "FROM countries c " +
+                "JOIN first_level_divisions fld ON c.Country_ID = fld.Country_ID " +
+                "JOIN customers cust ON fld.Division_ID = cust.Division_ID";
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(query)) {
+            while (rs.next()) {
+                countries.add(rs.getString("Country"));
+            }
+        }
+        return Collections.unmodifiableList(countries);
+    }
+
+    /**
+     * Loads one snapshot of a reference table.
+     *
+     * @param <T> The type of the snapshot.
+     */
+    private interface Loader<T> {
+        T load(Connection connection) throws SQLException;
+    }
+
+    /**
+     * One cached table: the current snapshot, when it was loaded, and how often it was used.
+     *
+     * @param <T> The type of the snapshot.
+     */
+    private static final class Cached<T> {
+        private final String name;
+        private final Loader<T> loader;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private volatile T value;
+        private volatile long loadedAt;
+
+        private Cached(String name, Loader<T> loader) {
+            this.name = name;
+            this.loader = loader;
+        }
+
+        private T get() throws SQLException {
+            T current = value;
+            if (current != null && System.currentTimeMillis() - loadedAt < ttlMillis) {
+                hits.incrementAndGet();
+                return current;
+            }
+            synchronized (this) {
+                current = value;
+                if (current != null && System.currentTimeMillis() - loadedAt < ttlMillis) {
+                    hits.incrementAndGet();
+                    return current;
+                }
+                misses.incrementAndGet();
+                try (Connection connection = JDBC.getConnection()) {
+                    current = loader.load(connection);
+                }
+                value = current;
+                loadedAt = System.currentTimeMillis();
+                return current;
+            }
+        }
+
+        private void invalidate() {
+            value = null;
+        }
+
+        private String describe() {
+            long hitCount = hits.get();
+            long total = hitCount + misses.get();
+            return String.format("  %s: %d hits, %d misses (%.1f%% hit rate)", name, hitCount, total - hitCount,
+                    total == 0 ? 0.0 : hitCount * 100.0 / total);
+        }
+    }
+
+    /**
+     * Snapshot of the contacts table.
+     */
+    private static final class ContactData {
+        private final Map<String, Integer> idsByName;
+        private final Map<Integer, String> namesById;
+
+        private ContactData(Map<String, Integer> idsByName, Map<Integer, String> namesById) {
+            this.idsByName = Collections.unmodifiableMap(idsByName);
+            this.namesById = Collections.unmodifiableMap(namesById);
+        }
+    }
+
+    /**
+     * Snapshot of the first_level_divisions and countries tables.
+     */
+    private static final class DivisionData {
+        private final Map<String, Integer> idsByName;
+        private final Map<Integer, String> namesById;
+        private final Map<String, List<String>> divisionsByCountry;
+
+        private DivisionData(Map<String, Integer> idsByName, Map<Integer, String> namesById, Map<String, List<String>> divisionsByCountry) {
+            this.idsByName = Collections.unmodifiableMap(idsByName);
+            this.namesById = Collections.unmodifiableMap(namesById);
+            this.divisionsByCountry = Collections.unmodifiableMap(divisionsByCountry);
+        }
+    }
+
+    /**
+     * Snapshot of the users table, without passwords.
+     */
+    private static final class UserData {
+        private final Map<String, Integer> idsByName;
+        private final Map<Integer, String> namesById;
+
+        private UserData(Map<String, Integer> idsByName, Map<Integer, String> namesById) {
+            this.idsByName = Collections.unmodifiableMap(idsByName);
+            this.namesById = Collections.unmodifiableMap(namesById);
+        }
+    }
+}
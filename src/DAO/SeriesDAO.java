@@ -0,0 +1,412 @@
+package DAO;
+
+import model.Appointment;
+import model.AppointmentSeries;
+import model.RecurrenceRule;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Data access for recurring appointment series, each stored as one row of the appointment_series table and one row
+ * of series_exceptions for every cancelled occurrence.
+ * <p>
+ * Besides the recurrence rule, every row stores the UTC start of its first occurrence and the UTC end of its last
+ * one, or NULL if the series never ends. Those two columns let the database return only the series that can have an
+ * occurrence in a window; the occurrences themselves are expanded in memory, and only for that window.
+ * <p>
+ * Changes are logged to the change_log table like those of appointments and customers. Other clients do not fetch
+ * the changed series, which are always read fresh, but count them in {@link DataVersion#getSeriesVersion()}.
+ */
+public class SeriesDAO {
+
+    private static final String seriesColumns = "SELECT s.Series_ID, s.Title, s.Description, s.Location, s.Type, " +
+            "s.First_Start, s.Duration_Minutes, s.Time_Zone, s.Recurrence, s.Customer_ID, s.User_ID, " +
+            "c.Contact_Name FROM appointment_series s JOIN contacts c ON s.Contact_ID = c.Contact_ID";
+    private static final String exceptionColumns = "SELECT e.Series_ID, e.Occurrence_Date FROM series_exceptions e " +
+            "JOIN appointment_series s ON e.Series_ID = s.Series_ID";
+    private static final String insertException = "INSERT INTO series_exceptions (Series_ID, Occurrence_Date) VALUES (?, ?)";
+
+    /**
+     * How far ahead reports count the occurrences of series that never end.
+     */
+    private static final Duration reportHorizon = Duration.ofDays(366);
+
+    /**
+     * Retrieves every series.
+     *
+     * @return The series ordered by ID.
+     * @throws SQLException If a database error occurs.
+     */
+    public static List<AppointmentSeries> getAllSeries() throws SQLException {
+        return getSeriesInRange(null, null, null, null, null);
+    }
+
+    /**
+     * Retrieves a series by its ID.
+     *
+     * @param seriesId The ID of the series.
+     * @return The series, or null if there is no series with the ID.
+     * @throws SQLException If a database error occurs.
+     */
+    public static AppointmentSeries getSeries(int seriesId) throws SQLException {
+        List<AppointmentSeries> series = query(" WHERE s.Series_ID = ?", List.<Object>of(seriesId));
+        return series.isEmpty() ? null : series.get(0);
+    }
+
+    /**
+     * Retrieves the series that can have an occurrence within a window, optionally narrowed to a user, contact or
+     * customer.
+     *
+     * @param windowStart The start of the window, or null for no lower bound.
+     * @param windowEnd   The end of the window, or null for no upper bound.
+     * @param userId      The ID of the user to filter by, or null for all users.
+     * @param contactId   The ID of the contact to filter by, or null for all contacts.
+     * @param customerId  The ID of the customer to filter by, or null for all customers.
+     * @return The matching series ordered by ID.
+     * @throws SQLException If a database error occurs.
+     */
+    public static List<AppointmentSeries> getSeriesInRange(Instant windowStart, Instant windowEnd, Integer userId,
+                                                           Integer contactId, Integer customerId) throws SQLException {
+        StringBuilder sqlBuilder = new StringBuilder(" WHERE 1 = 1");
+        List<Object> values = new ArrayList<>();
+        if (windowEnd != null) {
+            sqlBuilder.append(" AND s.First_Start < ?");
+            values.add(Timestamp.valueOf(LocalDateTime.ofInstant(windowEnd, ZoneOffset.UTC)));
+        }
+        if (windowStart != null) {
+            sqlBuilder.append(" AND (s.Last_End IS NULL OR s.Last_End > ?)");
+            values.add(Timestamp.valueOf(LocalDateTime.ofInstant(windowStart, ZoneOffset.UTC)));
+        }
+        if (userId != null) {
+            sqlBuilder.append(" AND s.User_ID = ?");
+            values.add(userId);
+        }
+        if (contactId != null) {
+            sqlBuilder.append(" AND s.Contact_ID = ?");
+            values.add(contactId);
+        }
+        if (customerId != null) {
+            sqlBuilder.append(" AND s.Customer_ID = ?");
+            values.add(customerId);
+        }
+        return query(sqlBuilder.toString(), values);
+    }
+
+    /**
+     * Reads the series a condition selects, together with their exceptions. The exceptions are read first, with the
+     * same condition, so a series never comes back without an exception that was stored before it was read.
+     *
+     * @param where  The WHERE clause, on the columns of appointment_series aliased as s.
+     * @param values The values of the placeholders of the clause.
+     * @return The selected series ordered by ID.
+     * @throws SQLException If a database error occurs.
+     */
+    private static List<AppointmentSeries> query(String where, List<Object> values) throws SQLException {
+        Map<Integer, List<LocalDate>> exceptions = new HashMap<>();
+        List<AppointmentSeries> series = new ArrayList<>();
+        try (Connection connection = JDBC.getConnection()) {
+            try (PreparedStatement ps = connection.prepareStatement(exceptionColumns + where)) {
+                bind(ps, values);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        exceptions.computeIfAbsent(rs.getInt("Series_ID"), id -> new ArrayList<>())
+                                .add(rs.getDate("Occurrence_Date").toLocalDate());
+                    }
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(seriesColumns + where + " ORDER BY s.Series_ID")) {
+                bind(ps, values);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        series.add(mapSeries(rs, exceptions.getOrDefault(rs.getInt("Series_ID"), List.of())));
+                    }
+                }
+            }
+        }
+        return series;
+    }
+
+    private static void bind(PreparedStatement ps, List<Object> values) throws SQLException {
+        for (int i = 0; i < values.size(); i++) {
+            ps.setObject(i + 1, values.get(i));
+        }
+    }
+
+    /**
+     * Expands the occurrences of every matching series within a window. Only the series that can occur in the window
+     * are read, and only their occurrences within it are built.
+     *
+     * @param windowStart The inclusive start of the window.
+     * @param windowEnd   The exclusive end of the window.
+     * @param userId      The ID of the user to filter by, or null for all users.
+     * @param contactId   The ID of the contact to filter by, or null for all contacts.
+     * @param customerId  The ID of the customer to filter by, or null for all customers.
+     * @return The occurrences that start within the window, with times in UTC, in no particular order.
+     * @throws SQLException If a database error occurs.
+     */
+    public static List<Appointment> getOccurrencesInRange(Instant windowStart, Instant windowEnd, Integer userId,
+                                                          Integer contactId, Integer customerId) throws SQLException {
+        LocalDateTime startUTC = LocalDateTime.ofInstant(windowStart, ZoneOffset.UTC);
+        LocalDateTime endUTC = LocalDateTime.ofInstant(windowEnd, ZoneOffset.UTC);
+        List<Appointment> occurrences = new ArrayList<>();
+        for (AppointmentSeries series : getSeriesInRange(windowStart, windowEnd, userId, contactId, customerId)) {
+            for (Appointment occurrence : series.occurrencesBetween(startUTC, endUTC)) {
+                // Match the appointment queries, which select by start.
+                if (!occurrence.getStart().isBefore(startUTC)) {
+                    occurrences.add(occurrence);
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * Retrieves the times a contact or a customer is busy with the occurrences of their series within a window, like
+     * {@link AppointmentDAO#getBusyIntervals(Instant, Instant, Integer, Integer)} does for single appointments.
+     *
+     * @param windowStart The start of the window; occurrences that end after it are included.
+     * @param windowEnd   The end of the window; occurrences that start before it are included.
+     * @param contactId   The ID of the contact, or null to ignore contacts.
+     * @param customerId  The ID of the customer, or null to ignore customers.
+     * @return The busy intervals as UTC epoch seconds, flattened to start and end pairs and ordered by start. An
+     * occurrence of a series of both the contact and the customer appears twice.
+     * @throws SQLException If a database error occurs.
+     */
+    public static long[] getBusyIntervals(Instant windowStart, Instant windowEnd, Integer contactId, Integer customerId) throws SQLException {
+        List<AppointmentSeries> series = new ArrayList<>();
+        if (contactId != null) {
+            series.addAll(getSeriesInRange(windowStart, windowEnd, null, contactId, null));
+        }
+        if (customerId != null) {
+            series.addAll(getSeriesInRange(windowStart, windowEnd, null, null, customerId));
+        }
+        LocalDateTime startUTC = LocalDateTime.ofInstant(windowStart, ZoneOffset.UTC);
+        LocalDateTime endUTC = LocalDateTime.ofInstant(windowEnd, ZoneOffset.UTC);
+        List<long[]> occurrences = new ArrayList<>();
+        for (AppointmentSeries each : series) {
+            long length = each.getDuration().getSeconds();
+            each.forEachOccurrence(startUTC, endUTC, occurrenceStart -> {
+                long start = occurrenceStart.toEpochSecond(ZoneOffset.UTC);
+                occurrences.add(new long[]{start, start + length});
+            });
+        }
+        occurrences.sort(Comparator.comparingLong(interval -> interval[0]));
+        long[] intervals = new long[2 * occurrences.size()];
+        for (int i = 0; i < occurrences.size(); i++) {
+            intervals[2 * i] = occurrences.get(i)[0];
+            intervals[2 * i + 1] = occurrences.get(i)[1];
+        }
+        return intervals;
+    }
+
+    /**
+     * Counts the occurrences of every series by type and month, for the appointment frequency report. Series that
+     * never end are counted up to a year from now. The occurrences are counted as they are generated and never built.
+     *
+     * @return The counts by type and then by English month name.
+     * @throws SQLException If a database error occurs.
+     */
+    public static Map<String, Map<String, Integer>> countOccurrencesByTypeAndMonth() throws SQLException {
+        LocalDateTime horizon = LocalDateTime.now(ZoneOffset.UTC).plus(reportHorizon);
+        Map<String, Map<String, Integer>> counts = new TreeMap<>();
+        for (AppointmentSeries series : getAllSeries()) {
+            Map<String, Integer> byMonth = counts.computeIfAbsent(series.getType(), type -> new TreeMap<>());
+            LocalDateTime lastEnd = series.getLastEndUTC();
+            LocalDateTime end = lastEnd == null || lastEnd.isAfter(horizon) ? horizon : lastEnd;
+            series.forEachOccurrence(series.getFirstStartUTC(), end, startUTC ->
+                    byMonth.merge(startUTC.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH), 1, Integer::sum));
+        }
+        return counts;
+    }
+
+    /**
+     * Expands the occurrences of a contact's series for the contact schedule report. Series that never end are
+     * expanded up to a year from now.
+     *
+     * @param contactId The ID of the contact.
+     * @return The occurrences, with times in UTC, in no particular order.
+     * @throws SQLException If a database error occurs.
+     */
+    public static List<Appointment> getOccurrencesByContact(int contactId) throws SQLException {
+        LocalDateTime horizon = LocalDateTime.now(ZoneOffset.UTC).plus(reportHorizon);
+        List<Appointment> occurrences = new ArrayList<>();
+        for (AppointmentSeries series : getSeriesInRange(null, null, null, contactId, null)) {
+            LocalDateTime lastEnd = series.getLastEndUTC();
+            LocalDateTime end = lastEnd == null || lastEnd.isAfter(horizon) ? horizon : lastEnd;
+            occurrences.addAll(series.occurrencesBetween(series.getFirstStartUTC(), end));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Adds a new series, with the exceptions it already has. The ID is assigned by the database and set on the series.
+     *
+     * @param series The series to add.
+     * @return True if the series was added, otherwise false.
+     */
+    public static boolean addSeries(AppointmentSeries series) {
+        String query = "INSERT INTO appointment_series (Title, Description, Location, Type, First_Start, Last_End, " +
+                "Duration_Minutes, Time_Zone, Recurrence, Customer_ID, User_ID, Contact_ID) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection connection = JDBC.getConnection()) {
+            int contactId = ReferenceCache.getContactId(series.getContact());
+            if (contactId == -1) {
+                System.out.println("Contact with name " + series.getContact() + " does not exist.");
+                return false;
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                LocalDateTime lastEnd = series.getLastEndUTC();
+                ps.setString(1, series.getTitle());
+                ps.setString(2, series.getDescription());
+                ps.setString(3, series.getLocation());
+                ps.setString(4, series.getType());
+                ps.setTimestamp(5, Timestamp.valueOf(series.getFirstStartUTC()));
+                ps.setTimestamp(6, lastEnd == null ? null : Timestamp.valueOf(lastEnd));
+                ps.setLong(7, series.getDuration().toMinutes());
+                ps.setString(8, series.getZone().getId());
+                ps.setString(9, series.getRule().toString());
+                ps.setInt(10, series.getCustomerId());
+                ps.setInt(11, series.getUserId());
+                ps.setInt(12, contactId);
+                ps.executeUpdate();
+                int seriesId;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        connection.rollback();
+                        System.out.println("Error adding series: no ID was generated.");
+                        return false;
+                    }
+                    seriesId = keys.getInt(1);
+                }
+                if (!series.getExceptions().isEmpty()) {
+                    try (PreparedStatement exceptions = connection.prepareStatement(insertException)) {
+                        for (LocalDate date : series.getExceptions()) {
+                            exceptions.setInt(1, seriesId);
+                            exceptions.setDate(2, Date.valueOf(date));
+                            exceptions.addBatch();
+                        }
+                        exceptions.executeBatch();
+                    }
+                }
+                ChangeLog.record(connection, ChangeLog.series, seriesId, ChangeLog.insert);
+                connection.commit();
+                series.setSeriesId(seriesId);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            DataVersion.seriesChanged();
+            System.out.println("Series added successfully with ID: " + series.getSeriesId());
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Error adding series: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Cancels a single occurrence of a series by adding a row for its date to series_exceptions. Each cancellation is
+     * its own row, so clients cancelling different occurrences of a series at once never overwrite each other. The
+     * series passed in is changed only once the row is stored.
+     *
+     * @param series The series.
+     * @param date   The local date of the occurrence to cancel.
+     * @return True if the exception was stored, otherwise false, also when the series no longer exists or the
+     * occurrence was already cancelled.
+     */
+    public static boolean addException(AppointmentSeries series, LocalDate date) {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement(insertException)) {
+            ps.setInt(1, series.getSeriesId());
+            ps.setDate(2, Date.valueOf(date));
+            ps.executeUpdate();
+            ChangeLog.record(connection, ChangeLog.series, series.getSeriesId(), ChangeLog.update);
+            series.addException(date);
+            DataVersion.seriesChanged();
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Error cancelling occurrence: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes a series and with it all of its occurrences. Its exceptions are deleted by the database.
+     *
+     * @param seriesId The ID of the series to delete.
+     * @return True if the series was deleted, otherwise false.
+     */
+    public static boolean deleteSeries(int seriesId) {
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement ps = connection.prepareStatement("DELETE FROM appointment_series WHERE Series_ID = ?")) {
+            ps.setInt(1, seriesId);
+            if (ps.executeUpdate() == 0) {
+                return false;
+            }
+            ChangeLog.record(connection, ChangeLog.series, seriesId, ChangeLog.delete);
+            DataVersion.seriesChanged();
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Error deleting series: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes every series of a customer, on the connection and in the transaction that deletes the customer.
+     *
+     * @param connection The connection deleting the customer.
+     * @param customerId The ID of the customer.
+     * @throws SQLException If the series cannot be deleted.
+     */
+    static void deleteSeriesOfCustomer(Connection connection, int customerId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("DELETE FROM appointment_series WHERE Customer_ID = ?")) {
+            ps.setInt(1, customerId);
+            ps.executeUpdate();
+        }
+    }
+
+    private static AppointmentSeries mapSeries(ResultSet rs, Collection<LocalDate> exceptions) throws SQLException {
+        ZoneId zone = ZoneId.of(rs.getString("Time_Zone"));
+        LocalDateTime firstStartUTC = rs.getTimestamp("First_Start").toLocalDateTime();
+        LocalDateTime firstStart = firstStartUTC.atZone(ZoneOffset.UTC).withZoneSameInstant(zone).toLocalDateTime();
+        return new AppointmentSeries(
+                rs.getInt("Series_ID"),
+                rs.getString("Title"),
+                rs.getString("Description"),
+                rs.getString("Location"),
+                rs.getString("Contact_Name"),
+                rs.getString("Type"),
+                firstStart,
+                Duration.ofMinutes(rs.getInt("Duration_Minutes")),
+                zone,
+                RecurrenceRule.parse(rs.getString("Recurrence")),
+                exceptions,
+                rs.getInt("Customer_ID"),
+                rs.getInt("User_ID"));
+    }
+}
@@ -0,0 +1,252 @@
+package DAO;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least-recently-used cache of prepared statements for one physical connection.
+ * <p>
+ * The DAO classes prepare the same handful of SQL strings over and over. Instead of parsing and planning each of
+ * them again on every call, {@link ConnectionPool} routes {@code prepareStatement} through this cache, which hands out
+ * the statement prepared last time when the SQL matches. Closing the returned statement clears its parameters and
+ * puts it back in the cache rather than closing it; only statements that fall out of the cache, or belong to a
+ * connection that is retired, are really closed.
+ * <p>
+ * Instances are confined to the thread currently holding the connection, as the pool guarantees. The hit and miss
+ * counters are shared by all instances so they describe the whole application.
+ */
+public class StatementCache {
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private final Connection physical;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param physical The physical connection statements are prepared on.
+     * @param maxSize  The maximum number of statements to keep.
+     */
+    public StatementCache(Connection physical, int maxSize) {
+        this.physical = physical;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one when possible.
+     *
+     * @param sql               The SQL to prepare.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}.
+     * @return A statement whose {@code close()} returns it to the cache.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+            if (entry != null) {
+                // The cached statement is still open higher up the call stack; lend a private one that closes normally.
+                return new Entry(statement, false).checkOut();
+            }
+            entry = new Entry(statement, true);
+            entries.put(key, entry);
+        }
+        return entry.checkOut();
+    }
+
+    /**
+     * Closes every cached statement. Called when the physical connection is retired.
+     */
+    public void closeAll() {
+        List<Entry> cached = new ArrayList<>(entries.values());
+        entries.clear();
+        for (Entry entry : cached) {
+            entry.evict();
+        }
+    }
+
+    /**
+     * Gets the number of statements served from a cache since the application started.
+     *
+     * @return The number of cache hits.
+     */
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of statements that had to be prepared since the application started.
+     *
+     * @return The number of cache misses.
+     */
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the fraction of statements served from a cache.
+     *
+     * @return The hit rate between 0 and 1, or 0 if nothing has been prepared yet.
+     */
+    public static double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * The cache key: the SQL text plus the generated-keys mode, since the two modes prepare different statements.
+     */
+    private static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        private Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return autoGeneratedKeys == key.autoGeneratedKeys && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + autoGeneratedKeys;
+        }
+    }
+
+    /**
+     * A physical statement and whether it is currently lent out.
+     */
+    private static final class Entry {
+        private final PreparedStatement statement;
+        private final boolean cached;
+        private boolean inUse;
+        private boolean evicted;
+
+        private Entry(PreparedStatement statement, boolean cached) {
+            this.statement = statement;
+            this.cached = cached;
+        }
+
+        private PreparedStatement checkOut() {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Checkout(this));
+        }
+
+        private void checkIn(ResultSet openResultSet) {
+            inUse = false;
+            if (!cached || evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                if (openResultSet != null && !openResultSet.isClosed()) {
+                    openResultSet.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.out.println("Failed to close cached statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The handler behind each statement handed out. Closing it checks the statement back in exactly once, also
+     * closing the last result set it produced, since some callers rely on {@code close()} to do that.
+     */
+    private static final class Checkout implements InvocationHandler {
+        private final Entry entry;
+        private ResultSet lastResultSet;
+        private boolean closed;
+
+        private Checkout(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        entry.checkIn(lastResultSet);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Statement has already been closed.");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(entry.statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof ResultSet) {
+                        lastResultSet = (ResultSet) result;
+                    }
+                    return result;
+            }
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package DAO;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 
 /**
@@ -10,34 +7,14 @@ import java.sql.SQLException;
  */
 public class UserDAO {
 
-    private static Connection connection = null;
-
-    /**
-     * Constructs a new UserDAO instance.
-     *
-     * @param connection The database connection.
-     */
-    public UserDAO(Connection connection) {
-        UserDAO.connection = connection;
-    }
-
     /**
-     * Retrieves the user ID based on the username.
+     * Retrieves the user ID based on the username, using the reference cache.
      *
      * @param username The username of the user.
-     * @return The user ID corresponding to the username.
+     * @return The user ID corresponding to the username, or -1 if there is no such user.
      */
     public static int getUserIdByUsername(String username) throws SQLException {
-        String query = "SELECT User_ID FROM users WHERE User_Name = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, username);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return resultSet.getInt("user_id");
-            } else {
-                return -1;
-            }
-        }
+        return ReferenceCache.getUserId(username);
     }
 
     /**
@@ -0,0 +1,600 @@
+package api;
+
+import DAO.AppointmentStore;
+import DAO.ChangeFeed;
+import DAO.ContactDAO;
+import DAO.CustomerDAO;
+import DAO.DataVersion;
+import DAO.JDBC;
+import DAO.SeriesDAO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Appointment;
+import model.Contact;
+import model.Customer;
+import model.CustomerSummary;
+import service.ReportService;
+import service.SlotFinder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the schedule data as JSON over HTTP, so other tools can read it without querying the database themselves.
+ * <p>
+ * The server listens on the loopback interface only and answers GET requests:
+ * <ul>
+ *     <li>{@code /api/appointments}: every stored appointment, or with {@code from} and {@code to} (ISO-8601
+ *     instants, at most a year apart) the appointments and series occurrences that start in that window, optionally
+ *     narrowed with {@code userId}, {@code contactId} or {@code customerId}</li>
+ *     <li>{@code /api/slots}: the earliest free slots of {@code minutes} within business hours between {@code from}
+ *     and {@code to}, at most a year apart, when {@code contactId}, {@code customerId} or both are free; at most
+ *     {@code limit} of them</li>
+ *     <li>{@code /api/customers} and {@code /api/contacts}</li>
+ *     <li>{@code /api/reports/appointment-counts}, {@code /api/reports/contact-schedule?contactId=} and
+ *     {@code /api/reports/customers-by-country?country=}, the three reports of the desktop application</li>
+ * </ul>
+ * Times are UTC instants. Each request runs on its own virtual thread when the runtime supports them, otherwise on a
+ * bounded pool; either way the connection pool in {@link JDBC} limits how many reach the database at once, and
+ * appointments are answered from the {@link AppointmentStore}.
+ * <p>
+ * Responses are written as they are produced, and the full appointment list is read from the store a page at a time,
+ * so neither side holds a large result in memory; they are compressed when the client accepts gzip. Every response
+ * carries an ETag built from the {@link DataVersion} of the data it contains. A request whose If-None-Match names the
+ * current tag is answered with 304 Not Modified before any data is read, so a tool that polls only costs a lookup of
+ * a few counters while nothing changes.
+ */
+public final class ApiServer {
+
+    private static final int defaultPort = 8080;
+    private static final int platformThreads = 16;
+    private static final int pageSize = 1000;
+    private static final int defaultSlotLimit = 10;
+    private static final int maxSlotLimit = 100;
+
+    /**
+     * The longest window {@code /api/appointments} and {@code /api/slots} expand series over. Series that never end
+     * have an occurrence in any window, so without a limit one request could expand millions of them.
+     */
+    private static final Duration maxWindow = Duration.ofDays(366);
+
+    /**
+     * Distinguishes the tags of this run from those of an earlier one, whose versions started from the same values.
+     */
+    private static final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    private ApiServer() {
+    }
+
+    /**
+     * Starts the server. Calling this again while the server is running has no effect. The connection pool must be
+     * open, and the {@link ChangeFeed} should run so that changes made by other clients are served.
+     *
+     * @param port The port to listen on.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static synchronized void start(int port) throws IOException {
+        if (server != null) {
+            return;
+        }
+        executor = createExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/api/", ApiServer::handle);
+        server.setExecutor(executor);
+        server.start();
+        System.out.println("API server listening on http://localhost:" + port + "/api/");
+    }
+
+    /**
+     * Stops the server, letting requests in progress finish for up to a second.
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(1);
+            server = null;
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Runs the server from the command line until the process is stopped.
+     * <p>
+     * Usage: {@code ApiServer [port]}
+     *
+     * @param args The command-line arguments.
+     */
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : defaultPort;
+        JDBC.openPool();
+        ChangeFeed.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stop();
+            ChangeFeed.stop();
+            JDBC.closePool();
+        }));
+        try {
+            start(port);
+        } catch (IOException e) {
+            System.out.println("API server not started: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Only GET is supported.");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            switch (path) {
+                case "/api/appointments":
+                    appointments(exchange, query);
+                    break;
+                case "/api/slots":
+                    slots(exchange, query);
+                    break;
+                case "/api/customers":
+                    customers(exchange);
+                    break;
+                case "/api/contacts":
+                    contacts(exchange);
+                    break;
+                case "/api/reports/appointment-counts":
+                    appointmentCounts(exchange);
+                    break;
+                case "/api/reports/contact-schedule":
+                    contactSchedule(exchange, query);
+                    break;
+                case "/api/reports/customers-by-country":
+                    customersByCountry(exchange, query);
+                    break;
+                default:
+                    sendError(exchange, 404, "Not found: " + path);
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            sendError(exchange, 500, "The request could not be completed.");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Serves every stored appointment, or the schedule of a window.
+     */
+    private static void appointments(HttpExchange exchange, Map<String, String> query) throws IOException, SQLException {
+        Integer userId = intParameter(query, "userId");
+        Integer contactId = intParameter(query, "contactId");
+        Integer customerId = intParameter(query, "customerId");
+        String from = query.get("from");
+        String to = query.get("to");
+        if (from == null && to == null && userId == null && contactId == null && customerId == null) {
+            allAppointments(exchange);
+            return;
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to are required to select appointments.");
+        }
+        Instant windowStart = Instant.parse(from);
+        Instant windowEnd = Instant.parse(to);
+        checkWindow(windowStart, windowEnd);
+
+        String etag = etag(DataVersion.getAppointmentVersion(), DataVersion.getSeriesVersion());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        List<Appointment> schedule = AppointmentStore.getInRange(windowStart, windowEnd, userId, contactId, customerId);
+        schedule.addAll(SeriesDAO.getOccurrencesInRange(windowStart, windowEnd, userId, contactId, customerId));
+        schedule.sort(Comparator.comparing(Appointment::getStart).thenComparing(Appointment::getAppointmentId));
+        try (JsonWriter json = beginResponse(exchange, etag)) {
+            json.beginArray();
+            for (Appointment appointment : schedule) {
+                writeAppointment(json, appointment);
+            }
+            json.endArray();
+        }
+    }
+
+    /**
+     * Serves the earliest free slots of a contact, a customer or both within business hours.
+     */
+    private static void slots(HttpExchange exchange, Map<String, String> query) throws IOException, SQLException {
+        Integer contactId = intParameter(query, "contactId");
+        Integer customerId = intParameter(query, "customerId");
+        Integer minutes = intParameter(query, "minutes");
+        Integer limit = intParameter(query, "limit");
+        String from = query.get("from");
+        String to = query.get("to");
+        if (contactId == null && customerId == null) {
+            throw new IllegalArgumentException("contactId or customerId is required.");
+        }
+        if (minutes == null || minutes <= 0) {
+            throw new IllegalArgumentException("minutes is required and must be positive.");
+        }
+        if (limit == null) {
+            limit = defaultSlotLimit;
+        } else if (limit <= 0 || limit > maxSlotLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxSlotLimit + ".");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to are required to find slots.");
+        }
+        Instant windowStart = Instant.parse(from);
+        Instant windowEnd = Instant.parse(to);
+        checkWindow(windowStart, windowEnd);
+
+        String etag = etag(DataVersion.getAppointmentVersion(), DataVersion.getSeriesVersion());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        List<SlotFinder.Slot> slots = SlotFinder.findFreeSlots(contactId, customerId, Duration.ofMinutes(minutes),
+                windowStart, windowEnd, limit);
+        try (JsonWriter json = beginResponse(exchange, etag)) {
+            json.beginArray();
+            for (SlotFinder.Slot slot : slots) {
+                json.beginObject()
+                        .name("start").value(formatUtc(slot.getStart()))
+                        .name("end").value(formatUtc(slot.getEnd()))
+                        .endObject();
+            }
+            json.endArray();
+        }
+    }
+
+    /**
+     * Checks that a window is not empty and no longer than {@link #maxWindow}.
+     */
+    private static void checkWindow(Instant windowStart, Instant windowEnd) {
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new IllegalArgumentException("to must be after from.");
+        }
+        if (Duration.between(windowStart, windowEnd).compareTo(maxWindow) > 0) {
+            throw new IllegalArgumentException("The window from from to to may be at most " + maxWindow.toDays() + " days long.");
+        }
+    }
+
+    /**
+     * Streams every stored appointment in (start, appointment ID) order, one page of the store at a time.
+     */
+    private static void allAppointments(HttpExchange exchange) throws IOException, SQLException {
+        String etag = etag(DataVersion.getAppointmentVersion());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        List<Appointment> page = AppointmentStore.getPage(null, 0, pageSize);
+        try (JsonWriter json = beginResponse(exchange, etag)) {
+            json.beginArray();
+            while (!page.isEmpty()) {
+                for (Appointment appointment : page) {
+                    writeAppointment(json, appointment);
+                }
+                json.flush();
+                if (page.size() < pageSize) {
+                    break;
+                }
+                Appointment last = page.get(page.size() - 1);
+                page = AppointmentStore.getPage(last.getStart(), last.getAppointmentId(), pageSize);
+            }
+            json.endArray();
+        }
+    }
+
+    private static void customers(HttpExchange exchange) throws IOException {
+        String etag = etag(DataVersion.getCustomerVersion());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        List<Customer> customers = CustomerDAO.getAllCustomers();
+        try (JsonWriter json = beginResponse(exchange, etag)) {
+            json.beginArray();
+            for (Customer customer : customers) {
+                json.beginObject()
+                        .name("customerId").value(customer.getCustomerId())
+                        .name("customerName").value(customer.getCustomerName())
+                        .name("address").value(customer.getAddress())
+                        .name("postalCode").value(customer.getPostalCode())
+                        .name("phone").value(customer.getPhone())
+                        .name("divisionId").value(customer.getDivisionId())
+                        .name("division").value(customer.getDivisionName())
+                        .name("createDate").value(format(customer.getCreateDate()))
+                        .name("createdBy").value(customer.getCreatedBy())
+                        .name("lastUpdate").value(format(customer.getLastUpdate()))
+                        .name("lastUpdatedBy").value(customer.getLastUpdatedBy())
+                        .endObject();
+            }
+            json.endArray();
+        }
+    }
+
+    /**
+     * Serves the contacts. They come from the reference cache, so the tag is computed from the contacts themselves.
+     */
+    private static void contacts(HttpExchange exchange) throws IOException {
+        List<Contact> contacts = ContactDAO.getAllContacts();
+        int hash = 1;
+        for (Contact contact : contacts) {
+            hash = 31 * hash + contact.getContactId();
+            hash = 31 * hash + (contact.getContactName() == null ? 0 : contact.getContactName().hashCode());
+        }
+        String etag = etag(hash);
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        try (JsonWriter json = beginResponse(exchange, etag)) {
+            json.beginArray();
+            for (Contact contact : contacts) {
+                json.beginObject()
+                        .name("contactId").value(contact.getContactId())
+                        .name("contactName").value(contact.getContactName())
+                        .endObject();
+            }
+            json.endArray();
+        }
+    }
+
+    /**
+     * Serves the appointment counts by type and month. Series that never end are counted up to a year from today, so
+     * the tag changes with the date as well.
+     */
+    private static void appointmentCounts(HttpExchange exchange) throws IOException, SQLException {
+        String etag = etag(DataVersion.getAppointmentVersion(), DataVersion.getSeriesVersion(), today());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        List<Map<String, Object>> counts = ReportService.countByTypeAndMonth();
+        try (JsonWriter json = beginResponse(exchange, etag)) {
+            json.beginArray();
+            for (Map<String, Object> row : counts) {
+                json.beginObject()
+                        .name("type").value((String) row.get("Type"))
+                        .name("month").value((String) row.get("Month"))
+                        .name("count").value((int) row.get("Count"))
+                        .endObject();
+            }
+            json.endArray();
+        }
+    }
+
+    /**
+     * Serves a contact's schedule. Series that never end are expanded up to a year from today, so the tag changes
+     * with the date as well.
+     */
+    private static void contactSchedule(HttpExchange exchange, Map<String, String> query) throws IOException, SQLException {
+        Integer contactId = intParameter(query, "contactId");
+        if (contactId == null) {
+            throw new IllegalArgumentException("contactId is required.");
+        }
+        String etag = etag(DataVersion.getAppointmentVersion(), DataVersion.getSeriesVersion(), today());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        List<Appointment> schedule = ReportService.contactSchedule(contactId, ZoneOffset.UTC);
+        try (JsonWriter json = beginResponse(exchange, etag)) {
+            json.beginArray();
+            for (Appointment appointment : schedule) {
+                writeAppointment(json, appointment);
+            }
+            json.endArray();
+        }
+    }
+
+    private static void customersByCountry(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String country = query.get("country");
+        if (country == null || country.isEmpty()) {
+            throw new IllegalArgumentException("country is required.");
+        }
+        String etag = etag(DataVersion.getCustomerVersion());
+        if (notModified(exchange, etag)) {
+            return;
+        }
+        List<CustomerSummary> customers = ReportService.customersByCountry(country);
+        try (JsonWriter json = beginResponse(exchange, etag)) {
+            json.beginArray();
+            for (CustomerSummary customer : customers) {
+                json.beginObject()
+                        .name("customerId").value(customer.getCustomerId())
+                        .name("customerName").value(customer.getCustomerName())
+                        .name("address").value(customer.getAddress())
+                        .name("postalCode").value(customer.getPostalCode())
+                        .name("phone").value(customer.getPhone())
+                        .name("division").value(customer.getDivisionName())
+                        .endObject();
+            }
+            json.endArray();
+        }
+    }
+
+    private static void writeAppointment(JsonWriter json, Appointment appointment) throws IOException {
+        json.beginObject()
+                .name("appointmentId").value(appointment.getAppointmentId())
+                .name("seriesId");
+        if (appointment.getSeriesId() == 0) {
+            json.nullValue();
+        } else {
+            json.value(appointment.getSeriesId());
+        }
+        json.name("title").value(appointment.getTitle())
+                .name("description").value(appointment.getDescription())
+                .name("location").value(appointment.getLocation())
+                .name("contact").value(appointment.getContact())
+                .name("type").value(appointment.getType())
+                .name("start").value(formatUtc(appointment.getStart()))
+                .name("end").value(formatUtc(appointment.getEnd()))
+                .name("customerId").value(appointment.getCustomerId())
+                .name("userId").value(appointment.getUserId())
+                .endObject();
+    }
+
+    /**
+     * Answers 304 Not Modified if the client already has the current representation.
+     *
+     * @param exchange The request.
+     * @param etag     The tag of the current representation.
+     * @return True if the request was answered, otherwise false.
+     * @throws IOException If the response cannot be sent.
+     */
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(opaque)) {
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sends the headers of a 200 response with a body of unknown length, compressed if the client accepts gzip.
+     *
+     * @param exchange The request.
+     * @param etag     The tag of the representation about to be written.
+     * @return A writer for the body, which completes the response when closed.
+     * @throws IOException If the headers cannot be sent.
+     */
+    private static JsonWriter beginResponse(HttpExchange exchange, String etag) throws IOException {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = gzip ? new GZIPOutputStream(exchange.getResponseBody(), 8192, true) : exchange.getResponseBody();
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), 8192));
+    }
+
+    /**
+     * Sends an error as a JSON object with a message, unless the response has already been started.
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            byte[] body = ("{\"error\":" + quote(message) + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException e) {
+            System.out.println("Error sending API error response: " + e.getMessage());
+        }
+    }
+
+    private static String quote(String message) throws IOException {
+        java.io.StringWriter quoted = new java.io.StringWriter();
+        new JsonWriter(quoted).value(message == null ? "" : message);
+        return quoted.toString();
+    }
+
+    /**
+     * Builds a weak tag from the versions of the data a response contains.
+     */
+    private static String etag(long... versions) {
+        StringBuilder tag = new StringBuilder("W/\"").append(instance);
+        for (long version : versions) {
+            tag.append('-').append(Long.toString(version, 36));
+        }
+        return tag.append('"').toString();
+    }
+
+    private static long today() {
+        return LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    }
+
+    private static String formatUtc(LocalDateTime utc) {
+        return utc == null ? null : utc.toInstant(ZoneOffset.UTC).toString();
+    }
+
+    private static String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toString();
+    }
+
+    private static Integer intParameter(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number.");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return query;
+    }
+
+    /**
+     * Creates the executor, preferring one virtual thread per request when the runtime supports it.
+     *
+     * @return The executor requests are handled on.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newFixedThreadPool(platformThreads, runnable -> {
+                Thread thread = new Thread(runnable, "api-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes JSON to a stream as it is produced, so a response is never built in memory first. Commas and string escaping
+ * are handled here; the caller only has to open and close objects and arrays in the right order.
+ */
+final class JsonWriter implements Closeable {
+
+    private static final char[] hexDigits = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+
+    /**
+     * For each open object or array, whether it already has an element, so the next one is preceded by a comma.
+     */
+    private boolean[] hasElements = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Creates a writer.
+     *
+     * @param out The stream to write to. It should be buffered.
+     */
+    JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Opens an object.
+     *
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    /**
+     * Closes the current object.
+     *
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    /**
+     * Opens an array.
+     *
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    /**
+     * Closes the current array.
+     *
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    /**
+     * Writes the name of the next member of the current object.
+     *
+     * @param name The member name.
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter name(String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string, or null.
+     *
+     * @param value The string.
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        string(value);
+        return this;
+    }
+
+    /**
+     * Writes a number.
+     *
+     * @param value The number.
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a boolean.
+     *
+     * @param value The boolean.
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Writes null.
+     *
+     * @return This writer.
+     * @throws IOException If the stream cannot be written.
+     */
+    JsonWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    /**
+     * Flushes what has been written so far to the stream, for example between pages of a long array.
+     *
+     * @throws IOException If the stream cannot be written.
+     */
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private JsonWriter open(char bracket) throws IOException {
+        beforeValue();
+        out.write(bracket);
+        if (++depth == hasElements.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(hasElements, 0, grown, 0, depth);
+            hasElements = grown;
+        }
+        hasElements[depth] = false;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        depth--;
+        out.write(bracket);
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        separate();
+    }
+
+    private void separate() throws IOException {
+        if (depth > 0) {
+            if (hasElements[depth]) {
+                out.write(',');
+            }
+            hasElements[depth] = true;
+        }
+    }
+
+    private void string(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            out.write(value, start, i - start);
+            start = i + 1;
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    out.write("\\u00");
+                    out.write(hexDigits[c >> 4]);
+                    out.write(hexDigits[c & 0xF]);
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
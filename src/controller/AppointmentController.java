@@ -1,9 +1,12 @@
 package controller;
 
 import DAO.AppointmentDAO;
-import DAO.CustomerDAO;
+import DAO.AsyncDAO;
+import DAO.ChangeFeed;
+import DAO.ChangeSet;
 import DAO.JDBC;
-import DAO.UserDAO;
+import DAO.PagedAppointmentList;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -17,13 +20,21 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import model.Appointment;
 import model.Customer;
+import model.RecurrenceRule;
+import service.AppointmentCommand;
+import service.AppointmentService;
+import util.TimeZoneConverter;
 
 import java.io.IOException;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -53,6 +64,10 @@ public class AppointmentController {
     @FXML
     private TextField endTimeField;
     @FXML
+    private ComboBox<String> repeatComboBox;
+    @FXML
+    private DatePicker repeatUntilPicker;
+    @FXML
     private RadioButton allViewRadio;
     @FXML
     private RadioButton monthViewRadio;
@@ -83,6 +98,18 @@ public class AppointmentController {
 
     private final ObservableList<Appointment> appointments = FXCollections.observableArrayList();
 
+    private static final String noRepeat = "None";
+
+    private CompletableFuture<?> pendingLoad;
+
+    private PagedAppointmentList pagedAppointments;
+
+    private Instant windowStart;
+
+    private Instant windowEnd;
+
+    private final Consumer<ChangeSet> changeListener = changes -> Platform.runLater(() -> applyChanges(changes));
+
     @FXML
     private ToggleGroup toggleGroup;
 
@@ -91,7 +118,8 @@ public class AppointmentController {
     /**
      * Initializes the controller class. This method is automatically called after the FXML file has been loaded.
      * <p>
-     * This method initializes the UI components, sets up event listeners, and loads initial data.
+     * This method initializes the UI components, sets up event listeners, and starts loading the initial data in the
+     * background; the table shows a progress indicator until the first rows arrive.
      * Lambda expressions are used to define event handlers for the radio buttons. Each radio button is associated
      * with the {@link #handleViewToggle(ActionEvent)} method using lambda expressions, providing a concise way
      * to implement event handling. When a radio button is selected, the corresponding event is triggered,
@@ -117,10 +145,19 @@ public class AppointmentController {
         appointmentTable.setItems(appointments);
 
         // Populate ComboBoxes
-        contactComboBox.setItems(AppointmentDAO.getAllContactNames());
-        List<Customer> allCustomers = CustomerDAO.getAllCustomers();
-        List<Integer> customerIds = allCustomers.stream().map(Customer::getCustomerId).collect(Collectors.toList());
-        customerIdComboBox.setItems(FXCollections.observableArrayList(customerIds));
+        AsyncDAO.onFxThread(AsyncDAO.getAllContactNames(),
+                contactNames -> contactComboBox.setItems(FXCollections.observableArrayList(contactNames)),
+                error -> showAlert("Failed to load contacts."));
+        AsyncDAO.onFxThread(AsyncDAO.getAllCustomers(),
+                allCustomers -> customerIdComboBox.setItems(FXCollections.observableArrayList(
+                        allCustomers.stream().map(Customer::getCustomerId).collect(Collectors.toList()))),
+                error -> showAlert("Failed to load customers."));
+
+        repeatComboBox.setItems(FXCollections.observableArrayList(noRepeat, "Daily", "Weekly", "Monthly"));
+        repeatComboBox.setValue(noRepeat);
+
+        // Keep the table current with changes made by other clients
+        ChangeFeed.subscribe(changeListener);
 
         // Setup Toggle Group and assign it to the radio buttons
         toggleGroup = new ToggleGroup();
@@ -152,9 +189,6 @@ public class AppointmentController {
             }
         });
 
-        // Load appointments initially
-        loadAppointments();
-
         // Set event handlers for view toggle
         allViewRadio.setOnAction(this::handleViewToggle);
         monthViewRadio.setOnAction(this::handleViewToggle);
@@ -182,57 +216,42 @@ public class AppointmentController {
     }
 
     /**
-     * Handles the month view toggle, filtering appointments for the current month.
+     * Handles the month view toggle, loading only the appointments and series occurrences that start in the current month.
      */
     @FXML
     private void handleMonthViewToggle() {
+        ZoneId userTimeZone = LoginController.userTimeZone;
+        LocalDate firstOfMonth = LocalDate.now(userTimeZone).withDayOfMonth(1);
 
-        List<Appointment> allAppointments = AppointmentDAO.getAllAppointments();
-
-        LocalDateTime now = LocalDateTime.now();
-        int currentMonth = now.getMonthValue();
-        int currentYear = now.getYear();
-
-        List<Appointment> currentMonthAppointments = allAppointments.stream()
-                .filter(appointment ->
-                        appointment.getStart().getMonthValue() == currentMonth &&
-                                appointment.getStart().getYear() == currentYear)
-                .collect(Collectors.toList());
-
-        convertAppointmentsToUserTimeZone(currentMonthAppointments);
+        windowStart = firstOfMonth.atStartOfDay(userTimeZone).toInstant();
+        windowEnd = firstOfMonth.plusMonths(1).atStartOfDay(userTimeZone).toInstant();
 
-        appointments.setAll(currentMonthAppointments);
+        showAppointments(AsyncDAO.getScheduleInRange(windowStart, windowEnd, LoginController.userTimeZone));
     }
 
     /**
-     * Handles the week view toggle, filtering appointments for the current week.
+     * Handles the week view toggle, loading only the appointments and series occurrences that start in the current week.
      */
     @FXML
     private void handleWeekViewToggle() {
+        ZoneId userTimeZone = LoginController.userTimeZone;
+        LocalDate startOfWeek = LocalDate.now(userTimeZone).with(DayOfWeek.MONDAY);
 
-        List<Appointment> allAppointments = AppointmentDAO.getAllAppointments();
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfWeek = now.with(DayOfWeek.MONDAY).toLocalDate().atStartOfDay();
-        LocalDateTime endOfWeek = startOfWeek.plusDays(6).withHour(23).withMinute(59).withSecond(59);
-
-        List<Appointment> currentWeekAppointments = allAppointments.stream()
-                .filter(appointment ->
-                        appointment.getStart().isAfter(startOfWeek) && appointment.getStart().isBefore(endOfWeek))
-                .collect(Collectors.toList());
-
-        convertAppointmentsToUserTimeZone(currentWeekAppointments);
+        windowStart = startOfWeek.atStartOfDay(userTimeZone).toInstant();
+        windowEnd = startOfWeek.plusWeeks(1).atStartOfDay(userTimeZone).toInstant();
 
-        appointments.setAll(currentWeekAppointments);
+        showAppointments(AsyncDAO.getScheduleInRange(windowStart, windowEnd, LoginController.userTimeZone));
     }
 
     /**
      * Handles the addition of a new appointment.
      * <p>
-     * This method retrieves appointment data from the UI components, validates the input,
-     * checks for overlapping appointments, and adds the new appointment to the database
-     * if all conditions are met. If successful, it reloads the appointments and clears
-     * the input fields. If any errors occur during the process, an alert dialog is displayed.
+     * This method retrieves appointment data from the UI components, parses the entered times
+     * and hands the appointment to the {@link AppointmentService}, which validates it, checks for
+     * overlapping appointments and adds it to the database. If successful, it shows the new row in
+     * the table and clears the input fields. If the service refuses the appointment or an error
+     * occurs, an alert dialog is displayed.
+     * When a repeat is selected, a recurring series is added instead; see {@link #addSeries}.
      * </p>
      */
     @FXML
@@ -257,9 +276,6 @@ public class AppointmentController {
                 return;
             }
 
-            String username = JDBC.getCurrentUser();
-            int userId = UserDAO.getUserIdByUsername(username);
-
             LocalTime parsedStartTime;
             LocalTime parsedEndTime;
             try {
@@ -270,32 +286,25 @@ public class AppointmentController {
                 return;
             }
 
-            LocalDateTime startDateTime = LocalDateTime.of(startDate, parsedStartTime);
-            LocalDateTime endDateTime = LocalDateTime.of(endDate, parsedEndTime);
-
-            if (!isWithinBusinessHours(startDateTime, endDateTime)) {
-                showAlert("Appointments must be scheduled between 8:00 a.m. and 10:00 p.m. ET.");
-                return;
-            }
-
-            List<Appointment> allAppointments = AppointmentDAO.getAllAppointments();
-            if (hasOverlappingAppointments(allAppointments, startDateTime, endDateTime, 0)) {
-                showAlert("Overlapping appointments are not allowed.");
+            AppointmentCommand command = new AppointmentCommand(title, description, location, contact, type,
+                    LocalDateTime.of(startDate, parsedStartTime), LocalDateTime.of(endDate, parsedEndTime),
+                    LoginController.userTimeZone, customerId, JDBC.getCurrentUser());
+            if (repeatComboBox.getValue() != null && !noRepeat.equals(repeatComboBox.getValue())) {
+                addSeries(command);
                 return;
             }
 
-            Appointment newAppointment = new Appointment(
-                    0, title, description, location, contact, type,
-                    convertToUTC(startDateTime), convertToUTC(endDateTime),
-                    customerId, userId
-            );
-
-            if (AppointmentDAO.addAppointment(userId, newAppointment)) {
-                loadAppointments();
-                clearFields();
-            } else {
-                showAlert("Failed to add appointment.");
-            }
+            AsyncDAO.onFxThread(AsyncDAO.supply(() -> AppointmentService.add(command)), result -> {
+                if (result.isSuccess()) {
+                    showInserted(result.getValue());
+                    clearFields();
+                } else {
+                    showAlert(result.getError());
+                }
+            }, error -> {
+                error.printStackTrace();
+                showAlert("An error occurred while adding appointment.");
+            });
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("An error occurred while adding appointment.");
@@ -305,11 +314,11 @@ public class AppointmentController {
     /**
      * Handles the updating of an existing appointment.
      * <p>
-     * This method updates the selected appointment with new data retrieved from the UI components.
-     * It performs validation checks similar to the {@link #handleAddAppointment()} method,
-     * including input validation, business hours validation, and checking for overlapping appointments.
-     * If the update is successful, it reloads the appointments and clears the input fields.
-     * Otherwise, it displays an error message using an alert dialog.
+     * This method updates the selected appointment with new data retrieved from the UI components;
+     * fields left empty keep their current values. The {@link AppointmentService} performs the same
+     * checks as for a new appointment, including business hours validation and checking for
+     * overlapping appointments. If the update is successful, it replaces the row in the table and
+     * clears the input fields. Otherwise, it displays an error message using an alert dialog.
      * </p>
      */
     @FXML
@@ -320,6 +329,10 @@ public class AppointmentController {
                 showAlert("No appointment selected.");
                 return;
             }
+            if (selectedAppointment.getSeriesId() != 0) {
+                showAlert("This is an occurrence of a recurring appointment. Delete the occurrence and add a single appointment to change it.");
+                return;
+            }
 
             String title = titleField.getText().isEmpty() ? selectedAppointment.getTitle() : titleField.getText();
             String description = descriptionField.getText().isEmpty() ? selectedAppointment.getDescription() : descriptionField.getText();
@@ -337,8 +350,6 @@ public class AppointmentController {
                 return;
             }
 
-            int userId = UserDAO.getUserIdByUsername(JDBC.getCurrentUser());
-
             LocalDateTime newStartDateTime = selectedAppointment.getStart();
             LocalDateTime newEndDateTime = selectedAppointment.getEnd();
 
@@ -374,33 +385,21 @@ public class AppointmentController {
                 newEndDateTime = LocalDateTime.of(newEndDate, newEndDateTime.toLocalTime());
             }
 
-            if (!isWithinBusinessHours(newStartDateTime, newEndDateTime)) {
-                showAlert("Appointments must be scheduled between 8:00 a.m. and 10:00 p.m. ET.");
-                return;
-            }
-
-            List<Appointment> allAppointments = AppointmentDAO.getAllAppointments();
-            if (hasOverlappingAppointments(allAppointments, newStartDateTime, newEndDateTime, selectedAppointment.getAppointmentId())) {
-                showAlert("Overlapping appointments are not allowed.");
-                return;
-            }
+            int appointmentId = selectedAppointment.getAppointmentId();
+            AppointmentCommand command = new AppointmentCommand(title, description, location, contact, type,
+                    newStartDateTime, newEndDateTime, LoginController.userTimeZone, customerId, JDBC.getCurrentUser());
 
-            selectedAppointment.setTitle(title);
-            selectedAppointment.setDescription(description);
-            selectedAppointment.setLocation(location);
-            selectedAppointment.setType(type);
-            selectedAppointment.setContact(contact);
-            selectedAppointment.setCustomerId(customerId);
-            selectedAppointment.setUserId(userId);
-            selectedAppointment.setStart(convertToUTC(newStartDateTime));
-            selectedAppointment.setEnd(convertToUTC(newEndDateTime));
-
-            if (AppointmentDAO.updateAppointment(userId, selectedAppointment)) {
-                loadAppointments();
-                clearFields();
-            } else {
-                showAlert("Failed to update appointment.");
-            }
+            AsyncDAO.onFxThread(AsyncDAO.supply(() -> AppointmentService.update(appointmentId, command)), result -> {
+                if (result.isSuccess()) {
+                    showUpdated(result.getValue());
+                    clearFields();
+                } else {
+                    showAlert(result.getError());
+                }
+            }, error -> {
+                error.printStackTrace();
+                showAlert("An error occurred while updating appointment.");
+            });
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("An error occurred while updating appointment.");
@@ -418,6 +417,10 @@ public class AppointmentController {
                 showAlert("No appointment selected.");
                 return;
             }
+            if (selectedAppointment.getSeriesId() != 0) {
+                cancelOccurrence(selectedAppointment);
+                return;
+            }
 
             // Create confirmation dialog with expanded appointment details
             Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
@@ -442,12 +445,19 @@ public class AppointmentController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == buttonTypeDelete) {
-                if (AppointmentDAO.deleteAppointment(selectedAppointment.getAppointmentId())) {
-                    loadAppointments();
-                    clearFields();
-                } else {
-                    showAlert("Failed to delete appointment.");
-                }
+                int appointmentId = selectedAppointment.getAppointmentId();
+                AsyncDAO.onFxThread(AsyncDAO.supply(() -> AppointmentService.delete(appointmentId)), deleted -> {
+                    if (deleted.isSuccess()) {
+                        AppointmentDAO.showAlert("Deletion Successful");
+                        showRemoved(appointmentId);
+                        clearFields();
+                    } else {
+                        showAlert(deleted.getError());
+                    }
+                }, error -> {
+                    error.printStackTrace();
+                    showAlert("An error occurred while deleting appointment.");
+                });
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -455,6 +465,69 @@ public class AppointmentController {
         }
     }
 
+    /**
+     * Adds a recurring series that repeats the entered appointment daily, weekly or monthly until the chosen date, or
+     * without end. The {@link AppointmentService} checks the occurrences against business hours, the existing
+     * appointments and the other series before the series is stored.
+     *
+     * @param command the first occurrence of the series
+     */
+    private void addSeries(AppointmentCommand command) {
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.Frequency.valueOf(repeatComboBox.getValue().toUpperCase(Locale.ROOT)),
+                1, EnumSet.noneOf(DayOfWeek.class), repeatUntilPicker.getValue(), 0);
+
+        AsyncDAO.onFxThread(AsyncDAO.supply(() -> AppointmentService.addSeries(command, rule)), result -> {
+            if (!result.isSuccess()) {
+                showAlert(result.getError());
+                return;
+            }
+            if (windowStart != null && windowEnd != null) {
+                for (Appointment occurrence : result.getValue().occurrencesBetween(LocalDateTime.ofInstant(windowStart, ZoneOffset.UTC),
+                        LocalDateTime.ofInstant(windowEnd, ZoneOffset.UTC))) {
+                    if (isInWindow(occurrence)) {
+                        Appointment display = toUserTimeZone(occurrence);
+                        appointments.add(sortedPosition(display), display);
+                    }
+                }
+            }
+            clearFields();
+        }, error -> {
+            error.printStackTrace();
+            showAlert("An error occurred while adding recurring appointment.");
+        });
+    }
+
+    /**
+     * Cancels a single occurrence of a recurring series after confirmation, by recording its date as an exception
+     * of the series. The rest of the series is unchanged.
+     *
+     * @param occurrence the selected occurrence, with times in the user's time zone
+     */
+    private void cancelOccurrence(Appointment occurrence) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Confirm Deletion");
+        alert.setHeaderText("Delete this occurrence of a recurring appointment?");
+        alert.setContentText("Title: " + occurrence.getTitle() + "\n" +
+                "Start: " + occurrence.getStart() + "\n" +
+                "Other occurrences of the series are kept.");
+        Optional<ButtonType> result = alert.showAndWait();
+        if (!result.isPresent() || result.get() != ButtonType.OK) {
+            return;
+        }
+        AsyncDAO.onFxThread(AsyncDAO.supply(() -> AppointmentService.cancelOccurrence(occurrence.getSeriesId(),
+                occurrence.getStart(), LoginController.userTimeZone)), cancelled -> {
+            if (cancelled.isSuccess()) {
+                appointments.remove(occurrence);
+                clearFields();
+            } else {
+                showAlert(cancelled.getError());
+            }
+        }, error -> {
+            error.printStackTrace();
+            showAlert("An error occurred while deleting occurrence.");
+        });
+    }
+
     /**
      * Handles the navigation back to the customer management screen.
      *
@@ -462,6 +535,9 @@ public class AppointmentController {
      */
     @FXML
     private void handleBack(ActionEvent event) {
+        ChangeFeed.unsubscribe(changeListener);
+        AsyncDAO.cancel(pendingLoad);
+        disposePagedAppointments();
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/CustomerManagement.fxml"));
             Parent root = loader.load();
@@ -478,92 +554,210 @@ public class AppointmentController {
     }
 
     /**
-     * Loads appointments from the database and updates the UI.
+     * Shows all appointments through a paged list, which loads only the rows the table displays. If the paged list is
+     * already shown it is refreshed in place, so the table keeps its scroll position.
      */
     private void loadAppointments() {
-        try {
-            appointments.clear();
-            List<Appointment> allAppointments = AppointmentDAO.getAllAppointments();
-            ZoneId userTimeZone = LoginController.userTimeZone;
+        AsyncDAO.cancel(pendingLoad);
+        windowStart = null;
+        windowEnd = null;
+        if (pagedAppointments != null) {
+            pagedAppointments.refresh();
+            return;
+        }
+        appointments.clear();
+        appointmentTable.setPlaceholder(new ProgressIndicator());
+        pagedAppointments = new PagedAppointmentList(LoginController.userTimeZone,
+                () -> appointmentTable.setPlaceholder(null),
+                error -> {
+                    error.printStackTrace();
+                    appointmentTable.setPlaceholder(null);
+                    showAlert("Failed to load appointments.");
+                });
+        appointmentTable.setItems(pagedAppointments);
+    }
 
-            convertAppointmentsToUserTimeZone(allAppointments);
+    /**
+     * Stops loading the paged list of all appointments and releases its rows.
+     */
+    private void disposePagedAppointments() {
+        if (pagedAppointments != null) {
+            pagedAppointments.dispose();
+            pagedAppointments = null;
+        }
+    }
 
-            appointments.addAll(allAppointments);
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Shows a progress indicator in place of the table rows until a background query completes, then displays its
+     * appointments. A query still running for a previously selected view is cancelled, so its results can never
+     * replace those of the view the user switched to.
+     *
+     * @param query the running query for the appointments to display, already converted to the user's time zone
+     */
+    private void showAppointments(CompletableFuture<List<Appointment>> query) {
+        AsyncDAO.cancel(pendingLoad);
+        disposePagedAppointments();
+        appointments.clear();
+        appointmentTable.setItems(appointments);
+        appointmentTable.setPlaceholder(new ProgressIndicator());
+        pendingLoad = AsyncDAO.onFxThread(query, loadedAppointments -> {
+            appointments.setAll(loadedAppointments);
+            appointmentTable.setPlaceholder(null);
+        }, error -> {
+            error.printStackTrace();
+            appointmentTable.setPlaceholder(null);
             showAlert("Failed to load appointments.");
-        }
+        });
     }
 
     /**
-     * Converts a list of appointments to the user's local time zone.
+     * Shows an appointment that was just added, without reloading the table. In the month and week views it is only
+     * shown if it starts within the displayed window.
      *
-     * @param appointments the list of appointments to convert
+     * @param stored the appointment as stored, with times in UTC
      */
-    private void convertAppointmentsToUserTimeZone(List<Appointment> appointments) {
-        ZoneId userTimeZone = LoginController.userTimeZone;
-        for (Appointment appointment : appointments) {
-            appointment.setStart(convertToUserTimeZone(appointment.getStart(), userTimeZone));
-            appointment.setEnd(convertToUserTimeZone(appointment.getEnd(), userTimeZone));
+    private void showInserted(Appointment stored) {
+        Appointment display = toUserTimeZone(stored);
+        if (pagedAppointments != null) {
+            pagedAppointments.insertAppointment(stored, display);
+        } else if (isInWindow(stored)) {
+            appointments.add(sortedPosition(display), display);
         }
     }
 
     /**
-     * Converts a LocalDateTime from UTC to the user's local time zone.
+     * Shows the new state of an appointment that was just updated, without reloading the table. The row stays where
+     * it is unless its new start moves it, or moves it out of the displayed month or week.
      *
-     * @param utcDateTime  the LocalDateTime in UTC
-     * @param userTimeZone the user's time zone
-     * @return the LocalDateTime converted to the user's time zone
+     * @param stored the appointment as stored, with times in UTC
      */
-    private LocalDateTime convertToUserTimeZone(LocalDateTime utcDateTime, ZoneId userTimeZone) {
-        return utcDateTime.atZone(ZoneOffset.UTC).withZoneSameInstant(userTimeZone).toLocalDateTime();
+    private void showUpdated(Appointment stored) {
+        Appointment display = toUserTimeZone(stored);
+        if (pagedAppointments != null) {
+            pagedAppointments.replaceAppointment(stored, display);
+            return;
+        }
+        int index = indexOfAppointment(stored.getAppointmentId());
+        if (index >= 0 && isInWindow(stored)) {
+            boolean afterPrevious = index == 0 || compareByStart(appointments.get(index - 1), display) < 0;
+            boolean beforeNext = index == appointments.size() - 1 || compareByStart(display, appointments.get(index + 1)) < 0;
+            if (afterPrevious && beforeNext) {
+                appointments.set(index, display);
+            } else {
+                appointments.remove(index);
+                appointments.add(sortedPosition(display), display);
+            }
+        } else if (index >= 0) {
+            appointments.remove(index);
+        } else if (isInWindow(stored)) {
+            appointments.add(sortedPosition(display), display);
+        }
     }
 
     /**
-     * Checks if an appointment falls within business hours (8:00 a.m. to 10:00 p.m. ET).
+     * Removes an appointment that was just deleted from the table, without reloading it.
      *
-     * @param startDateTime the start date and time of the appointment
-     * @param endDateTime   the end date and time of the appointment
-     * @return true if the appointment falls within business hours, otherwise false
+     * @param appointmentId the ID of the deleted appointment
      */
-    private boolean isWithinBusinessHours(LocalDateTime startDateTime, LocalDateTime endDateTime) {
-        LocalTime businessStart = LocalTime.of(8, 0);
-        LocalTime businessEnd = LocalTime.of(22, 0);
-
-        ZonedDateTime startET = startDateTime.atZone(ZoneId.of("America/New_York"));
-        ZonedDateTime endET = endDateTime.atZone(ZoneId.of("America/New_York"));
-
-        boolean startWithinBusinessHours = !startET.toLocalTime().isBefore(businessStart) && !startET.toLocalTime().isAfter(businessEnd);
-        boolean endWithinBusinessHours = !endET.toLocalTime().isBefore(businessStart) && !endET.toLocalTime().isAfter(businessEnd);
-
-        return startWithinBusinessHours && endWithinBusinessHours;
+    private void showRemoved(int appointmentId) {
+        if (pagedAppointments != null) {
+            pagedAppointments.removeAppointment(appointmentId);
+            return;
+        }
+        int index = indexOfAppointment(appointmentId);
+        if (index >= 0) {
+            appointments.remove(index);
+        }
     }
 
     /**
-     * Checks if the specified time frame overlaps with any existing appointments.
+     * Applies the changes other clients made to the table. In the paged view a changed row
+     * that is not loaded makes the list refresh its size and drop its pages, since it cannot tell an added row from
+     * one that moved.
      *
-     * @param appointments   the list of existing appointments
-     * @param newStartDateTime the start date and time of the new appointment
-     * @param newEndDateTime   the end date and time of the new appointment
-     * @param appointmentId    the ID of the new appointment (0 for new appointments)
-     * @return true if there is an overlap, otherwise false
+     * @param changes the changes delivered by the change feed, with times in UTC
      */
-    private boolean hasOverlappingAppointments(List<Appointment> appointments, LocalDateTime newStartDateTime, LocalDateTime newEndDateTime, int appointmentId) {
-        for (Appointment appointment : appointments) {
+    private void applyChanges(ChangeSet changes) {
+        if (!changes.hasAppointmentChanges()) {
+            return;
+        }
+        for (Appointment stored : changes.getAppointments()) {
+            showUpdated(stored);
+        }
+        for (int appointmentId : changes.getDeletedAppointmentIds()) {
+            showRemoved(appointmentId);
+        }
+    }
 
-            if (appointment.getAppointmentId() == appointmentId) {
-                continue;
-            }
+    /**
+     * Checks if an appointment starts within the month or week currently displayed.
+     *
+     * @param stored the appointment, with times in UTC
+     * @return true if a window is displayed and the appointment starts within it, otherwise false
+     */
+    private boolean isInWindow(Appointment stored) {
+        if (windowStart == null || windowEnd == null) {
+            return false;
+        }
+        Instant start = stored.getStart().toInstant(ZoneOffset.UTC);
+        return !start.isBefore(windowStart) && start.isBefore(windowEnd);
+    }
 
-            if (!newStartDateTime.toLocalDate().isEqual(appointment.getStart().toLocalDate())) {
-                continue;
+    /**
+     * Finds the index of an appointment in the displayed month or week.
+     *
+     * @param appointmentId the ID of the appointment
+     * @return the index of the appointment, or -1 if it is not displayed
+     */
+    private int indexOfAppointment(int appointmentId) {
+        for (int i = 0; i < appointments.size(); i++) {
+            if (appointments.get(i).getAppointmentId() == appointmentId) {
+                return i;
             }
+        }
+        return -1;
+    }
 
-            if (newStartDateTime.isBefore(appointment.getEnd()) && newEndDateTime.isAfter(appointment.getStart())) {
-                return true;
+    /**
+     * Finds where an appointment belongs in the displayed month or week, which is ordered by start and then ID.
+     *
+     * @param display the appointment, with times in the user's time zone
+     * @return the index to insert the appointment at
+     */
+    private int sortedPosition(Appointment display) {
+        int low = 0;
+        int high = appointments.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareByStart(appointments.get(middle), display) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
             }
         }
-        return false;
+        return low;
+    }
+
+    /**
+     * Orders appointments by start and then ID, the order the month and week views are loaded in.
+     *
+     * @param first  the first appointment
+     * @param second the second appointment
+     * @return a negative number, zero or a positive number as the first sorts before, with or after the second
+     */
+    private int compareByStart(Appointment first, Appointment second) {
+        int order = first.getStart().compareTo(second.getStart());
+        return order != 0 ? order : Integer.compare(first.getAppointmentId(), second.getAppointmentId());
+    }
+
+    /**
+     * Creates a copy of an appointment with its times converted from UTC to the user's time zone.
+     *
+     * @param stored the appointment, with times in UTC
+     * @return the appointment as it should be displayed
+     */
+    private Appointment toUserTimeZone(Appointment stored) {
+        return TimeZoneConverter.of(LoginController.userTimeZone).toLocal(stored);
     }
 
     /**
@@ -583,6 +777,8 @@ public class AppointmentController {
         endDatePicker.getEditor().clear();
         startTimeField.clear();
         endTimeField.clear();
+        repeatComboBox.setValue(noRepeat);
+        repeatUntilPicker.setValue(null);
     }
 
     /**
@@ -598,13 +794,4 @@ public class AppointmentController {
         alert.showAndWait();
     }
 
-    /**
-     * Converts a LocalDateTime from the system default time zone to UTC.
-     *
-     * @param localDateTime the LocalDateTime in the system default time zone
-     * @return the LocalDateTime converted to UTC
-     */
-    private LocalDateTime convertToUTC(LocalDateTime localDateTime) {
-        return localDateTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
-    }
 }
\ No newline at end of file
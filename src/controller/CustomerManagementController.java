@@ -1,5 +1,10 @@
 package controller;
 
+import DAO.AsyncDAO;
+import DAO.ChangeFeed;
+import DAO.ChangeSet;
+import DAO.ReferenceCache;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
@@ -11,16 +16,18 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Stage;
-import javafx.application.Platform;
 import model.Customer;
+import service.CustomerCommand;
+import service.CustomerService;
 
 import java.io.IOException;
-import java.sql.*;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static DAO.CustomerDAO.*;
-import static DAO.JDBC.connection;
 import static DAO.JDBC.getCurrentUser;
 
 /**
@@ -71,6 +78,10 @@ public class CustomerManagementController {
 
     private final ObservableList<Customer> customerList = FXCollections.observableArrayList();
 
+    private CompletableFuture<?> pendingLoad;
+
+    private final Consumer<ChangeSet> changeListener = changes -> Platform.runLater(() -> applyChanges(changes));
+
     /**
      * Initializes the controller.
      */
@@ -93,13 +104,25 @@ public class CustomerManagementController {
         customerTableView.setItems(customerList);
 
         initializeComboBoxes();
+
+        ChangeFeed.subscribe(changeListener);
     }
 
     /**
-     * Loads customer data from the database.
+     * Loads customer data from the database in the background, showing a progress indicator until it arrives.
+     * A load still in progress is cancelled first.
      */
     private void loadCustomerData() {
-        customerList.setAll(getAllCustomers());
+        AsyncDAO.cancel(pendingLoad);
+        customerList.clear();
+        customerTableView.setPlaceholder(new ProgressIndicator());
+        pendingLoad = AsyncDAO.onFxThread(AsyncDAO.getAllCustomers(), customers -> {
+            customerList.setAll(customers);
+            customerTableView.setPlaceholder(null);
+        }, error -> {
+            customerTableView.setPlaceholder(null);
+            showError("Load Failed", "Customers could not be loaded: " + error.getMessage());
+        });
     }
 
     /**
@@ -107,85 +130,76 @@ public class CustomerManagementController {
      * Lambda expression used to set the items for the countryComboBox and to load divisions based on the selected country.
      */
     private void initializeComboBoxes() {
-        countryComboBox.setItems(FXCollections.observableArrayList(getAllCountries()));
+        AsyncDAO.onFxThread(AsyncDAO.supply(this::getAllCountries),
+                countries -> countryComboBox.setItems(FXCollections.observableArrayList(countries)),
+                error -> showError("Load Failed", "Countries could not be loaded: " + error.getMessage()));
 
         countryComboBox.setOnAction(event -> loadDivisionsForCountry(countryComboBox.getValue()));
     }
 
     /**
-     * Retrieves all countries from the database.
+     * Retrieves all countries from the reference cache.
      *
      * @return A list of country names.
      */
     private List<String> getAllCountries() {
-        List<String> countries = new ArrayList<>();
-        String query = "SELECT DISTINCT Country FROM client_schedule.countries";
-        try (Statement statement = connection.createStatement();
-             ResultSet resultSet = statement.executeQuery(query)) {
-            while (resultSet.next()) {
-                countries.add(resultSet.getString("Country"));
-            }
+        try {
+            return ReferenceCache.getCountries();
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return countries;
+        return new ArrayList<>();
     }
 
     /**
-     * Loads divisions for the selected country using a lambda expression.
+     * Loads divisions for the selected country in the background using a lambda expression.
      *
      * @param country The selected country.
      */
     private void loadDivisionsForCountry(String country) {
-        Platform.runLater(() -> {
-            List<String> divisions = new ArrayList<>();
-            String query = "SELECT Division FROM client_schedule.first_level_divisions " +
-                    "WHERE COUNTRY_ID = (SELECT Country_ID FROM client_schedule.countries WHERE Country = ?)";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setString(1, country);
-                ResultSet resultSet = statement.executeQuery();
-                while (resultSet.next()) {
-                    divisions.add(resultSet.getString("Division"));
-                }
-                divisionComboBox.setItems(FXCollections.observableArrayList(divisions));
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
-        });
+        AsyncDAO.onFxThread(AsyncDAO.supply(() -> getDivisionsForCountry(country)),
+                divisions -> divisionComboBox.setItems(FXCollections.observableArrayList(divisions)),
+                error -> showError("Load Failed", "Divisions could not be loaded: " + error.getMessage()));
+    }
+
+    /**
+     * Retrieves the divisions of a country from the reference cache.
+     *
+     * @param country The country.
+     * @return A list of division names.
+     */
+    private List<String> getDivisionsForCountry(String country) {
+        try {
+            return ReferenceCache.getDivisionsForCountry(country);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
     }
 
     /**
      * Handles the event when adding a new customer.
      *
      * This method is responsible for processing the addition of a new customer
-     * to the system. It retrieves input data from various UI components, validates
-     * the input, creates a new customer object, and adds it to the database. If any
-     * essential field is empty, an error message is displayed to the user. Upon
-     * successful addition, the customer list is refreshed, and all input fields are cleared.
+     * to the system. It retrieves input data from various UI components and hands it
+     * to the {@link CustomerService}, which validates it and adds the customer to the
+     * database. If any essential field is empty, an error message is displayed to the user. Upon
+     * successful addition, the new customer is added to the table, and all input fields are cleared.
      *
      * @param event The action event triggering the addition of a new customer.
      */
     @FXML
     private void handleAddCustomer(ActionEvent event) {
-        String customerName = customerNameField.getText();
-        String address = addressField.getText();
-        String postalCode = postalCodeField.getText();
-        String phone = phoneField.getText();
-        String division = divisionComboBox.getValue();
-        String currentUser = getCurrentUser();
-
-        if (customerName.isEmpty() || address.isEmpty() || postalCode.isEmpty() || phone.isEmpty() || division.isEmpty()) {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setTitle("Error");
-            alert.setHeaderText("Missing Information");
-            alert.setContentText("Please fill in all fields.");
-            alert.showAndWait();
-        } else {
-            Customer newCustomer = new Customer(0, customerName, address, postalCode, phone, 0, division, LocalDateTime.now(), currentUser, LocalDateTime.now(), currentUser);
-            addCustomer(newCustomer, division);
-            loadCustomerData();
-            clearTextFields();
-        }
+        CustomerCommand command = new CustomerCommand(customerNameField.getText(), addressField.getText(),
+                postalCodeField.getText(), phoneField.getText(), divisionComboBox.getValue(), getCurrentUser());
+        AsyncDAO.onFxThread(AsyncDAO.supply(() -> CustomerService.add(command)), result -> {
+            if (result.isSuccess()) {
+                customerList.add(result.getValue());
+                clearTextFields();
+            } else {
+                showError("Add Failed", result.getError());
+            }
+        }, error -> showError("Add Failed", "The customer could not be added: " + error.getMessage()));
     }
 
     /**
@@ -196,7 +210,7 @@ public class CustomerManagementController {
      * gathers updated information from UI components, validates the input,
      * and updates the customer record in the database. If no customer is selected
      * or any essential field is empty, an error message is displayed to the user.
-     * Upon successful update, the customer list is refreshed, and all input fields are cleared.
+     * Upon successful update, the customer's row is replaced in the table, and all input fields are cleared.
      *
      * @param event The action event triggering the update of an existing customer.
      */
@@ -217,16 +231,6 @@ public class CustomerManagementController {
         String postalCode = postalCodeField.getText();
         String phone = phoneField.getText();
 
-        int divisionId;
-        String selectedDivision = divisionComboBox.getValue();
-        String divisionName;
-        if (selectedDivision == null) {
-            divisionId = selectedCustomer.getDivisionId();
-        } else {
-            divisionId = getDivisionIdFromName(selectedDivision);
-        }
-        divisionName = getDivisionNameById(divisionId);
-
         if (customerName.isEmpty()) {
             customerName = selectedCustomer.getCustomerName();
         }
@@ -240,18 +244,20 @@ public class CustomerManagementController {
             phone = selectedCustomer.getPhone();
         }
 
-        selectedCustomer.setCustomerName(customerName);
-        selectedCustomer.setAddress(address);
-        selectedCustomer.setPostalCode(postalCode);
-        selectedCustomer.setPhone(phone);
-        selectedCustomer.setDivisionId(divisionId);
-        selectedCustomer.setDivisionName(divisionName);
-        selectedCustomer.setLastUpdate(LocalDateTime.now());
-        selectedCustomer.setLastUpdatedBy(getCurrentUser());
-
-        updateCustomer(selectedCustomer);
-        loadCustomerData();
-        clearTextFields();
+        int customerId = selectedCustomer.getCustomerId();
+        CustomerCommand command = new CustomerCommand(customerName, address, postalCode, phone,
+                divisionComboBox.getValue(), getCurrentUser());
+        AsyncDAO.onFxThread(AsyncDAO.supply(() -> CustomerService.update(customerId, command)), result -> {
+            if (result.isSuccess()) {
+                int index = indexOfCustomer(customerId);
+                if (index >= 0) {
+                    customerList.set(index, result.getValue());
+                }
+                clearTextFields();
+            } else {
+                showError("Update Failed", result.getError());
+            }
+        }, error -> showError("Update Failed", "The customer could not be updated: " + error.getMessage()));
     }
 
     /**
@@ -278,16 +284,61 @@ public class CustomerManagementController {
 
         Optional<ButtonType> result = confirmDeleteAlert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            deleteCustomer(selectedCustomer);
+            int customerId = selectedCustomer.getCustomerId();
+            AsyncDAO.onFxThread(AsyncDAO.supply(() -> CustomerService.delete(customerId)), deleted -> {
+                if (!deleted.isSuccess()) {
+                    showError("Delete Failed", deleted.getError());
+                    return;
+                }
+                Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
+                successAlert.setTitle("Customer Deleted");
+                successAlert.setHeaderText(null);
+                successAlert.setContentText("The customer has been successfully deleted.");
+                successAlert.showAndWait();
+
+                int index = indexOfCustomer(customerId);
+                if (index >= 0) {
+                    customerList.remove(index);
+                }
+            }, error -> showError("Delete Failed", "The customer could not be deleted: " + error.getMessage()));
+        }
+    }
 
-            Alert successAlert = new Alert(Alert.AlertType.INFORMATION);
-            successAlert.setTitle("Customer Deleted");
-            successAlert.setHeaderText(null);
-            successAlert.setContentText("The customer has been successfully deleted.");
-            successAlert.showAndWait();
+    /**
+     * Applies the customers other clients added, updated or deleted to the table.
+     *
+     * @param changes The changes delivered by the change feed.
+     */
+    private void applyChanges(ChangeSet changes) {
+        for (Customer customer : changes.getCustomers()) {
+            int index = indexOfCustomer(customer.getCustomerId());
+            if (index >= 0) {
+                customerList.set(index, customer);
+            } else {
+                customerList.add(customer);
+            }
+        }
+        for (int customerId : changes.getDeletedCustomerIds()) {
+            int index = indexOfCustomer(customerId);
+            if (index >= 0) {
+                customerList.remove(index);
+            }
+        }
+    }
 
-            loadCustomerData();
+    /**
+     * Finds the index of a customer in the table.
+     *
+     * @param customerId The ID of the customer.
+     * @return The index of the customer, or -1 if it is not in the table.
+     */
+    private int indexOfCustomer(int customerId) {
+        for (int i = 0; i < customerList.size(); i++) {
+            if (customerList.get(i).getCustomerId() == customerId) {
+                return i;
+            }
         }
+        return -1;
     }
 
     /**
@@ -305,7 +356,7 @@ public class CustomerManagementController {
                 addressField.setText(selectedCustomer.getAddress());
                 postalCodeField.setText(selectedCustomer.getPostalCode());
                 phoneField.setText(selectedCustomer.getPhone());
-                divisionComboBox.setValue(getDivisionNameById(selectedCustomer.getDivisionId()));
+                divisionComboBox.setValue(selectedCustomer.getDivisionName());
             }
         }
     }
@@ -317,6 +368,8 @@ public class CustomerManagementController {
      */
     @FXML
     private void handleViewReports(ActionEvent event) {
+        AsyncDAO.cancel(pendingLoad);
+        ChangeFeed.unsubscribe(changeListener);
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/ReportsView.fxml"));
             Parent root = loader.load();
@@ -336,6 +389,8 @@ public class CustomerManagementController {
  */
     @FXML
     private void handleManageAppointments(ActionEvent event) {
+        AsyncDAO.cancel(pendingLoad);
+        ChangeFeed.unsubscribe(changeListener);
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/AppointmentManagement.fxml"));
             Parent root = loader.load();
@@ -351,6 +406,20 @@ public class CustomerManagementController {
         }
     }
 
+    /**
+     * Displays an error alert.
+     *
+     * @param header  The header text of the alert.
+     * @param message The message to display.
+     */
+    private void showError(String header, String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(header);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
     private void clearTextFields() {
         customerIdField.clear();
         customerNameField.clear();
@@ -1,8 +1,8 @@
 package controller;
 
-import DAO.AppointmentDAO;
 import DAO.JDBC;
 import DAO.UserDAO;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -12,19 +12,17 @@ import javafx.stage.Stage;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import model.Appointment;
+import service.ReminderScheduler;
+import util.LoginAuditLog;
+import util.TimeZoneConverter;
 
-import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.ZoneOffset;
+import java.time.LocalDateTime;
 import java.time.format.TextStyle;
 import java.util.List;
 import java.sql.SQLException;
 
 import java.io.IOException;
-import java.io.FileWriter;
-import java.io.PrintWriter;
-import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 import java.util.ResourceBundle;
 
@@ -88,8 +86,8 @@ public class LoginController {
         passwordField.setOnKeyPressed(this::handleEnterKeyPress);
         usernameField.setOnKeyPressed(this::handleEnterKeyPress);
 
-        JDBC.openConnection();
-        this.userDAO = new UserDAO(JDBC.connection);
+        JDBC.openPool();
+        this.userDAO = new UserDAO();
     }
 
     /**
@@ -137,7 +135,9 @@ public class LoginController {
     }
 
     /**
-     * Checks for upcoming appointments and displays an alert if found.
+     * Starts the background reminders for the user and displays an alert listing the appointments that start within
+     * 15 minutes, or saying there are none. Later reminders are shown by {@link #showReminder(List)} while the
+     * application runs.
      *
      * @param username the username
      * @throws SQLException if a SQL error occurs
@@ -145,28 +145,48 @@ public class LoginController {
     private void checkUpcomingAppointments(String username) throws SQLException {
         int userId = UserDAO.getUserIdByUsername(username);
 
-        LocalDateTime nowUTC = LocalDateTime.now(ZoneOffset.UTC);
+        List<Appointment> upcomingAppointments = ReminderScheduler.start(userId,
+                dueAppointments -> Platform.runLater(() -> showReminder(dueAppointments)));
 
-        LocalDateTime windowEndUTC = nowUTC.plusMinutes(15);
+        if (!upcomingAppointments.isEmpty()) {
+            showAlert(describeUpcoming(upcomingAppointments));
+        } else {
+            showAlert("There are no upcoming appointments within 15 minutes.");
+        }
+    }
 
-        List<Appointment> upcomingAppointments = AppointmentDAO.getAppointmentsWithinTimeWindow(userId, nowUTC, windowEndUTC);
+    /**
+     * Shows a reminder for appointments that are about to start, without blocking the screen the user is on.
+     *
+     * @param dueAppointments the appointments whose reminders are due, with times in UTC
+     */
+    private static void showReminder(List<Appointment> dueAppointments) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Upcoming Appointments");
+        alert.setHeaderText(null);
+        alert.setContentText(describeUpcoming(dueAppointments));
+        alert.show();
+    }
 
-        if (!upcomingAppointments.isEmpty()) {
-            ZoneId userZoneId = ZoneId.systemDefault();
+    /**
+     * Lists appointments that start within 15 minutes in the user's time zone.
+     *
+     * @param upcomingAppointments the appointments, with times in UTC
+     * @return the message to display
+     */
+    private static String describeUpcoming(List<Appointment> upcomingAppointments) {
+        TimeZoneConverter userZone = TimeZoneConverter.systemDefault();
 
-            StringBuilder message = new StringBuilder();
-            message.append("You have upcoming appointments within 15 minutes:\n");
-            for (Appointment appointment : upcomingAppointments) {
-                ZonedDateTime startLocal = appointment.getStart().atZone(ZoneOffset.UTC).withZoneSameInstant(userZoneId);
+        StringBuilder message = new StringBuilder();
+        message.append("You have upcoming appointments within 15 minutes:\n");
+        for (Appointment appointment : upcomingAppointments) {
+            LocalDateTime startLocal = userZone.toLocal(appointment.getStart());
 
-                message.append("Appointment ID: ").append(appointment.getAppointmentId())
-                        .append(", Date: ").append(startLocal.toLocalDate())
-                        .append(", Time: ").append(startLocal.toLocalTime()).append("\n");
-            }
-            showAlert(message.toString());
-        } else {
-            showAlert("There are no upcoming appointments within 15 minutes.");
+            message.append("Appointment ID: ").append(appointment.getAppointmentId())
+                    .append(", Date: ").append(startLocal.toLocalDate())
+                    .append(", Time: ").append(startLocal.toLocalTime()).append("\n");
         }
+        return message.toString();
     }
 
     /**
@@ -206,17 +226,7 @@ public class LoginController {
      * @param success  True if login was successful, otherwise false.
      */
     private void logLoginActivity(String username, boolean success) {
-        String filename = "login_activity.txt";
-        try (FileWriter fileWriter = new FileWriter(filename, true);
-             PrintWriter printWriter = new PrintWriter(fileWriter)) {
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            LocalDateTime now = LocalDateTime.now();
-            String timestamp = dtf.format(now);
-            String status = success ? "Success" : "Failed";
-            printWriter.println(timestamp + " - User: " + username + ", Status: " + status);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        LoginAuditLog.record(username, success);
     }
 
     /**
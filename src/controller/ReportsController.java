@@ -1,6 +1,6 @@
 package controller;
 
-import DAO.CustomerDAO;
+import DAO.AsyncDAO;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -9,6 +9,7 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -17,15 +18,15 @@ import javafx.geometry.Insets;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import model.*;
-import DAO.AppointmentDAO;
-import DAO.ContactDAO;
+import service.ReportService;
 
 import java.io.IOException;
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Controller class for generating reports.
@@ -44,6 +45,10 @@ public class ReportsController implements Initializable {
     @FXML
     private ComboBox<String> countryComboBox;
 
+    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private CompletableFuture<?> pendingReport;
+
     /**
      * Initializes the controller by setting up event handlers for ComboBox selections.
      * <p>
@@ -78,12 +83,9 @@ public class ReportsController implements Initializable {
      * Populates the contact ComboBox with available contacts.
      */
     private void populateContactComboBox() {
-        try {
-            List<Contact> contacts = ContactDAO.getAllContacts();
-            contactComboBox.setItems(FXCollections.observableArrayList(contacts));
-        } catch (Exception e) {
-            showAlert("Error loading contacts: " + e.getMessage());
-        }
+        AsyncDAO.onFxThread(AsyncDAO.getAllContacts(),
+                contacts -> contactComboBox.setItems(FXCollections.observableArrayList(contacts)),
+                error -> showAlert("Error loading contacts: " + error.getMessage()));
     }
 
     /**
@@ -91,8 +93,7 @@ public class ReportsController implements Initializable {
      */
     @FXML
     public void generateCustomerAppointmentFrequencyReport() {
-        try {
-            List<Map<String, Object>> reportData = AppointmentDAO.getAppointmentCountsByTypeAndMonth();
+        showReport(AsyncDAO.supply(ReportService::countByTypeAndMonth), reportData -> {
             ObservableList<ReportRow> reportRows = FXCollections.observableArrayList();
 
             for (Map<String, Object> row : reportData) {
@@ -104,9 +105,29 @@ public class ReportsController implements Initializable {
 
             reportTableView.setItems(reportRows);
             setupCustomerAppointmentFrequencyColumns();
-        } catch (Exception e) {
-            showAlert("Error generating report: " + e.getMessage());
-        }
+        });
+    }
+
+    /**
+     * Shows a progress indicator in the report table while a report query runs in the background, then hands the
+     * result to {@code display} on the JavaFX application thread. A report still loading is cancelled first, so
+     * switching reports quickly never shows a stale one.
+     *
+     * @param query   The running report query.
+     * @param display Fills the table from the query result.
+     * @param <T>     The type of the query result.
+     */
+    private <T> void showReport(CompletableFuture<T> query, Consumer<T> display) {
+        AsyncDAO.cancel(pendingReport);
+        reportTableView.getItems().clear();
+        reportTableView.setPlaceholder(new ProgressIndicator());
+        pendingReport = AsyncDAO.onFxThread(query, result -> {
+            reportTableView.setPlaceholder(null);
+            display.accept(result);
+        }, error -> {
+            reportTableView.setPlaceholder(null);
+            showAlert("Error generating report: " + error.getMessage());
+        });
     }
 
     private void setupCustomerAppointmentFrequencyColumns() {
@@ -128,8 +149,8 @@ public class ReportsController implements Initializable {
     public void generateScheduleForSelectedContactReport() {
         Contact selectedContact = contactComboBox.getSelectionModel().getSelectedItem();
         if (selectedContact != null) {
-            try {
-                List<Appointment> appointments = AppointmentDAO.getAppointmentsByContact(selectedContact.getContactId());
+            int contactId = selectedContact.getContactId();
+            showReport(AsyncDAO.supply(() -> ReportService.contactSchedule(contactId, LoginController.userTimeZone)), appointments -> {
                 ObservableList<ReportRow> reportRows = FXCollections.observableArrayList();
 
                 for (Appointment appointment : appointments) {
@@ -138,17 +159,15 @@ public class ReportsController implements Initializable {
                             appointment.getTitle(),
                             appointment.getType(),
                             appointment.getDescription(),
-                            appointment.getStart().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
-                            appointment.getEnd().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")),
+                            appointment.getStart().format(dateTimeFormatter),
+                            appointment.getEnd().format(dateTimeFormatter),
                             appointment.getCustomerId()
                     ));
                 }
 
                 reportTableView.setItems(reportRows);
                 setupScheduleForContactsColumns();
-            } catch (Exception e) {
-                showAlert("Error generating report: " + e.getMessage());
-            }
+            });
         }
     }
 
@@ -185,12 +204,9 @@ public class ReportsController implements Initializable {
      * Populates the country ComboBox with available countries.
      */
     private void populateCountryComboBox() {
-        try {
-            List<String> countries = CustomerDAO.getAllCountries();
-            countryComboBox.setItems(FXCollections.observableArrayList(countries));
-        } catch (Exception e) {
-            showAlert("Error loading countries: " + e.getMessage());
-        }
+        AsyncDAO.onFxThread(AsyncDAO.getAllCountries(),
+                countries -> countryComboBox.setItems(FXCollections.observableArrayList(countries)),
+                error -> showAlert("Error loading countries: " + error.getMessage()));
     }
 
     /**
@@ -200,8 +216,7 @@ public class ReportsController implements Initializable {
     public void generateCustomerByCountryReport() {
         String selectedCountry = countryComboBox.getSelectionModel().getSelectedItem();
         if (selectedCountry != null) {
-            try {
-                ObservableList<CustomerSummary> customers = CustomerDAO.getCustomersByCountry(selectedCountry);
+            showReport(AsyncDAO.supply(() -> ReportService.customersByCountry(selectedCountry)), customers -> {
                 ObservableList<ReportRow> reportRows = FXCollections.observableArrayList();
 
                 for (CustomerSummary customer : customers) {
@@ -217,9 +232,7 @@ public class ReportsController implements Initializable {
                 }
                 reportTableView.setItems(reportRows);
                 setupCustomerByCountryColumns();
-            } catch (Exception e) {
-                showAlert("Error generating report: " + e.getMessage());
-            }
+            });
         }
     }
 
@@ -256,6 +269,7 @@ public class ReportsController implements Initializable {
      */
     @FXML
     public void handleBackToCustomerManagement() {
+        AsyncDAO.cancel(pendingReport);
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/CustomerManagement.fxml"));
             Parent root = loader.load();
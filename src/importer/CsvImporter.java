@@ -0,0 +1,475 @@
+package importer;
+
+import DAO.BatchResult;
+import DAO.CustomerDAO;
+import DAO.JDBC;
+import DAO.ReferenceCache;
+import model.Appointment;
+import model.Customer;
+import service.AppointmentService;
+import service.Result;
+import util.TimeZoneConverter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports customers and appointments from CSV files, applying the same rules as the management screens.
+ * <p>
+ * The file is streamed through a three-stage pipeline. The calling thread reads records in chunks of
+ * {@code chunkSize}; each chunk is validated on a pool of worker threads (required fields, date parsing, and
+ * division, contact and user resolution through {@link ReferenceCache}); the validated chunks are then taken back in
+ * file order and written. Customers are written with the bulk DAO method. Appointments go through
+ * {@link AppointmentService#addAll(List)}, which checks business hours and overlaps with stored appointments, series
+ * and the earlier records of the file exactly as for an appointment added on screen, under the same lock. At most
+ * {@code maxChunksInFlight} chunks are held at once, so memory use does not grow with the size of the file.
+ * <p>
+ * Every rejected record is written to a reject file together with its line number and the reason, in the same
+ * column layout as the input, so it can be corrected and imported again.
+ * <p>
+ * Customer files need the columns Customer_Name, Address, Postal_Code, Phone and Division. Appointment files need
+ * Title, Description, Location, Contact, Type, Start, End, Customer_ID and User_ID, with Start and End written as
+ * {@code yyyy-MM-dd HH:mm} in the time zone given to the importer.
+ */
+public class CsvImporter {
+
+    private static final int chunkSize = 1000;
+    private static final int validatorThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int maxChunksInFlight = validatorThreads * 2;
+    private static final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    private static final String[] customerColumns = {"Customer_Name", "Address", "Postal_Code", "Phone", "Division"};
+    private static final String[] appointmentColumns = {"Title", "Description", "Location", "Contact", "Type", "Start", "End", "Customer_ID", "User_ID"};
+
+    private final TimeZoneConverter zone;
+    private final String importedBy;
+
+    /**
+     * Creates an importer.
+     *
+     * @param zone       The time zone appointment times in the files are expressed in.
+     * @param importedBy The user name recorded as creator of imported customers.
+     */
+    public CsvImporter(ZoneId zone, String importedBy) {
+        this.zone = TimeZoneConverter.of(zone);
+        this.importedBy = importedBy;
+    }
+
+    /**
+     * Imports customers from a CSV file.
+     *
+     * @param csv     The file to import.
+     * @param rejects The file rejected records are written to.
+     * @return The number of records read, imported and rejected.
+     * @throws IOException If a file cannot be read or written, or the input lacks a required column.
+     */
+    public ImportSummary importCustomers(Path csv, Path rejects) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        return run(csv, rejects, customerColumns,
+                (fields, columns) -> parseCustomer(fields, columns, now),
+                customers -> errors(CustomerDAO.addCustomers(customers), customers.size()));
+    }
+
+    /**
+     * Imports appointments from a CSV file. An appointment is rejected if it falls outside business hours, or if it
+     * overlaps an existing appointment, a series occurrence or an earlier record of the same file, for the same
+     * customer or the same contact.
+     *
+     * @param csv     The file to import.
+     * @param rejects The file rejected records are written to.
+     * @return The number of records read, imported and rejected.
+     * @throws IOException If a file cannot be read or written, or the input lacks a required column.
+     */
+    public ImportSummary importAppointments(Path csv, Path rejects) throws IOException {
+        return run(csv, rejects, appointmentColumns,
+                this::parseAppointment,
+                appointments -> {
+                    List<String> errors = new ArrayList<>(appointments.size());
+                    for (Result<Appointment> result : AppointmentService.addAll(appointments)) {
+                        errors.add(result.getError());
+                    }
+                    return errors;
+                });
+    }
+
+    /**
+     * Streams a file through the validation and write stages.
+     *
+     * @param csv      The file to import.
+     * @param rejects  The file rejected records are written to.
+     * @param required The columns the file must have.
+     * @param parser   Validates and converts one record; runs on the worker threads.
+     * @param writer   Writes the valid records of a chunk in file order; runs on the calling thread.
+     * @param <T>      The type of the imported objects.
+     * @return The number of records read, imported and rejected.
+     * @throws IOException If a file cannot be read or written, or the input lacks a required column.
+     */
+    private <T> ImportSummary run(Path csv, Path rejects, String[] required, Parser<T> parser, Writer<T> writer)
+            throws IOException {
+        ImportSummary summary = new ImportSummary();
+        ExecutorService validators = Executors.newFixedThreadPool(validatorThreads, runnable -> {
+            Thread thread = new Thread(runnable, "csv-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8));
+             BufferedWriter rejectWriter = Files.newBufferedWriter(rejects, StandardCharsets.UTF_8)) {
+            String[] header = reader.next();
+            if (header == null) {
+                return summary;
+            }
+            Map<String, Integer> columns = mapColumns(header, required);
+            writeRecord(rejectWriter, "Line", "Reason", header);
+
+            ArrayDeque<Future<List<Row<T>>>> inFlight = new ArrayDeque<>();
+            List<Row<T>> chunk = new ArrayList<>(chunkSize);
+            String[] fields;
+            while ((fields = reader.next()) != null) {
+                if (fields.length == 1 && fields[0].trim().isEmpty()) {
+                    continue;
+                }
+                chunk.add(new Row<>(reader.getRecordLine(), fields));
+                if (chunk.size() == chunkSize) {
+                    inFlight.add(validators.submit(validate(chunk, columns, parser)));
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= maxChunksInFlight) {
+                        complete(inFlight.poll(), writer, rejectWriter, summary);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(validators.submit(validate(chunk, columns, parser)));
+            }
+            while (!inFlight.isEmpty()) {
+                complete(inFlight.poll(), writer, rejectWriter, summary);
+            }
+        } finally {
+            validators.shutdownNow();
+        }
+        return summary;
+    }
+
+    private <T> Callable<List<Row<T>>> validate(List<Row<T>> chunk, Map<String, Integer> columns, Parser<T> parser) {
+        return () -> {
+            for (Row<T> row : chunk) {
+                try {
+                    row.value = parser.parse(row.fields, columns);
+                } catch (RowException e) {
+                    row.error = e.getMessage();
+                }
+            }
+            return chunk;
+        };
+    }
+
+    private <T> void complete(Future<List<Row<T>>> validated, Writer<T> writer, BufferedWriter rejectWriter,
+                              ImportSummary summary) throws IOException {
+        List<Row<T>> rows;
+        try {
+            rows = validated.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Validation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<Row<T>> valid = new ArrayList<>(rows.size());
+        for (Row<T> row : rows) {
+            summary.read++;
+            if (row.error == null) {
+                valid.add(row);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            List<T> values = new ArrayList<>(valid.size());
+            for (Row<T> row : valid) {
+                values.add(row.value);
+            }
+            List<String> errors;
+            try {
+                errors = writer.write(values);
+            } catch (SQLException e) {
+                throw new IOException("Could not write records: " + e.getMessage(), e);
+            }
+            for (int i = 0; i < valid.size(); i++) {
+                valid.get(i).error = errors.get(i);
+                if (errors.get(i) == null) {
+                    summary.imported++;
+                }
+            }
+        }
+
+        for (Row<T> row : rows) {
+            if (row.error != null) {
+                summary.rejected++;
+                writeRecord(rejectWriter, Long.toString(row.line), row.error, row.fields);
+            }
+        }
+        rejectWriter.flush();
+    }
+
+    private Customer parseCustomer(String[] fields, Map<String, Integer> columns, LocalDateTime now) throws RowException {
+        String name = required(fields, columns, "Customer_Name");
+        String address = required(fields, columns, "Address");
+        String postalCode = required(fields, columns, "Postal_Code");
+        String phone = required(fields, columns, "Phone");
+        String division = required(fields, columns, "Division");
+
+        int divisionId;
+        try {
+            divisionId = ReferenceCache.getDivisionId(division);
+        } catch (SQLException e) {
+            throw new RowException("Could not look up division: " + e.getMessage());
+        }
+        if (divisionId == -1) {
+            throw new RowException("Division not found: " + division);
+        }
+        return new Customer(0, name, address, postalCode, phone, divisionId, division, now, importedBy, now, importedBy);
+    }
+
+    private Appointment parseAppointment(String[] fields, Map<String, Integer> columns) throws RowException {
+        String title = required(fields, columns, "Title");
+        String description = required(fields, columns, "Description");
+        String location = required(fields, columns, "Location");
+        String contact = required(fields, columns, "Contact");
+        String type = required(fields, columns, "Type");
+        LocalDateTime start = parseDateTime(required(fields, columns, "Start"));
+        LocalDateTime end = parseDateTime(required(fields, columns, "End"));
+        int customerId = parseId(required(fields, columns, "Customer_ID"), "customer");
+        int userId = parseId(required(fields, columns, "User_ID"), "user");
+
+        if (!end.isAfter(start)) {
+            throw new RowException("End must be after start.");
+        }
+        LocalDateTime startUTC = zone.toUtc(start);
+        LocalDateTime endUTC = zone.toUtc(end);
+        try {
+            if (ReferenceCache.getContactId(contact) == -1) {
+                throw new RowException("Contact with name " + contact + " does not exist.");
+            }
+            if (!ReferenceCache.userExists(userId)) {
+                throw new RowException("User with ID " + userId + " does not exist.");
+            }
+        } catch (SQLException e) {
+            throw new RowException("Could not look up contact and user: " + e.getMessage());
+        }
+
+        return new Appointment(0, title, description, location, contact, type, startUTC, endUTC, customerId, userId);
+    }
+
+    /**
+     * Lists the outcome of a bulk write per row.
+     *
+     * @param result The outcome of the write.
+     * @param rows   The number of rows written.
+     * @return Why each row was rejected, or null for the rows that were written, in input order.
+     */
+    private static List<String> errors(BatchResult result, int rows) {
+        List<String> errors = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            errors.add(null);
+        }
+        for (BatchResult.RowError error : result.getErrors()) {
+            errors.set(error.getRowIndex(), error.getMessage());
+        }
+        return errors;
+    }
+
+    private static String required(String[] fields, Map<String, Integer> columns, String column) throws RowException {
+        int index = columns.get(column.toLowerCase(Locale.ROOT));
+        String value = index < fields.length ? fields[index].trim() : "";
+        if (value.isEmpty()) {
+            throw new RowException(column + " is required.");
+        }
+        return value;
+    }
+
+    private static LocalDateTime parseDateTime(String value) throws RowException {
+        try {
+            return LocalDateTime.parse(value, dateTimeFormatter);
+        } catch (DateTimeParseException e) {
+            throw new RowException("Invalid date and time: " + value);
+        }
+    }
+
+    private static int parseId(String value, String kind) throws RowException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid " + kind + " ID: " + value);
+        }
+    }
+
+    private static Map<String, Integer> mapColumns(String[] header, String[] required) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String name = i == 0 && header[i].startsWith("\uFEFF") ? header[i].substring(1) : header[i];
+            columns.putIfAbsent(name.trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : required) {
+            if (!columns.containsKey(column.toLowerCase(Locale.ROOT))) {
+                throw new IOException("Missing required column: " + column);
+            }
+        }
+        return columns;
+    }
+
+    private static void writeRecord(BufferedWriter writer, String line, String reason, String[] fields) throws IOException {
+        writer.write(quote(line));
+        writer.write(',');
+        writer.write(quote(reason));
+        for (String field : fields) {
+            writer.write(',');
+            writer.write(quote(field));
+        }
+        writer.newLine();
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Imports a file from the command line.
+     * <p>
+     * Usage: {@code CsvImporter customers|appointments <input.csv> <rejects.csv> [time zone] [user name]}
+     *
+     * @param args The command-line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3 || !(args[0].equals("customers") || args[0].equals("appointments"))) {
+            System.out.println("Usage: CsvImporter customers|appointments <input.csv> <rejects.csv> [time zone] [user name]");
+            System.exit(2);
+        }
+        ZoneId zone = args.length > 3 ? ZoneId.of(args[3]) : ZoneId.systemDefault();
+        String user = args.length > 4 ? args[4] : "import";
+
+        JDBC.openPool();
+        try {
+            CsvImporter importer = new CsvImporter(zone, user);
+            long started = System.currentTimeMillis();
+            ImportSummary summary = args[0].equals("customers")
+                    ? importer.importCustomers(Paths.get(args[1]), Paths.get(args[2]))
+                    : importer.importAppointments(Paths.get(args[1]), Paths.get(args[2]));
+            System.out.println(summary + " in " + (System.currentTimeMillis() - started) + " ms.");
+        } catch (IOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            JDBC.closePool();
+        }
+    }
+
+    /**
+     * Validates and converts one record.
+     *
+     * @param <T> The type of the imported object.
+     */
+    private interface Parser<T> {
+        T parse(String[] fields, Map<String, Integer> columns) throws RowException;
+    }
+
+    /**
+     * Writes the valid records of a chunk.
+     *
+     * @param <T> The type of the imported objects.
+     */
+    private interface Writer<T> {
+        List<String> write(List<T> values) throws SQLException;
+    }
+
+    /**
+     * A record that fails validation, with the reason it fails.
+     */
+    private static final class RowException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private RowException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * One record on its way through the pipeline.
+     *
+     * @param <T> The type of the imported object.
+     */
+    private static final class Row<T> {
+        private final long line;
+        private final String[] fields;
+        private T value;
+        private String error;
+
+        private Row(long line, String[] fields) {
+            this.line = line;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * The outcome of an import.
+     */
+    public static class ImportSummary {
+        private long read;
+        private long imported;
+        private long rejected;
+
+        /**
+         * Gets the number of records read, not counting the header.
+         *
+         * @return The number of records read.
+         */
+        public long getRead() {
+            return read;
+        }
+
+        /**
+         * Gets the number of records stored.
+         *
+         * @return The number of records imported.
+         */
+        public long getImported() {
+            return imported;
+        }
+
+        /**
+         * Gets the number of records written to the reject file.
+         *
+         * @return The number of records rejected.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        @Override
+        public String toString() {
+            return read + " records read, " + imported + " imported, " + rejected + " rejected";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A streaming reader for comma-separated files as described by RFC 4180.
+ * <p>
+ * Records are parsed one at a time straight from the underlying reader, so memory use depends only on the length of
+ * the longest record, never on the size of the file. Fields may be quoted with double quotes, in which case they can
+ * contain commas, line breaks and doubled quotes. Both {@code \n} and {@code \r\n} line endings are accepted.
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private long recordLine;
+
+    /**
+     * Creates a reader over a character stream.
+     *
+     * @param reader The stream to read; it is buffered internally.
+     */
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The fields of the record, or null at the end of the input.
+     * @throws IOException If the input cannot be read or a quoted field is not terminated.
+     */
+    public String[] next() throws IOException {
+        long startLine = lineNumber;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = startLine;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine + ".");
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r') {
+                int following = read();
+                if (following != '\n' && following != -1) {
+                    position--;
+                }
+                break;
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Gets the line on which the record last returned by {@link #next()} started.
+     *
+     * @return The 1-based line number.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            lineNumber++;
+        }
+        return c;
+    }
+}
@@ -1,5 +1,6 @@
 package main;
 
+import DAO.ChangeFeed;
 import DAO.UserDAO;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -8,6 +9,8 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 import DAO.JDBC;
 import controller.LoginController;
+import service.ReminderScheduler;
+import util.LoginAuditLog;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -18,17 +21,18 @@ import java.util.ResourceBundle;
 public class Main extends Application {
 
     /**
-     * The start method that launches application. We open the connection to the database, initialize the UserDAO,
-     * load the Login.fxml, we get the controller for the login, set the UserDAO, set the scene and stage, and close the connection upon exit.
+     * The start method that launches application. We open the database connection pool, start the change feed, initialize the UserDAO,
+     * load the Login.fxml, we get the controller for the login, set the UserDAO, set the scene and stage, and close the pool upon exit.
      *
      * @param primaryStage The primary stage for the application.
      * @throws Exception If there is an error during application startup.
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
-        JDBC.openConnection();
+        JDBC.openPool();
+        ChangeFeed.start();
 
-        UserDAO userDAO = new UserDAO(JDBC.connection);
+        UserDAO userDAO = new UserDAO();
 
         Locale locale = Locale.getDefault();
         ResourceBundle bundle = ResourceBundle.getBundle("bundles.Login", locale);
@@ -46,7 +50,12 @@ public class Main extends Application {
         primaryStage.setScene(scene);
         primaryStage.show();
 
-        primaryStage.setOnCloseRequest(event -> JDBC.closeConnection());
+        primaryStage.setOnCloseRequest(event -> {
+            ReminderScheduler.stop();
+            ChangeFeed.stop();
+            LoginAuditLog.close();
+            JDBC.closePool();
+        });
     }
 
     /**
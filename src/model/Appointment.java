@@ -17,6 +17,7 @@ public class Appointment {
     private LocalDateTime end;
     private int customerId;
     private int userId;
+    private int seriesId;
 
     /**
      * Constructs a new Appointment object with the specified attributes.
@@ -224,4 +225,35 @@ public class Appointment {
     public void setUserId(int userId) {
         this.userId = userId;
     }
+
+    /**
+     * Gets the ID of the series this appointment is an occurrence of.
+     *
+     * @return The series ID, or 0 if the appointment is not an occurrence of a series.
+     */
+    public int getSeriesId() {
+        return seriesId;
+    }
+
+    /**
+     * Sets the ID of the series this appointment is an occurrence of.
+     *
+     * @param seriesId The series ID to set.
+     */
+    public void setSeriesId(int seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    /**
+     * Creates a copy of the appointment with different start and end times, for example in another time zone.
+     *
+     * @param start The start date and time of the copy.
+     * @param end   The end date and time of the copy.
+     * @return A new appointment with the same details and the given times.
+     */
+    public Appointment withTimes(LocalDateTime start, LocalDateTime end) {
+        Appointment copy = new Appointment(appointmentId, title, description, location, contact, type, start, end, customerId, userId);
+        copy.seriesId = seriesId;
+        return copy;
+    }
 }
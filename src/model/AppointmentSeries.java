@@ -0,0 +1,342 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * The AppointmentSeries class represents a recurring appointment stored as a single row: the details shared by every
+ * occurrence, the local start time of the first occurrence in the time zone it was scheduled in, its duration, a
+ * {@link RecurrenceRule} and the dates of the occurrences that were cancelled.
+ * <p>
+ * Occurrences are never stored. They are expanded on demand for a window, so a series that repeats for years costs
+ * the same to show, check for overlaps or count as the few occurrences that fall within the window. Expansion
+ * happens in the series' own time zone, so a weekly 9:00 check-in stays at 9:00 local time across daylight saving
+ * changes; the occurrences it produces are in UTC like every other appointment.
+ */
+public class AppointmentSeries {
+    private int seriesId;
+    private final String title;
+    private final String description;
+    private final String location;
+    private final String contact;
+    private final String type;
+    private final LocalDateTime firstStart;
+    private final Duration duration;
+    private final ZoneId zone;
+    private final RecurrenceRule rule;
+    private final Set<LocalDate> exceptions;
+    private final int customerId;
+    private final int userId;
+
+    /**
+     * Constructs a new AppointmentSeries object with the specified attributes.
+     *
+     * @param seriesId    The ID of the series, or 0 if it is not stored yet.
+     * @param title       The title of every occurrence.
+     * @param description The description of every occurrence.
+     * @param location    The location of every occurrence.
+     * @param contact     The contact associated with every occurrence.
+     * @param type        The type of every occurrence.
+     * @param firstStart  The start of the first occurrence, in the series' time zone.
+     * @param duration    The length of every occurrence.
+     * @param zone        The time zone the series repeats in.
+     * @param rule        How the series repeats.
+     * @param exceptions  The local dates of cancelled occurrences.
+     * @param customerId  The ID of the customer associated with the series.
+     * @param userId      The ID of the user who scheduled the series.
+     */
+    public AppointmentSeries(int seriesId, String title, String description, String location, String contact, String type,
+                             LocalDateTime firstStart, Duration duration, ZoneId zone, RecurrenceRule rule,
+                             Collection<LocalDate> exceptions, int customerId, int userId) {
+        this.seriesId = seriesId;
+        this.title = title;
+        this.description = description;
+        this.location = location;
+        this.contact = contact;
+        this.type = type;
+        this.firstStart = firstStart;
+        this.duration = duration;
+        this.zone = zone;
+        this.rule = rule;
+        this.exceptions = new TreeSet<>(exceptions);
+        this.customerId = customerId;
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the ID of the series.
+     *
+     * @return The series ID.
+     */
+    public int getSeriesId() {
+        return seriesId;
+    }
+
+    /**
+     * Sets the ID of the series.
+     *
+     * @param seriesId The series ID to set.
+     */
+    public void setSeriesId(int seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    /**
+     * Gets the title of every occurrence.
+     *
+     * @return The title.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the description of every occurrence.
+     *
+     * @return The description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the location of every occurrence.
+     *
+     * @return The location.
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the contact associated with every occurrence.
+     *
+     * @return The contact name.
+     */
+    public String getContact() {
+        return contact;
+    }
+
+    /**
+     * Gets the type of every occurrence.
+     *
+     * @return The type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the start of the first occurrence.
+     *
+     * @return The start, in the series' time zone.
+     */
+    public LocalDateTime getFirstStart() {
+        return firstStart;
+    }
+
+    /**
+     * Gets the length of every occurrence.
+     *
+     * @return The duration.
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the time zone the series repeats in.
+     *
+     * @return The zone.
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Gets how the series repeats.
+     *
+     * @return The recurrence rule.
+     */
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Gets the local dates of the cancelled occurrences.
+     *
+     * @return The dates, in order.
+     */
+    public Set<LocalDate> getExceptions() {
+        return Collections.unmodifiableSet(exceptions);
+    }
+
+    /**
+     * Cancels the occurrence on a date.
+     *
+     * @param date The local date of the occurrence to cancel.
+     */
+    public void addException(LocalDate date) {
+        exceptions.add(date);
+    }
+
+    /**
+     * Gets the ID of the customer associated with the series.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the ID of the user who scheduled the series.
+     *
+     * @return The user ID.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the start of the first occurrence in UTC.
+     *
+     * @return The start, in UTC.
+     */
+    public LocalDateTime getFirstStartUTC() {
+        return toUTC(firstStart);
+    }
+
+    /**
+     * Gets the end of the last occurrence in UTC, which lets the database skip series that ended before a window.
+     *
+     * @return The end, in UTC, or null if the series never ends.
+     */
+    public LocalDateTime getLastEndUTC() {
+        if (!rule.isBounded()) {
+            return null;
+        }
+        LocalDate from = rule.getCount() > 0 ? firstStart.toLocalDate() : rule.getUntil();
+        LocalDateTime last = null;
+        Iterator<LocalDateTime> starts = rule.startsFrom(firstStart, from);
+        while (starts.hasNext()) {
+            last = starts.next();
+        }
+        if (last == null && rule.getCount() == 0) {
+            // A monthly series can have its last valid month further back than the period before UNTIL.
+            starts = rule.startsFrom(firstStart, firstStart.toLocalDate());
+            while (starts.hasNext()) {
+                last = starts.next();
+            }
+        }
+        return last == null ? getFirstStartUTC().plus(duration) : toUTC(last).plus(duration);
+    }
+
+    /**
+     * Calls an action with the UTC start of every occurrence that overlaps a window, in order. Only the occurrences
+     * around the window are generated.
+     *
+     * @param windowStartUTC The start of the window, in UTC.
+     * @param windowEndUTC   The end of the window, in UTC, exclusive.
+     * @param action         Receives the start of each occurrence, in UTC.
+     */
+    public void forEachOccurrence(LocalDateTime windowStartUTC, LocalDateTime windowEndUTC, Consumer<LocalDateTime> action) {
+        LocalDate fromDate = toLocal(windowStartUTC.minus(duration)).toLocalDate();
+        Iterator<LocalDateTime> starts = rule.startsFrom(firstStart, fromDate);
+        while (starts.hasNext()) {
+            LocalDateTime startLocal = starts.next();
+            LocalDateTime startUTC = toUTC(startLocal);
+            if (!startUTC.isBefore(windowEndUTC)) {
+                return;
+            }
+            if (!exceptions.contains(startLocal.toLocalDate()) && startUTC.plus(duration).isAfter(windowStartUTC)) {
+                action.accept(startUTC);
+            }
+        }
+    }
+
+    /**
+     * Expands the occurrences that overlap a window.
+     *
+     * @param windowStartUTC The start of the window, in UTC.
+     * @param windowEndUTC   The end of the window, in UTC, exclusive.
+     * @return The occurrences in order, with times in UTC and the series ID set.
+     */
+    public List<Appointment> occurrencesBetween(LocalDateTime windowStartUTC, LocalDateTime windowEndUTC) {
+        List<Appointment> occurrences = new ArrayList<>();
+        forEachOccurrence(windowStartUTC, windowEndUTC, startUTC -> occurrences.add(toOccurrence(startUTC)));
+        return occurrences;
+    }
+
+    /**
+     * Checks if any occurrence overlaps a time range.
+     *
+     * @param startUTC The start of the range, in UTC.
+     * @param endUTC   The end of the range, in UTC, exclusive.
+     * @return True if an occurrence overlaps the range, otherwise false.
+     */
+    public boolean overlaps(LocalDateTime startUTC, LocalDateTime endUTC) {
+        boolean[] found = new boolean[1];
+        forEachOccurrence(startUTC, endUTC, occurrenceStart -> found[0] = true);
+        return found[0];
+    }
+
+    /**
+     * Checks if the rule has an occurrence starting at a given time, whether or not it has been cancelled.
+     *
+     * @param startUTC The start to look for, in UTC.
+     * @return True if an occurrence of the rule starts at that time, otherwise false.
+     */
+    public boolean hasOccurrenceAt(LocalDateTime startUTC) {
+        Iterator<LocalDateTime> starts = rule.startsFrom(firstStart, toLocal(startUTC).toLocalDate());
+        while (starts.hasNext()) {
+            LocalDateTime occurrenceStart = toUTC(starts.next());
+            if (!occurrenceStart.isBefore(startUTC)) {
+                return occurrenceStart.equals(startUTC);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the occurrence that starts at a given time.
+     *
+     * @param startUTC The start of the occurrence, in UTC.
+     * @return The occurrence, with an appointment ID of 0 and the series ID set.
+     */
+    public Appointment toOccurrence(LocalDateTime startUTC) {
+        Appointment occurrence = new Appointment(0, title, description, location, contact, type, startUTC,
+                startUTC.plus(duration), customerId, userId);
+        occurrence.setSeriesId(seriesId);
+        return occurrence;
+    }
+
+    /**
+     * Converts the UTC start of an occurrence to its local date, the date an exception is recorded under.
+     *
+     * @param startUTC The start of the occurrence, in UTC.
+     * @return The local date of the occurrence in the series' time zone.
+     */
+    public LocalDate localDateOf(LocalDateTime startUTC) {
+        return toLocal(startUTC).toLocalDate();
+    }
+
+    private LocalDateTime toUTC(LocalDateTime local) {
+        return local.atZone(zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    private LocalDateTime toLocal(LocalDateTime utc) {
+        return utc.atZone(ZoneOffset.UTC).withZoneSameInstant(zone).toLocalDateTime();
+    }
+}
@@ -0,0 +1,356 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A mutable, column-oriented table of appointments, for holding every appointment of a large calendar in memory while
+ * it keeps changing.
+ * <p>
+ * The columns are those of {@link CompactAppointments}: times are UTC epoch seconds, and the contact, type and
+ * location are int codes into a {@link CompactAppointments.Dictionary}. Rows are addressed by a slot that stays the
+ * same for as long as the row is held, and the slot of an appointment ID is found through an open-addressing hash of
+ * plain ints, so looking a row up by ID needs no boxed key or map entry per row. Removing a row frees its slot for the
+ * next row added, so the arrays only grow to the largest number of rows held at once. Dictionary codes are never
+ * freed, since the distinct contacts, types and locations are few.
+ * <p>
+ * The table only holds rows of the appointments table, which have no series ID, and at most one row per appointment
+ * ID. It is not thread-safe.
+ */
+public final class CompactAppointmentTable {
+
+    private int[] appointmentIds;
+    private String[] titles;
+    private String[] descriptions;
+    private int[] locationCodes;
+    private int[] contactCodes;
+    private int[] typeCodes;
+    private long[] starts;
+    private long[] ends;
+    private int[] customerIds;
+    private int[] userIds;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+    private int size;
+
+    /**
+     * The slot of each held appointment ID plus one, at the position its ID hashes to or the next free one after it;
+     * 0 marks a free position. The length is a power of two at least twice the number of rows.
+     */
+    private int[] slotsById;
+    private CompactAppointments.Dictionary locations = new CompactAppointments.Dictionary();
+    private CompactAppointments.Dictionary contacts = new CompactAppointments.Dictionary();
+    private CompactAppointments.Dictionary types = new CompactAppointments.Dictionary();
+
+    /**
+     * Creates an empty table.
+     */
+    public CompactAppointmentTable() {
+        allocate(16);
+    }
+
+    /**
+     * Adds a row copied from an appointment.
+     *
+     * @param appointment The appointment, with times in UTC.
+     * @return The slot of the new row.
+     */
+    public int add(Appointment appointment) {
+        return add(appointment.getAppointmentId(), appointment.getTitle(), appointment.getDescription(),
+                appointment.getLocation(), appointment.getContact(), appointment.getType(),
+                CompactAppointments.toEpochSecond(appointment.getStart()),
+                CompactAppointments.toEpochSecond(appointment.getEnd()), appointment.getCustomerId(),
+                appointment.getUserId());
+    }
+
+    /**
+     * Adds a row from its field values, without an intermediate {@link Appointment}.
+     *
+     * @param appointmentId    The ID of the appointment.
+     * @param title            The title.
+     * @param description      The description.
+     * @param location         The location.
+     * @param contact          The contact name.
+     * @param type             The type.
+     * @param startEpochSecond The start in UTC epoch seconds, or {@link Long#MIN_VALUE} if there is none.
+     * @param endEpochSecond   The end in UTC epoch seconds, or {@link Long#MIN_VALUE} if there is none.
+     * @param customerId       The ID of the customer.
+     * @param userId           The ID of the user.
+     * @return The slot of the new row.
+     */
+    public int add(int appointmentId, String title, String description, String location, String contact, String type,
+                   long startEpochSecond, long endEpochSecond, int customerId, int userId) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == appointmentIds.length) {
+                grow(slotCount * 2);
+            }
+            slot = slotCount++;
+        }
+        appointmentIds[slot] = appointmentId;
+        titles[slot] = title;
+        descriptions[slot] = description;
+        locationCodes[slot] = locations.encode(location);
+        contactCodes[slot] = contacts.encode(contact);
+        typeCodes[slot] = types.encode(type);
+        starts[slot] = startEpochSecond;
+        ends[slot] = endEpochSecond;
+        customerIds[slot] = customerId;
+        userIds[slot] = userId;
+        if (++size * 2 > slotsById.length) {
+            rehash(slotsById.length * 2);
+        }
+        insertId(slot);
+        return slot;
+    }
+
+    /**
+     * Removes a row and frees its slot.
+     *
+     * @param slot The slot of the row.
+     */
+    public void remove(int slot) {
+        removeId(slot);
+        size--;
+        titles[slot] = null;
+        descriptions[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Removes every row and forgets the dictionaries.
+     */
+    public void clear() {
+        allocate(16);
+        freeCount = 0;
+        slotCount = 0;
+        size = 0;
+        locations = new CompactAppointments.Dictionary();
+        contacts = new CompactAppointments.Dictionary();
+        types = new CompactAppointments.Dictionary();
+    }
+
+    /**
+     * Builds the appointment in a row. The result is a new, independent object.
+     *
+     * @param slot The slot of the row.
+     * @return The appointment, with times in UTC.
+     */
+    public Appointment get(int slot) {
+        return new Appointment(appointmentIds[slot], titles[slot], descriptions[slot], locations.decode(locationCodes[slot]),
+                contacts.decode(contactCodes[slot]), types.decode(typeCodes[slot]),
+                CompactAppointments.toDateTime(starts[slot]), CompactAppointments.toDateTime(ends[slot]),
+                customerIds[slot], userIds[slot]);
+    }
+
+    /**
+     * Copies rows into an immutable list, sharing the strings but not the columns.
+     *
+     * @param slots The slots of the rows, in the order of the list.
+     * @param count The number of slots to copy from the start of {@code slots}.
+     * @return The list of the rows.
+     */
+    public CompactAppointments toCompact(int[] slots, int count) {
+        int[] ids = new int[count];
+        String[] copiedTitles = new String[count];
+        String[] copiedDescriptions = new String[count];
+        int[] copiedLocations = new int[count];
+        int[] copiedContacts = new int[count];
+        int[] copiedTypes = new int[count];
+        long[] copiedStarts = new long[count];
+        long[] copiedEnds = new long[count];
+        int[] copiedCustomers = new int[count];
+        int[] copiedUsers = new int[count];
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            ids[i] = appointmentIds[slot];
+            copiedTitles[i] = titles[slot];
+            copiedDescriptions[i] = descriptions[slot];
+            copiedLocations[i] = locationCodes[slot];
+            copiedContacts[i] = contactCodes[slot];
+            copiedTypes[i] = typeCodes[slot];
+            copiedStarts[i] = starts[slot];
+            copiedEnds[i] = ends[slot];
+            copiedCustomers[i] = customerIds[slot];
+            copiedUsers[i] = userIds[slot];
+        }
+        return new CompactAppointments(count, ids, copiedTitles, copiedDescriptions, copiedLocations, copiedContacts,
+                copiedTypes, copiedStarts, copiedEnds, copiedCustomers, copiedUsers, new int[count],
+                locations.freeze(), contacts.freeze(), types.freeze());
+    }
+
+    /**
+     * Finds the row of an appointment.
+     *
+     * @param appointmentId The ID of the appointment.
+     * @return The slot of its row, or -1 if the table does not hold it.
+     */
+    public int slotOf(int appointmentId) {
+        int mask = slotsById.length - 1;
+        for (int position = hash(appointmentId) & mask; slotsById[position] != 0; position = (position + 1) & mask) {
+            int slot = slotsById[position] - 1;
+            if (appointmentIds[slot] == appointmentId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of rows held.
+     *
+     * @return The number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the ID of the appointment in a row.
+     *
+     * @param slot The slot of the row.
+     * @return The appointment ID.
+     */
+    public int getAppointmentId(int slot) {
+        return appointmentIds[slot];
+    }
+
+    /**
+     * Gets the start of the appointment in a row.
+     *
+     * @param slot The slot of the row.
+     * @return The start in UTC epoch seconds, or {@link Long#MIN_VALUE} if there is none.
+     */
+    public long getStartEpochSecond(int slot) {
+        return starts[slot];
+    }
+
+    /**
+     * Gets the end of the appointment in a row.
+     *
+     * @param slot The slot of the row.
+     * @return The end in UTC epoch seconds, or {@link Long#MIN_VALUE} if there is none.
+     */
+    public long getEndEpochSecond(int slot) {
+        return ends[slot];
+    }
+
+    /**
+     * Gets the ID of the customer of the appointment in a row.
+     *
+     * @param slot The slot of the row.
+     * @return The customer ID.
+     */
+    public int getCustomerId(int slot) {
+        return customerIds[slot];
+    }
+
+    /**
+     * Gets the ID of the user of the appointment in a row.
+     *
+     * @param slot The slot of the row.
+     * @return The user ID.
+     */
+    public int getUserId(int slot) {
+        return userIds[slot];
+    }
+
+    /**
+     * Gets the contact of the appointment in a row. Rows with the same contact return the same instance.
+     *
+     * @param slot The slot of the row.
+     * @return The contact name, or null.
+     */
+    public String getContact(int slot) {
+        return contacts.decode(contactCodes[slot]);
+    }
+
+    /**
+     * Gets the type of the appointment in a row. Rows with the same type return the same instance.
+     *
+     * @param slot The slot of the row.
+     * @return The type, or null.
+     */
+    public String getType(int slot) {
+        return types.decode(typeCodes[slot]);
+    }
+
+    private void allocate(int capacity) {
+        appointmentIds = new int[capacity];
+        titles = new String[capacity];
+        descriptions = new String[capacity];
+        locationCodes = new int[capacity];
+        contactCodes = new int[capacity];
+        typeCodes = new int[capacity];
+        starts = new long[capacity];
+        ends = new long[capacity];
+        customerIds = new int[capacity];
+        userIds = new int[capacity];
+        freeSlots = new int[16];
+        slotsById = new int[2 * capacity];
+    }
+
+    private void grow(int capacity) {
+        appointmentIds = Arrays.copyOf(appointmentIds, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        locationCodes = Arrays.copyOf(locationCodes, capacity);
+        contactCodes = Arrays.copyOf(contactCodes, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        customerIds = Arrays.copyOf(customerIds, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+    }
+
+    private void insertId(int slot) {
+        int mask = slotsById.length - 1;
+        int position = hash(appointmentIds[slot]) & mask;
+        while (slotsById[position] != 0) {
+            position = (position + 1) & mask;
+        }
+        slotsById[position] = slot + 1;
+    }
+
+    /**
+     * Removes a slot from the ID hash, moving back the entries after it that would otherwise no longer be found.
+     */
+    private void removeId(int slot) {
+        int mask = slotsById.length - 1;
+        int position = hash(appointmentIds[slot]) & mask;
+        while (slotsById[position] != slot + 1) {
+            position = (position + 1) & mask;
+        }
+        int next = (position + 1) & mask;
+        while (slotsById[next] != 0) {
+            int home = hash(appointmentIds[slotsById[next] - 1]) & mask;
+            // Move the entry into the gap unless its home lies cyclically after the gap and at or before the entry.
+            if (((next - home) & mask) >= ((next - position) & mask)) {
+                slotsById[position] = slotsById[next];
+                position = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slotsById[position] = 0;
+    }
+
+    private void rehash(int length) {
+        int[] old = slotsById;
+        slotsById = new int[length];
+        for (int entry : old) {
+            if (entry != 0) {
+                insertId(entry - 1);
+            }
+        }
+    }
+
+    private static int hash(int appointmentId) {
+        int h = appointmentId * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,445 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, column-oriented list of appointments for holding large calendars in memory.
+ * <p>
+ * Each field is kept in its own primitive array instead of one {@link Appointment} object per row. Start and end
+ * times are UTC epoch seconds, with {@link Long#MIN_VALUE} for a missing time, and the contact, type and location,
+ * which repeat across most rows, are stored as int codes into a {@link Dictionary}, so each distinct value is held
+ * once. A row costs about 52 bytes of arrays plus its title and description, against several hundred bytes for an
+ * {@code Appointment} with its two {@code LocalDateTime}s and its own copies of every string, so a few million
+ * appointments fit in a modest heap.
+ * <p>
+ * The list is also an adapter to the existing model: {@link #get(int)} builds an {@code Appointment} for a row on
+ * demand, so the list can be passed wherever a list of appointments is read. Code that scans many rows should use the
+ * column accessors such as {@link #getStartEpochSecond(int)} and {@link #getContactCode(int)}, which allocate nothing.
+ * Lists are built with a {@link Builder}, or copied out of a {@link CompactAppointmentTable}, which holds the same
+ * columns in a form that can change.
+ */
+public final class CompactAppointments extends AbstractList<Appointment> implements RandomAccess {
+
+    /**
+     * The epoch second stored for a missing start or end time.
+     */
+    static final long noTime = Long.MIN_VALUE;
+
+    private final int size;
+    private final int[] appointmentIds;
+    private final String[] titles;
+    private final String[] descriptions;
+    private final int[] locationCodes;
+    private final int[] contactCodes;
+    private final int[] typeCodes;
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] customerIds;
+    private final int[] userIds;
+    private final int[] seriesIds;
+    private final Dictionary locations;
+    private final Dictionary contacts;
+    private final Dictionary types;
+
+    private CompactAppointments(Builder builder) {
+        this.size = builder.size;
+        this.appointmentIds = Arrays.copyOf(builder.appointmentIds, size);
+        this.titles = Arrays.copyOf(builder.titles, size);
+        this.descriptions = Arrays.copyOf(builder.descriptions, size);
+        this.locationCodes = Arrays.copyOf(builder.locationCodes, size);
+        this.contactCodes = Arrays.copyOf(builder.contactCodes, size);
+        this.typeCodes = Arrays.copyOf(builder.typeCodes, size);
+        this.starts = Arrays.copyOf(builder.starts, size);
+        this.ends = Arrays.copyOf(builder.ends, size);
+        this.customerIds = Arrays.copyOf(builder.customerIds, size);
+        this.userIds = Arrays.copyOf(builder.userIds, size);
+        this.seriesIds = Arrays.copyOf(builder.seriesIds, size);
+        this.locations = builder.locations.freeze();
+        this.contacts = builder.contacts.freeze();
+        this.types = builder.types.freeze();
+    }
+
+    /**
+     * Creates a list over columns that are already filled and trimmed, such as the rows copied out of a
+     * {@link CompactAppointmentTable}. The arrays and dictionaries are taken over, not copied.
+     */
+    CompactAppointments(int size, int[] appointmentIds, String[] titles, String[] descriptions, int[] locationCodes,
+                        int[] contactCodes, int[] typeCodes, long[] starts, long[] ends, int[] customerIds,
+                        int[] userIds, int[] seriesIds, Dictionary locations, Dictionary contacts, Dictionary types) {
+        this.size = size;
+        this.appointmentIds = appointmentIds;
+        this.titles = titles;
+        this.descriptions = descriptions;
+        this.locationCodes = locationCodes;
+        this.contactCodes = contactCodes;
+        this.typeCodes = typeCodes;
+        this.starts = starts;
+        this.ends = ends;
+        this.customerIds = customerIds;
+        this.userIds = userIds;
+        this.seriesIds = seriesIds;
+        this.locations = locations;
+        this.contacts = contacts;
+        this.types = types;
+    }
+
+    /**
+     * Builds a compact copy of appointments.
+     *
+     * @param appointments The appointments to copy, with times in UTC.
+     * @return The compact list, in the same order.
+     */
+    public static CompactAppointments of(Collection<? extends Appointment> appointments) {
+        Builder builder = new Builder(appointments.size());
+        for (Appointment appointment : appointments) {
+            builder.add(appointment);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds the appointment in a row. The result is a new, independent object.
+     *
+     * @param index The row.
+     * @return The appointment, with times in UTC.
+     */
+    @Override
+    public Appointment get(int index) {
+        checkIndex(index);
+        Appointment appointment = new Appointment(appointmentIds[index], titles[index], descriptions[index],
+                locations.decode(locationCodes[index]), contacts.decode(contactCodes[index]), types.decode(typeCodes[index]),
+                toDateTime(starts[index]), toDateTime(ends[index]), customerIds[index], userIds[index]);
+        appointment.setSeriesId(seriesIds[index]);
+        return appointment;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the ID of the appointment in a row.
+     *
+     * @param index The row.
+     * @return The appointment ID.
+     */
+    public int getAppointmentId(int index) {
+        checkIndex(index);
+        return appointmentIds[index];
+    }
+
+    /**
+     * Gets the start of the appointment in a row.
+     *
+     * @param index The row.
+     * @return The start in UTC epoch seconds.
+     */
+    public long getStartEpochSecond(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * Gets the end of the appointment in a row.
+     *
+     * @param index The row.
+     * @return The end in UTC epoch seconds.
+     */
+    public long getEndEpochSecond(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Gets the ID of the customer of the appointment in a row.
+     *
+     * @param index The row.
+     * @return The customer ID.
+     */
+    public int getCustomerId(int index) {
+        checkIndex(index);
+        return customerIds[index];
+    }
+
+    /**
+     * Gets the ID of the user of the appointment in a row.
+     *
+     * @param index The row.
+     * @return The user ID.
+     */
+    public int getUserId(int index) {
+        checkIndex(index);
+        return userIds[index];
+    }
+
+    /**
+     * Gets the code of the contact of the appointment in a row.
+     *
+     * @param index The row.
+     * @return The code in {@link #getContacts()}, or -1 if the appointment has no contact.
+     */
+    public int getContactCode(int index) {
+        checkIndex(index);
+        return contactCodes[index];
+    }
+
+    /**
+     * Gets the code of the type of the appointment in a row.
+     *
+     * @param index The row.
+     * @return The code in {@link #getTypes()}, or -1 if the appointment has no type.
+     */
+    public int getTypeCode(int index) {
+        checkIndex(index);
+        return typeCodes[index];
+    }
+
+    /**
+     * Gets the contact of the appointment in a row. Rows with the same contact return the same instance.
+     *
+     * @param index The row.
+     * @return The contact name, or null.
+     */
+    public String getContact(int index) {
+        return contacts.decode(getContactCode(index));
+    }
+
+    /**
+     * Gets the dictionary of contact names.
+     *
+     * @return The contact dictionary.
+     */
+    public Dictionary getContacts() {
+        return contacts;
+    }
+
+    /**
+     * Gets the dictionary of appointment types.
+     *
+     * @return The type dictionary.
+     */
+    public Dictionary getTypes() {
+        return types;
+    }
+
+    /**
+     * Gets the dictionary of locations.
+     *
+     * @return The location dictionary.
+     */
+    public Dictionary getLocations() {
+        return locations;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    static LocalDateTime toDateTime(long epochSecond) {
+        return epochSecond == noTime ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    static long toEpochSecond(LocalDateTime utcDateTime) {
+        return utcDateTime == null ? noTime : utcDateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Maps each distinct string of a column to a small int code. Null is encoded as -1.
+     */
+    public static final class Dictionary {
+        private final Map<String, Integer> codes;
+        private String[] values;
+        private int size;
+
+        Dictionary() {
+            this.codes = new HashMap<>();
+            this.values = new String[16];
+        }
+
+        private Dictionary(String[] values) {
+            this.codes = null;
+            this.values = values;
+            this.size = values.length;
+        }
+
+        int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = size;
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = value;
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        Dictionary freeze() {
+            return new Dictionary(Arrays.copyOf(values, size));
+        }
+
+        /**
+         * Gets the string with a code.
+         *
+         * @param code The code.
+         * @return The string, or null for -1.
+         */
+        public String decode(int code) {
+            return code < 0 ? null : values[code];
+        }
+
+        /**
+         * Finds the code of a string with a linear scan; dictionaries are small.
+         *
+         * @param value The string.
+         * @return The code, or -1 if the string does not occur.
+         */
+        public int codeOf(String value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i].equals(value)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Gets the number of distinct strings.
+         *
+         * @return The size of the dictionary.
+         */
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Collects rows for a {@link CompactAppointments}. Arrays grow as rows are added and are trimmed by
+     * {@link #build()}. A builder is not thread-safe.
+     */
+    public static final class Builder {
+        private int size;
+        private int[] appointmentIds;
+        private String[] titles;
+        private String[] descriptions;
+        private int[] locationCodes;
+        private int[] contactCodes;
+        private int[] typeCodes;
+        private long[] starts;
+        private long[] ends;
+        private int[] customerIds;
+        private int[] userIds;
+        private int[] seriesIds;
+        private final Dictionary locations = new Dictionary();
+        private final Dictionary contacts = new Dictionary();
+        private final Dictionary types = new Dictionary();
+
+        /**
+         * Creates a builder for about the given number of rows.
+         *
+         * @param expectedSize The expected number of rows.
+         */
+        public Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            appointmentIds = new int[capacity];
+            titles = new String[capacity];
+            descriptions = new String[capacity];
+            locationCodes = new int[capacity];
+            contactCodes = new int[capacity];
+            typeCodes = new int[capacity];
+            starts = new long[capacity];
+            ends = new long[capacity];
+            customerIds = new int[capacity];
+            userIds = new int[capacity];
+            seriesIds = new int[capacity];
+        }
+
+        /**
+         * Adds a row copied from an appointment.
+         *
+         * @param appointment The appointment, with times in UTC.
+         * @return This builder.
+         */
+        public Builder add(Appointment appointment) {
+            add(appointment.getAppointmentId(), appointment.getTitle(), appointment.getDescription(),
+                    appointment.getLocation(), appointment.getContact(), appointment.getType(),
+                    toEpochSecond(appointment.getStart()), toEpochSecond(appointment.getEnd()),
+                    appointment.getCustomerId(), appointment.getUserId());
+            seriesIds[size - 1] = appointment.getSeriesId();
+            return this;
+        }
+
+        /**
+         * Adds a row from its field values, without an intermediate {@link Appointment}.
+         *
+         * @param appointmentId    The ID of the appointment.
+         * @param title            The title.
+         * @param description      The description.
+         * @param location         The location.
+         * @param contact          The contact name.
+         * @param type             The type.
+         * @param startEpochSecond The start in UTC epoch seconds.
+         * @param endEpochSecond   The end in UTC epoch seconds.
+         * @param customerId       The ID of the customer.
+         * @param userId           The ID of the user.
+         * @return This builder.
+         */
+        public Builder add(int appointmentId, String title, String description, String location, String contact,
+                           String type, long startEpochSecond, long endEpochSecond, int customerId, int userId) {
+            if (size == appointmentIds.length) {
+                grow();
+            }
+            appointmentIds[size] = appointmentId;
+            titles[size] = title;
+            descriptions[size] = description;
+            locationCodes[size] = locations.encode(location);
+            contactCodes[size] = contacts.encode(contact);
+            typeCodes[size] = types.encode(type);
+            starts[size] = startEpochSecond;
+            ends[size] = endEpochSecond;
+            customerIds[size] = customerId;
+            userIds[size] = userId;
+            seriesIds[size] = 0;
+            size++;
+            return this;
+        }
+
+        /**
+         * Builds the immutable list. The builder can keep being used afterwards.
+         *
+         * @return The list of the rows added so far.
+         */
+        public CompactAppointments build() {
+            return new CompactAppointments(this);
+        }
+
+        private void grow() {
+            int capacity = appointmentIds.length * 2;
+            appointmentIds = Arrays.copyOf(appointmentIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            locationCodes = Arrays.copyOf(locationCodes, capacity);
+            contactCodes = Arrays.copyOf(contactCodes, capacity);
+            typeCodes = Arrays.copyOf(typeCodes, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            customerIds = Arrays.copyOf(customerIds, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            seriesIds = Arrays.copyOf(seriesIds, capacity);
+        }
+    }
+}
@@ -5,19 +5,36 @@ import java.time.LocalDateTime;
 
 /**
  * Represents a customer entity, of which all fields can be found in the "customers" table in the database.
+ * <p>
+ * Values are kept in plain fields, and the JavaFX property of a field is created only when a table cell or a
+ * binding first asks for it. Customers that are loaded but never displayed, such as rows outside the visible part of
+ * a large table, therefore cost one small object each instead of twelve. Once a property exists it holds the value,
+ * and the getters and setters go through it so listeners see every change.
  */
 public class Customer {
-    private final IntegerProperty customerId;
-    private final StringProperty customerName;
-    private final StringProperty address;
-    private final StringProperty postalCode;
-    private final StringProperty phone;
-    private final IntegerProperty divisionId;
-    private final StringProperty divisionName;
-    private final ObjectProperty<LocalDateTime> createDate;
-    private final StringProperty createdBy;
-    private final ObjectProperty<LocalDateTime> lastUpdate;
-    private final StringProperty lastUpdatedBy;
+    private int customerId;
+    private String customerName;
+    private String address;
+    private String postalCode;
+    private String phone;
+    private int divisionId;
+    private String divisionName;
+    private LocalDateTime createDate;
+    private String createdBy;
+    private LocalDateTime lastUpdate;
+    private String lastUpdatedBy;
+
+    private IntegerProperty customerIdProperty;
+    private StringProperty customerNameProperty;
+    private StringProperty addressProperty;
+    private StringProperty postalCodeProperty;
+    private StringProperty phoneProperty;
+    private IntegerProperty divisionIdProperty;
+    private StringProperty divisionNameProperty;
+    private ObjectProperty<LocalDateTime> createDateProperty;
+    private StringProperty createdByProperty;
+    private ObjectProperty<LocalDateTime> lastUpdateProperty;
+    private StringProperty lastUpdatedByProperty;
 
     /**
      * Constructs a Customer object with the specified details.
@@ -35,17 +52,17 @@ public class Customer {
      * @param lastUpdatedBy The user who last updated the customer.
      */
     public Customer(int customerId, String customerName, String address, String postalCode, String phone, int divisionId, String divisionName, LocalDateTime createDate, String createdBy, LocalDateTime lastUpdate, String lastUpdatedBy) {
-        this.customerId = new SimpleIntegerProperty(customerId);
-        this.customerName = new SimpleStringProperty(customerName);
-        this.address = new SimpleStringProperty(address);
-        this.postalCode = new SimpleStringProperty(postalCode);
-        this.phone = new SimpleStringProperty(phone);
-        this.divisionId = new SimpleIntegerProperty(divisionId);
-        this.divisionName = new SimpleStringProperty(divisionName);
-        this.createDate = new SimpleObjectProperty<>(createDate);
-        this.createdBy = new SimpleStringProperty(createdBy);
-        this.lastUpdate = new SimpleObjectProperty<>(lastUpdate);
-        this.lastUpdatedBy = new SimpleStringProperty(lastUpdatedBy);
+        this.customerId = customerId;
+        this.customerName = customerName;
+        this.address = address;
+        this.postalCode = postalCode;
+        this.phone = phone;
+        this.divisionId = divisionId;
+        this.divisionName = divisionName;
+        this.createDate = createDate;
+        this.createdBy = createdBy;
+        this.lastUpdate = lastUpdate;
+        this.lastUpdatedBy = lastUpdatedBy;
     }
 
     /**
@@ -54,7 +71,7 @@ public class Customer {
      * @return The customer ID.
      */
     public int getCustomerId() {
-        return customerId.get();
+        return customerIdProperty != null ? customerIdProperty.get() : customerId;
     }
 
     /**
@@ -63,7 +80,23 @@ public class Customer {
      * @return The customer ID property.
      */
     public IntegerProperty customerIdProperty() {
-        return customerId;
+        if (customerIdProperty == null) {
+            customerIdProperty = new SimpleIntegerProperty(this, "customerId", customerId);
+        }
+        return customerIdProperty;
+    }
+
+    /**
+     * Sets the customer ID.
+     *
+     * @param customerId The customer ID to set.
+     */
+    public void setCustomerId(int customerId) {
+        if (this.customerIdProperty != null) {
+            this.customerIdProperty.set(customerId);
+        } else {
+            this.customerId = customerId;
+        }
     }
 
     /**
@@ -72,7 +105,7 @@ public class Customer {
      * @return The customer name.
      */
     public String getCustomerName() {
-        return customerName.get();
+        return customerNameProperty != null ? customerNameProperty.get() : customerName;
     }
 
     /**
@@ -81,7 +114,10 @@ public class Customer {
      * @return The customer name property.
      */
     public StringProperty customerNameProperty() {
-        return customerName;
+        if (customerNameProperty == null) {
+            customerNameProperty = new SimpleStringProperty(this, "customerName", customerName);
+        }
+        return customerNameProperty;
     }
 
     /**
@@ -90,7 +126,11 @@ public class Customer {
      * @param customerName The customer name to set.
      */
     public void setCustomerName(String customerName) {
-        this.customerName.set(customerName);
+        if (this.customerNameProperty != null) {
+            this.customerNameProperty.set(customerName);
+        } else {
+            this.customerName = customerName;
+        }
     }
 
     /**
@@ -99,7 +139,7 @@ public class Customer {
      * @return The address of the customer.
      */
     public String getAddress() {
-        return address.get();
+        return addressProperty != null ? addressProperty.get() : address;
     }
 
     /**
@@ -108,7 +148,10 @@ public class Customer {
      * @return The address property of the customer.
      */
     public StringProperty addressProperty() {
-        return address;
+        if (addressProperty == null) {
+            addressProperty = new SimpleStringProperty(this, "address", address);
+        }
+        return addressProperty;
     }
 
     /**
@@ -117,7 +160,11 @@ public class Customer {
      * @param address The address to set.
      */
     public void setAddress(String address) {
-        this.address.set(address);
+        if (this.addressProperty != null) {
+            this.addressProperty.set(address);
+        } else {
+            this.address = address;
+        }
     }
 
     /**
@@ -126,7 +173,7 @@ public class Customer {
      * @return The postal code of the customer.
      */
     public String getPostalCode() {
-        return postalCode.get();
+        return postalCodeProperty != null ? postalCodeProperty.get() : postalCode;
     }
 
     /**
@@ -135,7 +182,10 @@ public class Customer {
      * @return The postal code property of the customer.
      */
     public StringProperty postalCodeProperty() {
-        return postalCode;
+        if (postalCodeProperty == null) {
+            postalCodeProperty = new SimpleStringProperty(this, "postalCode", postalCode);
+        }
+        return postalCodeProperty;
     }
 
     /**
@@ -144,7 +194,11 @@ public class Customer {
      * @param postalCode The postal code to set.
      */
     public void setPostalCode(String postalCode) {
-        this.postalCode.set(postalCode);
+        if (this.postalCodeProperty != null) {
+            this.postalCodeProperty.set(postalCode);
+        } else {
+            this.postalCode = postalCode;
+        }
     }
 
     /**
@@ -153,7 +207,7 @@ public class Customer {
      * @return The phone number of the customer.
      */
     public String getPhone() {
-        return phone.get();
+        return phoneProperty != null ? phoneProperty.get() : phone;
     }
 
     /**
@@ -162,7 +216,10 @@ public class Customer {
      * @return The phone number property of the customer.
      */
     public StringProperty phoneProperty() {
-        return phone;
+        if (phoneProperty == null) {
+            phoneProperty = new SimpleStringProperty(this, "phone", phone);
+        }
+        return phoneProperty;
     }
 
     /**
@@ -171,7 +228,11 @@ public class Customer {
      * @param phone The phone number to set.
      */
     public void setPhone(String phone) {
-        this.phone.set(phone);
+        if (this.phoneProperty != null) {
+            this.phoneProperty.set(phone);
+        } else {
+            this.phone = phone;
+        }
     }
 
     /**
@@ -180,17 +241,20 @@ public class Customer {
      * @return The ID of the division.
      */
     public int getDivisionId() {
-        return divisionId.get();
+        return divisionIdProperty != null ? divisionIdProperty.get() : divisionId;
     }
 
-/**
- * Gets the division ID property.
- *
- * @return The division ID property.
- */
-public IntegerProperty divisionIdProperty() {
-    return divisionId;
-}
+    /**
+     * Gets the division ID property.
+     *
+     * @return The division ID property.
+     */
+    public IntegerProperty divisionIdProperty() {
+        if (divisionIdProperty == null) {
+            divisionIdProperty = new SimpleIntegerProperty(this, "divisionId", divisionId);
+        }
+        return divisionIdProperty;
+    }
 
     /**
      * Sets the ID of the division to which the customer belongs.
@@ -198,7 +262,11 @@ public IntegerProperty divisionIdProperty() {
      * @param divisionId The division ID to set.
      */
     public void setDivisionId(int divisionId) {
-        this.divisionId.set(divisionId);
+        if (this.divisionIdProperty != null) {
+            this.divisionIdProperty.set(divisionId);
+        } else {
+            this.divisionId = divisionId;
+        }
     }
 
     /**
@@ -206,8 +274,20 @@ public IntegerProperty divisionIdProperty() {
      *
      * @return The division name.
      */
+    public String getDivisionName() {
+        return divisionNameProperty != null ? divisionNameProperty.get() : divisionName;
+    }
+
+    /**
+     * Gets the division name property.
+     *
+     * @return The division name property.
+     */
     public StringProperty divisionNameProperty() {
-        return divisionName;
+        if (divisionNameProperty == null) {
+            divisionNameProperty = new SimpleStringProperty(this, "divisionName", divisionName);
+        }
+        return divisionNameProperty;
     }
 
     /**
@@ -216,7 +296,11 @@ public IntegerProperty divisionIdProperty() {
      * @param divisionName The division name to set.
      */
     public void setDivisionName(String divisionName) {
-        this.divisionName.set(divisionName);
+        if (this.divisionNameProperty != null) {
+            this.divisionNameProperty.set(divisionName);
+        } else {
+            this.divisionName = divisionName;
+        }
     }
 
     /**
@@ -225,7 +309,7 @@ public IntegerProperty divisionIdProperty() {
      * @return The creation date and time.
      */
     public LocalDateTime getCreateDate() {
-        return createDate.get();
+        return createDateProperty != null ? createDateProperty.get() : createDate;
     }
 
     /**
@@ -234,7 +318,10 @@ public IntegerProperty divisionIdProperty() {
      * @return The creation date property.
      */
     public ObjectProperty<LocalDateTime> createDateProperty() {
-        return createDate;
+        if (createDateProperty == null) {
+            createDateProperty = new SimpleObjectProperty<>(this, "createDate", createDate);
+        }
+        return createDateProperty;
     }
 
     /**
@@ -243,7 +330,7 @@ public IntegerProperty divisionIdProperty() {
      * @return The user who created the customer.
      */
     public String getCreatedBy() {
-        return createdBy.get();
+        return createdByProperty != null ? createdByProperty.get() : createdBy;
     }
 
     /**
@@ -252,7 +339,10 @@ public IntegerProperty divisionIdProperty() {
      * @return The created by property.
      */
     public StringProperty createdByProperty() {
-        return createdBy;
+        if (createdByProperty == null) {
+            createdByProperty = new SimpleStringProperty(this, "createdBy", createdBy);
+        }
+        return createdByProperty;
     }
 
     /**
@@ -261,7 +351,7 @@ public IntegerProperty divisionIdProperty() {
      * @return The last update date and time.
      */
     public LocalDateTime getLastUpdate() {
-        return lastUpdate.get();
+        return lastUpdateProperty != null ? lastUpdateProperty.get() : lastUpdate;
     }
 
     /**
@@ -270,7 +360,10 @@ public IntegerProperty divisionIdProperty() {
      * @return The last update property.
      */
     public ObjectProperty<LocalDateTime> lastUpdateProperty() {
-        return lastUpdate;
+        if (lastUpdateProperty == null) {
+            lastUpdateProperty = new SimpleObjectProperty<>(this, "lastUpdate", lastUpdate);
+        }
+        return lastUpdateProperty;
     }
 
     /**
@@ -279,7 +372,11 @@ public IntegerProperty divisionIdProperty() {
      * @param lastUpdate The last update date and time to set.
      */
     public void setLastUpdate(LocalDateTime lastUpdate) {
-        this.lastUpdate.set(lastUpdate);
+        if (this.lastUpdateProperty != null) {
+            this.lastUpdateProperty.set(lastUpdate);
+        } else {
+            this.lastUpdate = lastUpdate;
+        }
     }
 
     /**
@@ -288,7 +385,7 @@ public IntegerProperty divisionIdProperty() {
      * @return The user who last updated the customer.
      */
     public String getLastUpdatedBy() {
-        return lastUpdatedBy.get();
+        return lastUpdatedByProperty != null ? lastUpdatedByProperty.get() : lastUpdatedBy;
     }
 
     /**
@@ -297,7 +394,10 @@ public IntegerProperty divisionIdProperty() {
      * @return The last updated by property.
      */
     public StringProperty lastUpdatedByProperty() {
-        return lastUpdatedBy;
+        if (lastUpdatedByProperty == null) {
+            lastUpdatedByProperty = new SimpleStringProperty(this, "lastUpdatedBy", lastUpdatedBy);
+        }
+        return lastUpdatedByProperty;
     }
 
     /**
@@ -306,6 +406,10 @@ public IntegerProperty divisionIdProperty() {
      * @param lastUpdatedBy The user who last updated the customer.
      */
     public void setLastUpdatedBy(String lastUpdatedBy) {
-        this.lastUpdatedBy.set(lastUpdatedBy);
+        if (this.lastUpdatedByProperty != null) {
+            this.lastUpdatedByProperty.set(lastUpdatedBy);
+        } else {
+            this.lastUpdatedBy = lastUpdatedBy;
+        }
     }
 }
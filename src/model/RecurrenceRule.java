@@ -0,0 +1,315 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The RecurrenceRule class describes how an appointment series repeats, using the subset of the iCalendar RRULE
+ * syntax the application needs: {@code FREQ=DAILY|WEEKLY|MONTHLY}, {@code INTERVAL}, {@code BYDAY} for weekly
+ * series, and an optional end given as {@code UNTIL} (a date, inclusive) or {@code COUNT}.
+ * <p>
+ * Occurrences are generated lazily by {@link #startsFrom(LocalDateTime, LocalDate)}. For series without a COUNT the
+ * generator jumps straight to the period containing the requested date, so expanding a window far into a long series
+ * costs the same as expanding its first week. A monthly series skips the months that do not have its day of the
+ * month, as RRULE does.
+ */
+public final class RecurrenceRule {
+
+    /**
+     * How often a series repeats.
+     */
+    public enum Frequency {
+        DAILY, WEEKLY, MONTHLY
+    }
+
+    private static final DateTimeFormatter untilFormat = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDays;
+    private final LocalDate until;
+    private final int count;
+
+    /**
+     * Constructs a RecurrenceRule.
+     *
+     * @param frequency How often the series repeats.
+     * @param interval  The number of days, weeks or months between repetitions, at least 1.
+     * @param byDays    The weekdays a weekly series occurs on; empty for the weekday of the first occurrence.
+     * @param until     The last date an occurrence may fall on, or null.
+     * @param count     The number of occurrences, or 0 for no limit.
+     */
+    public RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDays, LocalDate until, int count) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("INTERVAL must be at least 1.");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("COUNT must not be negative.");
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDays = byDays.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(byDays);
+        this.until = until;
+        this.count = count;
+    }
+
+    /**
+     * Parses a rule such as {@code FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;UNTIL=20261231}.
+     *
+     * @param rule The rule text.
+     * @return The parsed rule.
+     * @throws IllegalArgumentException If the rule is malformed or uses a part that is not supported.
+     */
+    public static RecurrenceRule parse(String rule) {
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDays = EnumSet.noneOf(DayOfWeek.class);
+        LocalDate until = null;
+        int count = 0;
+
+        for (String part : rule.trim().split(";")) {
+            int equals = part.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String name = part.substring(0, equals).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(equals + 1).trim().toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "FREQ":
+                    frequency = Frequency.valueOf(value);
+                    break;
+                case "INTERVAL":
+                    interval = Integer.parseInt(value);
+                    break;
+                case "BYDAY":
+                    for (String day : value.split(",")) {
+                        byDays.add(parseDay(day.trim()));
+                    }
+                    break;
+                case "UNTIL":
+                    until = LocalDate.parse(value.length() > 8 ? value.substring(0, 8) : value, untilFormat);
+                    break;
+                case "COUNT":
+                    count = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+            }
+        }
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule has no FREQ.");
+        }
+        return new RecurrenceRule(frequency, interval, byDays, until, count);
+    }
+
+    /**
+     * Gets how often the series repeats.
+     *
+     * @return The frequency.
+     */
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    /**
+     * Gets the number of days, weeks or months between repetitions.
+     *
+     * @return The interval.
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Gets the weekdays a weekly series occurs on.
+     *
+     * @return The weekdays, empty for the weekday of the first occurrence.
+     */
+    public Set<DayOfWeek> getByDays() {
+        return Collections.unmodifiableSet(byDays);
+    }
+
+    /**
+     * Gets the last date an occurrence may fall on.
+     *
+     * @return The date, or null if the rule has no UNTIL.
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * Gets the number of occurrences.
+     *
+     * @return The count, or 0 if the rule has no COUNT.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Checks if the series ends, either by date or by count.
+     *
+     * @return True if the series has a last occurrence, otherwise false.
+     */
+    public boolean isBounded() {
+        return until != null || count > 0;
+    }
+
+    /**
+     * Lazily generates the start times of the occurrences of a series in order, beginning no later than the first
+     * occurrence on or after {@code fromDate}. A few earlier occurrences may come first, so callers filter by their
+     * own window. Exceptions are not applied here; they still count towards COUNT, as in RRULE.
+     *
+     * @param firstStart The start of the first occurrence, in the series' time zone.
+     * @param fromDate   The date to start generating from, in the series' time zone.
+     * @return An iterator over occurrence start times, in the series' time zone.
+     */
+    public Iterator<LocalDateTime> startsFrom(LocalDateTime firstStart, LocalDate fromDate) {
+        return new Starts(firstStart, fromDate);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval != 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (!byDays.isEmpty()) {
+            rule.append(";BYDAY=");
+            boolean first = true;
+            for (DayOfWeek day : byDays) {
+                if (!first) {
+                    rule.append(',');
+                }
+                rule.append(day.name(), 0, 2);
+                first = false;
+            }
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(untilFormat.format(until));
+        }
+        if (count > 0) {
+            rule.append(";COUNT=").append(count);
+        }
+        return rule.toString();
+    }
+
+    private static DayOfWeek parseDay(String day) {
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (dayOfWeek.name().startsWith(day) && day.length() == 2) {
+                return dayOfWeek;
+            }
+        }
+        throw new IllegalArgumentException("Unknown BYDAY value: " + day);
+    }
+
+    /**
+     * Generates occurrence start times one period at a time. A period is a day, a week or a month, repeated every
+     * {@code interval} periods.
+     */
+    private final class Starts implements Iterator<LocalDateTime> {
+        private final LocalDate firstDate;
+        private final LocalTime time;
+        private final LocalDate firstWeek;
+        private final List<DayOfWeek> weekDays;
+        private long period;
+        private final List<LocalDate> pending = new ArrayList<>();
+        private int emitted;
+        private boolean done;
+
+        private Starts(LocalDateTime firstStart, LocalDate fromDate) {
+            this.firstDate = firstStart.toLocalDate();
+            this.time = firstStart.toLocalTime();
+            this.firstWeek = firstDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            this.weekDays = new ArrayList<>(byDays.isEmpty() ? EnumSet.of(firstDate.getDayOfWeek()) : byDays);
+            // With a COUNT every occurrence from the first has to be counted, so only unlimited series may jump.
+            if (count == 0 && fromDate.isAfter(firstDate)) {
+                long elapsed;
+                switch (frequency) {
+                    case DAILY:
+                        elapsed = ChronoUnit.DAYS.between(firstDate, fromDate);
+                        break;
+                    case WEEKLY:
+                        elapsed = ChronoUnit.WEEKS.between(firstWeek, fromDate);
+                        break;
+                    default:
+                        elapsed = ChronoUnit.MONTHS.between(YearMonth.from(firstDate), YearMonth.from(fromDate));
+                }
+                // Start one period early so an occurrence running into the requested date is not missed.
+                this.period = Math.max(0, elapsed / interval - 1);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && !done) {
+                fillPeriod();
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            emitted++;
+            return pending.remove(0).atTime(time);
+        }
+
+        /**
+         * Adds the dates of the next period, ending the sequence once it passes UNTIL or reaches COUNT.
+         */
+        private void fillPeriod() {
+            long step = period * interval;
+            period++;
+            switch (frequency) {
+                case DAILY:
+                    add(firstDate.plusDays(step));
+                    break;
+                case WEEKLY:
+                    LocalDate weekStart = firstWeek.plusWeeks(step);
+                    for (DayOfWeek day : weekDays) {
+                        LocalDate date = weekStart.plusDays(day.ordinal());
+                        if (!date.isBefore(firstDate)) {
+                            add(date);
+                        }
+                    }
+                    break;
+                default:
+                    YearMonth month = YearMonth.from(firstDate).plusMonths(step);
+                    if (until != null && month.atDay(1).isAfter(until)) {
+                        done = true;
+                    } else if (month.isValidDay(firstDate.getDayOfMonth())) {
+                        add(month.atDay(firstDate.getDayOfMonth()));
+                    }
+            }
+        }
+
+        private void add(LocalDate date) {
+            if (done) {
+                return;
+            }
+            if ((until != null && date.isAfter(until)) || (count > 0 && emitted + pending.size() >= count)) {
+                done = true;
+                return;
+            }
+            pending.add(date);
+        }
+    }
+}
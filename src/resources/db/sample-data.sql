@@ -0,0 +1,11 @@
+-- A few customers and appointments to try the application with. Appointment times are stored in UTC.
+
+INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, Last_Update, Last_Updated_By, Division_ID) VALUES
+    ('Daddy Warbucks', '1919 Boardwalk', '01291', '869-908-1875', NOW(), 'script', NOW(), 'script', 29),
+    ('Lady McAnderson', '2 Wonder Way', 'AF19B', '11-445-910-2135', NOW(), 'script', NOW(), 'script', 103),
+    ('Dudley Do-Right', '48 Cambridge Street', 'Z7Y 8F1', '874-916-2671', NOW(), 'script', NOW(), 'script', 60);
+
+INSERT INTO appointments (Title, Description, Location, Type, Start, End, Create_Date, Created_By, Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID) VALUES
+    ('Kickoff', 'Project kickoff', 'Boardroom', 'Planning Session', '2026-11-02 14:00:00', '2026-11-02 15:00:00', NOW(), 'script', NOW(), 'script', 1, 1, 3),
+    ('Review', 'Quarterly review', 'Video call', 'De-Briefing', '2026-11-03 18:00:00', '2026-11-03 18:30:00', NOW(), 'script', NOW(), 'script', 2, 2, 2),
+    ('Check-in', 'Account check-in', 'Phone', 'Follow-up', '2026-11-04 16:30:00', '2026-11-04 17:00:00', NOW(), 'script', NOW(), 'script', 3, 1, 1);
@@ -0,0 +1,114 @@
+-- The client_schedule tables the application reads and writes. Every table is created only if it does not exist, so
+-- the script also adds the tables a database created by an earlier version lacks. Statements are separated by
+-- semicolons at the end of a line.
+
+CREATE TABLE IF NOT EXISTS countries (
+    Country_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Country VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    Last_Updated_By VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS first_level_divisions (
+    Division_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Division VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Country_ID INT NOT NULL,
+    CONSTRAINT fk_division_country FOREIGN KEY (Country_ID) REFERENCES countries (Country_ID)
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    Customer_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Customer_Name VARCHAR(50),
+    Address VARCHAR(100),
+    Postal_Code VARCHAR(50),
+    Phone VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Division_ID INT NOT NULL,
+    CONSTRAINT fk_customer_division FOREIGN KEY (Division_ID) REFERENCES first_level_divisions (Division_ID)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    User_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    User_Name VARCHAR(50) UNIQUE,
+    Password TEXT,
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    Last_Updated_By VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS contacts (
+    Contact_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Contact_Name VARCHAR(50),
+    Email VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS appointments (
+    Appointment_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Title VARCHAR(50),
+    Description VARCHAR(50),
+    Location VARCHAR(50),
+    Type VARCHAR(50),
+    Start DATETIME,
+    End DATETIME,
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Customer_ID INT NOT NULL,
+    User_ID INT NOT NULL,
+    Contact_ID INT NOT NULL,
+    CONSTRAINT fk_appointment_customer FOREIGN KEY (Customer_ID) REFERENCES customers (Customer_ID),
+    CONSTRAINT fk_appointment_user FOREIGN KEY (User_ID) REFERENCES users (User_ID),
+    CONSTRAINT fk_appointment_contact FOREIGN KEY (Contact_ID) REFERENCES contacts (Contact_ID),
+    INDEX appointment_start (Start, Appointment_ID)
+);
+
+CREATE TABLE IF NOT EXISTS appointment_series (
+    Series_ID INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Title VARCHAR(50),
+    Description VARCHAR(50),
+    Location VARCHAR(50),
+    Type VARCHAR(50),
+    First_Start DATETIME NOT NULL,
+    Last_End DATETIME NULL,
+    Duration_Minutes INT NOT NULL,
+    Time_Zone VARCHAR(64) NOT NULL,
+    Recurrence VARCHAR(255) NOT NULL,
+    Customer_ID INT NOT NULL,
+    User_ID INT NOT NULL,
+    Contact_ID INT NOT NULL,
+    CONSTRAINT fk_series_customer FOREIGN KEY (Customer_ID) REFERENCES customers (Customer_ID),
+    CONSTRAINT fk_series_user FOREIGN KEY (User_ID) REFERENCES users (User_ID),
+    CONSTRAINT fk_series_contact FOREIGN KEY (Contact_ID) REFERENCES contacts (Contact_ID),
+    INDEX series_customer (Customer_ID),
+    INDEX series_contact (Contact_ID)
+);
+
+-- The cancelled occurrences of a series, one row per local date, so cancelling one never rewrites the series row.
+CREATE TABLE IF NOT EXISTS series_exceptions (
+    Series_ID INT NOT NULL,
+    Occurrence_Date DATE NOT NULL,
+    PRIMARY KEY (Series_ID, Occurrence_Date),
+    CONSTRAINT fk_exception_series FOREIGN KEY (Series_ID) REFERENCES appointment_series (Series_ID) ON DELETE CASCADE
+);
+
+-- One row per change made through the DAO classes, polled by ChangeFeed by Change_ID and pruned by Changed_At.
+CREATE TABLE IF NOT EXISTS change_log (
+    Change_ID BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Table_Name VARCHAR(32) NOT NULL,
+    Row_ID INT NOT NULL,
+    Operation CHAR(1) NOT NULL,
+    Client_ID VARCHAR(36) NOT NULL,
+    Changed_At TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX change_log_changed_at (Changed_At)
+);
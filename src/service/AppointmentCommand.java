@@ -0,0 +1,140 @@
+package service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * The details of an appointment to add or change, as a caller enters them: the start and end are local times of the
+ * caller's time zone and the user is named rather than identified. Commands are immutable, so one can be handed to
+ * another thread or kept for a retry.
+ */
+public final class AppointmentCommand {
+    private final String title;
+    private final String description;
+    private final String location;
+    private final String contact;
+    private final String type;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final ZoneId zone;
+    private final int customerId;
+    private final String username;
+
+    /**
+     * Constructs a new AppointmentCommand with the specified attributes.
+     *
+     * @param title       The title of the appointment.
+     * @param description The description of the appointment.
+     * @param location    The location of the appointment.
+     * @param contact     The name of the contact associated with the appointment.
+     * @param type        The type of the appointment.
+     * @param start       The start of the appointment, in the caller's time zone.
+     * @param end         The end of the appointment, in the caller's time zone.
+     * @param zone        The caller's time zone.
+     * @param customerId  The ID of the customer associated with the appointment.
+     * @param username    The name of the user scheduling the appointment.
+     */
+    public AppointmentCommand(String title, String description, String location, String contact, String type,
+                              LocalDateTime start, LocalDateTime end, ZoneId zone, int customerId, String username) {
+        this.title = title;
+        this.description = description;
+        this.location = location;
+        this.contact = contact;
+        this.type = type;
+        this.start = start;
+        this.end = end;
+        this.zone = zone;
+        this.customerId = customerId;
+        this.username = username;
+    }
+
+    /**
+     * Gets the title of the appointment.
+     *
+     * @return The title.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the description of the appointment.
+     *
+     * @return The description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the location of the appointment.
+     *
+     * @return The location.
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the name of the contact associated with the appointment.
+     *
+     * @return The contact name.
+     */
+    public String getContact() {
+        return contact;
+    }
+
+    /**
+     * Gets the type of the appointment.
+     *
+     * @return The type.
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the start of the appointment.
+     *
+     * @return The start, in the caller's time zone.
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the end of the appointment.
+     *
+     * @return The end, in the caller's time zone.
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the time zone the start and end are expressed in.
+     *
+     * @return The caller's time zone.
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Gets the ID of the customer associated with the appointment.
+     *
+     * @return The customer ID.
+     */
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Gets the name of the user scheduling the appointment.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+}
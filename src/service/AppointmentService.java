@@ -0,0 +1,434 @@
+package service;
+
+import DAO.AppointmentDAO;
+import DAO.AppointmentStore;
+import DAO.BatchResult;
+import DAO.SeriesDAO;
+import DAO.UserDAO;
+import model.Appointment;
+import model.AppointmentSeries;
+import model.RecurrenceRule;
+import util.BusinessCalendar;
+import util.TimeZoneConverter;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adds, changes and deletes appointments and recurring series, independently of any user interface. Callers pass an
+ * {@link AppointmentCommand} with times in their own zone and get back a {@link Result}: the stored appointment in
+ * UTC, or the message explaining why the change was refused.
+ * <p>
+ * Every change is checked the same way whoever makes it: all fields must be set, the appointment must fall within
+ * the {@link BusinessCalendar}, and it must not overlap another appointment or a series occurrence of the same
+ * customer or contact. Appointments are checked against the {@link AppointmentStore}, series against the database.
+ * This holds for bulk additions such as a CSV import too, through {@link #addAll(List)}.
+ * <p>
+ * The class holds no state of its own and may be called from any number of threads. The overlap check and the write
+ * that follows it are made under one lock, so two callers booking the same slot at once cannot both pass the check;
+ * the lock is held only for the check and the write, and reads do not take it.
+ */
+public final class AppointmentService {
+
+    /**
+     * How far ahead the occurrences of a new series that never ends are checked against business hours and overlaps.
+     */
+    private static final Duration seriesCheckHorizon = Duration.ofDays(366);
+
+    private static final ReentrantLock writeLock = new ReentrantLock();
+
+    private AppointmentService() {
+    }
+
+    /**
+     * Adds an appointment.
+     *
+     * @param command The appointment to add.
+     * @return The appointment as stored, with its new ID and times in UTC, or why it was refused.
+     * @throws SQLException If the user, the stored appointments or the series cannot be read.
+     */
+    public static Result<Appointment> add(AppointmentCommand command) throws SQLException {
+        return write(0, command);
+    }
+
+    /**
+     * Replaces the details of an appointment with those of a command.
+     *
+     * @param appointmentId The ID of the appointment to change.
+     * @param command       The new details of the appointment.
+     * @return The appointment as stored, with times in UTC, or why it was refused.
+     * @throws SQLException If the user, the stored appointments or the series cannot be read.
+     */
+    public static Result<Appointment> update(int appointmentId, AppointmentCommand command) throws SQLException {
+        if (appointmentId <= 0) {
+            return Result.failure("No appointment selected.");
+        }
+        return write(appointmentId, command);
+    }
+
+    /**
+     * Deletes an appointment.
+     *
+     * @param appointmentId The ID of the appointment to delete.
+     * @return The ID of the deleted appointment, or why it was not deleted.
+     */
+    public static Result<Integer> delete(int appointmentId) {
+        if (!AppointmentDAO.deleteAppointment(appointmentId)) {
+            return Result.failure("Failed to delete appointment.");
+        }
+        ReminderScheduler.appointmentDeleted(appointmentId);
+        return Result.success(appointmentId);
+    }
+
+    /**
+     * Adds many appointments at once, as a bulk import does. Each appointment is checked like one passed to
+     * {@link #add(AppointmentCommand)}: against business hours, the stored appointments and the series of its
+     * customer and contact, and also against the appointments before it in the list, none of which is stored yet. The
+     * accepted appointments are then written with one bulk insert, under the same lock as the check.
+     *
+     * @param appointments The appointments to add, complete and with times in UTC. The ID of each appointment that is
+     *                     stored is set to its new ID.
+     * @return One result per appointment, in the order given: the appointment as stored, or why it was refused.
+     * @throws SQLException If the stored appointments or the series cannot be read.
+     */
+    public static List<Result<Appointment>> addAll(List<Appointment> appointments) throws SQLException {
+        List<Result<Appointment>> results = new ArrayList<>(appointments.size());
+        if (appointments.isEmpty()) {
+            return results;
+        }
+        LocalDateTime windowStart = appointments.get(0).getStart();
+        LocalDateTime windowEnd = appointments.get(0).getEnd();
+        for (Appointment appointment : appointments) {
+            if (appointment.getStart().isBefore(windowStart)) {
+                windowStart = appointment.getStart();
+            }
+            if (appointment.getEnd().isAfter(windowEnd)) {
+                windowEnd = appointment.getEnd();
+            }
+        }
+
+        List<Appointment> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        writeLock.lock();
+        try {
+            List<AppointmentSeries> allSeries = SeriesDAO.getSeriesInRange(windowStart.toInstant(ZoneOffset.UTC),
+                    windowEnd.toInstant(ZoneOffset.UTC), null, null, null);
+            Map<Integer, List<Appointment>> pendingByCustomer = new HashMap<>();
+            Map<String, List<Appointment>> pendingByContact = new HashMap<>();
+            for (Appointment appointment : appointments) {
+                String problem;
+                if (!BusinessCalendar.standard().isWithinUtc(appointment.getStart(), appointment.getEnd())) {
+                    problem = BusinessCalendar.standard().describe();
+                } else {
+                    problem = checkPending(appointment, pendingByCustomer, pendingByContact);
+                }
+                if (problem == null) {
+                    problem = findOverlap(appointment.getCustomerId(), appointment.getContact(), appointment.getStart(),
+                            appointment.getEnd(), 0, involving(appointment.getCustomerId(), appointment.getContact(), allSeries));
+                }
+                if (problem != null) {
+                    results.add(Result.failure(problem));
+                    continue;
+                }
+                results.add(null);
+                accepted.add(appointment);
+                acceptedIndexes.add(results.size() - 1);
+                pendingByCustomer.computeIfAbsent(appointment.getCustomerId(), id -> new ArrayList<>()).add(appointment);
+                pendingByContact.computeIfAbsent(appointment.getContact(), name -> new ArrayList<>()).add(appointment);
+            }
+            if (!accepted.isEmpty()) {
+                BatchResult written = AppointmentDAO.addAppointments(accepted);
+                for (BatchResult.RowError error : written.getErrors()) {
+                    results.set(acceptedIndexes.get(error.getRowIndex()), Result.failure(error.getMessage()));
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            if (results.get(index) == null) {
+                results.set(index, Result.success(accepted.get(i)));
+                ReminderScheduler.appointmentSaved(accepted.get(i));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Adds a recurring series whose first occurrence is the appointment of a command. Every occurrence up to the end
+     * of the series, or up to a year ahead for a series without end, is checked against business hours, the stored
+     * appointments and the other series before the series is stored.
+     *
+     * @param command The first occurrence.
+     * @param rule    How the series repeats.
+     * @return The series as stored, with its new ID, or why it was refused.
+     * @throws SQLException If the user, the stored appointments or the series cannot be read.
+     */
+    public static Result<AppointmentSeries> addSeries(AppointmentCommand command, RecurrenceRule rule) throws SQLException {
+        String invalid = validate(command);
+        if (invalid != null) {
+            return Result.failure(invalid);
+        }
+        if (rule.getUntil() != null && rule.getUntil().isBefore(command.getStart().toLocalDate())) {
+            return Result.failure("The repeat end date must not be before the start date.");
+        }
+        int userId = UserDAO.getUserIdByUsername(command.getUsername());
+        if (userId == -1) {
+            return Result.failure("Unknown user: " + command.getUsername());
+        }
+        TimeZoneConverter converter = TimeZoneConverter.of(command.getZone());
+        Duration duration = Duration.between(converter.toUtc(command.getStart()), converter.toUtc(command.getEnd()));
+        AppointmentSeries series = new AppointmentSeries(0, command.getTitle(), command.getDescription(),
+                command.getLocation(), command.getContact(), command.getType(), command.getStart(), duration,
+                command.getZone(), rule, new ArrayList<>(), command.getCustomerId(), userId);
+
+        LocalDateTime checkFrom = series.getFirstStartUTC();
+        LocalDateTime lastEnd = series.getLastEndUTC();
+        LocalDateTime checkUntil = lastEnd != null ? lastEnd : checkFrom.plus(seriesCheckHorizon);
+        writeLock.lock();
+        try {
+            List<AppointmentSeries> others = seriesOf(command.getCustomerId(), command.getContact(), checkFrom, checkUntil);
+            String[] problem = new String[1];
+            SQLException[] failure = new SQLException[1];
+            series.forEachOccurrence(checkFrom, checkUntil, startUTC -> {
+                if (problem[0] != null || failure[0] != null) {
+                    return;
+                }
+                LocalDateTime endUTC = startUTC.plus(duration);
+                try {
+                    if (!BusinessCalendar.standard().isWithinUtc(startUTC, endUTC)) {
+                        problem[0] = BusinessCalendar.standard().describe();
+                    } else if (findOverlap(command.getCustomerId(), command.getContact(), startUTC, endUTC, 0, others) != null) {
+                        problem[0] = "Overlapping appointments are not allowed. An occurrence on "
+                                + converter.toLocal(startUTC).toLocalDate() + " overlaps an existing appointment.";
+                    }
+                } catch (SQLException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            if (problem[0] != null) {
+                return Result.failure(problem[0]);
+            }
+            if (!SeriesDAO.addSeries(series)) {
+                return Result.failure("Failed to add recurring appointment.");
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        ReminderScheduler.seriesChanged();
+        return Result.success(series);
+    }
+
+    /**
+     * Cancels a single occurrence of a series by recording its date as an exception of the series. The rest of the
+     * series is unchanged.
+     *
+     * @param seriesId The ID of the series.
+     * @param start    The start of the occurrence, in the caller's time zone.
+     * @param zone     The caller's time zone.
+     * @return The local date of the cancelled occurrence in the series' time zone, or why it was not cancelled.
+     * @throws SQLException If the series cannot be read.
+     */
+    public static Result<LocalDate> cancelOccurrence(int seriesId, LocalDateTime start, ZoneId zone) throws SQLException {
+        writeLock.lock();
+        try {
+            // Each cancellation is a row of its own, so cancellations by other clients are never overwritten.
+            AppointmentSeries series = SeriesDAO.getSeries(seriesId);
+            if (series == null) {
+                return Result.failure("The recurring appointment could not be found.");
+            }
+            LocalDateTime startUTC = TimeZoneConverter.of(zone).toUtc(start);
+            LocalDate date = series.localDateOf(startUTC);
+            if (series.getExceptions().contains(date)) {
+                return Result.failure("This occurrence has already been cancelled.");
+            }
+            if (!series.hasOccurrenceAt(startUTC)) {
+                return Result.failure("The recurring appointment has no occurrence at that time.");
+            }
+            if (!SeriesDAO.addException(series, date)) {
+                return Result.failure("Failed to delete occurrence.");
+            }
+            ReminderScheduler.seriesChanged();
+            return Result.success(date);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds an appointment, or replaces one if an ID is given.
+     *
+     * @param appointmentId The ID of the appointment to replace, or 0 to add one.
+     * @param command       The details of the appointment.
+     * @return The appointment as stored, or why it was refused.
+     * @throws SQLException If the user, the stored appointments or the series cannot be read.
+     */
+    private static Result<Appointment> write(int appointmentId, AppointmentCommand command) throws SQLException {
+        String invalid = validate(command);
+        if (invalid != null) {
+            return Result.failure(invalid);
+        }
+        TimeZoneConverter converter = TimeZoneConverter.of(command.getZone());
+        LocalDateTime startUTC = converter.toUtc(command.getStart());
+        LocalDateTime endUTC = converter.toUtc(command.getEnd());
+        if (!BusinessCalendar.standard().isWithinUtc(startUTC, endUTC)) {
+            return Result.failure(BusinessCalendar.standard().describe());
+        }
+        int userId = UserDAO.getUserIdByUsername(command.getUsername());
+        if (userId == -1) {
+            return Result.failure("Unknown user: " + command.getUsername());
+        }
+        Appointment appointment = new Appointment(appointmentId, command.getTitle(), command.getDescription(),
+                command.getLocation(), command.getContact(), command.getType(), startUTC, endUTC,
+                command.getCustomerId(), userId);
+
+        writeLock.lock();
+        try {
+            List<AppointmentSeries> series = seriesOf(command.getCustomerId(), command.getContact(), startUTC, endUTC);
+            String overlap = findOverlap(command.getCustomerId(), command.getContact(), startUTC, endUTC, appointmentId, series);
+            if (overlap != null) {
+                return Result.failure(overlap);
+            }
+            if (appointmentId == 0 && !AppointmentDAO.addAppointment(userId, appointment)) {
+                return Result.failure("Failed to add appointment.");
+            }
+            if (appointmentId != 0 && !AppointmentDAO.updateAppointment(userId, appointment)) {
+                return Result.failure("Failed to update appointment.");
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        ReminderScheduler.appointmentSaved(appointment);
+        return Result.success(appointment);
+    }
+
+    /**
+     * Checks that every field of a command is set and that the appointment ends after it starts.
+     *
+     * @param command The command to check.
+     * @return Why the command is invalid, or null if it is valid.
+     */
+    private static String validate(AppointmentCommand command) {
+        if (isBlank(command.getTitle()) || isBlank(command.getDescription()) || isBlank(command.getLocation())
+                || isBlank(command.getType()) || isBlank(command.getContact()) || command.getCustomerId() <= 0
+                || command.getStart() == null || command.getEnd() == null || command.getZone() == null
+                || isBlank(command.getUsername())) {
+            return "All fields must be filled out.";
+        }
+        if (!command.getEnd().isAfter(command.getStart())) {
+            return "The end must be after the start.";
+        }
+        return null;
+    }
+
+    /**
+     * Finds an appointment or a series occurrence of the same customer or the same contact that overlaps a time
+     * frame, and describes which of the two is double-booked.
+     *
+     * @param customerId    The ID of the customer.
+     * @param contact       The name of the contact.
+     * @param startUTC      The start of the time frame, in UTC.
+     * @param endUTC        The end of the time frame, in UTC.
+     * @param appointmentId The ID of the appointment being changed, or 0 for a new one.
+     * @param series        The series of the customer or the contact that can occur in the time frame.
+     * @return The message explaining the overlap, or null if there is none.
+     * @throws SQLException If the stored appointments cannot be read.
+     */
+    private static String findOverlap(int customerId, String contact, LocalDateTime startUTC, LocalDateTime endUTC,
+                                      int appointmentId, List<AppointmentSeries> series) throws SQLException {
+        Appointment overlap = AppointmentStore.findOverlap(customerId, contact, startUTC, endUTC, appointmentId);
+        if (overlap != null && overlap.getCustomerId() == customerId) {
+            return "Overlapping appointments are not allowed. The customer already has an appointment at that time.";
+        }
+        if (overlap != null) {
+            return "Overlapping appointments are not allowed. The contact already has an appointment at that time.";
+        }
+        for (AppointmentSeries candidate : series) {
+            if (candidate.overlaps(startUTC, endUTC)) {
+                return "Overlapping appointments are not allowed. A recurring appointment of the customer or the contact is at that time.";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the series of a customer or a contact that can have an occurrence within a window.
+     *
+     * @param customerId  The ID of the customer.
+     * @param contact     The name of the contact.
+     * @param windowStart The start of the window, in UTC.
+     * @param windowEnd   The end of the window, in UTC.
+     * @return The series of either party.
+     * @throws SQLException If the series cannot be read.
+     */
+    private static List<AppointmentSeries> seriesOf(int customerId, String contact, LocalDateTime windowStart,
+                                                    LocalDateTime windowEnd) throws SQLException {
+        return involving(customerId, contact, SeriesDAO.getSeriesInRange(windowStart.toInstant(ZoneOffset.UTC),
+                windowEnd.toInstant(ZoneOffset.UTC), null, null, null));
+    }
+
+    /**
+     * Picks the series of a customer or a contact.
+     *
+     * @param customerId The ID of the customer.
+     * @param contact    The name of the contact.
+     * @param candidates The series to pick from.
+     * @return The series of either party.
+     */
+    private static List<AppointmentSeries> involving(int customerId, String contact, List<AppointmentSeries> candidates) {
+        List<AppointmentSeries> series = new ArrayList<>();
+        for (AppointmentSeries candidate : candidates) {
+            if (candidate.getCustomerId() == customerId || contact.equals(candidate.getContact())) {
+                series.add(candidate);
+            }
+        }
+        return series;
+    }
+
+    /**
+     * Checks an appointment of a bulk addition against the appointments accepted before it, which are not stored yet.
+     *
+     * @param appointment       The appointment to check.
+     * @param pendingByCustomer The accepted appointments by customer ID.
+     * @param pendingByContact  The accepted appointments by contact name.
+     * @return The message explaining the overlap, or null if there is none.
+     */
+    private static String checkPending(Appointment appointment, Map<Integer, List<Appointment>> pendingByCustomer,
+                                       Map<String, List<Appointment>> pendingByContact) {
+        if (overlapsAny(appointment, pendingByCustomer.get(appointment.getCustomerId()))) {
+            return "Overlapping appointments are not allowed. The customer already has an appointment at that time.";
+        }
+        if (overlapsAny(appointment, pendingByContact.get(appointment.getContact()))) {
+            return "Overlapping appointments are not allowed. The contact already has an appointment at that time.";
+        }
+        return null;
+    }
+
+    private static boolean overlapsAny(Appointment appointment, List<Appointment> others) {
+        if (others != null) {
+            for (Appointment other : others) {
+                if (other.getStart().isBefore(appointment.getEnd()) && appointment.getStart().isBefore(other.getEnd())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package service;
+
+/**
+ * The details of a customer to add or change, as a caller enters them. The division is named rather than identified.
+ * Commands are immutable, so one can be handed to another thread or kept for a retry.
+ */
+public final class CustomerCommand {
+    private final String customerName;
+    private final String address;
+    private final String postalCode;
+    private final String phone;
+    private final String division;
+    private final String username;
+
+    /**
+     * Constructs a new CustomerCommand with the specified attributes.
+     *
+     * @param customerName The name of the customer.
+     * @param address      The address of the customer.
+     * @param postalCode   The postal code of the customer.
+     * @param phone        The phone number of the customer.
+     * @param division     The name of the customer's first-level division, or null to keep the current one when
+     *                     updating.
+     * @param username     The name of the user making the change.
+     */
+    public CustomerCommand(String customerName, String address, String postalCode, String phone, String division,
+                           String username) {
+        this.customerName = customerName;
+        this.address = address;
+        this.postalCode = postalCode;
+        this.phone = phone;
+        this.division = division;
+        this.username = username;
+    }
+
+    /**
+     * Gets the name of the customer.
+     *
+     * @return The customer name.
+     */
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    /**
+     * Gets the address of the customer.
+     *
+     * @return The address.
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the postal code of the customer.
+     *
+     * @return The postal code.
+     */
+    public String getPostalCode() {
+        return postalCode;
+    }
+
+    /**
+     * Gets the phone number of the customer.
+     *
+     * @return The phone number.
+     */
+    public String getPhone() {
+        return phone;
+    }
+
+    /**
+     * Gets the name of the customer's first-level division.
+     *
+     * @return The division name, or null to keep the current one.
+     */
+    public String getDivision() {
+        return division;
+    }
+
+    /**
+     * Gets the name of the user making the change.
+     *
+     * @return The username.
+     */
+    public String getUsername() {
+        return username;
+    }
+}
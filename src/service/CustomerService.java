@@ -0,0 +1,110 @@
+package service;
+
+import DAO.CustomerDAO;
+import model.Customer;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Adds, changes and deletes customers, independently of any user interface. Callers pass a {@link CustomerCommand}
+ * and get back a {@link Result}: the customer as stored, or the message explaining why the change was refused.
+ * <p>
+ * The class holds no state of its own and may be called from any number of threads; each call is a single database
+ * write, and deleting a customer deletes its appointments and series in the same transaction.
+ */
+public final class CustomerService {
+
+    private CustomerService() {
+    }
+
+    /**
+     * Adds a customer.
+     *
+     * @param command The customer to add. Every field, including the division, must be set.
+     * @return The customer as stored, with its new ID, or why it was refused.
+     */
+    public static Result<Customer> add(CustomerCommand command) {
+        String invalid = validate(command);
+        if (invalid != null || isBlank(command.getDivision())) {
+            return Result.failure(invalid != null ? invalid : "Please fill in all fields.");
+        }
+        if (CustomerDAO.getDivisionIdFromName(command.getDivision()) == -1) {
+            return Result.failure("Division not found: " + command.getDivision());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Customer customer = new Customer(0, command.getCustomerName(), command.getAddress(), command.getPostalCode(),
+                command.getPhone(), 0, command.getDivision(), now, command.getUsername(), now, command.getUsername());
+        if (!CustomerDAO.addCustomer(customer, command.getDivision())) {
+            return Result.failure("The customer could not be added.");
+        }
+        return Result.success(customer);
+    }
+
+    /**
+     * Replaces the details of a customer with those of a command. The creation date and creator are kept.
+     *
+     * @param customerId The ID of the customer to change.
+     * @param command    The new details. A null division keeps the customer's current one.
+     * @return The customer as stored, or why it was refused.
+     * @throws SQLException If the current customer cannot be read.
+     */
+    public static Result<Customer> update(int customerId, CustomerCommand command) throws SQLException {
+        String invalid = validate(command);
+        if (invalid != null) {
+            return Result.failure(invalid);
+        }
+        List<Customer> found = CustomerDAO.getCustomersByIds(Collections.singletonList(customerId));
+        if (found.isEmpty()) {
+            return Result.failure("No customer found with the given ID.");
+        }
+        Customer current = found.get(0);
+        int divisionId = command.getDivision() == null
+                ? current.getDivisionId()
+                : CustomerDAO.getDivisionIdFromName(command.getDivision());
+        if (divisionId == -1) {
+            return Result.failure("Division not found: " + command.getDivision());
+        }
+        Customer updated = new Customer(customerId, command.getCustomerName(), command.getAddress(),
+                command.getPostalCode(), command.getPhone(), divisionId, CustomerDAO.getDivisionNameById(divisionId),
+                current.getCreateDate(), current.getCreatedBy(), LocalDateTime.now(), command.getUsername());
+        if (!CustomerDAO.updateCustomer(updated)) {
+            return Result.failure("The customer could not be updated.");
+        }
+        return Result.success(updated);
+    }
+
+    /**
+     * Deletes a customer together with its appointments and recurring series.
+     *
+     * @param customerId The ID of the customer to delete.
+     * @return The ID of the deleted customer, or why it was not deleted.
+     */
+    public static Result<Integer> delete(int customerId) {
+        if (!CustomerDAO.deleteCustomer(customerId)) {
+            return Result.failure("The customer could not be deleted.");
+        }
+        ReminderScheduler.customerDeleted(customerId);
+        return Result.success(customerId);
+    }
+
+    /**
+     * Checks that the name, address, postal code, phone number and user of a command are set.
+     *
+     * @param command The command to check.
+     * @return Why the command is invalid, or null if it is valid.
+     */
+    private static String validate(CustomerCommand command) {
+        if (isBlank(command.getCustomerName()) || isBlank(command.getAddress()) || isBlank(command.getPostalCode())
+                || isBlank(command.getPhone()) || isBlank(command.getUsername())) {
+            return "Please fill in all fields.";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,448 @@
+package service;
+
+import DAO.AppointmentDAO;
+import DAO.ChangeFeed;
+import DAO.ChangeSet;
+import DAO.DataVersion;
+import DAO.SeriesDAO;
+import model.Appointment;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reminds the logged-in user of their appointments shortly before each one starts, for as long as the application
+ * runs.
+ * <p>
+ * The scheduler keeps the user's appointments and the occurrences of the user's series that start within the next
+ * {@code windowLength} in a priority queue ordered by the time their reminder is due. Only the earliest wake-up is ever scheduled: either the next reminder or
+ * the point where the loaded window has to be extended, whichever comes first. Extending the window queries only the
+ * slice after the part already loaded, and the window only grows once that query has succeeded; a failed query is
+ * retried after {@code retryDelay}, so the reminders in the slice are late rather than lost. Changes other clients
+ * make arrive through the {@link ChangeFeed}, and changes made in this client are reported with
+ * {@link #appointmentSaved(Appointment)}, {@link #appointmentDeleted(int)} and {@link #customerDeleted(int)}, so the
+ * queue is never rebuilt from scratch.
+ * <p>
+ * Series are not delivered by the feed, so the occurrences are expanded again for the whole loaded window whenever
+ * the series {@link DataVersion} moves, whether through the feed or through {@link #seriesChanged()}. An occurrence
+ * already reminded of keeps its fired state across such a reload, so editing a series does not repeat its reminders.
+ * <p>
+ * All state is owned by a single daemon thread; the public methods hand their work to it. A replaced or removed
+ * reminder is only marked cancelled and is dropped when it reaches the head of the queue, and the queue is compacted
+ * when cancelled entries outnumber live ones.
+ */
+public final class ReminderScheduler {
+
+    /**
+     * How long before an appointment starts its reminder is due.
+     */
+    public static final Duration leadTime = Duration.ofMinutes(15);
+
+    private static final Duration windowLength = Duration.ofHours(24);
+    private static final Duration refillMargin = Duration.ofHours(1);
+    private static final Duration retryDelay = Duration.ofSeconds(30);
+
+    private static ScheduledExecutorService scheduler;
+    private static Consumer<List<Appointment>> onDue;
+    private static int userId;
+
+    private static final PriorityQueue<Reminder> queue = new PriorityQueue<>();
+    private static final Map<Integer, Reminder> reminders = new HashMap<>();
+    private static final Map<Integer, List<Reminder>> occurrenceReminders = new HashMap<>();
+    private static long seriesVersion;
+    private static Instant loadedUntil;
+    private static long retryAt;
+    private static ScheduledFuture<?> wakeUp;
+    private static long wakeUpAt;
+
+    private static final Consumer<ChangeSet> changeListener = changes -> {
+        if (changes.hasAppointmentChanges() || changes.hasSeriesChanges()) {
+            submit(() -> applyChanges(changes));
+        }
+    };
+
+    private ReminderScheduler() {
+    }
+
+    /**
+     * A pending reminder for one appointment.
+     */
+    private static final class Reminder implements Comparable<Reminder> {
+        private final Appointment appointment;
+        private final long dueAt;
+        private final long startsAt;
+        private boolean cancelled;
+        private boolean fired;
+
+        private Reminder(Appointment appointment) {
+            this.appointment = appointment;
+            this.startsAt = appointment.getStart().toInstant(ZoneOffset.UTC).toEpochMilli();
+            this.dueAt = startsAt - leadTime.toMillis();
+        }
+
+        @Override
+        public int compareTo(Reminder other) {
+            int byDue = Long.compare(dueAt, other.dueAt);
+            return byDue != 0 ? byDue : Integer.compare(appointment.getAppointmentId(), other.appointment.getAppointmentId());
+        }
+    }
+
+    /**
+     * Starts reminding a user, replacing any user reminded before. The first window is loaded on the calling thread,
+     * and the appointments whose reminders are already due are returned instead of being delivered, so the caller
+     * can show them as part of logging in.
+     *
+     * @param remindedUserId The ID of the logged-in user.
+     * @param listener       Called on the scheduler thread with the appointments whose reminders fall due, with times in UTC.
+     * @return The appointments that start within {@link #leadTime}, with times in UTC.
+     */
+    public static synchronized List<Appointment> start(int remindedUserId, Consumer<List<Appointment>> listener) {
+        stop();
+        userId = remindedUserId;
+        onDue = listener;
+
+        Instant now = Instant.now();
+        loadedUntil = now;
+        retryAt = 0;
+        seriesVersion = DataVersion.getSeriesVersion();
+        load(now, now.plus(windowLength));
+        List<Appointment> due = takeDue(now.toEpochMilli());
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "appointment-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ChangeFeed.subscribe(changeListener);
+        submit(ReminderScheduler::reschedule);
+        return due;
+    }
+
+    /**
+     * Stops reminding and drops every pending reminder.
+     */
+    public static synchronized void stop() {
+        ChangeFeed.unsubscribe(changeListener);
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+        queue.clear();
+        reminders.clear();
+        occurrenceReminders.clear();
+        wakeUp = null;
+        onDue = null;
+    }
+
+    /**
+     * Reports an appointment this client added or updated, so its reminder is scheduled or moved.
+     *
+     * @param stored The appointment as stored, with times in UTC.
+     */
+    public static void appointmentSaved(Appointment stored) {
+        submit(() -> {
+            upsert(stored);
+            reschedule();
+        });
+    }
+
+    /**
+     * Reports an appointment this client deleted, so its reminder is cancelled.
+     *
+     * @param appointmentId The ID of the deleted appointment.
+     */
+    public static void appointmentDeleted(int appointmentId) {
+        submit(() -> {
+            cancel(appointmentId);
+            reschedule();
+        });
+    }
+
+    /**
+     * Reports a series this client added or changed, so the reminders of its occurrences are reloaded.
+     */
+    public static void seriesChanged() {
+        submit(ReminderScheduler::reschedule);
+    }
+
+    /**
+     * Reports a customer this client deleted, so the reminders of the appointments deleted with it are cancelled.
+     *
+     * @param customerId The ID of the deleted customer.
+     */
+    public static void customerDeleted(int customerId) {
+        submit(() -> {
+            List<Integer> appointmentIds = new ArrayList<>();
+            for (Reminder reminder : reminders.values()) {
+                if (reminder.appointment.getCustomerId() == customerId) {
+                    appointmentIds.add(reminder.appointment.getAppointmentId());
+                }
+            }
+            for (int appointmentId : appointmentIds) {
+                cancel(appointmentId);
+            }
+            // Its series are deleted with it; the reload the series version triggers drops their occurrences.
+            reschedule();
+        });
+    }
+
+    private static synchronized void submit(Runnable task) {
+        if (scheduler != null) {
+            scheduler.execute(task);
+        }
+    }
+
+    /**
+     * Runs when the earliest reminder is due or the window needs extending.
+     */
+    private static void wake() {
+        wakeUp = null;
+        Instant now = Instant.now();
+        if (seriesVersion != DataVersion.getSeriesVersion() && now.toEpochMilli() >= retryAt) {
+            reloadOccurrences(now);
+        }
+        if (!now.isBefore(loadedUntil.minus(leadTime).minus(refillMargin)) && now.toEpochMilli() >= retryAt) {
+            load(loadedUntil, now.plus(windowLength));
+        }
+        List<Appointment> due = takeDue(now.toEpochMilli());
+        if (!due.isEmpty() && onDue != null) {
+            try {
+                onDue.accept(due);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        reschedule();
+    }
+
+    /**
+     * Loads the user's appointments and occurrences that start in a slice after the part of the window already
+     * loaded. The window is extended only after the slice has been queued; if a query fails, the window stays where
+     * it was and the next attempt is made after {@code retryDelay}.
+     *
+     * @param from The inclusive start of the slice.
+     * @param to   The exclusive end of the slice, which becomes the end of the loaded window.
+     */
+    private static void load(Instant from, Instant to) {
+        if (!to.isAfter(from)) {
+            return;
+        }
+        List<Appointment> appointments;
+        List<Appointment> occurrences;
+        try {
+            appointments = AppointmentDAO.getAppointmentsInRange(from, to, userId, null, null);
+            occurrences = SeriesDAO.getOccurrencesInRange(from, to, userId, null, null);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            retryAt = System.currentTimeMillis() + retryDelay.toMillis();
+            return;
+        }
+        retryAt = 0;
+        for (Appointment appointment : appointments) {
+            upsert(appointment, to);
+        }
+        long now = System.currentTimeMillis();
+        for (List<Reminder> ofSeries : occurrenceReminders.values()) {
+            ofSeries.removeIf(reminder -> reminder.startsAt < now);
+        }
+        occurrenceReminders.values().removeIf(List::isEmpty);
+        for (Appointment occurrence : occurrences) {
+            addOccurrence(occurrence, null);
+        }
+        loadedUntil = to;
+    }
+
+    /**
+     * Expands the user's series again over the loaded window and replaces the reminders of their occurrences. The
+     * series version is read before the query, so a change made while it runs causes another reload. If the query
+     * fails, the old reminders stay and the next attempt is made after {@code retryDelay}.
+     *
+     * @param now The current time, where the reloaded part of the window starts.
+     */
+    private static void reloadOccurrences(Instant now) {
+        long version = DataVersion.getSeriesVersion();
+        List<Appointment> occurrences;
+        try {
+            occurrences = loadedUntil.isAfter(now)
+                    ? SeriesDAO.getOccurrencesInRange(now, loadedUntil, userId, null, null) : List.of();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            retryAt = System.currentTimeMillis() + retryDelay.toMillis();
+            return;
+        }
+        retryAt = 0;
+        Map<Integer, List<Reminder>> previous = new HashMap<>(occurrenceReminders);
+        occurrenceReminders.clear();
+        for (List<Reminder> ofSeries : previous.values()) {
+            for (Reminder reminder : ofSeries) {
+                reminder.cancelled = true;
+            }
+        }
+        for (Appointment occurrence : occurrences) {
+            addOccurrence(occurrence, previous.get(occurrence.getSeriesId()));
+        }
+        seriesVersion = version;
+        compactIfNeeded();
+    }
+
+    /**
+     * Queues the reminder of an occurrence that has not started yet.
+     *
+     * @param occurrence The occurrence, with times in UTC and the series ID set.
+     * @param replaced   The reminders its series had before a reload, or null.
+     */
+    private static void addOccurrence(Appointment occurrence, List<Reminder> replaced) {
+        Reminder reminder = new Reminder(occurrence);
+        if (reminder.startsAt < System.currentTimeMillis()) {
+            return;
+        }
+        if (replaced != null) {
+            for (Reminder old : replaced) {
+                reminder.fired |= old.fired && old.startsAt == reminder.startsAt;
+            }
+        }
+        occurrenceReminders.computeIfAbsent(occurrence.getSeriesId(), id -> new ArrayList<>()).add(reminder);
+        if (!reminder.fired) {
+            queue.add(reminder);
+        }
+    }
+
+    /**
+     * Removes the reminders that are due from the queue. Reminders for appointments that already started, which
+     * happens after the computer slept through them, are dropped without firing.
+     *
+     * @param now The current time in epoch milliseconds.
+     * @return The appointments whose reminders are due.
+     */
+    private static List<Appointment> takeDue(long now) {
+        List<Appointment> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().dueAt <= now) {
+            Reminder reminder = queue.poll();
+            if (reminder.cancelled) {
+                continue;
+            }
+            reminder.fired = true;
+            if (reminder.startsAt >= now) {
+                due.add(reminder.appointment);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Adds or moves the reminder of an appointment. An appointment of another user, one that already started or one
+     * past the loaded window only cancels any reminder it had; the window extension picks up the latter later.
+     *
+     * @param appointment The appointment as stored, with times in UTC.
+     */
+    private static void upsert(Appointment appointment) {
+        upsert(appointment, loadedUntil);
+    }
+
+    /**
+     * Adds or moves the reminder of an appointment that starts before the given end of the window.
+     *
+     * @param appointment The appointment as stored, with times in UTC.
+     * @param windowEnd   The exclusive end of the window the appointment must start in.
+     */
+    private static void upsert(Appointment appointment, Instant windowEnd) {
+        Reminder previous = reminders.get(appointment.getAppointmentId());
+        if (appointment.getUserId() != userId || appointment.getStart() == null) {
+            cancel(appointment.getAppointmentId());
+            return;
+        }
+        Instant start = appointment.getStart().toInstant(ZoneOffset.UTC);
+        if (start.isBefore(Instant.now()) || !start.isBefore(windowEnd)) {
+            cancel(appointment.getAppointmentId());
+            return;
+        }
+        Reminder reminder = new Reminder(appointment);
+        if (previous != null) {
+            previous.cancelled = true;
+            // An edit that keeps the start time must not remind the user a second time.
+            reminder.fired = previous.fired && previous.startsAt == reminder.startsAt;
+        }
+        reminders.put(appointment.getAppointmentId(), reminder);
+        if (!reminder.fired) {
+            queue.add(reminder);
+        }
+        compactIfNeeded();
+    }
+
+    private static void cancel(int appointmentId) {
+        Reminder reminder = reminders.remove(appointmentId);
+        if (reminder != null) {
+            reminder.cancelled = true;
+            compactIfNeeded();
+        }
+    }
+
+    private static void compactIfNeeded() {
+        int occurrences = 0;
+        for (List<Reminder> ofSeries : occurrenceReminders.values()) {
+            occurrences += ofSeries.size();
+        }
+        if (queue.size() > 2 * (reminders.size() + occurrences) + 64) {
+            queue.removeIf(reminder -> reminder.cancelled);
+        }
+        if (reminders.size() > 2 * queue.size() + 64) {
+            reminders.values().removeIf(reminder -> reminder.fired && reminder.startsAt < System.currentTimeMillis());
+        }
+    }
+
+    private static void applyChanges(ChangeSet changes) {
+        for (Appointment appointment : changes.getAppointments()) {
+            upsert(appointment);
+        }
+        for (int appointmentId : changes.getDeletedAppointmentIds()) {
+            cancel(appointmentId);
+        }
+        reschedule();
+    }
+
+    /**
+     * Schedules the single wake-up for the earliest of the next live reminder, the window extension and the reload of
+     * changed series, replacing the current one if it is later. After a failed query, neither the extension nor the
+     * reload is attempted before its retry.
+     */
+    private static void reschedule() {
+        while (!queue.isEmpty() && queue.peek().cancelled) {
+            queue.poll();
+        }
+        long next = seriesVersion != DataVersion.getSeriesVersion() ? System.currentTimeMillis()
+                : loadedUntil.minus(leadTime).minus(refillMargin).toEpochMilli();
+        next = Math.max(next, retryAt);
+        if (!queue.isEmpty()) {
+            next = Math.min(next, queue.peek().dueAt);
+        }
+        if (wakeUp != null && !wakeUp.isDone()) {
+            if (wakeUpAt <= next) {
+                return;
+            }
+            wakeUp.cancel(false);
+        }
+        ScheduledExecutorService current = scheduler;
+        if (current == null || current.isShutdown()) {
+            return;
+        }
+        wakeUpAt = next;
+        wakeUp = current.schedule(ReminderScheduler::wake, Math.max(0, next - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+}
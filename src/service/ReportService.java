@@ -0,0 +1,65 @@
+package service;
+
+import DAO.AppointmentDAO;
+import DAO.AppointmentStore;
+import DAO.CustomerDAO;
+import DAO.SeriesDAO;
+import model.Appointment;
+import model.CustomerSummary;
+import util.TimeZoneConverter;
+
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the reports, independently of any user interface. Appointment reports are answered from the
+ * {@link AppointmentStore} and include the occurrences of recurring series.
+ * <p>
+ * The class holds no state of its own and may be called from any number of threads.
+ */
+public final class ReportService {
+
+    private ReportService() {
+    }
+
+    /**
+     * Counts appointments by type and month, including the occurrences of recurring series, like
+     * {@link AppointmentDAO#getAppointmentCountsByTypeAndMonth()}.
+     *
+     * @return A map with a Type, a Month and a Count for each type and month that has appointments.
+     * @throws SQLException If the appointments or the series cannot be read.
+     */
+    public static List<Map<String, Object>> countByTypeAndMonth() throws SQLException {
+        return AppointmentDAO.addSeriesCounts(AppointmentStore.countByTypeAndMonth());
+    }
+
+    /**
+     * Builds a contact's schedule: the contact's appointments together with the occurrences of the contact's
+     * recurring series, like {@link AppointmentDAO#getAppointmentsByContact(int)}.
+     *
+     * @param contactId The ID of the contact.
+     * @param zone      The zone to show the times in.
+     * @return The contact's appointments ordered by start, with times in the zone.
+     * @throws SQLException If the appointments or the series cannot be read.
+     */
+    public static List<Appointment> contactSchedule(int contactId, ZoneId zone) throws SQLException {
+        List<Appointment> appointments = AppointmentStore.getByContact(contactId);
+        appointments.addAll(SeriesDAO.getOccurrencesByContact(contactId));
+        appointments.sort(Comparator.comparing(Appointment::getStart));
+        return TimeZoneConverter.of(zone).toLocal(appointments);
+    }
+
+    /**
+     * Lists the customers of a country.
+     *
+     * @param country The country to filter by.
+     * @return The customer summaries.
+     */
+    public static List<CustomerSummary> customersByCountry(String country) {
+        return new ArrayList<>(CustomerDAO.getCustomersByCountry(country));
+    }
+}
@@ -0,0 +1,73 @@
+package service;
+
+/**
+ * The outcome of a service call: the value it produced, or the reason it was refused. A refusal is an expected
+ * outcome such as a failed validation or an overlap, and its message is meant to be shown to the user as it is;
+ * unexpected failures such as a lost database connection are still thrown.
+ *
+ * @param <T> The type of the value.
+ */
+public final class Result<T> {
+
+    private final T value;
+    private final String error;
+
+    private Result(T value, String error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * Creates a successful result.
+     *
+     * @param value The value produced.
+     * @param <T>   The type of the value.
+     * @return The result.
+     */
+    public static <T> Result<T> success(T value) {
+        return new Result<>(value, null);
+    }
+
+    /**
+     * Creates a refused result.
+     *
+     * @param error Why the call was refused.
+     * @param <T>   The type of the value the call would have produced.
+     * @return The result.
+     */
+    public static <T> Result<T> failure(String error) {
+        return new Result<>(null, error);
+    }
+
+    /**
+     * Checks if the call succeeded.
+     *
+     * @return True if the call succeeded, false if it was refused.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Gets the value produced.
+     *
+     * @return The value, or null if the call was refused.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Gets why the call was refused.
+     *
+     * @return The message, or null if the call succeeded.
+     */
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "Success: " + value : "Failure: " + error;
+    }
+}
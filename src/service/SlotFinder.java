@@ -0,0 +1,189 @@
+package service;
+
+import DAO.AppointmentDAO;
+import DAO.SeriesDAO;
+import util.BusinessCalendar;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the earliest times a contact and a customer are both free, so schedulers can pick a slot instead of guessing
+ * one and retrying until the overlap check passes.
+ * <p>
+ * The busy intervals of both parties within the search window come from one indexed range query that transfers only
+ * start and end times, together with the occurrences of their recurring series in the window, so a slot is never
+ * offered that {@link AppointmentService} would refuse as an overlap. Both lists are ordered by start, so combining
+ * and merging them is a single pass each. The free time is then
+ * found by sweeping the open intervals of the {@link BusinessCalendar} and the merged busy intervals together, which
+ * makes a search over months of appointments linear in the number of appointments in the window and independent of
+ * the size of the table.
+ */
+public final class SlotFinder {
+
+    /**
+     * Slot starts are rounded up to a multiple of this, so slots begin on the quarter hour.
+     */
+    private static final long alignmentSeconds = 15 * 60;
+
+    private SlotFinder() {
+    }
+
+    /**
+     * A free slot.
+     */
+    public static final class Slot {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Slot(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Gets the start of the slot.
+         *
+         * @return The start, in UTC.
+         */
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        /**
+         * Gets the end of the slot.
+         *
+         * @return The end, in UTC.
+         */
+        public LocalDateTime getEnd() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return start + " - " + end;
+        }
+    }
+
+    /**
+     * Finds the earliest free slots within business hours.
+     *
+     * @param contactId   The ID of the contact who must be free, or null.
+     * @param customerId  The ID of the customer who must be free, or null.
+     * @param duration    The length of the appointment.
+     * @param windowStart The earliest time a slot may start.
+     * @param windowEnd   The latest time a slot may end.
+     * @param limit       The maximum number of slots to return.
+     * @return Up to {@code limit} non-overlapping slots in order, with times in UTC.
+     * @throws SQLException If the busy intervals cannot be read.
+     */
+    public static List<Slot> findFreeSlots(Integer contactId, Integer customerId, Duration duration,
+                                           Instant windowStart, Instant windowEnd, int limit) throws SQLException {
+        return findFreeSlots(contactId, customerId, duration, windowStart, windowEnd, limit, BusinessCalendar.standard());
+    }
+
+    /**
+     * Finds the earliest free slots within the open hours of a business calendar.
+     *
+     * @param contactId   The ID of the contact who must be free, or null.
+     * @param customerId  The ID of the customer who must be free, or null.
+     * @param duration    The length of the appointment.
+     * @param windowStart The earliest time a slot may start.
+     * @param windowEnd   The latest time a slot may end.
+     * @param limit       The maximum number of slots to return.
+     * @param calendar    The business hours slots must fall within.
+     * @return Up to {@code limit} non-overlapping slots in order, with times in UTC.
+     * @throws SQLException If the busy intervals cannot be read.
+     */
+    public static List<Slot> findFreeSlots(Integer contactId, Integer customerId, Duration duration, Instant windowStart,
+                                           Instant windowEnd, int limit, BusinessCalendar calendar) throws SQLException {
+        List<Slot> slots = new ArrayList<>();
+        long length = duration.getSeconds();
+        if (length <= 0 || limit <= 0 || !windowEnd.isAfter(windowStart)) {
+            return slots;
+        }
+        long from = windowStart.getEpochSecond();
+        long to = windowEnd.getEpochSecond();
+
+        long[] busy = merge(interleave(AppointmentDAO.getBusyIntervals(windowStart, windowEnd, contactId, customerId),
+                SeriesDAO.getBusyIntervals(windowStart, windowEnd, contactId, customerId)));
+        long[] open = calendar.openIntervals(from, to);
+
+        int next = 0;
+        for (int i = 0; i < open.length && slots.size() < limit; i += 2) {
+            long cursor = align(open[i]);
+            long close = open[i + 1];
+            while (slots.size() < limit && cursor + length <= close) {
+                // Skip the busy intervals that end before the candidate starts.
+                while (next < busy.length && busy[next + 1] <= cursor) {
+                    next += 2;
+                }
+                if (next < busy.length && busy[next] < cursor + length) {
+                    cursor = align(busy[next + 1]);
+                    continue;
+                }
+                slots.add(new Slot(toUtc(cursor), toUtc(cursor + length)));
+                cursor += length;
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Combines two lists of intervals ordered by start into one.
+     *
+     * @param a Start and end pairs ordered by start.
+     * @param b Start and end pairs ordered by start.
+     * @return The pairs of both, ordered by start.
+     */
+    private static long[] interleave(long[] a, long[] b) {
+        long[] combined = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+                combined[size++] = a[i++];
+                combined[size++] = a[i++];
+            } else {
+                combined[size++] = b[j++];
+                combined[size++] = b[j++];
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Merges busy intervals ordered by start into disjoint ones.
+     *
+     * @param intervals Start and end pairs ordered by start.
+     * @return The merged start and end pairs, in order.
+     */
+    private static long[] merge(long[] intervals) {
+        int size = 0;
+        for (int i = 0; i < intervals.length; i += 2) {
+            if (size > 0 && intervals[i] <= intervals[size - 1]) {
+                intervals[size - 1] = Math.max(intervals[size - 1], intervals[i + 1]);
+            } else {
+                intervals[size++] = intervals[i];
+                intervals[size++] = intervals[i + 1];
+            }
+        }
+        long[] merged = new long[size];
+        System.arraycopy(intervals, 0, merged, 0, size);
+        return merged;
+    }
+
+    private static long align(long epochSecond) {
+        return Math.floorDiv(epochSecond + alignmentSeconds - 1, alignmentSeconds) * alignmentSeconds;
+    }
+
+    private static LocalDateTime toUtc(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
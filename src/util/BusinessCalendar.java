@@ -0,0 +1,277 @@
+package util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The company's business hours, shared by the appointment screen, the importer and the bulk paths so they all apply
+ * the same rule.
+ * <p>
+ * Each weekday has its own opening hours, or none, and holidays are closed. For every day in a range the open
+ * interval is precomputed once as UTC epoch seconds from the cached {@link ZoneRules} of the business zone, so daylight
+ * saving changes are applied when the table is built rather than on every check. The table covers a year back and two
+ * years ahead and is rebuilt wider when a check falls outside it, but never beyond ten years either side of the day
+ * the calendar was created. {@link #isWithin(long, long)} then only does array lookups and comparisons and allocates
+ * nothing. Days further away, such as those of a mistyped date, are computed for the one check that needs them and
+ * not kept, so a stray year 9999 costs a few days of work rather than a table of thousands of years.
+ * <p>
+ * An appointment is within business hours if the whole of {@code [start, end)} lies inside the open hours, so an
+ * appointment that starts before closing and ends after the next opening is rejected even though both of its ends
+ * fall within business hours.
+ */
+public final class BusinessCalendar {
+
+    private static final long secondsPerDay = 86_400;
+    private static final long cachedDays = 10 * 366;
+    private static final long maxUncachedDays = 3 * 366;
+
+    private static final BusinessCalendar standard = new BusinessCalendar(ZoneId.of("America/New_York"),
+            everyDay(new Hours(LocalTime.of(8, 0), LocalTime.of(22, 0))), new HashSet<>(),
+            "Appointments must be scheduled between 8:00 a.m. and 10:00 p.m. ET.");
+
+    private final ZoneRules rules;
+    private final Map<DayOfWeek, Hours> hours;
+    private final Set<LocalDate> holidays;
+    private final String description;
+    private final long firstCachedDay;
+    private final long lastCachedDay;
+    private volatile Table table;
+
+    /**
+     * The opening hours of one weekday. A close of midnight means the day is open until the end of the day.
+     */
+    public static final class Hours {
+        private final LocalTime open;
+        private final LocalTime close;
+
+        /**
+         * Constructs the opening hours of a day.
+         *
+         * @param open  The time the business opens.
+         * @param close The time the business closes, after open, or midnight for the end of the day.
+         */
+        public Hours(LocalTime open, LocalTime close) {
+            if (!close.equals(LocalTime.MIDNIGHT) && !close.isAfter(open)) {
+                throw new IllegalArgumentException("Closing time must be after opening time.");
+            }
+            this.open = open;
+            this.close = close;
+        }
+    }
+
+    /**
+     * The precomputed open intervals of a range of consecutive days. A closed day has an empty interval.
+     */
+    private static final class Table {
+        private final long firstDay;
+        private final long[] opens;
+        private final long[] closes;
+
+        private Table(long firstDay, long[] opens, long[] closes) {
+            this.firstDay = firstDay;
+            this.opens = opens;
+            this.closes = closes;
+        }
+    }
+
+    /**
+     * Constructs a business calendar.
+     *
+     * @param zone        The time zone the opening hours are expressed in.
+     * @param hours       The opening hours of each weekday; weekdays left out are closed.
+     * @param holidays    The dates the business is closed regardless of the weekday.
+     * @param description The description of the hours used in error messages.
+     */
+    public BusinessCalendar(ZoneId zone, Map<DayOfWeek, Hours> hours, Collection<LocalDate> holidays, String description) {
+        this.rules = zone.getRules();
+        this.hours = new EnumMap<>(DayOfWeek.class);
+        this.hours.putAll(hours);
+        this.holidays = new HashSet<>(holidays);
+        this.description = description;
+        long today = LocalDate.now(zone).toEpochDay();
+        this.firstCachedDay = today - cachedDays;
+        this.lastCachedDay = today + cachedDays;
+        this.table = build(today - 366, today + 2 * 366);
+    }
+
+    /**
+     * Gets the company's business calendar: 8:00 a.m. to 10:00 p.m. Eastern Time, every day.
+     *
+     * @return The standard business calendar.
+     */
+    public static BusinessCalendar standard() {
+        return standard;
+    }
+
+    /**
+     * Checks if an appointment given in UTC lies entirely within business hours.
+     *
+     * @param startUTC The start of the appointment in UTC.
+     * @param endUTC   The end of the appointment in UTC, exclusive.
+     * @return True if {@code [startUTC, endUTC)} is within business hours, false otherwise.
+     */
+    public boolean isWithinUtc(LocalDateTime startUTC, LocalDateTime endUTC) {
+        return isWithin(startUTC.toEpochSecond(ZoneOffset.UTC), endUTC.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * Checks if an appointment lies entirely within business hours.
+     *
+     * @param start The start of the appointment.
+     * @param end   The end of the appointment, exclusive.
+     * @return True if {@code [start, end)} is within business hours, false otherwise.
+     */
+    public boolean isWithin(Instant start, Instant end) {
+        return isWithin(start.getEpochSecond(), end.getEpochSecond());
+    }
+
+    /**
+     * Checks if an appointment lies entirely within business hours, without allocating.
+     *
+     * @param startEpochSecond The start of the appointment in epoch seconds.
+     * @param endEpochSecond   The end of the appointment in epoch seconds, exclusive.
+     * @return True if the appointment is not empty and lies within business hours, false otherwise. An appointment
+     * longer than three years is never within business hours.
+     */
+    public boolean isWithin(long startEpochSecond, long endEpochSecond) {
+        if (endEpochSecond <= startEpochSecond || endEpochSecond - startEpochSecond > (maxUncachedDays - 3) * secondsPerDay) {
+            return false;
+        }
+        Table current = tableFor(startEpochSecond, endEpochSecond);
+        // The business day of an instant is at most one day away from its UTC day, whatever the zone's offset.
+        long utcDay = Math.floorDiv(startEpochSecond, secondsPerDay);
+        for (long day = utcDay - 1; day <= utcDay + 1; day++) {
+            int index = (int) (day - current.firstDay);
+            if (current.opens[index] <= startEpochSecond && startEpochSecond < current.closes[index]) {
+                // Follow days whose hours run into the next day's without a gap, such as a midnight close.
+                long close = current.closes[index];
+                while (endEpochSecond > close && index + 1 < current.opens.length && current.opens[index + 1] == close
+                        && current.closes[index + 1] > close) {
+                    close = current.closes[++index];
+                }
+                return endEpochSecond <= close;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lists the open intervals that overlap a window, clipped to it. Intervals of consecutive days that touch, such
+     * as a midnight close followed by a midnight opening, are merged.
+     *
+     * @param fromEpochSecond The start of the window in epoch seconds.
+     * @param toEpochSecond   The end of the window in epoch seconds, exclusive.
+     * @return The open intervals flattened to open and close pairs in epoch seconds, in order.
+     * @throws IllegalArgumentException If the window reaches more than ten years from today and is longer than three
+     *                                  years.
+     */
+    public long[] openIntervals(long fromEpochSecond, long toEpochSecond) {
+        if (toEpochSecond <= fromEpochSecond) {
+            return new long[0];
+        }
+        Table current = tableFor(fromEpochSecond, toEpochSecond);
+        int first = (int) (Math.floorDiv(fromEpochSecond, secondsPerDay) - 1 - current.firstDay);
+        int last = (int) (Math.floorDiv(toEpochSecond, secondsPerDay) + 1 - current.firstDay);
+        long[] intervals = new long[2 * (last - first + 1)];
+        int size = 0;
+        for (int i = first; i <= last; i++) {
+            long open = Math.max(current.opens[i], fromEpochSecond);
+            long close = Math.min(current.closes[i], toEpochSecond);
+            if (open >= close) {
+                continue;
+            }
+            if (size > 0 && intervals[size - 1] == open) {
+                intervals[size - 1] = close;
+            } else {
+                intervals[size++] = open;
+                intervals[size++] = close;
+            }
+        }
+        return Arrays.copyOf(intervals, size);
+    }
+
+    /**
+     * Describes the business hours for error messages.
+     *
+     * @return A human-readable description of the business hours.
+     */
+    public String describe() {
+        return description;
+    }
+
+    /**
+     * Gets a table covering the days around a range: the cached one, grown if the range lies within the cacheable
+     * years, or else one built for the range alone and not kept.
+     */
+    private Table tableFor(long startEpochSecond, long endEpochSecond) {
+        Table current = table;
+        long firstNeeded = Math.floorDiv(startEpochSecond, secondsPerDay) - 1;
+        long lastNeeded = Math.floorDiv(endEpochSecond, secondsPerDay) + 1;
+        if (firstNeeded >= current.firstDay && lastNeeded < current.firstDay + current.opens.length) {
+            return current;
+        }
+        if (firstNeeded < firstCachedDay || lastNeeded > lastCachedDay) {
+            if (lastNeeded - firstNeeded >= maxUncachedDays) {
+                throw new IllegalArgumentException("Business hours are only computed for up to three years at a time "
+                        + "outside the ten years either side of today.");
+            }
+            return build(firstNeeded, lastNeeded);
+        }
+        synchronized (this) {
+            current = table;
+            long firstDay = Math.max(firstCachedDay, Math.min(current.firstDay, firstNeeded - 366));
+            long lastDay = Math.min(lastCachedDay, Math.max(current.firstDay + current.opens.length - 1, lastNeeded + 366));
+            if (firstDay < current.firstDay || lastDay >= current.firstDay + current.opens.length) {
+                current = build(firstDay, lastDay);
+                table = current;
+            }
+            return current;
+        }
+    }
+
+    private Table build(long firstDay, long lastDay) {
+        int length = (int) (lastDay - firstDay + 1);
+        long[] opens = new long[length];
+        long[] closes = new long[length];
+        for (int i = 0; i < length; i++) {
+            LocalDate date = LocalDate.ofEpochDay(firstDay + i);
+            Hours dayHours = hours.get(date.getDayOfWeek());
+            if (dayHours == null || holidays.contains(date)) {
+                continue;
+            }
+            opens[i] = toEpochSecond(date.atTime(dayHours.open));
+            closes[i] = dayHours.close.equals(LocalTime.MIDNIGHT)
+                    ? toEpochSecond(date.plusDays(1).atStartOfDay())
+                    : toEpochSecond(date.atTime(dayHours.close));
+        }
+        return new Table(firstDay, opens, closes);
+    }
+
+    /**
+     * Converts a local time of the business zone to epoch seconds. A time skipped by a daylight saving gap is taken
+     * with the offset before the gap, as {@link ZoneRules#getOffset(LocalDateTime)} does.
+     */
+    private long toEpochSecond(LocalDateTime local) {
+        return local.toEpochSecond(rules.getOffset(local));
+    }
+
+    private static Map<DayOfWeek, Hours> everyDay(Hours dayHours) {
+        Map<DayOfWeek, Hours> hours = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            hours.put(day, dayHours);
+        }
+        return hours;
+    }
+}
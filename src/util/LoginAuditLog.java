@@ -0,0 +1,274 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Appends login attempts to the login activity file without making the login wait for the disk.
+ * <p>
+ * {@link #record(String, boolean)} only timestamps the attempt and offers it to a bounded queue. A single writer
+ * thread drains the queue and writes everything waiting in one {@code write} and one {@code force} on a
+ * {@link FileChannel} that stays open, so a burst of attempts costs one disk sync rather than one per attempt. If the
+ * queue is ever full the attempt is counted as dropped instead of blocking the caller.
+ * <p>
+ * The file is rotated when it would grow past {@code maxFileBytes} or when the first attempt of a new day is written.
+ * The rotated file is renamed with the time it was rotated and compressed with gzip. Lines are written in the
+ * original {@code timestamp - User: name, Status: Success} format, or as JSON lines when the {@code loginAudit.format}
+ * system property is {@code json}.
+ */
+public final class LoginAuditLog {
+
+    /**
+     * The format of the audit lines.
+     */
+    public enum Format {
+        /** {@code 2024-01-31 09:15:00 - User: test, Status: Success} */
+        TEXT,
+        /** {@code {"timestamp":"2024-01-31T14:15:00Z","user":"test","success":true}} */
+        JSON
+    }
+
+    private static final String textFileName = "login_activity.txt";
+    private static final String jsonFileName = "login_activity.jsonl";
+    private static final int queueCapacity = 4096;
+    private static final int maxBatch = 256;
+    private static final long maxFileBytes = 5L * 1024 * 1024;
+    private static final DateTimeFormatter textTimestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter rotatedSuffix = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final Format format = "json".equalsIgnoreCase(System.getProperty("loginAudit.format")) ? Format.JSON : Format.TEXT;
+    private static final Path file = Paths.get(format == Format.JSON ? jsonFileName : textFileName);
+
+    private static final BlockingQueue<Attempt> queue = new ArrayBlockingQueue<>(queueCapacity);
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final Attempt endOfLog = new Attempt(Instant.EPOCH, "", false);
+    private static Thread writer;
+
+    private static FileChannel channel;
+    private static long fileSize;
+    private static LocalDate fileDate;
+
+    private LoginAuditLog() {
+    }
+
+    /**
+     * One login attempt waiting to be written.
+     */
+    private static final class Attempt {
+        private final Instant time;
+        private final String username;
+        private final boolean success;
+
+        private Attempt(Instant time, String username, boolean success) {
+            this.time = time;
+            this.username = username;
+            this.success = success;
+        }
+    }
+
+    /**
+     * Records a login attempt. Returns immediately; the attempt is written by the writer thread.
+     *
+     * @param username The username that was entered.
+     * @param success  True if the login succeeded, otherwise false.
+     */
+    public static void record(String username, boolean success) {
+        ensureWriter();
+        if (!queue.offer(new Attempt(Instant.now(), username, success))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes the attempts still queued and closes the file. Attempts recorded afterwards start the writer again.
+     */
+    public static synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            queue.put(endOfLog);
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        if (dropped.get() > 0) {
+            System.out.println("Login audit log dropped " + dropped.get() + " attempts because its queue was full.");
+        }
+    }
+
+    private static synchronized void ensureWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(LoginAuditLog::run, "login-audit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * The writer loop: waits for an attempt, takes everything else already queued with it and commits them together.
+     */
+    private static void run() {
+        List<Attempt> batch = new ArrayList<>(maxBatch);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatch - 1);
+                boolean end = batch.remove(endOfLog);
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                }
+                if (end) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    private static void write(List<Attempt> batch) {
+        StringBuilder lines = new StringBuilder(batch.size() * 64);
+        for (Attempt attempt : batch) {
+            appendLine(lines, attempt);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            openIfNeeded();
+            if (fileSize > 0 && (fileSize + bytes.remaining() > maxFileBytes || !LocalDate.now().equals(fileDate))) {
+                rotate();
+            }
+            while (bytes.hasRemaining()) {
+                fileSize += channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            System.out.println("Error writing login audit log: " + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    private static void appendLine(StringBuilder lines, Attempt attempt) {
+        if (format == Format.JSON) {
+            lines.append("{\"timestamp\":\"").append(attempt.time)
+                    .append("\",\"user\":\"");
+            appendJsonString(lines, attempt.username);
+            lines.append("\",\"success\":").append(attempt.success).append("}\n");
+        } else {
+            lines.append(textTimestamp.format(LocalDateTime.ofInstant(attempt.time, ZoneId.systemDefault())))
+                    .append(" - User: ").append(attempt.username)
+                    .append(", Status: ").append(attempt.success ? "Success" : "Failed")
+                    .append(System.lineSeparator());
+        }
+    }
+
+    private static void appendJsonString(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+    }
+
+    private static void openIfNeeded() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+        fileDate = fileSize > 0
+                ? Files.getLastModifiedTime(file).toInstant().atZone(ZoneId.systemDefault()).toLocalDate()
+                : LocalDate.now();
+    }
+
+    /**
+     * Renames the current file with the time of rotation, starts a new one and compresses the old one.
+     */
+    private static void rotate() throws IOException {
+        closeChannel();
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        Path rotated = file.resolveSibling(name.substring(0, dot) + "-" + rotatedSuffix.format(LocalDateTime.now()) + name.substring(dot));
+        Files.move(file, rotated, StandardCopyOption.REPLACE_EXISTING);
+        openIfNeeded();
+        compress(rotated);
+    }
+
+    private static void compress(Path rotated) {
+        Path compressed = rotated.resolveSibling(rotated.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(rotated);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            System.out.println("Error compressing " + rotated + ": " + e.getMessage());
+            return;
+        }
+        try {
+            Files.delete(rotated);
+        } catch (IOException e) {
+            System.out.println("Error deleting " + rotated + ": " + e.getMessage());
+        }
+    }
+
+    private static void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Error closing login audit log: " + e.getMessage());
+        }
+        channel = null;
+    }
+}
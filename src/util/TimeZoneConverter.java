@@ -0,0 +1,192 @@
+package util;
+
+import model.Appointment;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts appointment times between UTC, as they are stored, and the local time of a zone, as they are displayed and
+ * entered.
+ * <p>
+ * The offset transitions of the zone between 1900 and 2100 are read from its {@link ZoneRules} once, when the
+ * converter for the zone is first requested, and kept as sorted arrays of epoch seconds. A conversion is then a binary
+ * search over a few hundred longs and an addition, with no {@code ZonedDateTime} built per value. Times outside the
+ * table fall back to the zone rules. Converters are cached per zone and are safe to share between threads.
+ * <p>
+ * Local times that fall in a daylight saving gap are moved forward by the length of the gap, and local times that
+ * occur twice take the earlier offset, exactly as {@link java.time.ZonedDateTime#of(LocalDateTime, ZoneId)} does.
+ */
+public final class TimeZoneConverter {
+
+    private static final Map<ZoneId, TimeZoneConverter> converters = new ConcurrentHashMap<>();
+
+    private static final long tableStart = LocalDateTime.of(1900, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long tableEnd = LocalDateTime.of(2100, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private final ZoneRules rules;
+
+    /**
+     * The UTC epoch seconds of each transition, in order.
+     */
+    private final long[] transitions;
+
+    /**
+     * The local epoch seconds at which each transition begins on the local time line: the earlier of the local times
+     * just before and just after it.
+     */
+    private final long[] localTransitions;
+
+    /**
+     * The offset in seconds before each transition; {@code offsetsBefore[i + 1]} is the offset after transition i.
+     */
+    private final int[] offsetsBefore;
+
+    private TimeZoneConverter(ZoneId zone) {
+        this.rules = zone.getRules();
+        List<ZoneOffsetTransition> found = new ArrayList<>();
+        ZoneOffsetTransition next = rules.nextTransition(Instant.ofEpochSecond(tableStart));
+        while (next != null && next.toEpochSecond() < tableEnd) {
+            found.add(next);
+            next = rules.nextTransition(next.getInstant());
+        }
+        int size = found.size();
+        this.transitions = new long[size];
+        this.localTransitions = new long[size];
+        this.offsetsBefore = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            ZoneOffsetTransition transition = found.get(i);
+            int before = transition.getOffsetBefore().getTotalSeconds();
+            int after = transition.getOffsetAfter().getTotalSeconds();
+            transitions[i] = transition.toEpochSecond();
+            localTransitions[i] = transitions[i] + Math.min(before, after);
+            offsetsBefore[i] = before;
+        }
+        offsetsBefore[size] = size == 0
+                ? rules.getOffset(Instant.ofEpochSecond(tableStart)).getTotalSeconds()
+                : found.get(size - 1).getOffsetAfter().getTotalSeconds();
+    }
+
+    /**
+     * Gets the converter for a zone, building its transition table the first time the zone is used.
+     *
+     * @param zone The zone local times are expressed in.
+     * @return The converter for the zone.
+     */
+    public static TimeZoneConverter of(ZoneId zone) {
+        return converters.computeIfAbsent(zone, TimeZoneConverter::new);
+    }
+
+    /**
+     * Gets the converter for the system default zone, which is the zone of the signed-in user.
+     *
+     * @return The converter for the system default zone.
+     */
+    public static TimeZoneConverter systemDefault() {
+        return of(ZoneId.systemDefault());
+    }
+
+    /**
+     * Converts an instant to local epoch seconds.
+     *
+     * @param utcEpochSecond The instant in epoch seconds.
+     * @return The local time as epoch seconds of the local time line.
+     */
+    public long toLocalEpochSecond(long utcEpochSecond) {
+        if (utcEpochSecond < tableStart || utcEpochSecond >= tableEnd) {
+            return utcEpochSecond + rules.getOffset(Instant.ofEpochSecond(utcEpochSecond)).getTotalSeconds();
+        }
+        int index = Arrays.binarySearch(transitions, utcEpochSecond);
+        // At a transition the offset after it applies; otherwise the insertion point counts the transitions passed.
+        int passed = index >= 0 ? index + 1 : -index - 1;
+        return utcEpochSecond + offsetsBefore[passed];
+    }
+
+    /**
+     * Converts local epoch seconds to an instant.
+     *
+     * @param localEpochSecond The local time as epoch seconds of the local time line.
+     * @return The instant in epoch seconds.
+     */
+    public long toUtcEpochSecond(long localEpochSecond) {
+        if (localEpochSecond < tableStart || localEpochSecond >= tableEnd) {
+            LocalDateTime local = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+            return local.atZone(rules.getOffset(local)).toEpochSecond();
+        }
+        int index = Arrays.binarySearch(localTransitions, localEpochSecond);
+        int passed = index >= 0 ? index + 1 : -index - 1;
+        if (passed == 0) {
+            return localEpochSecond - offsetsBefore[0];
+        }
+        int transition = passed - 1;
+        int before = offsetsBefore[transition];
+        int after = offsetsBefore[transition + 1];
+        // Inside a gap or an overlap the offset before the transition applies, which moves a time in a gap forward
+        // by the length of the gap and picks the earlier of two repeated times.
+        if (localEpochSecond < transitions[transition] + Math.max(before, after)) {
+            return localEpochSecond - before;
+        }
+        return localEpochSecond - after;
+    }
+
+    /**
+     * Converts a UTC time to the local time of the zone.
+     *
+     * @param utc The time in UTC.
+     * @return The same instant as a local time of the zone, or null if the time is null.
+     */
+    public LocalDateTime toLocal(LocalDateTime utc) {
+        if (utc == null) {
+            return null;
+        }
+        long local = toLocalEpochSecond(utc.toEpochSecond(ZoneOffset.UTC));
+        return LocalDateTime.ofEpochSecond(local, utc.getNano(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts a local time of the zone to UTC.
+     *
+     * @param local The local time.
+     * @return The same instant in UTC, or null if the time is null.
+     */
+    public LocalDateTime toUtc(LocalDateTime local) {
+        if (local == null) {
+            return null;
+        }
+        long utc = toUtcEpochSecond(local.toEpochSecond(ZoneOffset.UTC));
+        return LocalDateTime.ofEpochSecond(utc, local.getNano(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Makes the display copy of an appointment read from the database. The stored appointment is left unchanged.
+     *
+     * @param stored The appointment, with times in UTC.
+     * @return A new appointment with the same details and its times in the local time of the zone.
+     */
+    public Appointment toLocal(Appointment stored) {
+        return stored.withTimes(toLocal(stored.getStart()), toLocal(stored.getEnd()));
+    }
+
+    /**
+     * Makes the display copies of appointments read from the database, converting each row once.
+     *
+     * @param stored The appointments, with times in UTC.
+     * @return New appointments in the same order, with their times in the local time of the zone.
+     */
+    public List<Appointment> toLocal(List<Appointment> stored) {
+        List<Appointment> display = new ArrayList<>(stored.size());
+        for (Appointment appointment : stored) {
+            display.add(toLocal(appointment));
+        }
+        return display;
+    }
+}
@@ -0,0 +1,232 @@
+package DAO;
+
+import model.Appointment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the overlap check of the {@link AppointmentStore}, which every add, update and import goes through, against
+ * a scan of every appointment.
+ * <p>
+ * The appointments are put into the loaded store directly, as the DAO classes do after a write, with customer IDs
+ * and contact names no stored row uses. The store is dropped afterwards, so other tests load it from the database
+ * again.
+ */
+class AppointmentStoreTest {
+
+    private static final int firstCustomerId = 1_000_000;
+    private static final LocalDateTime firstDay = LocalDateTime.of(2040, 3, 1, 0, 0);
+
+    private int nextAppointmentId = 1_000_000;
+
+    /**
+     * Opens the connection pool and loads the store.
+     */
+    @BeforeAll
+    static void loadStore() throws SQLException {
+        JDBC.openPool();
+        AppointmentStore.count();
+    }
+
+    /**
+     * Drops the appointments put by the tests and closes the connection pool.
+     */
+    @AfterAll
+    static void dropStore() {
+        AppointmentStore.invalidate();
+        JDBC.closePool();
+    }
+
+    /**
+     * Ranges are half-open: an appointment that ends when another starts does not overlap it.
+     */
+    @Test
+    void touchingRangesDoNotOverlap() throws SQLException {
+        Appointment stored = put(firstCustomerId, "Boundary Contact", firstDay.plusHours(10), firstDay.plusHours(11));
+
+        assertNull(AppointmentStore.findOverlap(firstCustomerId, "Boundary Contact", firstDay.plusHours(11), firstDay.plusHours(12), 0));
+        assertNull(AppointmentStore.findOverlap(firstCustomerId, "Boundary Contact", firstDay.plusHours(9), firstDay.plusHours(10), 0));
+        assertNotNull(AppointmentStore.findOverlap(firstCustomerId, null, firstDay.plusHours(9), firstDay.plusHours(10).plusMinutes(1), 0));
+        assertNotNull(AppointmentStore.findOverlap(firstCustomerId, null, firstDay.plusHours(11).minusMinutes(1), firstDay.plusHours(12), 0));
+        assertNotNull(AppointmentStore.findOverlap(firstCustomerId, null, firstDay.plusHours(10).plusMinutes(15), firstDay.plusHours(10).plusMinutes(30), 0));
+        assertNotNull(AppointmentStore.findOverlap(firstCustomerId, null, firstDay.plusHours(8), firstDay.plusHours(13), 0));
+        assertNull(AppointmentStore.findOverlap(firstCustomerId, null, firstDay.plusHours(10), firstDay.plusHours(11), stored.getAppointmentId()));
+    }
+
+    /**
+     * An appointment much longer than the others is found even when the range starts long after it does.
+     */
+    @Test
+    void findsLongAppointmentStartingWellBefore() throws SQLException {
+        int customerId = firstCustomerId + 1;
+        put(customerId, "Long Contact", firstDay.plusDays(1), firstDay.plusDays(3));
+        put(customerId, "Long Contact", firstDay.plusDays(2).plusHours(10), firstDay.plusDays(2).plusHours(11));
+
+        Appointment overlap = AppointmentStore.findOverlap(customerId, null, firstDay.plusDays(2).plusHours(20),
+                firstDay.plusDays(2).plusHours(21), 0);
+        assertNotNull(overlap);
+        assertEquals(firstDay.plusDays(1), overlap.getStart());
+    }
+
+    /**
+     * One appointment a year long sits among many short ones of other customers and of its own contact. The checks
+     * of every customer and contact still agree with a scan, and after the long appointment is removed its customer
+     * and contact no longer find it.
+     */
+    @Test
+    void longAppointmentAmongShortOnes() throws SQLException {
+        Random random = new Random(7);
+        String[] contacts = {"Busy Contact A", "Busy Contact B"};
+        int longCustomerId = firstCustomerId + 100;
+        Map<Integer, Appointment> expected = new HashMap<>();
+
+        Appointment yearLong = put(longCustomerId, contacts[0], firstDay.minusMonths(6), firstDay.plusMonths(6));
+        expected.put(yearLong.getAppointmentId(), yearLong);
+        for (int i = 0; i < 2000; i++) {
+            Appointment shortOne = putRandom(longCustomerId + 1 + random.nextInt(50), contacts[random.nextInt(2)], random);
+            expected.put(shortOne.getAppointmentId(), shortOne);
+        }
+
+        for (int query = 0; query < 500; query++) {
+            Appointment range = new Appointment(0, null, null, null, null, null, null, null, 0, 0);
+            randomTimes(range, random);
+            int customerId = longCustomerId + random.nextInt(51);
+            String contact = random.nextBoolean() ? contacts[random.nextInt(2)] : null;
+            check(expected, customerId, contact, range.getStart(), range.getEnd(), 0);
+        }
+
+        LocalDateTime later = firstDay.plusDays(20);
+        assertEquals(yearLong.getAppointmentId(),
+                AppointmentStore.findOverlap(longCustomerId, null, later, later.plusHours(1), 0).getAppointmentId());
+        AppointmentStore.removeAll(Collections.singletonList(yearLong.getAppointmentId()));
+        expected.remove(yearLong.getAppointmentId());
+        assertNull(AppointmentStore.findOverlap(longCustomerId, contacts[0], later, later.plusHours(1), 0));
+        for (int query = 0; query < 500; query++) {
+            Appointment range = new Appointment(0, null, null, null, null, null, null, null, 0, 0);
+            randomTimes(range, random);
+            check(expected, longCustomerId + random.nextInt(51), contacts[random.nextInt(2)], range.getStart(),
+                    range.getEnd(), 0);
+        }
+    }
+
+    /**
+     * Random appointments are put, moved and removed, and random ranges are checked after every change against a scan
+     * of the appointments that should be stored.
+     */
+    @Test
+    void matchesBruteForce() throws SQLException {
+        Random random = new Random(42);
+        String[] contacts = {"Random Contact A", "Random Contact B", "Random Contact C"};
+        int customers = 8;
+        Map<Integer, Appointment> expected = new HashMap<>();
+
+        for (int round = 0; round < 2000; round++) {
+            int action = random.nextInt(10);
+            if (action < 6 || expected.isEmpty()) {
+                Appointment added = putRandom(firstCustomerId + 10 + random.nextInt(customers),
+                        contacts[random.nextInt(contacts.length)], random);
+                expected.put(added.getAppointmentId(), added);
+            } else if (action < 8) {
+                Appointment moved = pick(expected, random);
+                Appointment replacement = new Appointment(moved.getAppointmentId(), moved.getTitle(), null, null,
+                        contacts[random.nextInt(contacts.length)], null, null, null,
+                        firstCustomerId + 10 + random.nextInt(customers), 1);
+                randomTimes(replacement, random);
+                AppointmentStore.put(replacement);
+                expected.put(replacement.getAppointmentId(), replacement);
+            } else {
+                Appointment removed = pick(expected, random);
+                AppointmentStore.removeAll(Collections.singletonList(removed.getAppointmentId()));
+                expected.remove(removed.getAppointmentId());
+            }
+
+            for (int query = 0; query < 5; query++) {
+                int customerId = firstCustomerId + 10 + random.nextInt(customers);
+                String contact = random.nextBoolean() ? contacts[random.nextInt(contacts.length)] : null;
+                Appointment range = new Appointment(0, null, null, null, null, null, null, null, 0, 0);
+                randomTimes(range, random);
+                int excluded = random.nextInt(4) == 0 && !expected.isEmpty() ? pick(expected, random).getAppointmentId() : 0;
+                check(expected, customerId, contact, range.getStart(), range.getEnd(), excluded);
+            }
+        }
+    }
+
+    /**
+     * Compares the store's answer for one range with a scan.
+     */
+    private static void check(Map<Integer, Appointment> expected, int customerId, String contact, LocalDateTime start,
+                              LocalDateTime end, int excluded) throws SQLException {
+        boolean customerOverlaps = false;
+        boolean contactOverlaps = false;
+        for (Appointment appointment : expected.values()) {
+            if (appointment.getAppointmentId() != excluded && overlaps(appointment, start, end)) {
+                customerOverlaps |= appointment.getCustomerId() == customerId;
+                contactOverlaps |= contact != null && contact.equals(appointment.getContact());
+            }
+        }
+        String range = customerId + " " + contact + " " + start + " - " + end + " without " + excluded;
+
+        Appointment found = AppointmentStore.findOverlap(customerId, contact, start, end, excluded);
+        if (!customerOverlaps && !contactOverlaps) {
+            assertNull(found, range);
+            return;
+        }
+        assertNotNull(found, range);
+        assertTrue(found.getAppointmentId() != excluded && overlaps(found, start, end), range);
+        if (customerOverlaps) {
+            assertEquals(customerId, found.getCustomerId(), range);
+        } else {
+            assertEquals(contact, found.getContact(), range);
+        }
+    }
+
+    private static boolean overlaps(Appointment appointment, LocalDateTime start, LocalDateTime end) {
+        return appointment.getStart().isBefore(end) && start.isBefore(appointment.getEnd());
+    }
+
+    private Appointment put(int customerId, String contact, LocalDateTime start, LocalDateTime end) {
+        Appointment appointment = new Appointment(nextAppointmentId++, "Store test", null, null, contact, null, start,
+                end, customerId, 1);
+        AppointmentStore.put(appointment);
+        return appointment;
+    }
+
+    private Appointment putRandom(int customerId, String contact, Random random) {
+        Appointment appointment = new Appointment(nextAppointmentId++, "Store test", null, null, contact, null, null,
+                null, customerId, 1);
+        randomTimes(appointment, random);
+        AppointmentStore.put(appointment);
+        return appointment;
+    }
+
+    /**
+     * Sets times on the quarter hour within two weeks, mostly up to two hours long and sometimes up to two days.
+     */
+    private static void randomTimes(Appointment appointment, Random random) {
+        LocalDateTime start = firstDay.plusMinutes(15L * random.nextInt(14 * 96));
+        long minutes = random.nextInt(20) == 0 ? 15L * (1 + random.nextInt(192)) : 15L * (1 + random.nextInt(8));
+        appointment.setStart(start);
+        appointment.setEnd(start.plusMinutes(minutes));
+    }
+
+    private static Appointment pick(Map<Integer, Appointment> appointments, Random random) {
+        List<Appointment> all = new ArrayList<>(appointments.values());
+        all.sort((a, b) -> Integer.compare(a.getAppointmentId(), b.getAppointmentId()));
+        return all.get(random.nextInt(all.size()));
+    }
+}
@@ -0,0 +1,172 @@
+package DAO;
+
+import model.Appointment;
+import model.Customer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the {@link ChangeFeed} delivers the changes of another client whose transactions commit in a different
+ * order than they were logged, on the embedded database of the {@code h2} profile.
+ */
+class ChangeFeedTest {
+
+    private static final String otherClient = "other-client";
+
+    private static int customerId;
+
+    private final List<Integer> delivered = new ArrayList<>();
+    private final Consumer<ChangeSet> listener = changes -> {
+        for (Appointment appointment : changes.getAppointments()) {
+            delivered.add(appointment.getAppointmentId());
+        }
+    };
+
+    /**
+     * Opens the connection pool and adds the customer the appointments are booked for.
+     */
+    @BeforeAll
+    static void openPool() {
+        JDBC.openPool();
+        LocalDateTime now = LocalDateTime.now();
+        Customer customer = new Customer(0, "Change Feed Customer", "1 Main Street", "43004", "555-0100", 0, "Ohio",
+                now, "test", now, "test");
+        assertTrue(CustomerDAO.addCustomer(customer, "Ohio"));
+        customerId = customer.getCustomerId();
+    }
+
+    /**
+     * Closes the connection pool.
+     */
+    @AfterAll
+    static void closePool() {
+        JDBC.closePool();
+    }
+
+    /**
+     * Starts every test after the changes already logged, with the listener subscribed.
+     */
+    @BeforeEach
+    void subscribe() throws SQLException {
+        ChangeFeed.skipToLatest();
+        ChangeFeed.subscribe(listener);
+    }
+
+    /**
+     * Removes the listener.
+     */
+    @AfterEach
+    void unsubscribe() {
+        ChangeFeed.unsubscribe(listener);
+    }
+
+    /**
+     * A transaction that logs its change first but commits last is still delivered, on the poll after it commits.
+     */
+    @Test
+    void deliversEntryThatCommitsAfterALaterOne() throws SQLException {
+        try (Connection first = JDBC.getConnection();
+             Connection second = JDBC.getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            try {
+                int earlier = insertAndLog(first, "Logged first");
+                int later = insertAndLog(second, "Logged second");
+                second.commit();
+
+                assertTrue(ChangeFeed.poll());
+                assertEquals(List.of(later), delivered);
+
+                first.commit();
+                delivered.clear();
+                assertTrue(ChangeFeed.poll());
+                assertEquals(List.of(earlier), delivered);
+
+                delivered.clear();
+                assertFalse(ChangeFeed.poll());
+                assertTrue(delivered.isEmpty());
+            } finally {
+                first.setAutoCommit(true);
+                second.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * A transaction that rolls back leaves a gap that is looked up again but never delivers anything.
+     */
+    @Test
+    void ignoresRolledBackEntry() throws SQLException {
+        try (Connection first = JDBC.getConnection();
+             Connection second = JDBC.getConnection()) {
+            first.setAutoCommit(false);
+            second.setAutoCommit(false);
+            try {
+                insertAndLog(first, "Rolled back");
+                int kept = insertAndLog(second, "Kept");
+                second.commit();
+                first.rollback();
+
+                assertTrue(ChangeFeed.poll());
+                assertEquals(List.of(kept), delivered);
+
+                delivered.clear();
+                assertFalse(ChangeFeed.poll());
+                assertTrue(delivered.isEmpty());
+            } finally {
+                first.setAutoCommit(true);
+                second.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Adds an appointment and logs it as another client would, without committing.
+     *
+     * @return The ID of the new appointment.
+     */
+    private static int insertAndLog(Connection connection, String title) throws SQLException {
+        int appointmentId;
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO appointments (Title, Description, Location, " +
+                "Type, Start, End, Customer_ID, User_ID, Contact_ID) VALUES (?, 'd', 'Room 1', 'Check', ?, ?, ?, 1, 1)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            LocalDateTime start = LocalDateTime.of(2030, 1, 1, 15, 0);
+            ps.setString(1, title);
+            ps.setTimestamp(2, Timestamp.valueOf(start));
+            ps.setTimestamp(3, Timestamp.valueOf(start.plusHours(1)));
+            ps.setInt(4, customerId);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                assertTrue(keys.next());
+                appointmentId = keys.getInt(1);
+            }
+        }
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO change_log (Table_Name, Row_ID, Operation, " +
+                "Client_ID) VALUES (?, ?, ?, ?)")) {
+            ps.setString(1, ChangeLog.appointments);
+            ps.setInt(2, appointmentId);
+            ps.setString(3, ChangeLog.insert);
+            ps.setString(4, otherClient);
+            ps.executeUpdate();
+        }
+        return appointmentId;
+    }
+}
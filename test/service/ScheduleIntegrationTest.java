@@ -0,0 +1,214 @@
+package service;
+
+import DAO.AppointmentStore;
+import DAO.CustomerDAO;
+import DAO.JDBC;
+import DAO.SeriesDAO;
+import model.Appointment;
+import model.AppointmentSeries;
+import model.Customer;
+import model.CustomerSummary;
+import model.RecurrenceRule;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the services against the embedded database of the {@code h2} profile, which the build selects for tests, from
+ * adding a customer to deleting it with everything that belongs to it.
+ * <p>
+ * The database lives as long as the test JVM, so every test adds a customer of its own and books a contact on a day
+ * no other test uses. Appointments are booked a few weeks ahead, within the year the reports expand series over.
+ */
+class ScheduleIntegrationTest {
+
+    private static final ZoneId zone = ZoneId.of("America/New_York");
+    private static final String user = "test";
+    private static final String division = "Ohio";
+    private static final String country = "U.S";
+
+    /**
+     * Opens the connection pool, which creates and seeds the schema.
+     */
+    @BeforeAll
+    static void openPool() {
+        JDBC.openPool();
+    }
+
+    /**
+     * Closes the connection pool.
+     */
+    @AfterAll
+    static void closePool() {
+        JDBC.closePool();
+    }
+
+    /**
+     * An overlapping appointment of the same customer or contact is refused, and one that starts when another ends
+     * is not an overlap.
+     */
+    @Test
+    void refusesOverlappingAppointments() throws SQLException {
+        int customerId = addCustomer("Overlap Customer");
+        int otherCustomerId = addCustomer("Overlap Other Customer");
+        LocalDate day = tuesdayInWeeks(3);
+
+        Result<Appointment> first = AppointmentService.add(command("Kickoff", "Anika Costa", customerId, day, 10, 11));
+        assertTrue(first.isSuccess(), first.getError());
+        assertTrue(first.getValue().getAppointmentId() > 0);
+
+        Result<Appointment> sameCustomer = AppointmentService.add(command("Clash", "Li Lee", customerId, day, 10, 12));
+        assertFalse(sameCustomer.isSuccess());
+        assertTrue(sameCustomer.getError().contains("customer"), sameCustomer.getError());
+
+        Result<Appointment> sameContact = AppointmentService.add(command("Clash", "Anika Costa", otherCustomerId, day, 9, 11));
+        assertFalse(sameContact.isSuccess());
+        assertTrue(sameContact.getError().contains("contact"), sameContact.getError());
+
+        Result<Appointment> adjacent = AppointmentService.add(command("Follow-up", "Anika Costa", customerId, day, 11, 12));
+        assertTrue(adjacent.isSuccess(), adjacent.getError());
+    }
+
+    /**
+     * A series blocks the time of each of its occurrences until an occurrence is cancelled, and other clients reading
+     * the series see the cancellation. Cancelling it again, or cancelling a time the series has no occurrence at, is
+     * refused with its own reason.
+     */
+    @Test
+    void cancelledOccurrenceFreesItsTime() throws SQLException {
+        int customerId = addCustomer("Series Customer");
+        LocalDate firstDay = tuesdayInWeeks(5);
+        RecurrenceRule weeklyFourTimes = new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, Collections.emptySet(), null, 4);
+
+        Result<AppointmentSeries> series = AppointmentService.addSeries(
+                command("Weekly review", "Daniel Garcia", customerId, firstDay, 14, 15), weeklyFourTimes);
+        assertTrue(series.isSuccess(), series.getError());
+        int seriesId = series.getValue().getSeriesId();
+
+        LocalDate secondDay = firstDay.plusWeeks(1);
+        Result<Appointment> clash = AppointmentService.add(command("Clash", "Li Lee", customerId, secondDay, 14, 15));
+        assertFalse(clash.isSuccess());
+        assertTrue(clash.getError().contains("recurring"), clash.getError());
+
+        Result<LocalDate> cancelled = AppointmentService.cancelOccurrence(seriesId, secondDay.atTime(14, 0), zone);
+        assertTrue(cancelled.isSuccess(), cancelled.getError());
+        assertEquals(secondDay, cancelled.getValue());
+        Result<LocalDate> again = AppointmentService.cancelOccurrence(seriesId, secondDay.atTime(14, 0), zone);
+        assertFalse(again.isSuccess());
+        assertTrue(again.getError().contains("already"), again.getError());
+
+        Result<LocalDate> offTime = AppointmentService.cancelOccurrence(seriesId, firstDay.atTime(15, 0), zone);
+        assertFalse(offTime.isSuccess());
+        assertTrue(offTime.getError().contains("no occurrence"), offTime.getError());
+        Result<LocalDate> afterLast = AppointmentService.cancelOccurrence(seriesId, firstDay.plusWeeks(4).atTime(14, 0), zone);
+        assertFalse(afterLast.isSuccess());
+        assertTrue(afterLast.getError().contains("no occurrence"), afterLast.getError());
+
+        assertEquals(Collections.singleton(secondDay), SeriesDAO.getSeries(seriesId).getExceptions());
+        assertEquals(3, SeriesDAO.getOccurrencesInRange(utc(firstDay), utc(firstDay.plusWeeks(4)), null, null, customerId).size());
+
+        Result<Appointment> rebooked = AppointmentService.add(command("Rebooked", "Li Lee", customerId, secondDay, 14, 15));
+        assertTrue(rebooked.isSuccess(), rebooked.getError());
+    }
+
+    /**
+     * The reports count and list both single appointments and series occurrences, and find new customers.
+     */
+    @Test
+    void reportsIncludeAppointmentsAndSeries() throws SQLException {
+        int customerId = addCustomer("Report Customer");
+        LocalDate day = tuesdayInWeeks(7);
+        String type = "Report Check " + System.nanoTime();
+
+        AppointmentCommand single = new AppointmentCommand("Single", "d", "Room 1", "Li Lee", type,
+                day.atTime(16, 0), day.atTime(17, 0), zone, customerId, user);
+        assertTrue(AppointmentService.add(single).isSuccess());
+        AppointmentCommand repeated = new AppointmentCommand("Repeated", "d", "Room 1", "Li Lee", type,
+                day.plusDays(1).atTime(16, 0), day.plusDays(1).atTime(17, 0), zone, customerId, user);
+        RecurrenceRule dailyTwice = new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, Collections.emptySet(), null, 2);
+        assertTrue(AppointmentService.addSeries(repeated, dailyTwice).isSuccess());
+
+        int counted = 0;
+        for (Map<String, Object> row : ReportService.countByTypeAndMonth()) {
+            if (type.equals(row.get("Type"))) {
+                counted += (int) row.get("Count");
+            }
+        }
+        assertEquals(3, counted);
+
+        int scheduled = 0;
+        for (Appointment appointment : ReportService.contactSchedule(3, zone)) {
+            if (type.equals(appointment.getType())) {
+                scheduled++;
+            }
+        }
+        assertEquals(3, scheduled);
+
+        boolean listed = false;
+        for (CustomerSummary summary : ReportService.customersByCountry(country)) {
+            listed |= summary.getCustomerId() == customerId;
+        }
+        assertTrue(listed);
+    }
+
+    /**
+     * Deleting a customer deletes its appointments and series, and frees their time.
+     */
+    @Test
+    void deletingCustomerDeletesItsSchedule() throws SQLException {
+        int customerId = addCustomer("Deleted Customer");
+        LocalDate day = tuesdayInWeeks(9);
+        Result<Appointment> appointment = AppointmentService.add(command("Doomed", "Anika Costa", customerId, day, 8, 9));
+        assertTrue(appointment.isSuccess(), appointment.getError());
+        RecurrenceRule daily = new RecurrenceRule(RecurrenceRule.Frequency.DAILY, 1, Collections.emptySet(), null, 3);
+        Result<AppointmentSeries> series = AppointmentService.addSeries(
+                command("Doomed series", "Anika Costa", customerId, day, 20, 21), daily);
+        assertTrue(series.isSuccess(), series.getError());
+
+        Result<Integer> deleted = CustomerService.delete(customerId);
+        assertTrue(deleted.isSuccess(), deleted.getError());
+
+        assertTrue(CustomerDAO.getCustomersByIds(Collections.singletonList(customerId)).isEmpty());
+        assertNull(SeriesDAO.getSeries(series.getValue().getSeriesId()));
+        List<Appointment> left = AppointmentStore.getInRange(utc(day), utc(day.plusDays(3)), null, null, customerId);
+        assertTrue(left.isEmpty());
+
+        int otherCustomerId = addCustomer("Successor Customer");
+        assertTrue(AppointmentService.add(command("Freed", "Anika Costa", otherCustomerId, day, 8, 9)).isSuccess());
+        assertTrue(AppointmentService.add(command("Freed", "Anika Costa", otherCustomerId, day.plusDays(1), 20, 21)).isSuccess());
+    }
+
+    private static int addCustomer(String name) {
+        Result<Customer> added = CustomerService.add(new CustomerCommand(name, "1 Main Street", "43004", "555-0100", division, user));
+        assertTrue(added.isSuccess(), added.getError());
+        return added.getValue().getCustomerId();
+    }
+
+    private static AppointmentCommand command(String title, String contact, int customerId, LocalDate day, int fromHour, int toHour) {
+        return new AppointmentCommand(title, "Integration test", "Room 1", contact, "Planning Session",
+                day.atTime(fromHour, 0), day.atTime(toHour, 0), zone, customerId, user);
+    }
+
+    private static LocalDate tuesdayInWeeks(int weeks) {
+        return LocalDate.now(zone).with(TemporalAdjusters.next(DayOfWeek.TUESDAY)).plusWeeks(weeks);
+    }
+
+    private static Instant utc(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant();
+    }
+}